@@ -0,0 +1,370 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.manipulation.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.FieldAccess;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.NameQualifiedType;
+import org.eclipse.jdt.core.dom.ParameterizedType;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression.Operator;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+
+import org.eclipse.jdt.internal.core.manipulation.Messages;
+import org.eclipse.jdt.internal.core.manipulation.search.IOccurrencesFinder.OccurrenceLocation;
+import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
+
+/**
+ * The occurrences of all bindings in an AST, as found by {@link OccurrencesFinder}.
+ * <p>
+ * The index is built with a single pass over the AST, afterwards the occurrences of a name are
+ * looked up by the key of its binding declaration. Names in static imports are not indexed, use
+ * an {@link OccurrencesFinder} for them.
+ * </p>
+ *
+ * @since 1.11.100
+ */
+public class OccurrencesIndex {
+
+	private static final int OFFSET= 0;
+	private static final int LENGTH= 1;
+	private static final int WRITE= 2;
+	private static final int SIZE= 3;
+
+	/**
+	 * The occurrences of a binding, as {offset, length, isWrite} triples.
+	 */
+	private static class Occurrences {
+		int[] fData= new int[2 * SIZE];
+		int fCount;
+
+		void add(Name name, boolean isWrite) {
+			if (fCount * SIZE == fData.length) {
+				int[] data= new int[fData.length * 2];
+				System.arraycopy(fData, 0, data, 0, fData.length);
+				fData= data;
+			}
+			int index= fCount * SIZE;
+			fData[index + OFFSET]= name.getStartPosition();
+			fData[index + LENGTH]= name.getLength();
+			fData[index + WRITE]= isWrite ? 1 : 0;
+			fCount++;
+		}
+	}
+
+	private class Indexer extends ASTVisitor {
+
+		private final Set<Name> fWriteUsages= new HashSet<>();
+		/**
+		 * Keys of the qualified names that enclose the current node and have been recorded as a
+		 * whole. {@link OccurrencesFinder} does not visit the children of such names.
+		 */
+		private final List<String> fSuppressedKeys= new ArrayList<>();
+		private final Map<IBinding, String> fKeys= new IdentityHashMap<>();
+
+		Indexer() {
+			super(true);
+		}
+
+		@Override
+		public boolean visit(QualifiedName node) {
+			String suppressed= null;
+			IBinding binding= node.resolveBinding();
+			if (binding instanceof IVariableBinding && ((IVariableBinding) binding).isField()) {
+				SimpleName name= node.getName();
+				suppressed= add(name, name.resolveBinding());
+			} else if (binding instanceof IMethodBinding && isStaticImport(node)) {
+				IMethodBinding methodBinding= (IMethodBinding) binding;
+				if (Modifier.isStatic(methodBinding.getModifiers())) {
+					String key= getStaticImportKey(methodBinding);
+					if (key != null) {
+						SimpleName name= node.getName();
+						getOccurrences(key, true).add(name, false);
+						suppressed= getBindingDeclaration(methodBinding).getKey();
+					}
+				}
+			} else {
+				suppressed= add(node, binding);
+			}
+			fSuppressedKeys.add(suppressed);
+			return true;
+		}
+
+		@Override
+		public void endVisit(QualifiedName node) {
+			fSuppressedKeys.remove(fSuppressedKeys.size() - 1);
+		}
+
+		@Override
+		public boolean visit(SimpleName node) {
+			add(node, node.resolveBinding());
+			return true;
+		}
+
+		@Override
+		public boolean visit(ClassInstanceCreation node) {
+			// match with the constructor and the type.
+			Type type= node.getType();
+			if (type instanceof ParameterizedType) {
+				type= ((ParameterizedType) type).getType();
+			}
+			if (type instanceof SimpleType) {
+				Name name= ((SimpleType) type).getName();
+				if (name instanceof QualifiedName)
+					name= ((QualifiedName) name).getName();
+				add(name, node.resolveConstructorBinding());
+			} else if (type instanceof NameQualifiedType) {
+				Name name= ((NameQualifiedType) type).getName();
+				add(name, node.resolveConstructorBinding());
+			}
+			return true;
+		}
+
+		@Override
+		public boolean visit(Assignment node) {
+			addWrite(getSimpleName(node.getLeftHandSide()));
+			return true;
+		}
+
+		@Override
+		public boolean visit(SingleVariableDeclaration node) {
+			addWrite(node.getName());
+			return true;
+		}
+
+		@Override
+		public boolean visit(VariableDeclarationFragment node) {
+			if (node.getParent() instanceof FieldDeclaration || node.getInitializer() != null)
+				addWrite(node.getName());
+			return true;
+		}
+
+		@Override
+		public boolean visit(PrefixExpression node) {
+			PrefixExpression.Operator operator= node.getOperator();
+			if (operator == Operator.INCREMENT || operator == Operator.DECREMENT) {
+				addWrite(getSimpleName(node.getOperand()));
+			}
+			return true;
+		}
+
+		@Override
+		public boolean visit(PostfixExpression node) {
+			addWrite(getSimpleName(node.getOperand()));
+			return true;
+		}
+
+		private void addWrite(Name name) {
+			if (name != null)
+				fWriteUsages.add(name);
+		}
+
+		/**
+		 * Records an occurrence of a binding.
+		 *
+		 * @param node the name
+		 * @param binding the binding of the occurrence, can be <code>null</code>
+		 * @return the key of the binding declaration if the occurrence has been recorded,
+		 *         <code>null</code> otherwise
+		 */
+		private String add(Name node, IBinding binding) {
+			if (binding == null)
+				return null;
+			IBinding declaration= getBindingDeclaration(binding);
+			String key= fKeys.get(declaration);
+			if (key == null) {
+				key= declaration.getKey();
+				if (key == null)
+					return null;
+				fKeys.put(declaration, key);
+			}
+			if (fSuppressedKeys.contains(key))
+				return null;
+			boolean isWrite= fWriteUsages.remove(node) && declaration instanceof IVariableBinding;
+			getOccurrences(key, true).add(node, isWrite);
+			return key;
+		}
+	}
+
+	private final CompilationUnit fRoot;
+	private final Map<String, Occurrences> fOccurrences= new HashMap<>();
+
+	/**
+	 * Creates the index of an AST.
+	 *
+	 * @param root the AST, must have bindings
+	 */
+	public OccurrencesIndex(CompilationUnit root) {
+		fRoot= root;
+		root.accept(new Indexer());
+	}
+
+	public CompilationUnit getASTRoot() {
+		return fRoot;
+	}
+
+	/**
+	 * Tells whether the occurrences of the given name can be looked up in this index.
+	 *
+	 * @param name a name in the AST of this index
+	 * @return <code>false</code> if an {@link OccurrencesFinder} has to be used instead
+	 */
+	public boolean isIndexed(Name name) {
+		if (name.getRoot() != fRoot || isStaticImport(name.getParent()))
+			return false;
+		IBinding binding= name.resolveBinding();
+		return binding != null && getBindingDeclaration(binding).getKey() != null;
+	}
+
+	/**
+	 * Returns the occurrences of the binding of the given name, like
+	 * {@link OccurrencesFinder#getOccurrences()}.
+	 *
+	 * @param name a name in the AST of this index for which {@link #isIndexed(Name)} is
+	 *            <code>true</code>
+	 * @return the occurrences, or <code>null</code> if there are none
+	 */
+	public OccurrenceLocation[] getOccurrences(Name name) {
+		IBinding binding= name.resolveBinding();
+		if (binding == null)
+			return null;
+		IBinding target= getBindingDeclaration(binding);
+		String key= target.getKey();
+		if (key == null)
+			return null;
+		Occurrences occurrences= getOccurrences(key, false);
+		Occurrences staticImports= null;
+		if (target instanceof IMethodBinding && Modifier.isStatic(target.getModifiers())) {
+			String staticImportKey= getStaticImportKey((IMethodBinding) target);
+			if (staticImportKey != null)
+				staticImports= getOccurrences(staticImportKey, false);
+		}
+		int count= (occurrences != null ? occurrences.fCount : 0) + (staticImports != null ? staticImports.fCount : 0);
+		if (count == 0)
+			return null;
+
+		String elementName= BasicElementLabels.getJavaElementName(target.getName());
+		String readDescription= Messages.format(SearchMessages.OccurrencesFinder_occurrence_description, elementName);
+		String writeDescription= Messages.format(SearchMessages.OccurrencesFinder_occurrence_write_description, elementName);
+		boolean isVariable= target instanceof IVariableBinding;
+		OccurrenceLocation[] locations= new OccurrenceLocation[count];
+		int k= 0;
+		if (staticImports != null) {
+			for (int i= 0; i < staticImports.fCount; i++) {
+				int index= i * SIZE;
+				locations[k++]= new OccurrenceLocation(staticImports.fData[index + OFFSET], staticImports.fData[index + LENGTH], 0, readDescription);
+			}
+		}
+		if (occurrences != null) {
+			for (int i= 0; i < occurrences.fCount; i++) {
+				int index= i * SIZE;
+				int flags= 0;
+				String description= readDescription;
+				if (isVariable) {
+					boolean isWrite= occurrences.fData[index + WRITE] != 0;
+					flags= isWrite ? IOccurrencesFinder.F_WRITE_OCCURRENCE : IOccurrencesFinder.F_READ_OCCURRENCE;
+					if (isWrite)
+						description= writeDescription;
+				}
+				locations[k++]= new OccurrenceLocation(occurrences.fData[index + OFFSET], occurrences.fData[index + LENGTH], flags, description);
+			}
+		}
+		return locations;
+	}
+
+	private Occurrences getOccurrences(String key, boolean create) {
+		Occurrences occurrences= fOccurrences.get(key);
+		if (occurrences == null && create) {
+			occurrences= new Occurrences();
+			fOccurrences.put(key, occurrences);
+		}
+		return occurrences;
+	}
+
+	/**
+	 * Returns the key under which static imports of methods with the name of the given method are
+	 * recorded. {@link OccurrencesFinder} reports such imports as occurrences of all static methods
+	 * with that name in the declaring class.
+	 *
+	 * @param binding the method binding
+	 * @return the key or <code>null</code>
+	 */
+	private static String getStaticImportKey(IMethodBinding binding) {
+		ITypeBinding declaringClass= binding.getDeclaringClass();
+		if (declaringClass == null)
+			return null;
+		String typeKey= declaringClass.getTypeDeclaration().getKey();
+		if (typeKey == null)
+			return null;
+		return "static import " + typeKey + '#' + binding.getName(); //$NON-NLS-1$
+	}
+
+	private static boolean isStaticImport(ASTNode node) {
+		if (!(node instanceof QualifiedName))
+			return false;
+
+		ASTNode parent= ((QualifiedName) node).getParent();
+		return parent instanceof ImportDeclaration && ((ImportDeclaration) parent).isStatic();
+	}
+
+	private static SimpleName getSimpleName(Expression expression) {
+		if (expression instanceof SimpleName)
+			return ((SimpleName) expression);
+		else if (expression instanceof QualifiedName)
+			return (((QualifiedName) expression).getName());
+		else if (expression instanceof FieldAccess)
+			return ((FieldAccess) expression).getName();
+		return null;
+	}
+
+	private static IBinding getBindingDeclaration(IBinding binding) {
+		switch (binding.getKind()) {
+			case IBinding.TYPE :
+				return ((ITypeBinding) binding).getTypeDeclaration();
+			case IBinding.METHOD :
+				return ((IMethodBinding) binding).getMethodDeclaration();
+			case IBinding.VARIABLE :
+				return ((IVariableBinding) binding).getVariableDeclaration();
+			default:
+				return binding;
+		}
+	}
+}
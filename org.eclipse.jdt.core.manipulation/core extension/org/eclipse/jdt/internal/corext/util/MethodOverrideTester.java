@@ -100,6 +100,28 @@ public class MethodOverrideTester {
 		return fHierarchy;
 	}
 
+	/**
+	 * Returns the superclass of the given type. Subclasses may override to answer from another
+	 * representation of the hierarchy.
+	 *
+	 * @param type the type
+	 * @return the superclass, or <code>null</code>
+	 */
+	protected IType getSuperclass(IType type) {
+		return fHierarchy.getSuperclass(type);
+	}
+
+	/**
+	 * Returns the direct super interfaces of the given type. Subclasses may override to answer
+	 * from another representation of the hierarchy.
+	 *
+	 * @param type the type
+	 * @return the super interfaces
+	 */
+	protected IType[] getSuperInterfaces(IType type) {
+		return fHierarchy.getSuperInterfaces(type);
+	}
+
 	/**
 	 * Finds the method that declares the given method. A declaring method is the 'original' method declaration that does
 	 * not override nor implement a method. <code>null</code> is returned it the given method does not override
@@ -134,7 +156,7 @@ public class MethodOverrideTester {
 		}
 
 		IType type= overriding.getDeclaringType();
-		IType superClass= fHierarchy.getSuperclass(type);
+		IType superClass= getSuperclass(type);
 		if (superClass != null) {
 			IMethod res= findOverriddenMethodInHierarchy(superClass, overriding);
 			if (res != null) {
@@ -143,7 +165,7 @@ public class MethodOverrideTester {
 				}
 			}
 		}
-		IType[] interfaces= fHierarchy.getSuperInterfaces(type);
+		IType[] interfaces= getSuperInterfaces(type);
 		for (int i= 0; i < interfaces.length; i++) {
 			IMethod res= findOverriddenMethodInHierarchy(interfaces[i], overriding);
 			if (res != null) {
@@ -166,14 +188,14 @@ public class MethodOverrideTester {
 		if (method != null) {
 			return method;
 		}
-		IType superClass= fHierarchy.getSuperclass(type);
+		IType superClass= getSuperclass(type);
 		if (superClass != null) {
 			IMethod res=  findOverriddenMethodInHierarchy(superClass, overriding);
 			if (res != null) {
 				return res;
 			}
 		}
-		IType[] superInterfaces= fHierarchy.getSuperInterfaces(type);
+		IType[] superInterfaces= getSuperInterfaces(type);
 		for (int i= 0; i < superInterfaces.length; i++) {
 			IMethod res= findOverriddenMethodInHierarchy(superInterfaces[i], overriding);
 			if (res != null) {
@@ -436,7 +458,7 @@ public class MethodOverrideTester {
 		String superclassTypeSignature= instantiatedType.getSuperclassTypeSignature();
 		if (superclassTypeSignature != null) {
 			String[] superTypeArguments= Signature.getTypeArguments(superclassTypeSignature);
-			IType superclass= fHierarchy.getSuperclass(instantiatedType);
+			IType superclass= getSuperclass(instantiatedType);
 			if (superclass != null && !fTypeVariableSubstitutions.containsKey(superclass)) {
 				computeSubstitutions(superclass, instantiatedType, superTypeArguments);
 			}
@@ -450,7 +472,7 @@ public class MethodOverrideTester {
 		}
 		int nInterfaces= superInterfacesTypeSignature.length;
 		if (nInterfaces > 0) {
-			IType[] superInterfaces= fHierarchy.getSuperInterfaces(instantiatedType);
+			IType[] superInterfaces= getSuperInterfaces(instantiatedType);
 			if (superInterfaces.length == nInterfaces) {
 				for (int i= 0; i < nInterfaces; i++) {
 					String[] superTypeArguments= Signature.getTypeArguments(superInterfacesTypeSignature[i]);
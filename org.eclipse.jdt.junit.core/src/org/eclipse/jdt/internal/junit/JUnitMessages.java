@@ -58,12 +58,16 @@ public final class JUnitMessages extends NLS {
 
 	public static String JUnitLaunchConfigurationDelegate_input_type_does_not_exist;
 
+	public static String JUnitLaunchConfigurationDelegate_shard_name;
+
 	public static String JUnitLaunchConfigurationDelegate_verifying_attriburtes_description;
 
 	public static String TestRunSession_unrootedTests;
 
 	public static String TestSearchEngine_message_searching;
 
+	public static String TestStatisticsRecorder_job_name;
+
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, JUnitMessages.class);
 	}
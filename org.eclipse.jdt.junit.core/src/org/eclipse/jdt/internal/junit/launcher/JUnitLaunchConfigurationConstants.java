@@ -84,6 +84,30 @@ public class JUnitLaunchConfigurationConstants {
 	 */
 	public static final String ATTR_TEST_UNIQUE_ID= JUnitCorePlugin.PLUGIN_ID + ".TEST_UNIQUE_ID"; //$NON-NLS-1$
 
+	/**
+	 * Boolean attribute: <code>true</code> to let the JUnit Platform execute the tests concurrently
+	 * (applicable to JUnit 5 and above).
+	 */
+	public static final String ATTR_JUNIT5_PARALLEL_EXECUTION= JUnitCorePlugin.PLUGIN_ID + ".JUNIT5_PARALLEL_EXECUTION"; //$NON-NLS-1$
+
+	/**
+	 * Boolean attribute: <code>true</code> to run likely failing and fast test classes first, based
+	 * on the {@link TestStatistics} of the project.
+	 */
+	public static final String ATTR_PRIORITIZE_TESTS= JUnitCorePlugin.PLUGIN_ID + ".PRIORITIZE_TESTS"; //$NON-NLS-1$
+
+	/**
+	 * Integer attribute: the number of JVMs among which the test classes are split, balanced by
+	 * their recorded durations.
+	 */
+	public static final String ATTR_SHARD_COUNT= JUnitCorePlugin.PLUGIN_ID + ".SHARD_COUNT"; //$NON-NLS-1$
+
+	/**
+	 * List attribute: the names of the test classes of one shard. Only set on the launch
+	 * configurations created for the additional shards of a launch.
+	 */
+	public static final String ATTR_SHARD_TYPES= JUnitCorePlugin.PLUGIN_ID + ".SHARD_TYPES"; //$NON-NLS-1$
+
 	public static ITestKind getTestRunnerKind(ILaunchConfiguration launchConfiguration) {
 		try {
 			String loaderId = launchConfiguration.getAttribute(JUnitLaunchConfigurationConstants.ATTR_TEST_RUNNER_KIND, (String) null);
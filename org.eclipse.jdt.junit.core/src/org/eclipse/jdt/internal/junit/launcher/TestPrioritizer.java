@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.launcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jdt.core.IType;
+
+/**
+ * Orders and shards test classes based on the {@link TestStatistics} of a project.
+ * <p>
+ * Classes are run in the order of their expected failures per second: likely failing and fast
+ * classes come first, so that failures are reported early. Classes without statistics are
+ * typically new, and are run before all others.
+ * </p>
+ */
+public class TestPrioritizer {
+
+	/**
+	 * Duration assumed for classes that did not take measurable time, in seconds.
+	 */
+	private static final double MIN_DURATION= 0.001;
+
+	/**
+	 * Duration assumed for classes without statistics when sharding, in seconds.
+	 */
+	private static final double DEFAULT_DURATION= 1.0;
+
+	private final TestStatistics fStatistics;
+
+	/**
+	 * @param statistics the statistics of the project that contains the tests
+	 */
+	public TestPrioritizer(TestStatistics statistics) {
+		fStatistics= statistics;
+	}
+
+	/**
+	 * @param types the test classes
+	 * @return the test classes, in the order in which they should be run
+	 */
+	public IType[] prioritize(IType[] types) {
+		final Map<IType, Double> priorities= new HashMap<>();
+		for (IType type : types) {
+			priorities.put(type, Double.valueOf(getPriority(type)));
+		}
+		IType[] sorted= types.clone();
+		Arrays.sort(sorted, new Comparator<IType>() {
+			@Override
+			public int compare(IType t1, IType t2) {
+				int result= Double.compare(priorities.get(t2).doubleValue(), priorities.get(t1).doubleValue());
+				if (result != 0)
+					return result;
+				return t1.getFullyQualifiedName().compareTo(t2.getFullyQualifiedName());
+			}
+		});
+		return sorted;
+	}
+
+	private double getPriority(IType type) {
+		String className= getClassName(type);
+		double probability= fStatistics.getFailureProbability(className, getStamp(type));
+		if (probability < 0)
+			return Double.POSITIVE_INFINITY;
+		return probability / Math.max(fStatistics.getDuration(className), MIN_DURATION);
+	}
+
+	/**
+	 * Splits the test classes into shards with about the same expected duration. Each shard is
+	 * {@link #prioritize(IType[]) prioritized}.
+	 *
+	 * @param types the test classes
+	 * @param count the maximum number of shards
+	 * @return the non-empty shards
+	 */
+	public List<IType[]> shard(IType[] types, int count) {
+		int shardCount= Math.max(1, Math.min(count, types.length));
+		final Map<IType, Double> durations= new HashMap<>();
+		double knownDuration= 0;
+		int known= 0;
+		for (IType type : types) {
+			double duration= fStatistics.getDuration(getClassName(type));
+			if (duration >= 0) {
+				knownDuration+= duration;
+				known++;
+			}
+			durations.put(type, Double.valueOf(duration));
+		}
+		double unknownDuration= known == 0 ? DEFAULT_DURATION : knownDuration / known;
+		for (Map.Entry<IType, Double> entry : durations.entrySet()) {
+			if (entry.getValue().doubleValue() < 0)
+				entry.setValue(Double.valueOf(unknownDuration));
+		}
+
+		// longest processing time first: assign each class to the shard with the least work
+		IType[] sorted= types.clone();
+		Arrays.sort(sorted, new Comparator<IType>() {
+			@Override
+			public int compare(IType t1, IType t2) {
+				int result= Double.compare(durations.get(t2).doubleValue(), durations.get(t1).doubleValue());
+				if (result != 0)
+					return result;
+				return t1.getFullyQualifiedName().compareTo(t2.getFullyQualifiedName());
+			}
+		});
+		List<List<IType>> shards= new ArrayList<>(shardCount);
+		double[] loads= new double[shardCount];
+		for (int i= 0; i < shardCount; i++) {
+			shards.add(new ArrayList<IType>());
+		}
+		for (IType type : sorted) {
+			int min= 0;
+			for (int i= 1; i < shardCount; i++) {
+				if (loads[i] < loads[min])
+					min= i;
+			}
+			shards.get(min).add(type);
+			loads[min]+= durations.get(type).doubleValue();
+		}
+
+		List<IType[]> result= new ArrayList<>(shardCount);
+		for (List<IType> shard : shards) {
+			if (!shard.isEmpty())
+				result.add(prioritize(shard.toArray(new IType[shard.size()])));
+		}
+		return result;
+	}
+
+	/**
+	 * @param types the test classes
+	 * @return the names of the tests that failed in their last run, to be run first within
+	 *         their class
+	 */
+	public List<String> getLastFailedTests(IType[] types) {
+		List<String> failed= new ArrayList<>();
+		for (IType type : types) {
+			failed.addAll(fStatistics.getLastFailedTests(getClassName(type)));
+		}
+		return failed;
+	}
+
+	/**
+	 * @param type the test class
+	 * @return the name of the test class in the {@link TestStatistics}, which is the name reported
+	 *         by {@link org.eclipse.jdt.internal.junit.model.TestElement#getClassName()}: nested
+	 *         classes are separated by '.' rather than '$'
+	 */
+	public static String getClassName(IType type) {
+		return type.getFullyQualifiedName('.');
+	}
+
+	/**
+	 * @param type the test class
+	 * @return the modification stamp of the resource of the test class, or
+	 *         {@link IResource#NULL_STAMP} if not known
+	 */
+	public static long getStamp(IType type) {
+		IResource resource= type.getResource();
+		return resource == null ? IResource.NULL_STAMP : resource.getModificationStamp();
+	}
+}
@@ -0,0 +1,317 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.launcher;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jdt.core.IJavaProject;
+
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+
+/**
+ * Persistent statistics about the tests of a Java project: how long each test took, how often it
+ * failed, and the modification stamp of its test class at the last run.
+ * <p>
+ * The statistics are stored in the working location of the project, and are updated by the
+ * {@link org.eclipse.jdt.internal.junit.model.TestStatisticsRecorder} after each test run.
+ * Test classes are identified by their names as in
+ * {@link org.eclipse.jdt.internal.junit.model.TestElement#getClassName()}, see
+ * {@link TestPrioritizer#getClassName(org.eclipse.jdt.core.IType)}.
+ * </p>
+ */
+public class TestStatistics {
+
+	private static final String FILE_NAME= "testStatistics.dat"; //$NON-NLS-1$
+
+	private static final int VERSION= 2;
+
+	/**
+	 * Number of runs after which the records of a class that has not been run again are dropped.
+	 */
+	private static final int RETAINED_RUNS= 100;
+
+	/**
+	 * Weight of the latest duration in the moving average of the durations.
+	 */
+	private static final double DURATION_WEIGHT= 0.3;
+
+	/**
+	 * Failure probability assumed for a test that failed in its last run.
+	 */
+	private static final double LAST_FAILED_PROBABILITY= 0.75;
+
+	/**
+	 * Failure probability assumed for a test whose class changed since its last run.
+	 */
+	private static final double CHANGED_PROBABILITY= 0.5;
+
+	private static final Map<String, TestStatistics> fgStatistics= new HashMap<>();
+
+	private static class TestRecord {
+		int fRuns;
+		int fFailures;
+		boolean fLastFailed;
+		double fDuration;
+	}
+
+	private static class ClassRecord {
+		int fLastRun;
+		long fInputStamp= IResource.NULL_STAMP;
+		final Map<String, TestRecord> fTests= new HashMap<>();
+	}
+
+	private final File fFile;
+
+	private final Map<String, ClassRecord> fClasses= new HashMap<>();
+
+	private int fRun;
+
+	private TestStatistics(File file) {
+		fFile= file;
+	}
+
+	/**
+	 * @param project the Java project
+	 * @return the statistics of the given project, loaded on first access
+	 */
+	public static synchronized TestStatistics getStatistics(IJavaProject project) {
+		String name= project.getElementName();
+		TestStatistics statistics= fgStatistics.get(name);
+		if (statistics == null) {
+			IPath location= project.getProject().getWorkingLocation(JUnitCorePlugin.CORE_PLUGIN_ID);
+			statistics= load(location == null ? null : location.append(FILE_NAME).toFile());
+			fgStatistics.put(name, statistics);
+		}
+		return statistics;
+	}
+
+	/**
+	 * Records the result of a test.
+	 *
+	 * @param className the name of the test class
+	 * @param testName the name of the test, as in {@link org.eclipse.jdt.internal.junit.model.TestElement#getTestName()}
+	 * @param failed <code>true</code> if the test failed or had an error
+	 * @param seconds the elapsed time in seconds, or {@link Double#NaN} if not known
+	 */
+	public synchronized void recordTest(String className, String testName, boolean failed, double seconds) {
+		ClassRecord classRecord= fClasses.get(className);
+		if (classRecord == null) {
+			classRecord= new ClassRecord();
+			fClasses.put(className, classRecord);
+		}
+		classRecord.fLastRun= fRun;
+		TestRecord test= classRecord.fTests.get(testName);
+		if (test == null) {
+			test= new TestRecord();
+			classRecord.fTests.put(testName, test);
+		}
+		if (!Double.isNaN(seconds)) {
+			test.fDuration= test.fRuns == 0 ? seconds : DURATION_WEIGHT * seconds + (1 - DURATION_WEIGHT) * test.fDuration;
+		}
+		test.fRuns++;
+		if (failed)
+			test.fFailures++;
+		test.fLastFailed= failed;
+	}
+
+	/**
+	 * Finishes the current run, after its results have been recorded. The records of classes that
+	 * have not been run in the last {@value #RETAINED_RUNS} runs are dropped, so that removed and
+	 * renamed classes do not accumulate.
+	 */
+	public synchronized void finishRun() {
+		fRun++;
+		for (Iterator<ClassRecord> iter= fClasses.values().iterator(); iter.hasNext();) {
+			if (fRun - iter.next().fLastRun > RETAINED_RUNS)
+				iter.remove();
+		}
+	}
+
+	/**
+	 * @param className the name of the test class
+	 * @param stamp the modification stamp of the test class when its tests were run
+	 */
+	public synchronized void setInputStamp(String className, long stamp) {
+		ClassRecord classRecord= fClasses.get(className);
+		if (classRecord != null)
+			classRecord.fInputStamp= stamp;
+	}
+
+	/**
+	 * @param className the name of the test class
+	 * @return <code>true</code> if tests of the class have been recorded
+	 */
+	public synchronized boolean hasRecords(String className) {
+		return fClasses.containsKey(className);
+	}
+
+	/**
+	 * @param className the name of the test class
+	 * @return the expected duration of all tests of the class in seconds, or -1 if not known
+	 */
+	public synchronized double getDuration(String className) {
+		ClassRecord classRecord= fClasses.get(className);
+		if (classRecord == null)
+			return -1;
+		double duration= 0;
+		for (TestRecord test : classRecord.fTests.values()) {
+			duration+= test.fDuration;
+		}
+		return duration;
+	}
+
+	/**
+	 * Estimates the probability that a test of the class fails in the next run. The estimate
+	 * is based on the failure frequency of the tests, and is raised for tests that failed in
+	 * their last run, and for classes that changed since their last run.
+	 *
+	 * @param className the name of the test class
+	 * @param currentStamp the current modification stamp of the test class, or
+	 *            {@link IResource#NULL_STAMP} if not known
+	 * @return the probability that a test of the class fails, or -1 if the class has no records
+	 */
+	public synchronized double getFailureProbability(String className, long currentStamp) {
+		ClassRecord classRecord= fClasses.get(className);
+		if (classRecord == null)
+			return -1;
+		double probability= 0;
+		for (TestRecord test : classRecord.fTests.values()) {
+			// Laplace estimate, so that rarely run tests are not considered safe
+			double p= (test.fFailures + 1.0) / (test.fRuns + 2.0);
+			if (test.fLastFailed)
+				p= Math.max(p, LAST_FAILED_PROBABILITY);
+			probability= Math.max(probability, p);
+		}
+		if (currentStamp != IResource.NULL_STAMP && currentStamp != classRecord.fInputStamp)
+			probability= Math.max(probability, CHANGED_PROBABILITY);
+		return probability;
+	}
+
+	/**
+	 * @param className the name of the test class
+	 * @return the names of the tests of the class that failed in their last run
+	 */
+	public synchronized List<String> getLastFailedTests(String className) {
+		List<String> failed= new ArrayList<>();
+		ClassRecord classRecord= fClasses.get(className);
+		if (classRecord != null) {
+			for (Entry<String, TestRecord> entry : classRecord.fTests.entrySet()) {
+				if (entry.getValue().fLastFailed)
+					failed.add(entry.getKey());
+			}
+		}
+		return failed;
+	}
+
+	/**
+	 * Writes the statistics to the working location of the project.
+	 *
+	 * @throws IOException if the statistics could not be written
+	 */
+	public synchronized void save() throws IOException {
+		if (fFile == null)
+			return;
+		fFile.getParentFile().mkdirs();
+		try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fFile)))) {
+			out.writeInt(VERSION);
+			out.writeInt(fRun);
+			out.writeInt(fClasses.size());
+			for (Entry<String, ClassRecord> classEntry : fClasses.entrySet()) {
+				ClassRecord classRecord= classEntry.getValue();
+				out.writeUTF(classEntry.getKey());
+				out.writeInt(classRecord.fLastRun);
+				out.writeLong(classRecord.fInputStamp);
+				out.writeInt(classRecord.fTests.size());
+				for (Entry<String, TestRecord> testEntry : classRecord.fTests.entrySet()) {
+					TestRecord test= testEntry.getValue();
+					out.writeUTF(testEntry.getKey());
+					out.writeInt(test.fRuns);
+					out.writeInt(test.fFailures);
+					out.writeBoolean(test.fLastFailed);
+					out.writeDouble(test.fDuration);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads statistics from a file. Unlike {@link #getStatistics(IJavaProject)}, the result is
+	 * not shared.
+	 *
+	 * @param file the file, or <code>null</code> for statistics that are not saved
+	 * @return the statistics read from the file, or empty statistics if the file does not exist
+	 *         or could not be read
+	 */
+	public static TestStatistics load(File file) {
+		TestStatistics statistics= new TestStatistics(file);
+		statistics.read();
+		return statistics;
+	}
+
+	/**
+	 * @return the file in which the statistics are saved, or <code>null</code> if none
+	 */
+	public File getFile() {
+		return fFile;
+	}
+
+	private void read() {
+		if (fFile == null || !fFile.isFile())
+			return;
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(fFile)))) {
+			if (in.readInt() != VERSION)
+				return;
+			fRun= in.readInt();
+			int classCount= in.readInt();
+			for (int i= 0; i < classCount; i++) {
+				String className= in.readUTF();
+				ClassRecord classRecord= new ClassRecord();
+				classRecord.fLastRun= in.readInt();
+				classRecord.fInputStamp= in.readLong();
+				int testCount= in.readInt();
+				for (int j= 0; j < testCount; j++) {
+					String testName= in.readUTF();
+					TestRecord test= new TestRecord();
+					test.fRuns= in.readInt();
+					test.fFailures= in.readInt();
+					test.fLastFailed= in.readBoolean();
+					test.fDuration= in.readDouble();
+					classRecord.fTests.put(testName, test);
+				}
+				fClasses.put(className, classRecord);
+			}
+		} catch (IOException e) {
+			// start over with empty statistics
+			fClasses.clear();
+			JUnitCorePlugin.log(e);
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.junit.model.ITestElement.FailureTrace;
+
+/**
+ * Append-only file that holds the large failure traces of a test run session,
+ * so that they do not have to be kept in memory for the whole lifetime of the
+ * session. A stored failure trace is identified by its position in the file.
+ * The last loaded failure trace is cached, since clients usually ask for the
+ * trace, expected and actual value of the same test one after the other.
+ * <p>
+ * The file is deleted when the store is disposed, and with the other files of the
+ * {@link org.eclipse.jdt.internal.junit.JUnitCorePlugin#getHistoryDirectory() history directory}
+ * when the plug-in stops.
+ * </p>
+ */
+public class FailureTraceStore {
+
+	/**
+	 * Failure traces with fewer characters than this are kept in memory.
+	 */
+	public static final int SPILL_THRESHOLD= 1024;
+
+	private final File fDirectory;
+
+	private File fFile;
+
+	private RandomAccessFile fAccess;
+
+	private long fLastPosition= -1;
+
+	private FailureTrace fLastFailure;
+
+	/**
+	 * @param directory the directory for the store file
+	 */
+	public FailureTraceStore(File directory) {
+		fDirectory= directory;
+	}
+
+	/**
+	 * @param failure the failure trace
+	 * @return <code>true</code> if the failure trace is large enough to be stored in a file
+	 */
+	public static boolean shouldSpill(FailureTrace failure) {
+		return length(failure.getTrace()) + length(failure.getExpected()) + length(failure.getActual()) >= SPILL_THRESHOLD;
+	}
+
+	private static int length(String s) {
+		return s == null ? 0 : s.length();
+	}
+
+	/**
+	 * Appends a failure trace to the store.
+	 *
+	 * @param failure the failure trace
+	 * @return the position of the failure trace in the store
+	 * @throws IOException if the failure trace could not be written
+	 */
+	public synchronized long store(FailureTrace failure) throws IOException {
+		if (fAccess == null) {
+			fFile= File.createTempFile("traces", ".bin", fDirectory); //$NON-NLS-1$ //$NON-NLS-2$
+			fAccess= new RandomAccessFile(fFile, "rw"); //$NON-NLS-1$
+		}
+		ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		DataOutputStream data= new DataOutputStream(bytes);
+		writeString(data, failure.getTrace());
+		writeString(data, failure.getExpected());
+		writeString(data, failure.getActual());
+		long position= fAccess.length();
+		fAccess.seek(position);
+		fAccess.write(bytes.toByteArray());
+		return position;
+	}
+
+	/**
+	 * Reads a failure trace from the store.
+	 *
+	 * @param position the position returned by {@link #store(FailureTrace)}
+	 * @return the failure trace
+	 * @throws IOException if the failure trace could not be read, e.g. because the store has been disposed
+	 */
+	public synchronized FailureTrace load(long position) throws IOException {
+		if (fAccess == null)
+			throw new IOException("Failure trace store has been disposed"); //$NON-NLS-1$
+		if (position == fLastPosition)
+			return fLastFailure;
+		fAccess.seek(position);
+		String trace= readString();
+		String expected= readString();
+		String actual= readString();
+		fLastFailure= new FailureTrace(trace, expected, actual);
+		fLastPosition= position;
+		return fLastFailure;
+	}
+
+	/**
+	 * Closes and deletes the store file.
+	 */
+	public synchronized void dispose() {
+		if (fAccess != null) {
+			try {
+				fAccess.close();
+			} catch (IOException e) {
+				// the file is deleted anyway
+			}
+			fAccess= null;
+			fFile.delete();
+			fFile= null;
+			fLastPosition= -1;
+			fLastFailure= null;
+		}
+	}
+
+	private static void writeString(DataOutputStream data, String s) throws IOException {
+		if (s == null) {
+			data.writeInt(-1);
+			return;
+		}
+		byte[] bytes= s.getBytes(StandardCharsets.UTF_8);
+		data.writeInt(bytes.length);
+		data.write(bytes);
+	}
+
+	private String readString() throws IOException {
+		int length= fAccess.readInt();
+		if (length < 0)
+			return null;
+		byte[] bytes= new byte[length];
+		fAccess.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -15,9 +15,13 @@
 
 package org.eclipse.jdt.internal.junit.model;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
@@ -29,14 +33,12 @@ import java.util.List;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.stream.FactoryConfigurationError;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
-import javax.xml.transform.sax.SAXSource;
-import javax.xml.transform.stream.StreamResult;
 
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -48,6 +50,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Platform;
 
@@ -255,6 +258,7 @@ public final class JUnitModel {
 	 */
 	private final LinkedList<TestRunSession> fTestRunSessions= new LinkedList<>();
 	private final ILaunchListener fLaunchListener= new JUnitLaunchListener();
+	private final TestStatisticsRecorder fStatisticsRecorder= new TestStatisticsRecorder();
 
 	/**
 	 * Starts the model (called by the {@link JUnitCorePlugin} on startup).
@@ -292,6 +296,7 @@ public final class JUnitModel {
 //		}
 
 		addTestRunSessionListener(new LegacyTestRunSessionListener());
+		JUnitCorePlugin.getDefault().getNewTestRunListeners().add(fStatisticsRecorder);
 	}
 
 	/**
@@ -300,6 +305,7 @@ public final class JUnitModel {
 	public void stop() {
 		ILaunchManager launchManager= DebugPlugin.getDefault().getLaunchManager();
 		launchManager.removeLaunchListener(fLaunchListener);
+		JUnitCorePlugin.getDefault().getNewTestRunListeners().remove(fStatisticsRecorder);
 
 		File historyDirectory= JUnitCorePlugin.getHistoryDirectory();
 		File[] swapFiles= historyDirectory.listFiles();
@@ -384,12 +390,29 @@ public final class JUnitModel {
 	 * @throws CoreException if the import failed
 	 */
 	public static TestRunSession importTestRunSession(File file) throws CoreException {
-		try {
+		return importTestRunSession(file, new NullProgressMonitor());
+	}
+
+	/**
+	 * Imports a test run session from the given file. The file is parsed in a single pass, and
+	 * the progress is reported in kilobytes read.
+	 *
+	 * @param file a file containing a test run session transcript
+	 * @param monitor a progress monitor for progress reporting and cancellation
+	 * @return the imported test run session
+	 * @throws CoreException if the import failed
+	 * @throws OperationCanceledException if the import was cancelled
+	 */
+	public static TestRunSession importTestRunSession(File file, IProgressMonitor monitor) throws CoreException {
+		monitor.beginTask(Messages.format(ModelMessages.JUnitModel_importing_from_file, BasicElementLabels.getPathLabel(file)), (int) Math.min(Integer.MAX_VALUE, file.length() / 1024));
+		try (InputStream in= new ProgressInputStream(new FileInputStream(file), monitor)) {
 			SAXParserFactory parserFactory= SAXParserFactory.newInstance();
 //			parserFactory.setValidating(true); // TODO: add DTD and debug flag
 			SAXParser parser= parserFactory.newSAXParser();
-			TestRunHandler handler= new TestRunHandler();
-			parser.parse(file, handler);
+			TestRunHandler handler= new TestRunHandler(monitor);
+			InputSource source= new InputSource(in);
+			source.setSystemId(file.toURI().toString());
+			parser.parse(source, handler);
 			TestRunSession session= handler.getTestRunSession();
 			JUnitCorePlugin.getModel().addTestRunSession(session);
 			return session;
@@ -402,6 +425,8 @@ public final class JUnitModel {
 		} catch (IllegalArgumentException e) {
 			// Bug in parser: can throw IAE even if file is not null
 			throwImportError(file, e);
+		} finally {
+			monitor.done();
 		}
 		return null; // does not happen
 	}
@@ -501,50 +526,87 @@ public final class JUnitModel {
 	 * @throws CoreException if an error occurred
 	 */
 	public static void exportTestRunSession(TestRunSession testRunSession, File file) throws CoreException {
-		FileOutputStream out= null;
-		try {
-			out= new FileOutputStream(file);
-            exportTestRunSession(testRunSession, out);
-
+		try (OutputStream out= new BufferedOutputStream(new FileOutputStream(file))) {
+			exportTestRunSession(testRunSession, out);
 		} catch (IOException e) {
 			throwExportError(file, e);
-		} catch (TransformerConfigurationException e) {
-			throwExportError(file, e);
 		} catch (TransformerException e) {
 			throwExportError(file, e);
-		} finally {
-			if (out != null) {
-				try {
-					out.close();
-				} catch (IOException e2) {
-					JUnitCorePlugin.log(e2);
-				}
-			}
 		}
 	}
 
+	/**
+	 * Exports the given test run session. The XML is written while the test elements are
+	 * traversed, so no document is built in memory.
+	 *
+	 * @param testRunSession the test run session
+	 * @param out the destination, which is not closed
+	 * @throws TransformerFactoryConfigurationError if the XML output factory could not be created
+	 * @throws TransformerException if an error occurred
+	 */
 	public static void exportTestRunSession(TestRunSession testRunSession, OutputStream out)
 			throws TransformerFactoryConfigurationError, TransformerException {
 
-		Transformer transformer= TransformerFactory.newInstance().newTransformer();
-		InputSource inputSource= new InputSource();
-		SAXSource source= new SAXSource(new TestRunSessionSerializer(testRunSession), inputSource);
-		StreamResult result= new StreamResult(out);
-		transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8"); //$NON-NLS-1$
-		transformer.setOutputProperty(OutputKeys.INDENT, "yes"); //$NON-NLS-1$
-		/*
-		 * Bug in Xalan: Only indents if proprietary property
-		 * org.apache.xalan.templates.OutputProperties.S_KEY_INDENT_AMOUNT is set.
-		 *
-		 * Bug in Xalan as shipped with J2SE 5.0:
-		 * Does not read the indent-amount property at all >:-(.
-		 */
 		try {
-			transformer.setOutputProperty("{http://xml.apache.org/xalan}indent-amount", "2"); //$NON-NLS-1$ //$NON-NLS-2$
-		} catch (IllegalArgumentException e) {
-			// no indentation today...
+			XMLStreamWriter writer= XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8"); //$NON-NLS-1$
+			try {
+				TestRunSessionSerializer serializer= new TestRunSessionSerializer(testRunSession);
+				serializer.setContentHandler(new XMLStreamContentHandler(writer));
+				serializer.parse(new InputSource());
+			} finally {
+				writer.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new TransformerException(e);
+		} catch (SAXException e) {
+			throw new TransformerException(e);
+		} catch (IOException e) {
+			throw new TransformerException(e);
+		} catch (FactoryConfigurationError e) {
+			throw new TransformerFactoryConfigurationError(e.getMessage());
+		}
+	}
+
+	/**
+	 * Input stream that reports the number of kilobytes read to a progress monitor.
+	 */
+	private static class ProgressInputStream extends FilterInputStream {
+
+		private final IProgressMonitor fMonitor;
+
+		private long fRead;
+
+		private long fReported;
+
+		ProgressInputStream(InputStream in, IProgressMonitor monitor) {
+			super(in);
+			fMonitor= monitor;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b= super.read();
+			if (b != -1)
+				advance(1);
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read= super.read(b, off, len);
+			if (read > 0)
+				advance(read);
+			return read;
+		}
+
+		private void advance(int bytes) {
+			fRead+= bytes;
+			int kilobytes= (int) ((fRead - fReported) / 1024);
+			if (kilobytes > 0) {
+				fReported+= kilobytes * 1024L;
+				fMonitor.worked(kilobytes);
+			}
 		}
-		transformer.transform(source, result);
 	}
 
 	private static void throwExportError(File file, Exception e) throws CoreException {
@@ -15,12 +15,14 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.junit.model;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.io.PushbackReader;
+import java.io.PushbackInputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
@@ -126,6 +128,11 @@ public class RemoteTestRunnerClient {
 	                scanOldReranMessage(arg);
 	            return this;
 	        }
+	        if (message.startsWith(MessageIds.PROTOCOL)) {
+	            if (MessageIds.BINARY_PROTOCOL.equals(arg))
+	                fBinaryProtocol= true;
+	            return this;
+	        }
 	        return this;
 	    }
 	}
@@ -227,8 +234,16 @@ public class RemoteTestRunnerClient {
 	private Socket fSocket;
 	private int fPort= -1;
 	private PrintWriter fWriter;
-	private PushbackReader fPushbackReader;
+	private PushbackInputStream fPushbackStream;
 	private String fLastLineDelimiter;
+	/**
+	 * Has the RemoteTestRunner switched to the binary protocol?
+	 */
+	private boolean fBinaryProtocol= false;
+	/**
+	 * Buffer for the bytes of the current text message
+	 */
+	private final ByteArrayOutputStream fMessageBuffer= new ByteArrayOutputStream(128);
 	/**
 	 * The protocol version
 	 */
@@ -266,11 +281,9 @@ public class RemoteTestRunnerClient {
 					System.out.println("Creating server socket "+fServerPort); //$NON-NLS-1$
 				fServerSocket= new ServerSocket(fServerPort);
 				fSocket= fServerSocket.accept();
-				fPushbackReader= new PushbackReader(new BufferedReader(new InputStreamReader(fSocket.getInputStream(), StandardCharsets.UTF_8)));
+				fPushbackStream= new PushbackInputStream(new BufferedInputStream(fSocket.getInputStream(), 64 * 1024));
 				fWriter= new PrintWriter(new OutputStreamWriter(fSocket.getOutputStream(), StandardCharsets.UTF_8), true);
-				String message;
-				while(fPushbackReader != null && (message= readMessage(fPushbackReader)) != null)
-					receiveMessage(message);
+				readMessages(fPushbackStream);
 			} catch (SocketException e) {
 				notifyTestRunTerminated();
 			} catch (IOException e) {
@@ -320,9 +333,9 @@ public class RemoteTestRunnerClient {
 			fWriter= null;
 		}
 		try {
-			if (fPushbackReader != null) {
-				fPushbackReader.close();
-				fPushbackReader= null;
+			if (fPushbackStream != null) {
+				fPushbackStream.close();
+				fPushbackStream= null;
 			}
 		} catch(IOException e) {
 		}
@@ -346,30 +359,95 @@ public class RemoteTestRunnerClient {
 		return fSocket != null;
 	}
 
-	private String readMessage(PushbackReader in) throws IOException {
-		StringBuffer buf= new StringBuffer(128);
+	/**
+	 * Reads and processes text messages until the RemoteTestRunner switches
+	 * to the binary protocol, and then reads and processes binary frames.
+	 *
+	 * @param in the stream from the RemoteTestRunner
+	 * @throws IOException if reading fails
+	 */
+	private void readMessages(PushbackInputStream in) throws IOException {
+		String message;
+		while (fPushbackStream != null && !fBinaryProtocol && (message= readMessage(in)) != null)
+			receiveMessage(message);
+		if (fBinaryProtocol) {
+			DataInputStream frames= new DataInputStream(in);
+			while (fPushbackStream != null && readFrame(frames)) {
+				// process all frames
+			}
+		}
+	}
+
+	private String readMessage(PushbackInputStream in) throws IOException {
+		ByteArrayOutputStream buf= fMessageBuffer;
+		buf.reset();
 		int ch;
 		while ((ch= in.read()) != -1) {
 			if (ch == '\n') {
 				fLastLineDelimiter= "\n"; //$NON-NLS-1$
-				return buf.toString();
+				return buf.toString(StandardCharsets.UTF_8.name());
 			} else if (ch == '\r') {
 				ch= in.read();
 				if (ch == '\n') {
 					fLastLineDelimiter= "\r\n"; //$NON-NLS-1$
 				} else {
-					in.unread(ch);
+					if (ch != -1)
+						in.unread(ch);
 					fLastLineDelimiter= "\r"; //$NON-NLS-1$
 				}
-				return buf.toString();
+				return buf.toString(StandardCharsets.UTF_8.name());
 			} else {
-				buf.append((char) ch);
+				buf.write(ch);
 			}
 		}
 		fLastLineDelimiter= null;
-		if (buf.length() == 0)
+		if (buf.size() == 0)
 			return null;
-		return buf.toString();
+		return buf.toString(StandardCharsets.UTF_8.name());
+	}
+
+	/**
+	 * Reads and processes one frame of the binary protocol.
+	 *
+	 * @param in the stream from the RemoteTestRunner
+	 * @return <code>false</code> if the stream has ended, <code>true</code> otherwise
+	 * @throws IOException if reading fails or the frame is corrupt
+	 * @see org.eclipse.jdt.internal.junit.runner.FramedMessageWriter
+	 */
+	private boolean readFrame(DataInputStream in) throws IOException {
+		int length;
+		try {
+			length= in.readInt();
+		} catch (EOFException e) {
+			return false;
+		}
+		int entryCount= in.readInt();
+		if (length < 0 || entryCount < 0)
+			throw new IOException("Corrupt test runner frame"); //$NON-NLS-1$
+		byte[] frame= new byte[length];
+		in.readFully(frame);
+
+		// messages inside frames are complete lines
+		fLastLineDelimiter= "\n"; //$NON-NLS-1$
+		int position= 0;
+		for (int i= 0; i < entryCount; i++) {
+			byte kind= frame[position];
+			int size= ((frame[position + 1] & 0xFF) << 24) | ((frame[position + 2] & 0xFF) << 16) | ((frame[position + 3] & 0xFF) << 8) | (frame[position + 4] & 0xFF);
+			String value= new String(frame, position + 5, size, StandardCharsets.UTF_8);
+			position+= 5 + size;
+			switch (kind) {
+				case MessageIds.FRAME_TEST_START:
+					notifyTestStarted(value);
+					break;
+				case MessageIds.FRAME_TEST_END:
+					notifyTestEnded(value);
+					break;
+				default:
+					receiveMessage(value);
+					break;
+			}
+		}
+		return true;
 	}
 
 	private void receiveMessage(String message) {
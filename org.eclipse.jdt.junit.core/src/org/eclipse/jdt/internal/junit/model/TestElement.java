@@ -17,12 +17,16 @@
 
 package org.eclipse.jdt.internal.junit.model;
 
+import java.io.IOException;
+
 import org.eclipse.jdt.junit.model.ITestElement;
 import org.eclipse.jdt.junit.model.ITestElementContainer;
 import org.eclipse.jdt.junit.model.ITestRunSession;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+
 public abstract class TestElement implements ITestElement {
 	public final static class Status {
 		public static final Status RUNNING_ERROR= new Status("RUNNING_ERROR", 5); //$NON-NLS-1$
@@ -168,7 +172,12 @@ public abstract class TestElement implements ITestElement {
 	}
 
 	private final TestSuiteElement fParent;
+	/**
+	 * The test id, or <code>null</code> if the id is the decimal representation of
+	 * {@link #fIntId}, as for all ids assigned by the RemoteTestRunner.
+	 */
 	private final String fId;
+	private final int fIntId;
 	private String fTestName;
 
 	/**
@@ -186,14 +195,19 @@ public abstract class TestElement implements ITestElement {
 
 	/**
 	 * The unique ID of the test element which can be <code>null</code> as it is applicable to JUnit 5
-	 * and above.
+	 * and above. If {@link #fRelativeUniqueId} is set, only the part after the unique ID of the parent
+	 * is stored.
 	 */
 	private String fUniqueId;
+	private boolean fRelativeUniqueId;
 
 	private Status fStatus;
-	private String fTrace;
-	private String fExpected;
-	private String fActual;
+
+	/**
+	 * The failure trace, or <code>null</code>. Either a {@link FailureTrace}, or the position
+	 * (a {@link Long}) of a large failure trace in the {@link FailureTraceStore} of the session.
+	 */
+	private Object fFailure;
 
 	private boolean fAssumptionFailed;
 
@@ -223,11 +237,19 @@ public abstract class TestElement implements ITestElement {
 		Assert.isNotNull(id);
 		Assert.isNotNull(testName);
 		fParent= parent;
-		fId= id;
+		fIntId= TestElementIdMap.toIntId(id);
+		fId= fIntId == Integer.MIN_VALUE ? id : null;
 		fTestName= testName;
 		fDisplayName= displayName;
 		fParameterTypes= parameterTypes;
-		fUniqueId= uniqueId;
+		String parentUniqueId= parent != null && uniqueId != null ? parent.getUniqueId() : null;
+		if (parentUniqueId != null && uniqueId.length() > parentUniqueId.length() && uniqueId.startsWith(parentUniqueId)) {
+			// JUnit 5 unique IDs start with the unique ID of the parent
+			fUniqueId= uniqueId.substring(parentUniqueId.length());
+			fRelativeUniqueId= true;
+		} else {
+			fUniqueId= uniqueId;
+		}
 		fStatus= Status.NOT_RUN;
 		if (parent != null)
 			parent.addChild(this);
@@ -263,8 +285,9 @@ public abstract class TestElement implements ITestElement {
 	public FailureTrace getFailureTrace() {
 		Result testResult= getTestResult(false);
 		if (testResult == Result.ERROR || testResult == Result.FAILURE
-				|| (testResult == Result.IGNORED && fTrace != null)) {
-			return new FailureTrace(fTrace, fExpected, fActual);
+				|| (testResult == Result.IGNORED && fFailure != null)) {
+			FailureTrace failure= getFailure();
+			return failure != null ? failure : new FailureTrace(null, null, null);
 		}
 		return null;
 	}
@@ -277,7 +300,7 @@ public abstract class TestElement implements ITestElement {
 	}
 
 	public String getId() {
-		return fId;
+		return fId != null ? fId : Integer.toString(fIntId);
 	}
 
 	public String getTestName() {
@@ -305,35 +328,90 @@ public abstract class TestElement implements ITestElement {
 	}
 
 	public void setStatus(Status status, String trace, String expected, String actual) {
-		if (trace != null && fTrace != null) {
+		FailureTrace failure= getFailure();
+		if (trace != null && failure != null && failure.getTrace() != null) {
 			//don't overwrite first trace if same test run logs multiple errors
-			fTrace= fTrace + trace;
+			setFailure(new FailureTrace(failure.getTrace() + trace, failure.getExpected(), failure.getActual()));
 		} else {
-			fTrace= trace;
-			fExpected= expected;
-			fActual= actual;
+			setFailure(new FailureTrace(trace, expected, actual));
 		}
 		setStatus(status);
 	}
 
+	private void setFailure(FailureTrace failure) {
+		if (failure.getTrace() == null && failure.getExpected() == null && failure.getActual() == null) {
+			fFailure= null;
+			return;
+		}
+		if (FailureTraceStore.shouldSpill(failure)) {
+			FailureTraceStore store= getFailureTraceStore();
+			if (store != null) {
+				try {
+					fFailure= Long.valueOf(store.store(failure));
+					return;
+				} catch (IOException e) {
+					JUnitCorePlugin.log(e);
+				}
+			}
+		}
+		fFailure= failure;
+	}
+
+	private FailureTrace getFailure() {
+		Object failure= fFailure;
+		if (failure instanceof Long) {
+			FailureTraceStore store= getFailureTraceStore();
+			if (store != null) {
+				try {
+					return store.load(((Long) failure).longValue());
+				} catch (IOException e) {
+					JUnitCorePlugin.log(e);
+				}
+			}
+			return null;
+		}
+		return (FailureTrace) failure;
+	}
+
+	/**
+	 * Loads a failure trace that is kept in the {@link FailureTraceStore} of the session back into
+	 * memory. Called before the store is disposed, so that the element keeps its failure trace
+	 * if clients still hold it.
+	 */
+	void loadFailureTrace() {
+		if (fFailure instanceof Long)
+			fFailure= getFailure();
+	}
+
+	private FailureTraceStore getFailureTraceStore() {
+		ITestRunSession session= getTestRunSession();
+		if (session instanceof TestRunSession)
+			return ((TestRunSession) session).getFailureTraceStore();
+		return null;
+	}
+
 	public Status getStatus() {
 		return fStatus;
 	}
 
 	public String getTrace() {
-		return fTrace;
+		FailureTrace failure= getFailure();
+		return failure != null ? failure.getTrace() : null;
 	}
 
 	public String getExpected() {
-		return fExpected;
+		FailureTrace failure= getFailure();
+		return failure != null ? failure.getExpected() : null;
 	}
 
 	public String getActual() {
-		return fActual;
+		FailureTrace failure= getFailure();
+		return failure != null ? failure.getActual() : null;
 	}
 
 	public boolean isComparisonFailure() {
-		return fExpected != null && fActual != null;
+		FailureTrace failure= getFailure();
+		return failure != null && failure.getExpected() != null && failure.getActual() != null;
 	}
 
 	/**
@@ -420,6 +498,8 @@ public abstract class TestElement implements ITestElement {
 	 * @return the unique ID of the test, can be <code>null</code>
 	 */
 	public String getUniqueId() {
+		if (fRelativeUniqueId)
+			return fParent.getUniqueId() + fUniqueId;
 		return fUniqueId;
 	}
 
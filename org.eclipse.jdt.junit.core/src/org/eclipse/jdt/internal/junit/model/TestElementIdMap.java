@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Map from test id to test element.
+ * <p>
+ * The RemoteTestRunner uses consecutive numbers as test ids. These are kept in
+ * primitive arrays with open addressing, which avoids a map entry and an id string
+ * per test. Other ids, e.g. the test names used by version 1 of the protocol, are
+ * kept in a hash map.
+ * </p>
+ */
+class TestElementIdMap {
+
+	private static final int NO_KEY= Integer.MIN_VALUE;
+
+	private int[] fKeys;
+
+	private TestElement[] fValues;
+
+	private int fSize;
+
+	private HashMap<String, TestElement> fOtherIds;
+
+	public TestElementIdMap() {
+		fKeys= new int[64];
+		fValues= new TestElement[64];
+		Arrays.fill(fKeys, NO_KEY);
+	}
+
+	/**
+	 * @param id the test id
+	 * @return the numeric value of the id, or {@link Integer#MIN_VALUE} if the id is not
+	 *         the canonical decimal representation of an int
+	 */
+	static int toIntId(String id) {
+		int length= id.length();
+		if (length == 0 || length > 10)
+			return NO_KEY;
+		int start= id.charAt(0) == '-' ? 1 : 0;
+		if (start == length || (id.charAt(start) == '0' && length > start + 1))
+			return NO_KEY;
+		long value= 0;
+		for (int i= start; i < length; i++) {
+			char c= id.charAt(i);
+			if (c < '0' || c > '9')
+				return NO_KEY;
+			value= value * 10 + (c - '0');
+		}
+		if (start == 1)
+			value= -value;
+		if (value <= Integer.MIN_VALUE || value > Integer.MAX_VALUE || (value == 0 && start == 1))
+			return NO_KEY;
+		return (int) value;
+	}
+
+	public TestElement get(String id) {
+		int key= toIntId(id);
+		if (key == NO_KEY)
+			return fOtherIds == null ? null : fOtherIds.get(id);
+		int mask= fKeys.length - 1;
+		for (int i= hash(key) & mask; fKeys[i] != NO_KEY; i= (i + 1) & mask) {
+			if (fKeys[i] == key)
+				return fValues[i];
+		}
+		return null;
+	}
+
+	public void put(String id, TestElement element) {
+		int key= toIntId(id);
+		if (key == NO_KEY) {
+			if (fOtherIds == null)
+				fOtherIds= new HashMap<>();
+			fOtherIds.put(id, element);
+			return;
+		}
+		if (2 * (fSize + 1) > fKeys.length)
+			grow();
+		if (insert(fKeys, fValues, key, element))
+			fSize++;
+	}
+
+	private static boolean insert(int[] keys, TestElement[] values, int key, TestElement element) {
+		int mask= keys.length - 1;
+		int i= hash(key) & mask;
+		while (keys[i] != NO_KEY) {
+			if (keys[i] == key) {
+				values[i]= element;
+				return false;
+			}
+			i= (i + 1) & mask;
+		}
+		keys[i]= key;
+		values[i]= element;
+		return true;
+	}
+
+	private void grow() {
+		int[] keys= new int[fKeys.length * 2];
+		TestElement[] values= new TestElement[keys.length];
+		Arrays.fill(keys, NO_KEY);
+		for (int i= 0; i < fKeys.length; i++) {
+			if (fKeys[i] != NO_KEY)
+				insert(keys, values, fKeys[i], fValues[i]);
+		}
+		fKeys= keys;
+		fValues= values;
+	}
+
+	private static int hash(int key) {
+		int h= key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -96,7 +96,7 @@ public class TestRunHandler extends DefaultHandler {
 				fMonitor.subTask(NLS.bind(ModelMessages.TestRunHandler_lines_read, Integer.valueOf(line)));
 			}
 		}
-		if (Thread.interrupted())
+		if (Thread.interrupted() || (fMonitor != null && fMonitor.isCanceled()))
 			throw new OperationCanceledException();
 		
 		if (qName.equals(IXMLTags.NODE_TESTRUN)) {
@@ -86,7 +86,24 @@ public class TestRunSession implements ITestRunSession {
 	/**
 	 * Map from testId to testElement.
 	 */
-	private HashMap<String, TestElement> fIdToTest;
+	private TestElementIdMap fIdToTest;
+
+	/**
+	 * Pool of the test names, which contain the class name and repeat for all
+	 * invocations of parameterized and dynamic tests.
+	 */
+	private HashMap<String, String> fTestNamePool;
+
+	/**
+	 * Pool of the parameter types arrays, which are shared by the test elements of
+	 * methods with the same signature.
+	 */
+	private HashMap<List<String>, String[]> fParameterTypesPool;
+
+	/**
+	 * Store for large failure traces, or <code>null</code> if not used yet.
+	 */
+	private FailureTraceStore fFailureTraceStore;
 
 	/**
 	 * The TestSuites for which additional children are expected.
@@ -167,7 +184,9 @@ public class TestRunSession implements ITestRunSession {
 		fTestRunnerKind= ITestKind.NULL; //TODO
 
 		fTestRoot= new TestRoot(this);
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestElementIdMap();
+		fTestNamePool= new HashMap<>();
+		fParameterTypesPool= new HashMap<>();
 
 		fTestRunnerClient= null;
 
@@ -191,7 +210,9 @@ public class TestRunSession implements ITestRunSession {
 		}
 
 		fTestRoot= new TestRoot(this);
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestElementIdMap();
+		fTestNamePool= new HashMap<>();
+		fParameterTypesPool= new HashMap<>();
 
 		fTestRunnerClient= new RemoteTestRunnerClient();
 		fTestRunnerClient.startListening(new ITestRunListener2[] { new TestSessionNotifier() }, port);
@@ -236,9 +257,13 @@ public class TestRunSession implements ITestRunSession {
 		fIgnoredCount= 0;
 		fTotalCount= 0;
 
+		TestRoot oldRoot= fTestRoot;
 		fTestRoot= new TestRoot(this);
 		fTestResult= null;
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestElementIdMap();
+		fTestNamePool= new HashMap<>();
+		fParameterTypesPool= new HashMap<>();
+		disposeFailureTraceStore(oldRoot);
 	}
 
 	@Override
@@ -372,9 +397,13 @@ public class TestRunSession implements ITestRunSession {
 
 			JUnitModel.exportTestRunSession(this, swapFile);
 			fTestResult= fTestRoot.getTestResult(true);
+			TestRoot oldRoot= fTestRoot;
 			fTestRoot= null;
 			fTestRunnerClient= null;
-			fIdToTest= new HashMap<>();
+			fIdToTest= new TestElementIdMap();
+			fTestNamePool= new HashMap<>();
+			fParameterTypesPool= new HashMap<>();
+			disposeFailureTraceStore(oldRoot);
 			fIncompleteTestSuites= null;
 			fFactoryTestSuites= null;
 			fUnrootedSuite= null;
@@ -395,6 +424,48 @@ public class TestRunSession implements ITestRunSession {
 		File swapFile= getSwapFile();
 		if (swapFile.exists())
 			swapFile.delete();
+		disposeFailureTraceStore(fTestRoot);
+	}
+
+	/**
+	 * @return the store for large failure traces of this session, or <code>null</code> if
+	 *         failure traces have to be kept in memory
+	 */
+	public synchronized FailureTraceStore getFailureTraceStore() {
+		if (fFailureTraceStore == null) {
+			try {
+				fFailureTraceStore= new FailureTraceStore(JUnitCorePlugin.getHistoryDirectory());
+			} catch (IllegalStateException e) {
+				// no state location: keep failure traces in memory
+				return null;
+			}
+		}
+		return fFailureTraceStore;
+	}
+
+	/**
+	 * Deletes the store for large failure traces. The failure traces of the given elements are
+	 * loaded back into memory first, since clients may still hold the elements.
+	 *
+	 * @param root the root of the elements that have failure traces in the store, or
+	 *            <code>null</code>
+	 */
+	private synchronized void disposeFailureTraceStore(TestRoot root) {
+		if (fFailureTraceStore != null) {
+			if (root != null)
+				loadFailureTraces(root);
+			fFailureTraceStore.dispose();
+			fFailureTraceStore= null;
+		}
+	}
+
+	private static void loadFailureTraces(TestElement element) {
+		element.loadFailureTrace();
+		if (element instanceof TestSuiteElement) {
+			ITestElement[] children= ((TestSuiteElement) element).getChildren();
+			for (int i= 0; i < children.length; i++)
+				loadFailureTraces((TestElement) children[i]);
+		}
 	}
 
 	private File getSwapFile() throws IllegalStateException {
@@ -574,6 +645,8 @@ public class TestRunSession implements ITestRunSession {
 		if (parameterTypes != null && parameterTypes.length > 1) {
 			parameterTypes= Arrays.stream(parameterTypes).map(t -> t.trim()).toArray(String[]::new);
 		}
+		testName= internTestName(testName);
+		parameterTypes= internParameterTypes(parameterTypes);
 		if (isSuite) {
 			TestSuiteElement testSuiteElement= new TestSuiteElement(parent, id, testName, testCount, displayName, parameterTypes, uniqueId);
 			testElement= testSuiteElement;
@@ -589,6 +662,19 @@ public class TestRunSession implements ITestRunSession {
 		return testElement;
 	}
 
+	private String internTestName(String testName) {
+		String pooled= fTestNamePool.putIfAbsent(testName, testName);
+		return pooled != null ? pooled : testName;
+	}
+
+	private String[] internParameterTypes(String[] parameterTypes) {
+		if (parameterTypes == null)
+			return null;
+		// the pooled array is never modified, so it can back its key
+		String[] pooled= fParameterTypesPool.putIfAbsent(Arrays.asList(parameterTypes), parameterTypes);
+		return pooled != null ? pooled : parameterTypes;
+	}
+
 	/**
 	 * Append the test name from <code>s</code> to <code>testName</code>.
 	 *
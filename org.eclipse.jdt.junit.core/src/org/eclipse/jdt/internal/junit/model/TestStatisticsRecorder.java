@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.junit.TestRunListener;
+import org.eclipse.jdt.junit.model.ITestElement;
+import org.eclipse.jdt.junit.model.ITestRunSession;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.JUnitMessages;
+import org.eclipse.jdt.internal.junit.launcher.TestPrioritizer;
+import org.eclipse.jdt.internal.junit.launcher.TestStatistics;
+
+/**
+ * Records the results of finished test runs in the {@link TestStatistics} of the launched
+ * project.
+ */
+public class TestStatisticsRecorder extends TestRunListener {
+
+	private static class TestResult {
+		final String fClassName;
+		final String fTestName;
+		final boolean fFailed;
+		final double fSeconds;
+
+		TestResult(String className, String testName, boolean failed, double seconds) {
+			fClassName= className;
+			fTestName= testName;
+			fFailed= failed;
+			fSeconds= seconds;
+		}
+	}
+
+	@Override
+	public void sessionFinished(ITestRunSession session) {
+		final IJavaProject project= session.getLaunchedProject();
+		if (project == null || !(session instanceof TestRunSession))
+			return;
+
+		// collect the results now, the session is swapped out after all listeners are notified
+		final List<TestResult> results= new ArrayList<>();
+		collectResults(((TestRunSession) session).getTestRoot(), results);
+		if (results.isEmpty())
+			return;
+
+		Job job= new Job(JUnitMessages.TestStatisticsRecorder_job_name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				TestStatistics statistics= TestStatistics.getStatistics(project);
+				Set<String> classNames= new LinkedHashSet<>();
+				for (TestResult result : results) {
+					statistics.recordTest(result.fClassName, result.fTestName, result.fFailed, result.fSeconds);
+					classNames.add(result.fClassName);
+				}
+				for (String className : classNames) {
+					try {
+						IType type= project.findType(className);
+						if (type != null)
+							statistics.setInputStamp(className, TestPrioritizer.getStamp(type));
+					} catch (JavaModelException e) {
+						// the class is considered changed in the next run
+					}
+				}
+				statistics.finishRun();
+				try {
+					statistics.save();
+				} catch (IOException e) {
+					return new Status(IStatus.ERROR, JUnitCorePlugin.CORE_PLUGIN_ID, IStatus.ERROR, JUnitMessages.TestStatisticsRecorder_job_name, e);
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.schedule();
+	}
+
+	private static void collectResults(TestElement element, List<TestResult> results) {
+		if (element instanceof TestSuiteElement) {
+			for (ITestElement child : ((TestSuiteElement) element).getChildren()) {
+				collectResults((TestElement) child, results);
+			}
+		} else {
+			ITestElement.Result result= element.getTestResult(false);
+			if (result == ITestElement.Result.OK || result == ITestElement.Result.FAILURE || result == ITestElement.Result.ERROR) {
+				results.add(new TestResult(element.getClassName(), element.getTestName(), result != ITestElement.Result.OK, element.getElapsedTimeInSeconds()));
+			}
+		}
+	}
+}
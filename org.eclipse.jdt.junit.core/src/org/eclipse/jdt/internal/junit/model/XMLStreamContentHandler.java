@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Writes the SAX events of a {@link TestRunSessionSerializer} to an {@link XMLStreamWriter}, so
+ * that a test run session is written while it is traversed.
+ * <p>
+ * Produces the same layout as the indenting transformer: elements without content are written
+ * as empty elements, and elements are indented by two spaces, except inside failures, whose
+ * character content must not change.
+ * </p>
+ */
+public class XMLStreamContentHandler extends DefaultHandler {
+
+	private static final String INDENT= "  "; //$NON-NLS-1$
+
+	private final XMLStreamWriter fWriter;
+
+	private int fDepth;
+
+	/**
+	 * Depth of the outermost element with character content, or -1 if not inside such an element.
+	 */
+	private int fTextDepth= -1;
+
+	private boolean fHasChildElements;
+
+	private String fPendingName;
+
+	private final AttributesImpl fPendingAttributes= new AttributesImpl();
+
+	/**
+	 * @param writer the writer
+	 */
+	public XMLStreamContentHandler(XMLStreamWriter writer) {
+		fWriter= writer;
+	}
+
+	@Override
+	public void startDocument() throws SAXException {
+		try {
+			fWriter.writeStartDocument("UTF-8", "1.0"); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (XMLStreamException e) {
+			throw new SAXException(e);
+		}
+	}
+
+	@Override
+	public void endDocument() throws SAXException {
+		try {
+			fWriter.writeCharacters("\n"); //$NON-NLS-1$
+			fWriter.writeEndDocument();
+			fWriter.flush();
+		} catch (XMLStreamException e) {
+			throw new SAXException(e);
+		}
+	}
+
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+		try {
+			writePendingStart(false);
+			if (fTextDepth == -1 && isMixedContent(qName))
+				fTextDepth= fDepth;
+			if (fTextDepth == -1 || fTextDepth == fDepth)
+				writeIndent();
+			fPendingName= qName;
+			fPendingAttributes.setAttributes(attributes);
+			fHasChildElements= false;
+			fDepth++;
+		} catch (XMLStreamException e) {
+			throw new SAXException(e);
+		}
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		try {
+			fDepth--;
+			if (fPendingName != null) {
+				writePendingStart(true);
+			} else {
+				if (fHasChildElements && fTextDepth == -1)
+					writeIndent();
+				fWriter.writeEndElement();
+			}
+			if (fTextDepth == fDepth)
+				fTextDepth= -1;
+			fHasChildElements= true;
+		} catch (XMLStreamException e) {
+			throw new SAXException(e);
+		}
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) throws SAXException {
+		try {
+			writePendingStart(false);
+			fWriter.writeCharacters(ch, start, length);
+		} catch (XMLStreamException e) {
+			throw new SAXException(e);
+		}
+	}
+
+	private void writePendingStart(boolean empty) throws XMLStreamException {
+		if (fPendingName == null)
+			return;
+		if (empty)
+			fWriter.writeEmptyElement(fPendingName);
+		else
+			fWriter.writeStartElement(fPendingName);
+		for (int i= 0; i < fPendingAttributes.getLength(); i++) {
+			fWriter.writeAttribute(fPendingAttributes.getQName(i), fPendingAttributes.getValue(i));
+		}
+		fPendingName= null;
+	}
+
+	private void writeIndent() throws XMLStreamException {
+		StringBuilder indent= new StringBuilder(1 + fDepth * INDENT.length());
+		indent.append('\n');
+		for (int i= 0; i < fDepth; i++)
+			indent.append(INDENT);
+		fWriter.writeCharacters(indent.toString());
+	}
+
+	private static boolean isMixedContent(String name) {
+		return IXMLTags.NODE_FAILURE.equals(name) || IXMLTags.NODE_ERROR.equals(name) || IXMLTags.NODE_SKIPPED.equals(name);
+	}
+}
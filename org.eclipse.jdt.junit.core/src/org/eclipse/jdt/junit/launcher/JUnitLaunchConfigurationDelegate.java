@@ -28,6 +28,7 @@ import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +51,7 @@ import org.eclipse.core.runtime.URIUtil;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.core.ILaunchManager;
 
 import org.eclipse.jdt.core.IClasspathAttribute;
@@ -71,6 +73,8 @@ import org.eclipse.jdt.internal.junit.launcher.ITestKind;
 import org.eclipse.jdt.internal.junit.launcher.JUnitLaunchConfigurationConstants;
 import org.eclipse.jdt.internal.junit.launcher.JUnitRuntimeClasspathEntry;
 import org.eclipse.jdt.internal.junit.launcher.TestKindRegistry;
+import org.eclipse.jdt.internal.junit.launcher.TestPrioritizer;
+import org.eclipse.jdt.internal.junit.launcher.TestStatistics;
 import org.eclipse.jdt.internal.junit.util.CoreTestSearchEngine;
 import org.eclipse.jdt.internal.junit.util.IJUnitStatusConstants;
 
@@ -96,9 +100,20 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 	private boolean fKeepAlive= false;
 	private int fPort;
 	private IJavaElement[] fTestElements;
+	private List<String> fLastFailedTests;
+	private List<IType[]> fPendingShards;
 
 	private static final String DEFAULT= "<default>"; //$NON-NLS-1$
 
+	/**
+	 * System property to force the text protocol between the test runner and the JUnit view.
+	 */
+	private static final String DISABLE_BINARY_PROTOCOL_PROPERTY= "org.eclipse.jdt.junit.disableBinaryProtocol"; //$NON-NLS-1$
+
+	private static final String JUNIT5_PARALLEL_ENABLED_PROPERTY= "junit.jupiter.execution.parallel.enabled"; //$NON-NLS-1$
+
+	private static final String JUNIT5_PARALLEL_MODE_PROPERTY= "junit.jupiter.execution.parallel.mode.default"; //$NON-NLS-1$
+
 	@Override
 	public String showCommandLine(ILaunchConfiguration configuration, String mode, ILaunch launch, IProgressMonitor monitor) throws CoreException {
 		if (monitor == null) {
@@ -162,12 +177,13 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 				fTestElements= evaluateTests(configuration, new SubProgressMonitor(monitor, 1));
 			} else {
 				IJavaElement testTarget= getTestTarget(configuration, javaProject);
-				if (testTarget instanceof IPackageFragment || testTarget instanceof IPackageFragmentRoot || testTarget instanceof IJavaProject) {
+				if ((testTarget instanceof IPackageFragment || testTarget instanceof IPackageFragmentRoot || testTarget instanceof IJavaProject) && !usesTestStatistics(configuration)) {
 					fTestElements= new IJavaElement[] { testTarget };
 				} else {
 					fTestElements= evaluateTests(configuration, new SubProgressMonitor(monitor, 1));
 				}
 			}
+			fTestElements= prioritizeTests(configuration, javaProject, fTestElements);
 
 			String mainTypeName= verifyMainTypeName(configuration);
 			
@@ -264,18 +280,103 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 			monitor.worked(1);
 
 			// Launch the configuration - 1 unit of work
+			List<IType[]> pendingShards= fPendingShards;
 			runner.run(runConfig, launch, monitor);
 
 			// check for cancellation
 			if (monitor.isCanceled()) {
 				return;
 			}
+
+			if (pendingShards != null) {
+				launchShards(configuration, mode, pendingShards, monitor);
+			}
 		} finally {
 			fTestElements= null;
+			fLastFailedTests= null;
+			fPendingShards= null;
 			monitor.done();
 		}
 	}
 
+	private static boolean usesTestStatistics(ILaunchConfiguration configuration) throws CoreException {
+		return configuration.getAttribute(JUnitLaunchConfigurationConstants.ATTR_PRIORITIZE_TESTS, false)
+				|| configuration.getAttribute(JUnitLaunchConfigurationConstants.ATTR_SHARD_COUNT, 1) > 1
+				|| configuration.getAttribute(JUnitLaunchConfigurationConstants.ATTR_SHARD_TYPES, (List<String>) null) != null;
+	}
+
+	/**
+	 * Orders the test classes by their failure history and splits them into shards, as
+	 * configured. The first shard is returned, the others are launched after this one.
+	 *
+	 * @param configuration the launch configuration
+	 * @param javaProject the project that contains the tests
+	 * @param testElements the test elements to run
+	 * @return the test elements to run in this launch
+	 * @throws CoreException if the launch configuration could not be read
+	 */
+	private IJavaElement[] prioritizeTests(ILaunchConfiguration configuration, IJavaProject javaProject, IJavaElement[] testElements) throws CoreException {
+		fLastFailedTests= null;
+		fPendingShards= null;
+		if (!usesTestStatistics(configuration))
+			return testElements;
+		IType[] types= new IType[testElements.length];
+		for (int i= 0; i < testElements.length; i++) {
+			if (!(testElements[i] instanceof IType))
+				return testElements; // a single method
+			types[i]= (IType) testElements[i];
+		}
+
+		TestPrioritizer prioritizer= new TestPrioritizer(TestStatistics.getStatistics(javaProject));
+		List<String> shardTypes= configuration.getAttribute(JUnitLaunchConfigurationConstants.ATTR_SHARD_TYPES, (List<String>) null);
+		int shardCount= configuration.getAttribute(JUnitLaunchConfigurationConstants.ATTR_SHARD_COUNT, 1);
+		if (shardTypes != null) {
+			// an additional shard: keep the order computed by the first launch
+			Map<String, IType> typesByName= new HashMap<>();
+			for (IType type : types) {
+				typesByName.put(type.getFullyQualifiedName(), type);
+			}
+			List<IType> shard= new ArrayList<>(shardTypes.size());
+			for (String typeName : shardTypes) {
+				IType type= typesByName.get(typeName);
+				if (type != null)
+					shard.add(type);
+			}
+			types= shard.toArray(new IType[shard.size()]);
+		} else if (shardCount > 1 && types.length > 1) {
+			List<IType[]> shards= prioritizer.shard(types, shardCount);
+			types= shards.get(0);
+			fPendingShards= new ArrayList<>(shards.subList(1, shards.size()));
+		} else {
+			types= prioritizer.prioritize(types);
+		}
+		if (types.length == 0) {
+			String msg= Messages.format(JUnitMessages.JUnitLaunchConfigurationDelegate_error_notests_kind, getTestRunnerKind(configuration).getDisplayName());
+			abort(msg, null, IJavaLaunchConfigurationConstants.ERR_UNSPECIFIED_MAIN_TYPE);
+		}
+		fLastFailedTests= prioritizer.getLastFailedTests(types);
+		return types;
+	}
+
+	private void launchShards(ILaunchConfiguration configuration, String mode, List<IType[]> shards, IProgressMonitor monitor) throws CoreException {
+		String count= String.valueOf(shards.size() + 1);
+		for (int i= 0; i < shards.size(); i++) {
+			if (monitor.isCanceled()) {
+				return;
+			}
+			IType[] shard= shards.get(i);
+			List<String> typeNames= new ArrayList<>(shard.length);
+			for (IType type : shard) {
+				typeNames.add(type.getFullyQualifiedName());
+			}
+			String name= Messages.format(JUnitMessages.JUnitLaunchConfigurationDelegate_shard_name, new Object[] { configuration.getName(), String.valueOf(i + 2), count });
+			ILaunchConfigurationWorkingCopy shardConfiguration= configuration.copy(name);
+			shardConfiguration.setAttribute(JUnitLaunchConfigurationConstants.ATTR_SHARD_TYPES, typeNames);
+			// each shard runs in its own JVM and shows up as its own test run
+			shardConfiguration.launch(mode, null);
+		}
+	}
+
 	private int evaluatePort() throws CoreException {
 		int port= SocketUtil.findFreePort();
 		if (port == -1) {
@@ -419,6 +520,17 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 		if (fKeepAlive)
 			programArguments.add(0, "-keepalive"); //$NON-NLS-1$
 
+		// older runners ignore the argument and keep using the text protocol
+		if (!Boolean.getBoolean(DISABLE_BINARY_PROTOCOL_PROPERTY))
+			programArguments.add("-binaryprotocol"); //$NON-NLS-1$
+
+		if (isJUnit5 && configuration.getAttribute(JUnitLaunchConfigurationConstants.ATTR_JUNIT5_PARALLEL_EXECUTION, false)) {
+			// the JUnit Platform reads configuration parameters from system properties;
+			// added first, so that the user's VM arguments can still override them
+			vmArguments.add(0, "-D" + JUNIT5_PARALLEL_ENABLED_PROPERTY + "=true"); //$NON-NLS-1$ //$NON-NLS-2$
+			vmArguments.add(1, "-D" + JUNIT5_PARALLEL_MODE_PROPERTY + "=concurrent"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
 		ITestKind testRunnerKind= getTestRunnerKind(configuration);
 
 		programArguments.add("-testLoaderClass"); //$NON-NLS-1$
@@ -463,6 +575,10 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 		}
 
 		String testFailureNames= configuration.getAttribute(JUnitLaunchConfigurationConstants.ATTR_FAILURES_NAMES, ""); //$NON-NLS-1$
+		if (testFailureNames.length() == 0 && fLastFailedTests != null && !fLastFailedTests.isEmpty()) {
+			// run the tests that failed last time first within their class
+			testFailureNames= createFailureNamesFile(fLastFailedTests);
+		}
 		if (testFailureNames.length() > 0) {
 			programArguments.add("-testfailures"); //$NON-NLS-1$
 			programArguments.add(testFailureNames);
@@ -621,6 +737,22 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 		}
 	}
 
+	private String createFailureNamesFile(List<String> failureNames) throws CoreException {
+		try {
+			File file= File.createTempFile("testFailures", ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+			file.deleteOnExit();
+			try (BufferedWriter bw= new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));) {
+				for (String failureName : failureNames) {
+					bw.write(failureName);
+					bw.newLine();
+				}
+			}
+			return file.getAbsolutePath();
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, JUnitCorePlugin.CORE_PLUGIN_ID, IStatus.ERROR, "", e)); //$NON-NLS-1$
+		}
+	}
+
 	@Override
 	public String[][] getClasspathAndModulepath(ILaunchConfiguration configuration) throws CoreException {
 		String[][] cpmp= super.getClasspathAndModulepath(configuration);
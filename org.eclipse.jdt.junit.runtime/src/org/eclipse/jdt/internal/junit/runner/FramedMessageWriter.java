@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.runner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Writes the messages of the test runner protocol in binary frames.
+ * <p>
+ * Messages are collected into a batch which is written as one frame when
+ * the batch is full, when a message that ends a (re)run is written, or
+ * at the latest {@link #FLUSH_INTERVAL} milliseconds after the first
+ * message of the batch. A frame is the length of its payload, the number
+ * of entries, and the entries. An entry is a kind byte followed by the
+ * length and the UTF-8 bytes of a string.
+ * </p>
+ * <p>
+ * Test started and test ended messages are sent as {@link MessageIds#FRAME_TEST_START}
+ * and {@link MessageIds#FRAME_TEST_END} entries without their message header, all other
+ * messages are sent unchanged as {@link MessageIds#FRAME_MESSAGE} entries.
+ * </p>
+ *
+ * @see MessageIds#BINARY_PROTOCOL
+ */
+public class FramedMessageWriter {
+
+	/**
+	 * The size in bytes after which a batch is written
+	 */
+	public static final int BATCH_SIZE= 32 * 1024;
+
+	/**
+	 * The maximal time in milliseconds a message is kept in a batch
+	 */
+	public static final long FLUSH_INTERVAL= 50;
+
+	private final DataOutputStream fOutput;
+
+	private final ByteArrayOutputStream fBatch= new ByteArrayOutputStream(BATCH_SIZE + 1024);
+
+	private final DataOutputStream fBatchOutput= new DataOutputStream(fBatch);
+
+	private int fEntryCount= 0;
+
+	private boolean fUrgent= false;
+
+	private Timer fTimer;
+
+	private IOException fException;
+
+	/**
+	 * Creates a writer for the given stream.
+	 *
+	 * @param output the stream to write the frames to
+	 */
+	public FramedMessageWriter(OutputStream output) {
+		fOutput= new DataOutputStream(output);
+		fTimer= new Timer(true);
+		fTimer.schedule(new TimerTask() {
+			public void run() {
+				writePendingBatch();
+			}
+		}, FLUSH_INTERVAL, FLUSH_INTERVAL);
+	}
+
+	/**
+	 * Adds a message of the text protocol to the current batch.
+	 *
+	 * @param message the message
+	 * @throws IOException if a batch could not be written
+	 */
+	public synchronized void writeMessage(String message) throws IOException {
+		checkException();
+		if (message.startsWith(MessageIds.TEST_START)) {
+			writeEntry(MessageIds.FRAME_TEST_START, message.substring(MessageIds.MSG_HEADER_LENGTH));
+		} else if (message.startsWith(MessageIds.TEST_END)) {
+			writeEntry(MessageIds.FRAME_TEST_END, message.substring(MessageIds.MSG_HEADER_LENGTH));
+		} else {
+			writeEntry(MessageIds.FRAME_MESSAGE, message);
+			if (message.startsWith(MessageIds.TEST_RUN_END) || message.startsWith(MessageIds.TEST_STOPPED) || message.startsWith(MessageIds.TEST_RERAN))
+				fUrgent= true;
+		}
+		if (fBatch.size() >= BATCH_SIZE)
+			writeBatch();
+	}
+
+	private void writeEntry(byte kind, String value) throws IOException {
+		byte[] bytes= value.getBytes("UTF-8"); //$NON-NLS-1$
+		fBatchOutput.writeByte(kind);
+		fBatchOutput.writeInt(bytes.length);
+		fBatchOutput.write(bytes);
+		fEntryCount++;
+	}
+
+	/**
+	 * Writes the current batch if it contains a message that ends a (re)run.
+	 * Other messages are written by the timer or when the batch is full, which
+	 * avoids a frame per test if the runner flushes after every test.
+	 *
+	 * @throws IOException if the batch could not be written
+	 */
+	public synchronized void flush() throws IOException {
+		checkException();
+		if (fUrgent)
+			writeBatch();
+	}
+
+	/**
+	 * Writes the current batch and closes the underlying stream.
+	 *
+	 * @throws IOException if the batch could not be written or the stream not be closed
+	 */
+	public synchronized void close() throws IOException {
+		fTimer.cancel();
+		try {
+			if (fException == null)
+				writeBatch();
+		} finally {
+			fOutput.close();
+		}
+	}
+
+	private synchronized void writePendingBatch() {
+		if (fException != null)
+			return;
+		try {
+			writeBatch();
+		} catch (IOException e) {
+			// reported to the next caller of writeMessage() or flush()
+			fException= e;
+		}
+	}
+
+	private void writeBatch() throws IOException {
+		fUrgent= false;
+		if (fEntryCount == 0)
+			return;
+		fOutput.writeInt(fBatch.size());
+		fOutput.writeInt(fEntryCount);
+		fBatch.writeTo(fOutput);
+		fOutput.flush();
+		fBatch.reset();
+		fEntryCount= 0;
+	}
+
+	private void checkException() throws IOException {
+		if (fException != null) {
+			IOException e= fException;
+			fException= null;
+			throw e;
+		}
+	}
+}
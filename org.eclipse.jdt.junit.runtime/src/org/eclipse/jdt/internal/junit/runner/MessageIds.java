@@ -134,6 +134,35 @@ public class MessageIds {
 	 */
 	public static final String TEST_RERUN=	">RERUN  "; //$NON-NLS-1$
 
+	/**
+	 * Notification that the RemoteTestRunner switches to another protocol.
+	 * PROTOCOL + protocolName. Sent as a text message, all following messages
+	 * from the RemoteTestRunner use the announced protocol. Messages sent to
+	 * the RemoteTestRunner are not affected.
+	 */
+	public static final String PROTOCOL=	"%PROTOCL"; //$NON-NLS-1$
+	/**
+	 * Name of the binary protocol in which messages are sent in batches of
+	 * length-prefixed frames.
+	 *
+	 * @see FramedMessageWriter
+	 */
+	public static final String BINARY_PROTOCOL= "frames1"; //$NON-NLS-1$
+	/**
+	 * Frame entry kind of a text protocol message.
+	 */
+	public static final byte FRAME_MESSAGE= 0;
+	/**
+	 * Frame entry kind of a test start notification.
+	 * testID + "," + testName
+	 */
+	public static final byte FRAME_TEST_START= 1;
+	/**
+	 * Frame entry kind of a test end notification.
+	 * testID + "," + testName
+	 */
+	public static final byte FRAME_TEST_END= 2;
+
 	/**
 	 * MessageFormat to encode test method identifiers:
 	 * testMethod(testClass)
@@ -136,6 +136,15 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 
 	private boolean fConsoleMode = false;
 
+	/**
+	 * Has the client requested the binary protocol?
+	 */
+	private boolean fBinaryProtocol= false;
+	/**
+	 * Writer for sending messages in the binary protocol
+	 */
+	private FramedMessageWriter fFramedWriter;
+
 	/**
 	 * Reader thread that processes messages from the client.
 	 */
@@ -200,6 +209,7 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * -host: the host to connect to default local host
 	 * -port: the port to connect to, mandatory argument
 	 * -keepalive: keep the process alive after a test run
+	 * -binaryprotocol: send messages in batched binary frames
      * </pre>
      */
 	public static void main(String[] args) {
@@ -299,6 +309,9 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 			else if(args[i].toLowerCase().equals("-keepalive")) { //$NON-NLS-1$
 				fKeepAlive= true;
 			}
+			else if(args[i].toLowerCase().equals("-binaryprotocol")) { //$NON-NLS-1$
+				fBinaryProtocol= true;
+			}
 			else if(args[i].toLowerCase().equals("-debugging") || args[i].toLowerCase().equals("-debug")){ //$NON-NLS-1$ //$NON-NLS-2$
 			    fDebugMode= true;
 
@@ -663,6 +676,8 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
                 } catch (UnsupportedEncodingException e1) {
                     fReader= new BufferedReader(new InputStreamReader(fClientSocket.getInputStream()));
                 }
+				if (fBinaryProtocol)
+					startBinaryProtocol();
 				fReaderThread= new ReaderThread();
 				fReaderThread.start();
 				return true;
@@ -678,10 +693,33 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 		return false;
 	}
 
+	/**
+	 * Announces the binary protocol to the remote test listener and
+	 * sends all further messages in binary frames.
+	 *
+	 * @throws IOException if the announcement could not be sent
+	 */
+	private void startBinaryProtocol() throws IOException {
+		fWriter.println(MessageIds.PROTOCOL + MessageIds.BINARY_PROTOCOL);
+		fWriter.flush();
+		fFramedWriter= new FramedMessageWriter(fClientSocket.getOutputStream());
+		if (fDebugMode)
+			System.out.println("RemoteTestRunner: using binary protocol"); //$NON-NLS-1$
+	}
+
 	/**
 	 * Shutsdown the connection to the remote test listener.
 	 */
 	private void shutDown() {
+		if (fFramedWriter != null) {
+			try {
+				fFramedWriter.close();
+			} catch (IOException e) {
+				if (fDebugMode)
+					e.printStackTrace();
+			}
+			fFramedWriter= null;
+		}
 		if (fWriter != null) {
 			fWriter.close();
 			fWriter= null;
@@ -717,6 +755,16 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * @see org.eclipse.jdt.internal.junit.runner.MessageSender#sendMessage(java.lang.String)
 	 */
 	public void sendMessage(String msg) {
+		if (fFramedWriter != null) {
+			try {
+				fFramedWriter.writeMessage(msg);
+			} catch (IOException e) {
+				// the client is gone, like for the text protocol
+				if (fDebugMode)
+					e.printStackTrace();
+			}
+			return;
+		}
 		if(fWriter == null)
 			return;
 		fWriter.println(msg);
@@ -756,6 +804,15 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	}
 
 	public void flush() {
+		if (fFramedWriter != null) {
+			try {
+				fFramedWriter.flush();
+			} catch (IOException e) {
+				if (fDebugMode)
+					e.printStackTrace();
+			}
+			return;
+		}
 	    fWriter.flush();
 	}
 
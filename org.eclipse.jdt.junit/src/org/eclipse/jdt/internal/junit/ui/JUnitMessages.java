@@ -137,6 +137,9 @@ public final class JUnitMessages extends NLS {
 	public static String JUnitLaunchConfigurationTab_label_containerTest;
 
 	public static String JUnitLaunchConfigurationTab_label_keeprunning;
+	public static String JUnitLaunchConfigurationTab_label_parallel;
+	public static String JUnitLaunchConfigurationTab_label_prioritize;
+	public static String JUnitLaunchConfigurationTab_label_shards;
 
 	public static String JUnitLaunchConfigurationTab_label_method;
 
@@ -78,6 +78,7 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.ILock;
@@ -507,13 +508,27 @@ public class TestRunnerViewPart extends ViewPart {
 				return;
 
 			//TODO: MULTI: getFileNames()
-			File file= new File(path);
+			final File file= new File(path);
 
 			try {
-				JUnitModel.importTestRunSession(file);
-			} catch (CoreException e) {
-				JUnitPlugin.log(e);
-				ErrorDialog.openError(fShell, JUnitMessages.TestRunnerViewPart_ImportTestRunSessionAction_error_title, e.getStatus().getMessage(), e.getStatus());
+				PlatformUI.getWorkbench().getProgressService().busyCursorWhile(new IRunnableWithProgress() {
+					@Override
+					public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+						try {
+							JUnitModel.importTestRunSession(file, monitor);
+						} catch (OperationCanceledException e) {
+							throw new InterruptedException();
+						} catch (CoreException e) {
+							throw new InvocationTargetException(e);
+						}
+					}
+				});
+			} catch (InterruptedException e) {
+				// cancelled
+			} catch (InvocationTargetException e) {
+				CoreException ce= (CoreException) e.getCause();
+				JUnitPlugin.log(ce);
+				ErrorDialog.openError(fShell, JUnitMessages.TestRunnerViewPart_ImportTestRunSessionAction_error_title, ce.getStatus().getMessage(), ce.getStatus());
 			}
 		}
 	}
@@ -35,6 +35,7 @@ import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Spinner;
 import org.eclipse.swt.widgets.Text;
 
 import org.eclipse.core.runtime.CoreException;
@@ -138,11 +139,16 @@ import org.eclipse.jdt.internal.ui.wizards.TypedViewerFilter;
  */
 public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab {
 
+	private static final int MAX_SHARD_COUNT= 64;
+
 	// Project UI widgets
 	private Label fProjLabel;
 	private Text fProjText;
 	private Button fProjButton;
 	private Button fKeepRunning;
+	private Button fParallelExecution;
+	private Button fPrioritizeTests;
+	private Spinner fShardCount;
 
 	// Test class UI widgets
 	private Text fTestText;
@@ -202,6 +208,8 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 		createSpacer(comp);
 
 		createKeepAliveGroup(comp);
+		createParallelExecutionGroup(comp);
+		createTestStatisticsGroup(comp);
 		Dialog.applyDialogFont(comp);
 		PlatformUI.getWorkbench().getHelpSystem().setHelp(getControl(), IJUnitHelpContextIds.LAUNCH_CONFIGURATION_DIALOG_JUNIT_MAIN_TAB);
 		validatePage();
@@ -271,6 +279,7 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 				if (first instanceof ITestKind) {
 					boolean isJUnit5= TestKindRegistry.JUNIT5_TEST_KIND_ID.equals(((ITestKind) first).getId());
 					fIncludeExcludeTagsButton.setEnabled(isJUnit5);
+					fParallelExecution.setEnabled(isJUnit5);
 				}
 			}
 		}
@@ -461,6 +470,65 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 		fKeepRunning.setLayoutData(gd);
 	}
 
+	private void createParallelExecutionGroup(Composite comp) {
+		GridData gd;
+		fParallelExecution= new Button(comp, SWT.CHECK);
+		fParallelExecution.addSelectionListener(new SelectionListener() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				updateLaunchConfigurationDialog();
+			}
+
+			@Override
+			public void widgetDefaultSelected(SelectionEvent e) {
+			}
+		});
+		fParallelExecution.setText(JUnitMessages.JUnitLaunchConfigurationTab_label_parallel);
+		gd= new GridData();
+		gd.horizontalAlignment= GridData.FILL;
+		gd.horizontalSpan= 3;
+		fParallelExecution.setLayoutData(gd);
+	}
+
+	private void createTestStatisticsGroup(Composite comp) {
+		GridData gd;
+		fPrioritizeTests= new Button(comp, SWT.CHECK);
+		fPrioritizeTests.addSelectionListener(new SelectionListener() {
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				updateLaunchConfigurationDialog();
+			}
+
+			@Override
+			public void widgetDefaultSelected(SelectionEvent e) {
+			}
+		});
+		fPrioritizeTests.setText(JUnitMessages.JUnitLaunchConfigurationTab_label_prioritize);
+		gd= new GridData();
+		gd.horizontalAlignment= GridData.FILL;
+		gd.horizontalSpan= 3;
+		fPrioritizeTests.setLayoutData(gd);
+
+		Label shardLabel= new Label(comp, SWT.NONE);
+		shardLabel.setText(JUnitMessages.JUnitLaunchConfigurationTab_label_shards);
+		gd= new GridData();
+		gd.horizontalIndent= 0;
+		shardLabel.setLayoutData(gd);
+
+		fShardCount= new Spinner(comp, SWT.BORDER);
+		fShardCount.setMinimum(1);
+		fShardCount.setMaximum(MAX_SHARD_COUNT);
+		fShardCount.addModifyListener(new ModifyListener() {
+			@Override
+			public void modifyText(ModifyEvent evt) {
+				updateLaunchConfigurationDialog();
+			}
+		});
+		gd= new GridData();
+		gd.horizontalSpan= 2;
+		fShardCount.setLayoutData(gd);
+	}
+
 	private static Image createImage(String path) {
 		return JUnitPlugin.getImageDescriptor(path).createImage();
 	}
@@ -481,6 +549,8 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 		else
 			updateTestTypeFromConfig(config);
 		updateKeepRunning(config);
+		updateParallelExecution(config);
+		updateTestStatistics(config);
 		updateTestLoaderFromConfig(config);
 
 		validatePage();
@@ -514,6 +584,27 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 		fKeepRunning.setSelection(running);
 	}
 
+	private void updateParallelExecution(ILaunchConfiguration config) {
+		boolean parallel= false;
+		try {
+			parallel= config.getAttribute(JUnitLaunchConfigurationConstants.ATTR_JUNIT5_PARALLEL_EXECUTION, false);
+		} catch (CoreException ce) {
+		}
+		fParallelExecution.setSelection(parallel);
+	}
+
+	private void updateTestStatistics(ILaunchConfiguration config) {
+		boolean prioritize= false;
+		int shardCount= 1;
+		try {
+			prioritize= config.getAttribute(JUnitLaunchConfigurationConstants.ATTR_PRIORITIZE_TESTS, false);
+			shardCount= config.getAttribute(JUnitLaunchConfigurationConstants.ATTR_SHARD_COUNT, 1);
+		} catch (CoreException ce) {
+		}
+		fPrioritizeTests.setSelection(prioritize);
+		fShardCount.setSelection(shardCount);
+	}
+
 	private void updateProjectFromConfig(ILaunchConfiguration config) {
 		String projectName= ""; //$NON-NLS-1$
 		try {
@@ -576,6 +667,9 @@ public class JUnitLaunchConfigurationTab extends AbstractLaunchConfigurationTab
 			config.setAttribute(JUnitLaunchConfigurationConstants.ATTR_TEST_NAME, fTestMethodText.getText());
 		}
 		config.setAttribute(JUnitLaunchConfigurationConstants.ATTR_KEEPRUNNING, fKeepRunning.getSelection());
+		config.setAttribute(JUnitLaunchConfigurationConstants.ATTR_JUNIT5_PARALLEL_EXECUTION, fParallelExecution.getSelection());
+		config.setAttribute(JUnitLaunchConfigurationConstants.ATTR_PRIORITIZE_TESTS, fPrioritizeTests.getSelection());
+		config.setAttribute(JUnitLaunchConfigurationConstants.ATTR_SHARD_COUNT, fShardCount.getSelection());
 		try {
 			mapResources(config);
 		} catch (CoreException e) {
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit5.runner;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serializes test execution events that are reported concurrently when the JUnit Platform
+ * executes tests in parallel.
+ * <p>
+ * The {@link org.eclipse.jdt.internal.junit.runner.TestIdMap} and the message sender of the
+ * RemoteTestRunner expect to be called by one thread at a time, and the messages of one event,
+ * e.g. a failure with its trace, must not be interleaved with other messages. Events are
+ * therefore posted to a non-blocking queue, and whichever thread posts while no other thread
+ * is dispatching drains the queue. Test threads never wait for each other, and the events of
+ * each thread are dispatched in the order in which they were posted.
+ * </p>
+ */
+public class EventMultiplexer {
+
+	private final Queue<Runnable> fEvents= new ConcurrentLinkedQueue<>();
+
+	private final AtomicBoolean fDispatching= new AtomicBoolean();
+
+	/**
+	 * Notified whenever a thread stops dispatching.
+	 */
+	private final Object fDispatchedLock= new Object();
+
+	/**
+	 * Posts an event. The event is dispatched by the calling thread, or by the thread that is
+	 * currently dispatching events.
+	 *
+	 * @param event the event to dispatch
+	 */
+	public void post(Runnable event) {
+		fEvents.add(event);
+		drain();
+	}
+
+	/**
+	 * Waits until all posted events have been dispatched. Events that are not being dispatched by
+	 * another thread are dispatched by the calling thread.
+	 */
+	public void awaitDispatched() {
+		boolean interrupted= false;
+		try {
+			while (true) {
+				drain();
+				synchronized (fDispatchedLock) {
+					if (!fDispatching.get()) {
+						if (fEvents.isEmpty())
+							return;
+						continue; // posted after the last drain, but nobody is dispatching
+					}
+					try {
+						// the dispatching thread notifies after resetting the flag, which it cannot do before we wait
+						fDispatchedLock.wait();
+					} catch (InterruptedException e) {
+						interrupted= true;
+					}
+				}
+			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	private void drain() {
+		while (!fEvents.isEmpty() && fDispatching.compareAndSet(false, true)) {
+			try {
+				Runnable event;
+				while ((event= fEvents.poll()) != null) {
+					event.run();
+				}
+			} finally {
+				synchronized (fDispatchedLock) {
+					fDispatching.set(false);
+					fDispatchedLock.notifyAll();
+				}
+			}
+			// re-check: an event may have been posted after the last poll, but before the flag was reset
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2018 IBM Corporation and others.
+ * Copyright (c) 2016, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -36,13 +36,20 @@ import org.eclipse.jdt.internal.junit.runner.RemoteTestRunner;
 import org.eclipse.jdt.internal.junit.runner.TestIdMap;
 import org.eclipse.jdt.internal.junit.runner.TestReferenceFailure;
 
+/**
+ * Reports the execution of a test plan to the RemoteTestRunner. The JUnit Platform may call the
+ * listener from several threads when tests are executed in parallel, so all notifications are
+ * posted to an {@link EventMultiplexer}.
+ */
 public class JUnit5TestListener implements TestExecutionListener {
 
 	private final IListensToTestExecutions fNotified;
 
 	private RemoteTestRunner fRemoteTestRunner;
 
-	private TestPlan fTestPlan;
+	private volatile TestPlan fTestPlan;
+
+	private final EventMultiplexer fEvents= new EventMultiplexer();
 
 	public JUnit5TestListener(IListensToTestExecutions notified, RemoteTestRunner remoteTestRunner) {
 		fNotified= notified;
@@ -56,25 +63,36 @@ public class JUnit5TestListener implements TestExecutionListener {
 
 	@Override
 	public void testPlanExecutionFinished(TestPlan testPlan) {
+		fEvents.awaitDispatched();
 		fTestPlan= null;
 	}
 
 	@Override
 	public void executionStarted(TestIdentifier testIdentifier) {
 		if (testIdentifier.isTest()) {
-			fNotified.notifyTestStarted(getIdentifier(testIdentifier, false, false));
+			ITestIdentifier identifier= getIdentifier(testIdentifier, false, false);
+			fEvents.post(() -> fNotified.notifyTestStarted(identifier));
 		}
 	}
 
 	@Override
 	public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
-		notifyIfNotSuccessful(testIdentifier, testExecutionResult);
-		if (testIdentifier.isTest()) {
-			fNotified.notifyTestEnded(getIdentifier(testIdentifier, false, false));
-		}
+		// the trace is computed in the test thread, only sending is serialized
+		TestReferenceFailure failure= getFailure(testIdentifier, testExecutionResult);
+		ITestIdentifier identifier= testIdentifier.isTest() ? getIdentifier(testIdentifier, false, false) : null;
+		if (failure == null && identifier == null)
+			return;
+		fEvents.post(() -> {
+			if (failure != null) {
+				fNotified.notifyTestFailed(failure);
+			}
+			if (identifier != null) {
+				fNotified.notifyTestEnded(identifier);
+			}
+		});
 	}
 
-	private void notifyIfNotSuccessful(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+	private TestReferenceFailure getFailure(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
 		Status result= testExecutionResult.getStatus();
 		if (result != Status.SUCCESSFUL) {
 			String trace= ""; //$NON-NLS-1$
@@ -91,8 +109,9 @@ public class JUnit5TestListener implements TestExecutionListener {
 			}
 
 			ITestIdentifier identifier= getIdentifier(testIdentifier, false, assumptionFailed);
-			fNotified.notifyTestFailed(new TestReferenceFailure(identifier, status, trace, comparison));
+			return new TestReferenceFailure(identifier, status, trace, comparison);
 		}
+		return null;
 	}
 
 	private String getTrace(Throwable exception) {
@@ -150,8 +169,9 @@ public class JUnit5TestListener implements TestExecutionListener {
 
 	@Override
 	public void executionSkipped(TestIdentifier testIdentifier, String reason) {
-		if (testIdentifier.isContainer() && fTestPlan != null) {
-			fTestPlan.getDescendants(testIdentifier).stream().filter(t -> t.isTest()).forEachOrdered(t -> notifySkipped(t));
+		TestPlan testPlan= fTestPlan;
+		if (testIdentifier.isContainer() && testPlan != null) {
+			testPlan.getDescendants(testIdentifier).stream().filter(t -> t.isTest()).forEachOrdered(t -> notifySkipped(t));
 		} else {
 			notifySkipped(testIdentifier);
 		}
@@ -160,26 +180,31 @@ public class JUnit5TestListener implements TestExecutionListener {
 	private void notifySkipped(TestIdentifier testIdentifier) {
 		// Send message to listeners which would be stale otherwise
 		ITestIdentifier identifier= getIdentifier(testIdentifier, true, false);
-		fNotified.notifyTestStarted(identifier);
-		fNotified.notifyTestEnded(identifier);
+		fEvents.post(() -> {
+			fNotified.notifyTestStarted(identifier);
+			fNotified.notifyTestEnded(identifier);
+		});
 	}
 
 
 	@Override
 	public void dynamicTestRegistered(TestIdentifier testIdentifier) {
-		if (fTestPlan != null) {
+		TestPlan testPlan= fTestPlan;
+		if (testPlan != null) {
 			JUnit5Identifier dynamicTestIdentifier= new JUnit5Identifier(testIdentifier);
 			boolean hasChildren;
 			int testCount;
 			if (testIdentifier.isContainer()) {
 				hasChildren= true;
-				testCount= fTestPlan.getChildren(testIdentifier).size();
+				testCount= testPlan.getChildren(testIdentifier).size();
 			} else {
 				hasChildren= false;
 				testCount= 1;
 			}
-			String parentId= getParentId(testIdentifier, fTestPlan);
-			fRemoteTestRunner.visitTreeEntry(dynamicTestIdentifier, hasChildren, testCount, true, parentId);
+			fEvents.post(() -> {
+				String parentId= getParentId(testIdentifier, testPlan);
+				fRemoteTestRunner.visitTreeEntry(dynamicTestIdentifier, hasChildren, testCount, true, parentId);
+			});
 		}
 	}
 
@@ -234,7 +259,9 @@ public class JUnit5TestListener implements TestExecutionListener {
 
 	@Override
 	public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
-		System.out.println(TestIdentifier.class.getSimpleName() + " [" + testIdentifier.getDisplayName() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
-		System.out.println(entry);
+		fEvents.post(() -> {
+			System.out.println(TestIdentifier.class.getSimpleName() + " [" + testIdentifier.getDisplayName() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+			System.out.println(entry);
+		});
 	}
 }
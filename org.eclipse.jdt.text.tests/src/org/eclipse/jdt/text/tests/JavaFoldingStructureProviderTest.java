@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.projection.ProjectionAnnotation;
+import org.eclipse.jface.text.source.projection.ProjectionAnnotationModel;
+import org.eclipse.jface.text.source.projection.ProjectionViewer;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.ui.text.folding.DefaultJavaFoldingStructureProvider;
+import org.eclipse.jdt.ui.text.folding.IJavaFoldingStructureProvider;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * Tests that updating the folding structure after changes within members yields the same folding
+ * annotations as recomputing the entire folding structure.
+ *
+ * @since 3.16.100
+ */
+public class JavaFoldingStructureProviderTest extends TestCase {
+
+	/**
+	 * Records the last reconcile event.
+	 */
+	private static class ReconcileListener implements IElementChangedListener {
+
+		private ElementChangedEvent fEvent;
+
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			fEvent= event;
+		}
+	}
+
+	private static final Class<JavaFoldingStructureProviderTest> THIS= JavaFoldingStructureProviderTest.class;
+
+	private JavaEditor fEditor;
+	private IDocument fDocument;
+	private ICompilationUnit fWorkingCopy;
+	private IPackageFragment fPackage;
+	private ProjectionAnnotationModel fModel;
+	private Accessor fProvider;
+	private IElementChangedListener fFoldingListener;
+	private ReconcileListener fReconcileListener;
+
+
+	public static Test setUpTest(Test someTest) {
+		return new JUnitProjectTestSetup(someTest);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(THIS));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		IPackageFragmentRoot root= JUnitProjectTestSetup.getProject().getPackageFragmentRoot(JUnitProjectTestSetup.getProject().getProject().getFolder("src"));
+		fPackage= root.createPackageFragment("folding", true, null);
+		ICompilationUnit unit= fPackage.createCompilationUnit("Folding.java", createSource(), true, null);
+
+		fEditor= (JavaEditor) EditorTestHelper.openInEditor((IFile) unit.getResource(), true);
+		assertTrue(EditorTestHelper.joinReconciler(EditorTestHelper.getSourceViewer(fEditor), 0, 10000, 100));
+		fDocument= EditorTestHelper.getDocument(fEditor);
+		fWorkingCopy= JavaPlugin.getDefault().getWorkingCopyManager().getWorkingCopy(fEditor.getEditorInput());
+		fModel= ((ProjectionViewer) EditorTestHelper.getSourceViewer(fEditor)).getProjectionAnnotationModel();
+		assertNotNull(fModel);
+
+		IJavaFoldingStructureProvider provider= fEditor.getAdapter(IJavaFoldingStructureProvider.class);
+		assertEquals(DefaultJavaFoldingStructureProvider.class, provider.getClass());
+		fProvider= new Accessor(provider, DefaultJavaFoldingStructureProvider.class);
+
+		// the test passes the reconcile deltas itself, so that the updates do not race with the reconciler
+		fFoldingListener= (IElementChangedListener) fProvider.get("fElementListener");
+		assertNotNull(fFoldingListener);
+		JavaCore.removeElementChangedListener(fFoldingListener);
+		fReconcileListener= new ReconcileListener();
+		JavaCore.addElementChangedListener(fReconcileListener, ElementChangedEvent.POST_RECONCILE);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JavaCore.removeElementChangedListener(fReconcileListener);
+		JavaCore.addElementChangedListener(fFoldingListener);
+		EditorTestHelper.closeAllEditors();
+		fPackage.delete(true, null);
+		fEditor= null;
+		fDocument= null;
+		fWorkingCopy= null;
+		fPackage= null;
+		fModel= null;
+		fProvider= null;
+		fFoldingListener= null;
+		fReconcileListener= null;
+	}
+
+	private static String createSource() {
+		StringBuffer buf= new StringBuffer();
+		buf.append("/*\n");
+		buf.append(" * Header comment.\n");
+		buf.append(" */\n");
+		buf.append("package folding;\n");
+		buf.append("\n");
+		buf.append("import java.util.ArrayList;\n");
+		buf.append("import java.util.List;\n");
+		buf.append("\n");
+		buf.append("/**\n");
+		buf.append(" * Javadoc of Folding.\n");
+		buf.append(" */\n");
+		buf.append("public class Folding {\n");
+		buf.append("\tprivate final List<String> fNames= new ArrayList<>();\n");
+		buf.append("\n");
+		buf.append("\t/**\n");
+		buf.append("\t * Javadoc of foo.\n");
+		buf.append("\t */\n");
+		buf.append("\tpublic int foo() {\n");
+		buf.append("\t\tint a= fNames.size();\n");
+		buf.append("\t\treturn a;\n");
+		buf.append("\t}\n");
+		buf.append("\n");
+		buf.append("\t/**\n");
+		buf.append("\t * Javadoc of Inner.\n");
+		buf.append("\t */\n");
+		buf.append("\tstatic class Inner {\n");
+		buf.append("\t\t/**\n");
+		buf.append("\t\t * Javadoc of bar.\n");
+		buf.append("\t\t */\n");
+		buf.append("\t\tvoid bar() {\n");
+		buf.append("\t\t\tint b= 2;\n");
+		buf.append("\t\t\tb++;\n");
+		buf.append("\t\t}\n");
+		buf.append("\t}\n");
+		buf.append("\n");
+		buf.append("\tvoid baz() {\n");
+		buf.append("\t}\n");
+		buf.append("}\n");
+		return buf.toString();
+	}
+
+	public void testBodyEdit() throws Exception {
+		replace("\t\tint a= fNames.size();\n", "\t\tint a= fNames.size();\n\t\tfor (String name : fNames) {\n\t\t\ta+= name.length();\n\t\t}\n");
+		assertUpdateEqualsFullUpdate();
+		replace("\tvoid baz() {\n", "\tvoid baz() {\n\t\tfoo();\n\t\tfoo();\n");
+		assertUpdateEqualsFullUpdate();
+		replace("\t\tfor (String name : fNames) {\n\t\t\ta+= name.length();\n\t\t}\n", "");
+		assertUpdateEqualsFullUpdate();
+	}
+
+	public void testJavadocEdit() throws Exception {
+		replace("\t * Javadoc of foo.\n", "\t * Javadoc of foo,\n\t * which spans\n\t * more lines.\n");
+		assertUpdateEqualsFullUpdate();
+		replace("\t\t * Javadoc of bar.\n", "\t\t * Bar.\n");
+		assertUpdateEqualsFullUpdate();
+		replace("\t/**\n\t * Javadoc of foo,\n\t * which spans\n\t * more lines.\n\t */\n", "");
+		assertUpdateEqualsFullUpdate();
+	}
+
+	public void testNestedTypeEdit() throws Exception {
+		replace("\t\t\tb++;\n", "\t\t\tb++;\n\t\t\tb*= 2;\n\t\t\tb--;\n");
+		assertUpdateEqualsFullUpdate();
+		replace("\t\tvoid bar() {\n", "\t\tvoid qux() {\n\t\t\tbar();\n\t\t}\n\n\t\tvoid bar() {\n");
+		assertUpdateEqualsFullUpdate();
+		replace("\t\t\tbar();\n", "\t\t\tnew Runnable() {\n\t\t\t\tpublic void run() {\n\t\t\t\t\tbar();\n\t\t\t\t}\n\t\t\t}.run();\n");
+		assertUpdateEqualsFullUpdate();
+	}
+
+	private void replace(String oldText, String newText) throws Exception {
+		int offset= fDocument.get().indexOf(oldText);
+		assertTrue(offset >= 0);
+		fDocument.replace(offset, oldText.length(), newText);
+
+		fReconcileListener.fEvent= null;
+		fWorkingCopy.reconcile(ICompilationUnit.NO_AST, false, null, null);
+		ElementChangedEvent event= fReconcileListener.fEvent;
+		assertNotNull(event);
+		fFoldingListener.elementChanged(event);
+	}
+
+	private void assertUpdateEqualsFullUpdate() throws Exception {
+		List<String> updated= getFoldingAnnotations();
+		assertFalse(updated.isEmpty());
+
+		// the update the element listener performs when it cannot update incrementally
+		Object context= fProvider.invoke("createContext", new Class[] { boolean.class }, new Object[] { Boolean.FALSE });
+		assertNotNull(context);
+		fProvider.invoke("update", new Class[] { context.getClass(), IMember[].class }, new Object[] { context, null });
+
+		assertEquals(toString(getFoldingAnnotations()), toString(updated));
+	}
+
+	private List<String> getFoldingAnnotations() {
+		List<String> annotations= new ArrayList<>();
+		for (Iterator<?> iter= fModel.getAnnotationIterator(); iter.hasNext();) {
+			Object annotation= iter.next();
+			if (annotation instanceof ProjectionAnnotation) {
+				Position position= fModel.getPosition((ProjectionAnnotation) annotation);
+				if (position != null && !position.isDeleted())
+					annotations.add(position.getOffset() + ", " + position.getLength() + ": " + fDocument.get().substring(position.getOffset(), position.getOffset() + position.getLength()).trim());
+			}
+		}
+		Collections.sort(annotations);
+		return annotations;
+	}
+
+	private static String toString(List<String> annotations) {
+		StringBuffer buf= new StringBuffer();
+		for (Iterator<String> iter= annotations.iterator(); iter.hasNext();)
+			buf.append(iter.next()).append("\n---\n");
+		return buf.toString();
+	}
+}
@@ -97,6 +97,30 @@ public class JavaHeuristicScannerTest extends TestCase {
 		}
 }
 
+	public void testFindPeersAfterChanges() throws Exception {
+		fDocument.set("class A {\n\tvoid m() {\n\t\tint[] a= { 1 };\n\t}\n}\n");
+		int classBrace= fDocument.get().indexOf('{');
+		assertEquals(fDocument.get().lastIndexOf('}'), fHeuristicScanner.findClosingPeer(classBrace + 1, '{', '}'));
+
+		// comment out the rest of the document
+		int method= fDocument.get().indexOf("\tvoid");
+		fDocument.replace(method, 0, "/*");
+		assertEquals(JavaHeuristicScanner.NOT_FOUND, fHeuristicScanner.findClosingPeer(classBrace + 1, '{', '}'));
+
+		// end the comment after the method
+		fDocument.replace(fDocument.get().indexOf("\t}\n") + 3, 0, "*/");
+		String content= fDocument.get();
+		assertEquals(content.lastIndexOf('}'), fHeuristicScanner.findClosingPeer(classBrace + 1, '{', '}'));
+		assertEquals(classBrace, fHeuristicScanner.findOpeningPeer(content.lastIndexOf('}') - 1, '{', '}'));
+
+		// remove the comment start again
+		fDocument.replace(method, 2, "");
+		content= fDocument.get();
+		assertEquals(content.lastIndexOf('}'), fHeuristicScanner.findClosingPeer(classBrace + 1, '{', '}'));
+		assertEquals(content.indexOf("{ 1"), fHeuristicScanner.findOpeningPeer(content.indexOf(" 1 "), '{', '}'));
+		assertEquals(content.indexOf("{\n\t\tint"), fHeuristicScanner.findOpeningPeer(content.indexOf("{ 1") - 1, '{', '}'));
+	}
+
 	public void testPrevIndentationUnit1() {
 		fDocument.set("\tint a;\n" +
 			"\tif (true)\n" +
@@ -50,6 +50,7 @@ public class JdtTextTestSuite {
 		suite.addTest(MarkOccurrenceTest.suite());
 		suite.addTest(MarkOccurrenceTest17.suite());
 		suite.addTest(MarkOccurrenceTest18.suite());
+		suite.addTest(OccurrencesIndexTest.suite());
 		suite.addTest(PluginsNotLoadedTest.suite());
 		PluginsNotLoadedTest.addLoadedPlugIns(
 				new String[] {
@@ -71,6 +72,7 @@ public class JdtTextTestSuite {
 		suite.addTest(IndentActionTest.suite());
 		suite.addTest(TemplatesTestSuite.suite());
 		suite.addTest(JavaElementPrefixPatternMatcherTest.suite());
+		suite.addTest(JavaFoldingStructureProviderTest.suite());
 		//$JUnit-END$
 
 		return suite;
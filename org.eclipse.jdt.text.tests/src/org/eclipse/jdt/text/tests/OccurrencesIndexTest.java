@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
+import org.eclipse.jdt.internal.core.manipulation.search.IOccurrencesFinder.OccurrenceLocation;
+import org.eclipse.jdt.internal.core.manipulation.search.OccurrencesFinder;
+import org.eclipse.jdt.internal.core.manipulation.search.OccurrencesIndex;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Tests that the {@link OccurrencesIndex} finds the same occurrences as the
+ * {@link OccurrencesFinder}.
+ *
+ * @since 3.16.100
+ */
+public class OccurrencesIndexTest extends TestCase {
+
+	public static Test setUpTest(Test someTest) {
+		return new JUnitProjectTestSetup(someTest);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(OccurrencesIndexTest.class));
+	}
+
+	private CompilationUnit createAST(ICompilationUnit cu) {
+		ASTParser parser= ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+		parser.setSource(cu);
+		parser.setResolveBindings(true);
+		return (CompilationUnit) parser.createAST(null);
+	}
+
+	public void testJUnitSources() throws Exception {
+		IPackageFragment pack= JUnitProjectTestSetup.getProject().findType("junit.framework.TestCase").getPackageFragment();
+		ICompilationUnit[] cus= pack.getCompilationUnits();
+		for (int i= 0; i < cus.length; i++) {
+			assertSameOccurrences(createAST(cus[i]));
+		}
+	}
+
+	public void testQualifiedNamesAndWrites() throws Exception {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("import static java.lang.Math.max;\n");
+		buf.append("public class E {\n");
+		buf.append("    E e;\n");
+		buf.append("    int x= 1;\n");
+		buf.append("    static int y;\n");
+		buf.append("    E() {\n");
+		buf.append("        this(0);\n");
+		buf.append("    }\n");
+		buf.append("    E(int x) {\n");
+		buf.append("        this.x= x;\n");
+		buf.append("        e.e.x++;\n");
+		buf.append("        --E.y;\n");
+		buf.append("        E.y= max(x, java.lang.Math.max(1, 2));\n");
+		buf.append("        new E().e= new test1.E();\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		IPackageFragment pack= JUnitProjectTestSetup.getProject().getPackageFragmentRoots()[0].createPackageFragment("test1", false, null);
+		ICompilationUnit cu= pack.createCompilationUnit("E.java", buf.toString(), true, null);
+		try {
+			assertSameOccurrences(createAST(cu));
+		} finally {
+			cu.delete(true, null);
+		}
+	}
+
+	private static void assertSameOccurrences(CompilationUnit root) {
+		final List<Name> names= new ArrayList<>();
+		root.accept(new ASTVisitor(true) {
+			@Override
+			public boolean visit(SimpleName node) {
+				names.add(node);
+				return true;
+			}
+
+			@Override
+			public boolean visit(QualifiedName node) {
+				names.add(node);
+				return true;
+			}
+		});
+		OccurrencesIndex index= new OccurrencesIndex(root);
+		for (int i= 0; i < names.size(); i++) {
+			Name name= names.get(i);
+			if (!index.isIndexed(name))
+				continue;
+			OccurrencesFinder finder= new OccurrencesFinder();
+			assertNull(finder.initialize(root, name));
+			OccurrenceLocation[] expected= finder.getOccurrences();
+			OccurrenceLocation[] actual= index.getOccurrences(name);
+			String message= name.toString() + " at " + name.getStartPosition();
+			if (expected == null) {
+				assertNull(message, actual);
+				continue;
+			}
+			assertNotNull(message, actual);
+			assertEquals(message, expected.length, actual.length);
+			sort(expected);
+			sort(actual);
+			for (int j= 0; j < expected.length; j++) {
+				assertEquals(message, expected[j].getOffset(), actual[j].getOffset());
+				assertEquals(message, expected[j].getLength(), actual[j].getLength());
+				assertEquals(message, expected[j].getFlags(), actual[j].getFlags());
+				assertEquals(message, expected[j].getDescription(), actual[j].getDescription());
+			}
+		}
+	}
+
+	private static void sort(OccurrenceLocation[] locations) {
+		Arrays.sort(locations, new Comparator<OccurrenceLocation>() {
+			@Override
+			public int compare(OccurrenceLocation location0, OccurrenceLocation location1) {
+				return location0.getOffset() - location1.getOffset();
+			}
+		});
+	}
+}
@@ -81,6 +81,7 @@ public class AbstractCompletionTest extends TestCase {
 	private String fLocals;
 	private char fTrigger;
 	private boolean fWaitBeforeCompleting;
+	private long fAsyncDeadline;
 
 	@Override
 	protected void setUp() throws Exception {
@@ -107,6 +108,7 @@ public class AbstractCompletionTest extends TestCase {
 		fLocals= "";
 		fTrigger= '\0';
 		fWaitBeforeCompleting= false;
+		fAsyncDeadline= 0;
 	}
 
 	protected IPackageFragment getAnonymousTestPackage() throws CoreException {
@@ -131,6 +133,17 @@ public class AbstractCompletionTest extends TestCase {
 		fWaitBeforeCompleting= wait;
 	}
 
+	/**
+	 * Makes code assist run the proposal computers concurrently and cancel them after the given
+	 * deadline.
+	 *
+	 * @param deadline the deadline in milliseconds
+	 * @since 3.16.100
+	 */
+	protected void computeAsynchronously(long deadline) {
+		fAsyncDeadline= deadline;
+	}
+
 	protected IPreferenceStore getJDTUIPrefs() {
 		IPreferenceStore store= JavaPlugin.getDefault().getPreferenceStore();
 		return store;
@@ -521,6 +534,10 @@ public class AbstractCompletionTest extends TestCase {
 		Accessor accessor= new Accessor(javaProcessor, ContentAssistProcessor.class);
 		accessor.invoke("setCategoryIteration", new Object[0]);
 		accessor.set("fRepetition", 0);
+		if (fAsyncDeadline > 0) {
+			accessor.set("fAsynchronous", true);
+			accessor.set("fDeadline", Long.valueOf(fAsyncDeadline));
+		}
 
 		ICompletionProposal[] proposals= javaProcessor.computeCompletionProposals(fEditor.getViewer(), selection.getOffset());
 		final String errorMessage= javaProcessor.getErrorMessage();
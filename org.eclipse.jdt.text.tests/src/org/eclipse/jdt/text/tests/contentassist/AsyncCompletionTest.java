@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import org.eclipse.jdt.internal.ui.text.java.CompletionProposalComputerMetrics;
+import org.eclipse.jdt.internal.ui.text.java.CompletionProposalComputerMetrics.ComputerMetrics;
+import org.eclipse.jdt.internal.ui.text.java.CompletionProposalComputerRegistry;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+/**
+ * Tests asynchronous content assist, see {@link SlowCompletionProposalComputer}.
+ *
+ * @since 3.16.100
+ */
+public class AsyncCompletionTest extends AbstractCompletionTest {
+	private static final Class<AsyncCompletionTest> THIS= AsyncCompletionTest.class;
+
+	public static Test setUpTest(Test test) {
+		return new CompletionTestSetup(test);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(THIS, suiteName(THIS)));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		addMembers("int fooBar;");
+		getMetrics().reset();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		SlowCompletionProposalComputer.setDelay(0);
+		super.tearDown();
+	}
+
+	private static CompletionProposalComputerMetrics getMetrics() {
+		return CompletionProposalComputerRegistry.getDefault().getMetrics();
+	}
+
+	public void testComputerFinishesBeforeDeadline() throws Exception {
+		computeAsynchronously(20000);
+		SlowCompletionProposalComputer.setDelay(200);
+		assertMethodBodyProposal("|", SlowCompletionProposalComputer.PROPOSAL, SlowCompletionProposalComputer.PROPOSAL + "|");
+
+		ComputerMetrics metrics= getMetrics().getComputerMetrics(SlowCompletionProposalComputer.ID);
+		assertNotNull(metrics);
+		assertEquals(1, metrics.getCount());
+		assertEquals(0, metrics.getOverrunCount());
+		assertTrue(metrics.getMaxTime() >= 200);
+	}
+
+	public void testComputerOverrunsDeadline() throws Exception {
+		computeAsynchronously(500);
+		SlowCompletionProposalComputer.setDelay(60000);
+		long start= System.currentTimeMillis();
+		assertNoMethodBodyProposals("|", SlowCompletionProposalComputer.PROPOSAL);
+		assertTrue(System.currentTimeMillis() - start < 30000);
+
+		ComputerMetrics metrics= getMetrics().getComputerMetrics(SlowCompletionProposalComputer.ID);
+		assertNotNull(metrics);
+		assertEquals(1, metrics.getOverrunCount());
+
+		long end= System.currentTimeMillis() + 10000;
+		while (!SlowCompletionProposalComputer.wasCanceled() && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		assertTrue(SlowCompletionProposalComputer.wasCanceled());
+	}
+
+	public void testOtherProposalsWithOverrunningComputer() throws Exception {
+		computeAsynchronously(500);
+		SlowCompletionProposalComputer.setDelay(60000);
+		assertMethodBodyProposal("fooB|", "fooBar", "fooBar|");
+	}
+}
@@ -13,12 +13,15 @@
  *******************************************************************************/
 package org.eclipse.jdt.text.tests.contentassist;
 
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Preferences;
 
 import org.eclipse.jdt.core.IJavaProject;
@@ -243,6 +246,66 @@ public class ContentAssistHistoryTest extends TestCase {
 		assertEqualMap(map(LIST, list(ARRAY_LIST), COLLECTION, list(ARRAY_LIST), ITERABLE, list(ARRAY_LIST), CHAR_SEQUENCE, list(STRING)), loaded.getEntireHistory());
 	}
 
+	public void testLoadStoreReaderWriter() throws Exception {
+		ContentAssistHistory history= new ContentAssistHistory(50, 5);
+
+		history.remember(fgListT, fgArrayListT);
+		history.remember(fgCollectionT, fgLinkedListT);
+
+		StringWriter writer= new StringWriter();
+		ContentAssistHistory.store(history, writer);
+		ContentAssistHistory loaded= ContentAssistHistory.load(new StringReader(writer.toString()));
+
+		assertEqualMap(map(LIST, list(ARRAY_LIST), COLLECTION, list(ARRAY_LIST, LINKED_LIST), ITERABLE, list(ARRAY_LIST, LINKED_LIST)), loaded.getEntireHistory());
+
+		StringWriter stored= new StringWriter();
+		ContentAssistHistory.store(loaded, stored);
+		assertEquals(writer.toString(), stored.toString());
+	}
+
+	public void testLoadXML() throws Exception {
+		String xml= "<?xml version=\"1.0\" encoding=\"UTF-8\"?><history maxLHS=\"100\" maxRHS=\"10\">"
+				+ "<lhs name=\"java.util.List\"><rhs name=\"java.util.ArrayList\"/></lhs>"
+				+ "<lhs name=\"java.lang.CharSequence\"><rhs name=\"java.lang.StringBuffer\"/><rhs name=\"java.lang.String\"/></lhs>"
+				+ "</history>";
+
+		Preferences prefs= new Preferences();
+		String key= "myKey";
+		prefs.setValue(key, xml);
+		ContentAssistHistory loaded= ContentAssistHistory.load(prefs, key);
+
+		assertEqualMap(map(LIST, list(ARRAY_LIST), CHAR_SEQUENCE, list(STRING_BUFFER, STRING)), loaded.getEntireHistory());
+	}
+
+	public void testLoadInvalid() throws Exception {
+		assertNull(ContentAssistHistory.load(new StringReader("")));
+		try {
+			ContentAssistHistory.load(new StringReader("contentAssistHistory 100 10\n2\njava.util.List\n"));
+			fail();
+		} catch (CoreException e) {
+		}
+		try {
+			ContentAssistHistory.load(new StringReader("contentAssistHistory 100 10\n1\njava.util.List\n0 1\n"));
+			fail();
+		} catch (CoreException e) {
+		}
+	}
+
+	public void testHistoryAfterRemember() {
+		ContentAssistHistory history= new ContentAssistHistory();
+
+		history.remember(fgCharSequenceT, fgStringT);
+		RHSHistory rhsHistory= history.getHistory(CHAR_SEQUENCE);
+		assertSame(rhsHistory, history.getHistory(CHAR_SEQUENCE));
+		assertEquals(1.0f, rhsHistory.getRank(STRING), 0.0f);
+
+		history.remember(fgCharSequenceT, fgStringBufferT);
+		rhsHistory= history.getHistory(CHAR_SEQUENCE);
+		assertEquals(list(STRING, STRING_BUFFER), rhsHistory.getTypes());
+		assertEquals(0.5f, rhsHistory.getRank(STRING), 0.0f);
+		assertEquals(1.0f, rhsHistory.getRank(STRING_BUFFER), 0.0f);
+	}
+
 	private static void assertEqualMap(Map<String, List<String>> expected, Map<String, RHSHistory> actual) {
 		assertEqualMap("", expected, actual);
 	}
@@ -42,6 +42,8 @@ public class ContentAssistTestSuite {
 		suite.addTest(CodeCompletionTest.suite());
 		suite.addTest(CodeCompletionTest18.suite());
 		suite.addTest(ContinuousTypingCompletionTest.suite());
+		suite.addTest(AsyncCompletionTest.suite());
+		suite.addTest(ProposalDetailsResolverTest.suite());
 		//$JUnit-END$
 
 		return suite;
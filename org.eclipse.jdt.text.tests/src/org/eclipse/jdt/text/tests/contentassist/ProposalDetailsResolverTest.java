@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.resource.ImageDescriptor;
+
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposalSorter;
+
+import org.eclipse.jdt.core.CompletionContext;
+import org.eclipse.jdt.core.CompletionProposal;
+import org.eclipse.jdt.core.IJavaProject;
+
+import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
+
+import org.eclipse.jdt.internal.ui.text.java.LazyJavaCompletionProposal;
+import org.eclipse.jdt.internal.ui.text.java.ProposalDetailsResolver;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Tests which proposals the {@link ProposalDetailsResolver} resolves.
+ *
+ * @since 3.16.100
+ */
+public class ProposalDetailsResolverTest extends TestCase {
+
+	private static final int PAGE_SIZE= ProposalDetailsResolver.PAGE_SIZE;
+
+	private static final int PROPOSALS= 5 * PAGE_SIZE;
+
+	/**
+	 * Records the resolution of its image descriptor.
+	 */
+	private final class Proposal extends LazyJavaCompletionProposal {
+
+		private final int fId;
+
+		Proposal(int id, JavaContentAssistInvocationContext context) {
+			super(CompletionProposal.create(CompletionProposal.TYPE_REF, 0), context);
+			fId= id;
+		}
+
+		@Override
+		protected ImageDescriptor computeImageDescriptor() {
+			fResolved.add(Integer.valueOf(fId));
+			return null;
+		}
+	}
+
+	/** Sorts the proposals by descending id. */
+	private static final ICompletionProposalSorter REVERSE_SORTER= new ICompletionProposalSorter() {
+		@Override
+		public int compare(ICompletionProposal p1, ICompletionProposal p2) {
+			return Integer.compare(((Proposal) p2).fId, ((Proposal) p1).fId);
+		}
+	};
+
+	private final List<Runnable> fTasks= new ArrayList<>();
+
+	private final List<Integer> fResolved= new ArrayList<>();
+
+	private JavaContentAssistInvocationContext fContext;
+
+	private ProposalDetailsResolver fResolver;
+
+	private Proposal[] fProposals;
+
+
+	public static Test suite() {
+		return new TestSuite(ProposalDetailsResolverTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		fContext= new JavaContentAssistInvocationContext((IJavaProject) null) {
+			@Override
+			public CompletionContext getCoreContext() {
+				return new CompletionContext();
+			}
+		};
+		fProposals= new Proposal[PROPOSALS];
+		for (int i= 0; i < PROPOSALS; i++)
+			fProposals[i]= new Proposal(i, fContext);
+		fResolver= new ProposalDetailsResolver(fTasks::add);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fResolver.clear();
+		fTasks.clear();
+		fResolved.clear();
+		fContext= null;
+		fResolver= null;
+		fProposals= null;
+	}
+
+	private void runTasks() {
+		for (Runnable task : fTasks)
+			task.run();
+		fTasks.clear();
+	}
+
+	private static List<Integer> range(int from, int to) {
+		List<Integer> ids= new ArrayList<>();
+		if (from <= to) {
+			for (int i= from; i < to; i++)
+				ids.add(Integer.valueOf(i));
+		} else {
+			for (int i= from; i > to; i--)
+				ids.add(Integer.valueOf(i));
+		}
+		return ids;
+	}
+
+	public void testFirstPages() {
+		fResolver.setProposals(fProposals, null);
+		runTasks();
+		assertEquals(range(0, 2 * PAGE_SIZE), fResolved);
+	}
+
+	public void testFirstPagesSortedLikePopup() {
+		fResolver.setProposals(fProposals, REVERSE_SORTER);
+		runTasks();
+		assertEquals(range(PROPOSALS - 1, PROPOSALS - 1 - 2 * PAGE_SIZE), fResolved);
+		assertEquals(0, fProposals[0].fId); // the computed proposals are not reordered
+	}
+
+	public void testSortedByExecutor() {
+		int[] comparisons= { 0 };
+		fResolver.setProposals(fProposals, new ICompletionProposalSorter() {
+			@Override
+			public int compare(ICompletionProposal p1, ICompletionProposal p2) {
+				comparisons[0]++;
+				return REVERSE_SORTER.compare(p1, p2);
+			}
+		});
+		assertEquals(0, comparisons[0]); // the caller does not sort
+		runTasks();
+		assertTrue(comparisons[0] > 0);
+		assertEquals(range(PROPOSALS - 1, PROPOSALS - 1 - 2 * PAGE_SIZE), fResolved);
+	}
+
+	public void testSelectionChanged() {
+		fResolver.setProposals(fProposals, null);
+		runTasks();
+		fResolved.clear();
+
+		int selected= 2 * PAGE_SIZE + 5;
+		fResolver.selectionChanged(fProposals[selected]);
+		runTasks();
+		assertEquals(range(selected - PAGE_SIZE, selected + 2 * PAGE_SIZE), fResolved);
+	}
+
+	public void testSelectionChangedSortedLikePopup() {
+		fResolver.setProposals(fProposals, REVERSE_SORTER);
+		runTasks();
+		fResolved.clear();
+
+		// the proposal with id PAGE_SIZE is at index PROPOSALS - 1 - PAGE_SIZE in the popup
+		fResolver.selectionChanged(fProposals[PAGE_SIZE]);
+		runTasks();
+		assertEquals(range(2 * PAGE_SIZE, -1), fResolved);
+	}
+
+	public void testNewWindowCancelsPendingResolution() {
+		fResolver.setProposals(fProposals, null);
+		fResolver.selectionChanged(fProposals[PROPOSALS - 1]);
+		runTasks();
+		assertEquals(range(PROPOSALS - 1 - PAGE_SIZE, PROPOSALS), fResolved);
+	}
+
+	public void testClear() {
+		fResolver.setProposals(fProposals, null);
+		fResolver.clear();
+		runTasks();
+		assertTrue(fResolved.isEmpty());
+
+		fResolver.selectionChanged(fProposals[0]);
+		assertTrue(fTasks.isEmpty());
+	}
+
+	public void testUnknownSelection() {
+		fResolver.setProposals(fProposals, null);
+		runTasks();
+		fResolved.clear();
+
+		fResolver.selectionChanged(null);
+		fResolver.selectionChanged(new Proposal(PROPOSALS, fContext));
+		runTasks();
+		assertTrue(fResolved.isEmpty());
+	}
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.contentassist.CompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.IContextInformation;
+
+import org.eclipse.jdt.ui.text.java.ContentAssistInvocationContext;
+import org.eclipse.jdt.ui.text.java.IJavaCompletionProposalComputer;
+
+/**
+ * A completion proposal computer that may be invoked in a background thread and takes a
+ * configurable time to compute its single proposal. It does not propose anything unless a
+ * delay is set.
+ *
+ * @since 3.16.100
+ */
+public class SlowCompletionProposalComputer implements IJavaCompletionProposalComputer {
+
+	public static final String ID= "org.eclipse.jdt.text.tests.SlowCompletionProposalComputer";
+
+	public static final String PROPOSAL= "slowProposal";
+
+	private static volatile long fgDelay= 0;
+
+	private static volatile boolean fgCanceled= false;
+
+	/**
+	 * Sets the time the computer takes to compute its proposal.
+	 *
+	 * @param delay the delay in milliseconds, or <code>0</code> to propose nothing
+	 */
+	public static void setDelay(long delay) {
+		fgDelay= delay;
+		fgCanceled= false;
+	}
+
+	/**
+	 * Tells whether the last computation was canceled before the delay has passed.
+	 *
+	 * @return <code>true</code> if the last computation was canceled
+	 */
+	public static boolean wasCanceled() {
+		return fgCanceled;
+	}
+
+	@Override
+	public List<ICompletionProposal> computeCompletionProposals(ContentAssistInvocationContext context, IProgressMonitor monitor) {
+		long delay= fgDelay;
+		if (delay == 0)
+			return Collections.emptyList();
+
+		long endTime= System.currentTimeMillis() + delay;
+		while (System.currentTimeMillis() < endTime) {
+			if (monitor.isCanceled()) {
+				fgCanceled= true;
+				return Collections.emptyList();
+			}
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				fgCanceled= true;
+				return Collections.emptyList();
+			}
+		}
+		int offset= context.getInvocationOffset();
+		ICompletionProposal proposal= new CompletionProposal(PROPOSAL, offset, 0, PROPOSAL.length());
+		return Collections.singletonList(proposal);
+	}
+
+	@Override
+	public List<IContextInformation> computeContextInformation(ContentAssistInvocationContext context, IProgressMonitor monitor) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public String getErrorMessage() {
+		return null;
+	}
+
+	@Override
+	public void sessionStarted() {
+	}
+
+	@Override
+	public void sessionEnded() {
+	}
+}
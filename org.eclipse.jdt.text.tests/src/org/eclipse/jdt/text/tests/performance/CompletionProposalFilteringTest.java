@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+
+import junit.framework.Test;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.internal.ui.text.java.AbstractJavaCompletionProposal;
+import org.eclipse.jdt.internal.ui.text.java.JavaCompletionProposal;
+
+
+/**
+ * Measures how fast a large set of completion proposals is narrowed while the user types with
+ * the proposal popup open. Like the proposal popup, each extra character only validates the
+ * proposals that were still valid for the previous one.
+ *
+ * @since 3.16.100
+ */
+public class CompletionProposalFilteringTest extends TextPerformanceTestCase2 {
+
+	private static final int PROPOSALS= 20000;
+
+	private static final String[] PARTS= { "get", "set", "Foo", "Bar", "Baz", "Value", "Name", "Type", "Element", "Handler" };
+
+	private static final String PREFIX= "getFooBarBaz";
+
+	private static final String CAMEL_CASE_PREFIX= "gFBB";
+
+
+	public static Test suite() {
+		return new PerfTestSuite(CompletionProposalFilteringTest.class);
+	}
+
+	private Hashtable<String, String> fOptions;
+
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		setWarmUpRuns(10);
+		setMeasuredRuns(20);
+		fOptions= JavaCore.getOptions();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JavaCore.setOptions(fOptions);
+		super.tearDown();
+	}
+
+	public void measurePrefixNarrowing(PerformanceMeter meter) throws Exception {
+		setCamelCaseMatch(false);
+		measureNarrowing(meter, PREFIX);
+	}
+
+	public void measureCamelCaseNarrowing(PerformanceMeter meter) throws Exception {
+		setCamelCaseMatch(true);
+		measureNarrowing(meter, CAMEL_CASE_PREFIX);
+	}
+
+	private void setCamelCaseMatch(boolean enabled) {
+		Hashtable<String, String> options= JavaCore.getOptions();
+		options.put(JavaCore.CODEASSIST_CAMEL_CASE_MATCH, enabled ? JavaCore.ENABLED : JavaCore.DISABLED);
+		JavaCore.setOptions(options);
+	}
+
+	private void measureNarrowing(PerformanceMeter meter, String pattern) throws BadLocationException {
+		IDocument document= new Document("\n");
+		List<AbstractJavaCompletionProposal> candidates= createProposals();
+
+		meter.start();
+		for (int i= 0; i < pattern.length(); i++) {
+			int offset= i;
+			DocumentEvent event= new DocumentEvent(document, offset, 0, pattern.substring(i, i + 1));
+			document.replace(offset, 0, event.getText());
+			List<AbstractJavaCompletionProposal> valid= new ArrayList<>(candidates.size());
+			for (int j= 0; j < candidates.size(); j++) {
+				AbstractJavaCompletionProposal proposal= candidates.get(j);
+				if (proposal.validate(document, offset + 1, event))
+					valid.add(proposal);
+			}
+			candidates= valid;
+		}
+		meter.stop();
+
+		assertFalse(candidates.isEmpty());
+	}
+
+	private static List<AbstractJavaCompletionProposal> createProposals() {
+		List<AbstractJavaCompletionProposal> proposals= new ArrayList<>(PROPOSALS);
+		for (int i= 0; i < PROPOSALS; i++) {
+			StringBuffer name= new StringBuffer();
+			int n= i;
+			for (int j= 0; j < 4; j++) {
+				name.append(PARTS[(j == 0 ? n % 2 : n % PARTS.length)]);
+				n/= PARTS.length;
+			}
+			name.append(i);
+			String replacement= name.toString();
+			proposals.add(new JavaCompletionProposal(replacement, 0, 0, null, replacement + "() : void - Type" + i % 100, 0));
+		}
+		return proposals;
+	}
+}
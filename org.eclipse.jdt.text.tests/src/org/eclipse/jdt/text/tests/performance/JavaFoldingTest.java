@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.performance;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.ui.text.folding.DefaultJavaFoldingStructureProvider;
+import org.eclipse.jdt.ui.text.folding.IJavaFoldingStructureProvider;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.CompilationUnitEditor;
+
+
+/**
+ * Measures the folding structure update after typing into a method body of a class with about
+ * 15000 lines, once recomputing only the folding regions of the changed method and once
+ * recomputing all folding regions.
+ *
+ * @since 3.16.100
+ */
+public class JavaFoldingTest extends TextPerformanceTestCase {
+
+	/**
+	 * Records the last reconcile event.
+	 */
+	private static class ReconcileListener implements IElementChangedListener {
+
+		private ElementChangedEvent fEvent;
+
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			fEvent= event;
+		}
+	}
+
+	private static final Class<JavaFoldingTest> THIS= JavaFoldingTest.class;
+
+	private static final String FILE= "/" + PerformanceTestSetup.PROJECT + "/Eclipse SWT Custom Widgets/common/org/eclipse/swt/custom/FoldingLarge.java";
+
+	private static final int METHODS= 1000;
+
+	private static final String TYPED_METHOD= "method" + METHODS / 2 + "(int param, String name) {\n\t\t";
+
+	private static final int WARM_UP_RUNS= 5;
+
+	private static final int MEASURED_RUNS= 20;
+
+	private CompilationUnitEditor fEditor;
+
+	private IDocument fDocument;
+
+	private ICompilationUnit fWorkingCopy;
+
+	private DefaultJavaFoldingStructureProvider fProvider;
+
+	private IElementChangedListener fFoldingListener;
+
+	private ReconcileListener fReconcileListener;
+
+	private int fOffset;
+
+
+	public static Test suite() {
+		return new PerformanceTestSetup(new TestSuite(THIS));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		setWarmUpRuns(WARM_UP_RUNS);
+		setMeasuredRuns(MEASURED_RUNS);
+
+		ResourceTestHelper.write(FILE, createSource());
+		fEditor= (CompilationUnitEditor) EditorTestHelper.openInEditor(ResourceTestHelper.findFile(FILE), true);
+		assertTrue(EditorTestHelper.joinReconciler(EditorTestHelper.getSourceViewer(fEditor), 0, 10000, 100));
+		EditorTestHelper.runEventQueue(fEditor);
+
+		fDocument= EditorTestHelper.getDocument(fEditor);
+		fWorkingCopy= JavaPlugin.getDefault().getWorkingCopyManager().getWorkingCopy(fEditor.getEditorInput());
+		IJavaFoldingStructureProvider provider= fEditor.getAdapter(IJavaFoldingStructureProvider.class);
+		assertTrue(provider instanceof DefaultJavaFoldingStructureProvider);
+		fProvider= (DefaultJavaFoldingStructureProvider) provider;
+
+		// the test passes the reconcile deltas itself, so that only the folding update is measured
+		fFoldingListener= (IElementChangedListener) new Accessor(fProvider, DefaultJavaFoldingStructureProvider.class).get("fElementListener");
+		assertNotNull(fFoldingListener);
+		JavaCore.removeElementChangedListener(fFoldingListener);
+		fReconcileListener= new ReconcileListener();
+		JavaCore.addElementChangedListener(fReconcileListener, ElementChangedEvent.POST_RECONCILE);
+
+		fOffset= fDocument.get().indexOf(TYPED_METHOD) + TYPED_METHOD.length();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		JavaCore.removeElementChangedListener(fReconcileListener);
+		JavaCore.addElementChangedListener(fFoldingListener);
+		EditorTestHelper.closeAllEditors();
+		ResourceTestHelper.delete(FILE);
+		fEditor= null;
+		fDocument= null;
+		fWorkingCopy= null;
+		fProvider= null;
+		fFoldingListener= null;
+		fReconcileListener= null;
+	}
+
+	public void testIncrementalUpdate() throws Exception {
+		measure(getNullPerformanceMeter(), getWarmUpRuns(), true);
+		measure(createPerformanceMeter("-incremental"), getMeasuredRuns(), true);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	public void testFullUpdate() throws Exception {
+		measure(getNullPerformanceMeter(), getWarmUpRuns(), false);
+		measure(createPerformanceMeter("-full"), getMeasuredRuns(), false);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void measure(PerformanceMeter performanceMeter, int runs, boolean incremental) throws Exception {
+		Accessor provider= new Accessor(fProvider, DefaultJavaFoldingStructureProvider.class);
+		for (int i= 0; i < runs; i++) {
+			fDocument.replace(fOffset, 0, "int i" + i + "= 0;\n\t\t");
+			fReconcileListener.fEvent= null;
+			fWorkingCopy.reconcile(ICompilationUnit.NO_AST, false, null, null);
+			ElementChangedEvent event= fReconcileListener.fEvent;
+			assertNotNull(event);
+			performanceMeter.start();
+			if (incremental) {
+				fFoldingListener.elementChanged(event);
+			} else {
+				// the update the element listener performs when it cannot update incrementally
+				Object context= provider.invoke("createContext", new Class[] { boolean.class }, new Object[] { Boolean.FALSE });
+				provider.invoke("update", new Class[] { context.getClass(), IMember[].class }, new Object[] { context, null });
+			}
+			performanceMeter.stop();
+			EditorTestHelper.runEventQueue(fEditor);
+		}
+	}
+
+	private static String createSource() {
+		StringBuffer buf= new StringBuffer();
+		buf.append("/*\n");
+		buf.append(" * Header comment.\n");
+		buf.append(" */\n");
+		buf.append("package org.eclipse.swt.custom;\n");
+		buf.append("\n");
+		buf.append("import java.util.ArrayList;\n");
+		buf.append("import java.util.List;\n");
+		buf.append("\n");
+		buf.append("public class FoldingLarge {\n");
+		buf.append("\tprivate final List<String> fNames= new ArrayList<>();\n");
+		buf.append("\n");
+		for (int i= 0; i < METHODS; i++) {
+			buf.append("\t/**\n");
+			buf.append("\t * Method ").append(i).append(".\n");
+			buf.append("\t *\n");
+			buf.append("\t * @param param the parameter\n");
+			buf.append("\t * @param name the name\n");
+			buf.append("\t * @return the result\n");
+			buf.append("\t */\n");
+			buf.append("\tpublic int method").append(i).append("(int param, String name) {\n");
+			buf.append("\t\tint local= param;\n");
+			buf.append("\t\tfor (String each : fNames) {\n");
+			buf.append("\t\t\tif (each.equals(name))\n");
+			buf.append("\t\t\t\tlocal++;\n");
+			buf.append("\t\t}\n");
+			buf.append("\t\treturn local;\n");
+			buf.append("\t}\n");
+			buf.append("\n");
+		}
+		buf.append("}\n");
+		return buf.toString();
+	}
+}
@@ -29,6 +29,18 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.ui.texteditor.ITextEditor;
 import org.eclipse.ui.texteditor.ITextEditorActionConstants;
 
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Measures the time to indent a new line, in a large file and after the end of a method and an
+ * array initializer with 10000 lines each, which require the indenter to find the matching brace
+ * far away. The worst cases are measured without the bracket structure of the document if the
+ * tests run with <code>-Dorg.eclipse.jdt.ui.bracketStructure=false</code>.
+ * Also measures smart pasting 1000 lines into the large file, which indents the pasted lines in a
+ * rewrite session of a temporary document.
+ */
 public class JavaIndenterTest extends TextPerformanceTestCase {
 
 	private static final Class<JavaIndenterTest> THIS= JavaIndenterTest.class;
@@ -41,6 +53,18 @@ public class JavaIndenterTest extends TextPerformanceTestCase {
 
 	private static final int[] CTRL_END= new int[] { SWT.CTRL, SWT.END };
 
+	private static final String LARGE_FILE= "/" + PerformanceTestSetup.PROJECT + "/Eclipse SWT Custom Widgets/common/org/eclipse/swt/custom/IndenterLarge.java";
+
+	private static final int LINES= 10000;
+
+	private static final int WORST_CASE_WARM_UP_RUNS= 3;
+
+	private static final int WORST_CASE_MEASURED_RUNS= 10;
+
+	private static final int PASTED_LINES= 1000;
+
+	private static final String WORST_CASE_SUFFIX= Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.ui.bracketStructure", "true")) ? "" : "WithoutBracketStructure";
+
 	private ITextEditor fEditor;
 
 	public static Test suite() {
@@ -53,11 +77,6 @@ public class JavaIndenterTest extends TextPerformanceTestCase {
 		EditorTestHelper.runEventQueue();
 
 		EditorTestHelper.bringToTop();
-		fEditor= (ITextEditor) EditorTestHelper.openInEditor(ResourceTestHelper.findFile(FILE), true);
-		runAction(fEditor.getAction(ITextEditorActionConstants.SELECT_ALL));
-		runAction(fEditor.getAction("ToggleComment"));
-		SWTEventHelper.pressKeyCodeCombination(EditorTestHelper.getActiveDisplay(), CTRL_END);
-		EditorTestHelper.joinJobs(2000, 5000, 100);
 
 		setWarmUpRuns(WARM_UP_RUNS);
 		setMeasuredRuns(MEASURED_RUNS);
@@ -66,16 +85,127 @@ public class JavaIndenterTest extends TextPerformanceTestCase {
 	@Override
 	protected void tearDown() throws Exception {
 		super.tearDown();
+		JavaPlugin.getDefault().getPreferenceStore().setToDefault(PreferenceConstants.EDITOR_SMART_PASTE);
 		EditorTestHelper.closeAllEditors();
+		if (ResourceTestHelper.findFile(LARGE_FILE).exists())
+			ResourceTestHelper.delete(LARGE_FILE);
 	}
 
-	public void testJavaIndenter2() {
+	public void testJavaIndenter2() throws Exception {
+		fEditor= (ITextEditor) EditorTestHelper.openInEditor(ResourceTestHelper.findFile(FILE), true);
+		runAction(fEditor.getAction(ITextEditorActionConstants.SELECT_ALL));
+		runAction(fEditor.getAction("ToggleComment"));
+		SWTEventHelper.pressKeyCodeCombination(EditorTestHelper.getActiveDisplay(), CTRL_END);
+		EditorTestHelper.joinJobs(2000, 5000, 100);
+
 		measureJavaIndenter(getNullPerformanceMeter(), getWarmUpRuns());
 		measureJavaIndenter(createPerformanceMeter(), getMeasuredRuns());
 		commitAllMeasurements();
 		assertAllPerformance();
 	}
 
+	public void testLongMethod() throws Exception {
+		measureWorstCase(createLongMethod(), "-longMethod" + WORST_CASE_SUFFIX);
+	}
+
+	public void testArrayInitializer() throws Exception {
+		measureWorstCase(createArrayInitializer(), "-arrayInitializer" + WORST_CASE_SUFFIX);
+	}
+
+	public void testSmartPaste() throws Exception {
+		measureSmartPaste("-smartPaste" + WORST_CASE_SUFFIX);
+	}
+
+	/**
+	 * Measures pressing Enter after the closing brace on the third last line of the given source.
+	 *
+	 * @param source the source
+	 * @param scenario the scenario id
+	 * @throws Exception if the file cannot be created or opened
+	 */
+	private void measureWorstCase(String source, String scenario) throws Exception {
+		IDocument document= openLargeFile(source);
+		fEditor.selectAndReveal(document.getLineOffset(document.getNumberOfLines() - 2) - 1, 0);
+		EditorTestHelper.runEventQueue();
+
+		measureJavaIndenter(getNullPerformanceMeter(), WORST_CASE_WARM_UP_RUNS);
+		measureJavaIndenter(createPerformanceMeter(scenario), WORST_CASE_MEASURED_RUNS);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	/**
+	 * Measures pasting statements of the long method after the end of the method, so that smart
+	 * paste changes the indentation of each pasted line.
+	 *
+	 * @param scenario the scenario id
+	 * @throws Exception if the file cannot be created or opened
+	 */
+	private void measureSmartPaste(String scenario) throws Exception {
+		JavaPlugin.getDefault().getPreferenceStore().setValue(PreferenceConstants.EDITOR_SMART_PASTE, true);
+		IDocument document= openLargeFile(createLongMethod());
+		int start= document.getLineOffset(5);
+		fEditor.selectAndReveal(start, document.getLineOffset(5 + PASTED_LINES) - start);
+		runAction(fEditor.getAction(ITextEditorActionConstants.COPY));
+		fEditor.selectAndReveal(document.getLineOffset(document.getNumberOfLines() - 2), 0);
+		EditorTestHelper.runEventQueue();
+
+		measureSmartPaste(getNullPerformanceMeter(), WORST_CASE_WARM_UP_RUNS);
+		measureSmartPaste(createPerformanceMeter(scenario), WORST_CASE_MEASURED_RUNS);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void measureSmartPaste(PerformanceMeter performanceMeter, int runs) {
+		IDocument document= EditorTestHelper.getDocument(fEditor);
+		IAction paste= fEditor.getAction(ITextEditorActionConstants.PASTE);
+		IAction undo= fEditor.getAction(ITextEditorActionConstants.UNDO);
+		int originalNumberOfLines= document.getNumberOfLines();
+		for (int i= 0; i < runs; i++) {
+			performanceMeter.start();
+			runAction(paste);
+			performanceMeter.stop();
+			assertEquals(originalNumberOfLines + PASTED_LINES, document.getNumberOfLines());
+			runAction(undo);
+			assertEquals(originalNumberOfLines, document.getNumberOfLines());
+		}
+	}
+
+	private IDocument openLargeFile(String source) throws Exception {
+		ResourceTestHelper.write(LARGE_FILE, source);
+		fEditor= (ITextEditor) EditorTestHelper.openInEditor(ResourceTestHelper.findFile(LARGE_FILE), true);
+		EditorTestHelper.joinJobs(2000, 5000, 100);
+		return EditorTestHelper.getDocument(fEditor);
+	}
+
+	private static String createLongMethod() {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package org.eclipse.swt.custom;\n");
+		buf.append("\n");
+		buf.append("public class IndenterLarge {\n");
+		buf.append("\tpublic int compute(int[] values) {\n");
+		buf.append("\t\tint result= 0;\n");
+		for (int i= 0; i < LINES; i++)
+			buf.append("\t\tresult+= values[").append(i % 16).append("] * (result + ").append(i).append(");\n");
+		buf.append("\t\treturn result;\n");
+		buf.append("\t}\n");
+		buf.append("}\n");
+		return buf.toString();
+	}
+
+	private static String createArrayInitializer() {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package org.eclipse.swt.custom;\n");
+		buf.append("\n");
+		buf.append("public class IndenterLarge {\n");
+		buf.append("\tstatic final int[][] TABLE= {\n");
+		for (int i= 0; i < LINES; i++)
+			buf.append("\t\t\t{ ").append(i).append(", ").append(i * 2).append(", ").append(i % 7).append(" },\n");
+		buf.append("\t};\n");
+		buf.append("}\n");
+		return buf.toString();
+	}
+
 	private void measureJavaIndenter(PerformanceMeter performanceMeter, int runs) {
 		final IDocument document= EditorTestHelper.getDocument(fEditor);
 		Display display= EditorTestHelper.getActiveDisplay();
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.SimpleName;
+
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
+import org.eclipse.jdt.internal.core.manipulation.search.OccurrencesFinder;
+import org.eclipse.jdt.internal.core.manipulation.search.OccurrencesIndex;
+
+
+/**
+ * Measures the time to mark occurrences while moving the caret through a large
+ * compilation unit, once with an {@link OccurrencesFinder} per caret move and once
+ * with an {@link OccurrencesIndex} that is built once for the AST.
+ *
+ * @since 3.16.100
+ */
+public class MarkOccurrencesTest extends TextPerformanceTestCase {
+
+	private static final Class<MarkOccurrencesTest> THIS= MarkOccurrencesTest.class;
+
+	private static final String FILE= PerformanceTestSetup.STYLED_TEXT;
+
+	private static final int WARM_UP_RUNS= 3;
+
+	private static final int MEASURED_RUNS= 10;
+
+	/** Every n-th simple name is a caret position. */
+	private static final int CARET_STEP= 5;
+
+	private CompilationUnit fASTRoot;
+
+	private int[] fCaretOffsets;
+
+
+	public static Test suite() {
+		return new PerformanceTestSetup(new TestSuite(THIS));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		setWarmUpRuns(WARM_UP_RUNS);
+		setMeasuredRuns(MEASURED_RUNS);
+
+		IFile file= ResourceTestHelper.findFile(FILE);
+		ICompilationUnit cu= JavaCore.createCompilationUnitFrom(file);
+		ASTParser parser= ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+		parser.setSource(cu);
+		parser.setResolveBindings(true);
+		fASTRoot= (CompilationUnit) parser.createAST(null);
+
+		final List<Integer> offsets= new ArrayList<>();
+		fASTRoot.accept(new ASTVisitor() {
+			private int fCount;
+
+			@Override
+			public boolean visit(SimpleName node) {
+				if (fCount++ % CARET_STEP == 0)
+					offsets.add(Integer.valueOf(node.getStartPosition()));
+				return true;
+			}
+		});
+		fCaretOffsets= new int[offsets.size()];
+		for (int i= 0; i < fCaretOffsets.length; i++) {
+			fCaretOffsets[i]= offsets.get(i).intValue();
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		fASTRoot= null;
+		fCaretOffsets= null;
+	}
+
+	public void testOccurrencesFinder() throws Exception {
+		measureFinder(getNullPerformanceMeter(), getWarmUpRuns());
+		measureFinder(createPerformanceMeter("-finder"), getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	public void testOccurrencesIndex() throws Exception {
+		measureIndex(getNullPerformanceMeter(), getWarmUpRuns());
+		measureIndex(createPerformanceMeter("-index"), getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void measureFinder(PerformanceMeter performanceMeter, int runs) {
+		for (int i= 0; i < runs; i++) {
+			performanceMeter.start();
+			for (int j= 0; j < fCaretOffsets.length; j++) {
+				Name name= findName(fCaretOffsets[j]);
+				OccurrencesFinder finder= new OccurrencesFinder();
+				if (finder.initialize(fASTRoot, name) == null)
+					finder.getOccurrences();
+			}
+			performanceMeter.stop();
+		}
+	}
+
+	private void measureIndex(PerformanceMeter performanceMeter, int runs) {
+		for (int i= 0; i < runs; i++) {
+			performanceMeter.start();
+			// the index is built once per reconciled AST, as in the Java editor
+			OccurrencesIndex index= new OccurrencesIndex(fASTRoot);
+			for (int j= 0; j < fCaretOffsets.length; j++) {
+				Name name= findName(fCaretOffsets[j]);
+				if (index.isIndexed(name)) {
+					index.getOccurrences(name);
+				} else {
+					OccurrencesFinder finder= new OccurrencesFinder();
+					if (finder.initialize(fASTRoot, name) == null)
+						finder.getOccurrences();
+				}
+			}
+			performanceMeter.stop();
+		}
+	}
+
+	private Name findName(int offset) {
+		ASTNode node= NodeFinder.perform(fASTRoot, offset, 0);
+		assertTrue(node instanceof Name);
+		return (Name) node;
+	}
+}
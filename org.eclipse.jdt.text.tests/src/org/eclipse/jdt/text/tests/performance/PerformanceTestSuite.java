@@ -52,6 +52,10 @@ public class PerformanceTestSuite extends TestSuite {
 		addTest(SynchronizedLineDifferInitializationTest.suite());
 		addTest(DocumentLineDifferModificationTest.suite());
 		addTest(SpellCheckingTest.suite());
+		addTest(MarkOccurrencesTest.suite());
+		addTest(CompletionProposalFilteringTest.suite());
+		addTest(SemanticHighlightingReconcilerTest.suite());
+		addTest(JavaFoldingTest.suite());
 
 
 		/* !!! IMPORTANT NOTE: The following test must be the last one !!! */
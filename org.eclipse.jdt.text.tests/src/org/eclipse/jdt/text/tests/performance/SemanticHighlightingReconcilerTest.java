@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.performance;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.CompilationUnitEditor;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingReconciler;
+import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener;
+
+
+/**
+ * Measures the semantic highlighting reconcile after typing into a method body of a
+ * compilation unit with about 20000 lines, once revisiting only the changed method body and
+ * once revisiting the entire AST.
+ *
+ * @since 3.16.100
+ */
+public class SemanticHighlightingReconcilerTest extends TextPerformanceTestCase {
+
+	private static final Class<SemanticHighlightingReconcilerTest> THIS= SemanticHighlightingReconcilerTest.class;
+
+	private static final String FILE= "/" + PerformanceTestSetup.PROJECT + "/Eclipse SWT Custom Widgets/common/org/eclipse/swt/custom/SemanticHighlightingLarge.java";
+
+	private static final int METHODS= 1200;
+
+	private static final String TYPED_METHOD= "method" + METHODS / 2 + "(int param, String name) {\n\t\t";
+
+	private static final int WARM_UP_RUNS= 5;
+
+	private static final int MEASURED_RUNS= 20;
+
+	private CompilationUnitEditor fEditor;
+
+	private IDocument fDocument;
+
+	private ICompilationUnit fWorkingCopy;
+
+	private SemanticHighlightingReconciler fReconciler;
+
+	private int fOffset;
+
+
+	public static Test suite() {
+		return new PerformanceTestSetup(new TestSuite(THIS));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		setWarmUpRuns(WARM_UP_RUNS);
+		setMeasuredRuns(MEASURED_RUNS);
+
+		ResourceTestHelper.write(FILE, createSource());
+		fEditor= (CompilationUnitEditor) EditorTestHelper.openInEditor(ResourceTestHelper.findFile(FILE), true);
+		assertTrue(EditorTestHelper.joinReconciler(EditorTestHelper.getSourceViewer(fEditor), 0, 10000, 100));
+		EditorTestHelper.runEventQueue(fEditor);
+
+		fDocument= EditorTestHelper.getDocument(fEditor);
+		fWorkingCopy= JavaPlugin.getDefault().getWorkingCopyManager().getWorkingCopy(fEditor.getEditorInput());
+		SemanticHighlightingManager manager= (SemanticHighlightingManager) new Accessor(fEditor, JavaEditor.class).get("fSemanticManager");
+		assertNotNull(manager);
+		fReconciler= manager.getReconciler();
+		assertNotNull(fReconciler);
+
+		// the test reconciles itself, so that only the semantic highlighting reconcile is measured
+		new Accessor(fEditor, CompilationUnitEditor.class).invoke("removeReconcileListener", new Class[] { IJavaReconcilingListener.class }, new Object[] { fReconciler });
+
+		fOffset= fDocument.get().indexOf(TYPED_METHOD) + TYPED_METHOD.length();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		EditorTestHelper.closeAllEditors();
+		ResourceTestHelper.delete(FILE);
+		fEditor= null;
+		fDocument= null;
+		fWorkingCopy= null;
+		fReconciler= null;
+	}
+
+	public void testIncrementalReconcile() throws Exception {
+		measure(getNullPerformanceMeter(), getWarmUpRuns());
+		measure(createPerformanceMeter("-incremental"), getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	public void testFullReconcile() throws Exception {
+		new Accessor(fReconciler, SemanticHighlightingReconciler.class).set("fIncremental", false);
+		measure(getNullPerformanceMeter(), getWarmUpRuns());
+		measure(createPerformanceMeter("-full"), getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void measure(PerformanceMeter performanceMeter, int runs) throws Exception {
+		for (int i= 0; i < runs; i++) {
+			fDocument.replace(fOffset, 0, " ");
+			CompilationUnit ast= createAST();
+			performanceMeter.start();
+			fReconciler.reconciled(ast, false, new NullProgressMonitor());
+			performanceMeter.stop();
+			EditorTestHelper.runEventQueue(fEditor);
+		}
+	}
+
+	private CompilationUnit createAST() {
+		ASTParser parser= ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+		parser.setSource(fWorkingCopy);
+		parser.setResolveBindings(true);
+		parser.setStatementsRecovery(IASTSharedValues.SHARED_AST_STATEMENT_RECOVERY);
+		parser.setBindingsRecovery(IASTSharedValues.SHARED_BINDING_RECOVERY);
+		return (CompilationUnit) parser.createAST(null);
+	}
+
+	private static String createSource() {
+		StringBuffer buf= new StringBuffer();
+		buf.append("package org.eclipse.swt.custom;\n");
+		buf.append("\n");
+		buf.append("public class SemanticHighlightingLarge {\n");
+		buf.append("\tprivate static final int MAX= 100;\n");
+		buf.append("\tprivate String[] fNames= new String[MAX];\n");
+		buf.append("\tprivate int fCount;\n");
+		buf.append("\n");
+		for (int i= 0; i < METHODS; i++) {
+			buf.append("\t/**\n");
+			buf.append("\t * Method ").append(i).append(".\n");
+			buf.append("\t */\n");
+			buf.append("\tpublic int method").append(i).append("(int param, String name) {\n");
+			buf.append("\t\tint local= param + MAX;\n");
+			buf.append("\t\tfor (int j= 0; j < local; j++) {\n");
+			buf.append("\t\t\tfCount+= j;\n");
+			buf.append("\t\t\tif (fNames[j % MAX] != null)\n");
+			buf.append("\t\t\t\tname= fNames[j % MAX];\n");
+			buf.append("\t\t}\n");
+			buf.append("\t\tfNames[param % MAX]= name;\n");
+			buf.append("\t\tString value= String.valueOf(fCount);\n");
+			buf.append("\t\tif (value.length() == 0)\n");
+			buf.append("\t\t\treturn Math.max(local, MAX);\n");
+			buf.append("\t\treturn method").append((i + 1) % METHODS).append("(local, value) + param;\n");
+			buf.append("\t}\n");
+			buf.append("\n");
+		}
+		buf.append("}\n");
+		return buf.toString();
+	}
+}
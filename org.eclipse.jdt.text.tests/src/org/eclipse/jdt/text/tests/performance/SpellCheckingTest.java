@@ -13,11 +13,20 @@
  *******************************************************************************/
 package org.eclipse.jdt.text.tests.performance;
 
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.eclipse.test.performance.PerformanceMeter;
 
+import org.eclipse.text.tests.Accessor;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.content.IContentTypeManager;
@@ -42,9 +51,19 @@ import org.eclipse.ui.editors.text.EditorsUI;
 
 import org.eclipse.jdt.ui.PreferenceConstants;
 
+import org.eclipse.jdt.internal.ui.text.spelling.SpellCheckEngine;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.AbstractSpellDictionary;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.LocaleSensitiveSpellDictionary;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.RankedWordProposal;
+
 
 /**
- * Measures the time to spell check a large compilation unit.
+ * Measures the time to spell check a large compilation unit, the time to load a dictionary whose
+ * word list must be compiled first, and the time and memory to load a dictionary by mapping the
+ * compiled word list.
+ * Also measures the time to compute the proposals for a fixed list of common misspellings, once
+ * from the phonetic neighborhood of the words and once from the edit distance index, and prints
+ * how often the correct word is the first or among the first five proposals.
  * 
  * @since 3.6
  */
@@ -58,6 +77,25 @@ public class SpellCheckingTest extends TextPerformanceTestCase {
 
 	private static final int MEASURED_RUNS= 50;
 
+	private static final int DICTIONARY_MEASURED_RUNS= 10;
+
+	private static final int PROPOSALS_MEASURED_RUNS= 20;
+
+	/** Pairs of misspelled and correct words */
+	private static final String[][] MISSPELLINGS= {
+			{ "acheive", "achieve" }, { "recieve", "receive" }, { "seperate", "separate" }, { "definately", "definitely" },
+			{ "occured", "occurred" }, { "untill", "until" }, { "wich", "which" }, { "becuase", "because" },
+			{ "begining", "beginning" }, { "beleive", "believe" }, { "calender", "calendar" }, { "collegue", "colleague" },
+			{ "comming", "coming" }, { "commited", "committed" }, { "concious", "conscious" }, { "existance", "existence" },
+			{ "foriegn", "foreign" }, { "goverment", "government" }, { "grammer", "grammar" }, { "harrass", "harass" },
+			{ "independant", "independent" }, { "knowlege", "knowledge" }, { "libary", "library" }, { "neccessary", "necessary" },
+			{ "noticable", "noticeable" }, { "occurence", "occurrence" }, { "paralel", "parallel" }, { "persistant", "persistent" },
+			{ "posession", "possession" }, { "prefered", "preferred" }, { "recomend", "recommend" }, { "refered", "referred" },
+			{ "relevent", "relevant" }, { "succesful", "successful" }, { "tommorow", "tomorrow" }, { "truely", "truly" },
+			{ "wierd", "weird" }, { "writting", "writing" }, { "adress", "address" }, { "arguement", "argument" },
+			{ "enviroment", "environment" }, { "paramater", "parameter" }, { "implmentation", "implementation" },
+			{ "retreive", "retrieve" }, { "instanciate", "instantiate" } };
+
 	private IDocument fDocument;
 
 	private SpellingContext fSpellingContext;
@@ -107,6 +145,107 @@ public class SpellCheckingTest extends TextPerformanceTestCase {
 		assertAllPerformance();
 	}
 
+	public void testDictionaryColdStart() throws Exception {
+		measureDictionary(getNullPerformanceMeter(), 1, true, false);
+		measureDictionary(createPerformanceMeter("-dictionaryColdStart"), DICTIONARY_MEASURED_RUNS, true, false);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	public void testDictionaryMemory() throws Exception {
+		measureDictionary(getNullPerformanceMeter(), 1, false, true);
+		measureDictionary(createPerformanceMeter("-dictionaryMemory"), DICTIONARY_MEASURED_RUNS, false, true);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	public void testProposals() throws Exception {
+		LocaleSensitiveSpellDictionary dictionary= new LocaleSensitiveSpellDictionary(Locale.US, SpellCheckEngine.getDictionaryLocations().nextElement());
+		try {
+			measureProposals(getNullPerformanceMeter(), 1, dictionary, true);
+			measureProposals(createPerformanceMeter("-proposals"), PROPOSALS_MEASURED_RUNS, dictionary, false);
+			commitAllMeasurements();
+			assertAllPerformance();
+		} finally {
+			dictionary.unload();
+		}
+	}
+
+	public void testProposalsEditDistanceIndex() throws Exception {
+		LocaleSensitiveSpellDictionary dictionary= new LocaleSensitiveSpellDictionary(Locale.US, SpellCheckEngine.getDictionaryLocations().nextElement());
+		dictionary.setEditDistanceIndexEnabled(true);
+		try {
+			measureProposals(getNullPerformanceMeter(), 1, dictionary, true);
+			measureProposals(createPerformanceMeter("-proposalsEditDistanceIndex"), PROPOSALS_MEASURED_RUNS, dictionary, false);
+			commitAllMeasurements();
+			assertAllPerformance();
+		} finally {
+			dictionary.unload();
+		}
+	}
+
+	private void measureProposals(PerformanceMeter performanceMeter, int runs, LocaleSensitiveSpellDictionary dictionary, boolean printDebugInfo) {
+		for (int i= 0; i < runs; i++) {
+			int first= 0;
+			int firstFive= 0;
+			performanceMeter.start();
+			for (int j= 0; j < MISSPELLINGS.length; j++) {
+				List<RankedWordProposal> proposals= new ArrayList<>(dictionary.getProposals(MISSPELLINGS[j][0], false));
+				Collections.sort(proposals, Collections.reverseOrder());
+				for (int k= 0; k < Math.min(5, proposals.size()); k++) {
+					if (proposals.get(k).getText().equals(MISSPELLINGS[j][1])) {
+						if (k == 0)
+							first++;
+						firstFive++;
+						break;
+					}
+				}
+			}
+			performanceMeter.stop();
+			if (printDebugInfo)
+				System.out.println("Correct proposals of " + MISSPELLINGS.length + " misspellings: " + first + " first, " + firstFive + " among the first five");
+		}
+	}
+
+	/**
+	 * Measures loading a dictionary.
+	 *
+	 * @param performanceMeter the performance meter
+	 * @param runs the number of runs
+	 * @param coldStart <code>true</code> to delete the compiled dictionary before each run, so
+	 *            that the word list is read and compiled, <code>false</code> to map the
+	 *            dictionary compiled by a previous run
+	 * @param measureMemory <code>true</code> to collect garbage before the measurement stops
+	 * @throws Exception if loading fails
+	 */
+	private void measureDictionary(PerformanceMeter performanceMeter, int runs, boolean coldStart, boolean measureMemory) throws Exception {
+		URL location= SpellCheckEngine.getDictionaryLocations().nextElement();
+		for (int i= 0; i < runs; i++) {
+			LocaleSensitiveSpellDictionary dictionary= new LocaleSensitiveSpellDictionary(Locale.US, location);
+			// release the mappings of previous runs, which prevent deleting the files on some platforms
+			System.gc();
+			if (coldStart)
+				deleteCompiledDictionary(dictionary, location);
+			performanceMeter.start();
+			assertTrue(dictionary.isCorrect("dictionary"));
+			if (measureMemory)
+				System.gc();
+			performanceMeter.stop();
+			dictionary.unload();
+		}
+	}
+
+	private static void deleteCompiledDictionary(LocaleSensitiveSpellDictionary dictionary, URL location) {
+		File file= (File) new Accessor(dictionary, AbstractSpellDictionary.class).invoke("getCompiledFile", new Class[] { URL.class }, new Object[] { location });
+		File[] versions= file.getParentFile().listFiles();
+		if (versions == null)
+			return;
+		for (int i= 0; i < versions.length; i++) {
+			if (versions[i].getName().startsWith(file.getName()))
+				assertTrue("Failed to delete " + versions[i], versions[i].delete());
+		}
+	}
+
 	private void measure(PerformanceMeter performanceMeter, int runs, boolean printDebugInfo) {
 		SpellingService spellingService= EditorsUI.getSpellingService();
 		for (int i= 0; i < runs; i++) {
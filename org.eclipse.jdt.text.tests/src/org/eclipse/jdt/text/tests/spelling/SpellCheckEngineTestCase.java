@@ -171,6 +171,23 @@ public class SpellCheckEngineTestCase {
 		assertFalse(checker.isCorrect(LORRY));
 	}
 
+	@Test
+	public void testCachedResultsAfterDictionaryChange() {
+		fPreferences.setValue(PreferenceConstants.SPELLING_LOCALE, Locale.US.toString());
+		final ISpellChecker checker= fEngine.getSpellChecker();
+		assertNotNull(checker);
+
+		assertFalse(checker.isCorrect(LASTWAGEN));
+		assertFalse(checker.isCorrect(LASTWAGEN));
+		fUSDictionary.addWord(LASTWAGEN);
+		assertTrue(checker.isCorrect(LASTWAGEN));
+
+		checker.removeDictionary(fUSDictionary);
+		assertFalse(checker.isCorrect(LASTWAGEN));
+		checker.addDictionary(fUSDictionary);
+		assertTrue(checker.isCorrect(LASTWAGEN));
+	}
+
 	@Test
 	public void testUKSpellChecker() {
 		fPreferences.setValue(PreferenceConstants.SPELLING_LOCALE, Locale.UK.toString());
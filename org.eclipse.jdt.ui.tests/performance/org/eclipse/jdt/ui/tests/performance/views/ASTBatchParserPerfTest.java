@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.JavaTestPlugin;
+import org.eclipse.test.OrderedTestSuite;
+import org.eclipse.test.performance.Dimension;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import org.eclipse.jdt.internal.corext.dom.ASTBatchParser;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+/**
+ * Compares creating the ASTs of the units of a project in batches of units of the same package
+ * with creating them in batches of units in the given order.
+ */
+public class ASTBatchParserPerfTest extends JdtPerformanceTestCase {
+
+	private static final int MAX_AT_ONCE= 20;
+
+	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static IJavaProject fJProject1;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		@Override
+		protected void setUp() throws Exception {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar(fJProject1) != null);
+			File junitSrcArchive= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.JUNIT_SRC_381);
+			JavaProjectHelper.addSourceContainerWithImport(fJProject1, SRC_CONTAINER, junitSrcArchive, JavaProjectHelper.JUNIT_SRC_ENCODING);
+		}
+
+		@Override
+		protected void tearDown() throws Exception {
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
+		}
+	}
+
+	private static class BatchParser extends ASTBatchParser {
+		@Override
+		protected int getMaxAtOnce() {
+			return MAX_AT_ONCE;
+		}
+	}
+
+	/**
+	 * Cuts the batches in the given order of the units.
+	 */
+	private static class UnsortedBatchParser extends BatchParser {
+		@Override
+		protected ICompilationUnit[][] createBatches(ICompilationUnit[] units) {
+			List<ICompilationUnit[]> batches= new ArrayList<>();
+			for (int i= 0; i < units.length; i+= MAX_AT_ONCE) {
+				batches.add(Arrays.copyOfRange(units, i, Math.min(i + MAX_AT_ONCE, units.length)));
+			}
+			return batches.toArray(new ICompilationUnit[batches.size()][]);
+		}
+	}
+
+	public static Test suite() {
+		return new MyTestSetup(new OrderedTestSuite(ASTBatchParserPerfTest.class, new String[] {
+			"testUnsortedBatches",
+			"testPackageBatches",
+		}));
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	private void addAllCUs(IJavaElement[] children, List<ICompilationUnit> result) throws JavaModelException {
+		for (int i= 0; i < children.length; i++) {
+			IJavaElement element= children[i];
+			if (element instanceof ICompilationUnit) {
+				result.add((ICompilationUnit) element);
+			} else if (element instanceof IPackageFragmentRoot) {
+				IPackageFragmentRoot root= (IPackageFragmentRoot) element;
+				addAllCUs(root.getChildren(), result);
+			} else if (element instanceof IPackageFragment) {
+				IPackageFragment pack= (IPackageFragment) element;
+				addAllCUs(pack.getChildren(), result);
+			}
+		}
+	}
+
+	public void testUnsortedBatches() throws Exception {
+		tagAsSummary("AST Batch Parser - Batches in given order", Dimension.ELAPSED_PROCESS);
+		measure(new UnsortedBatchParser());
+	}
+
+	public void testPackageBatches() throws Exception {
+		tagAsSummary("AST Batch Parser - Batches by package", Dimension.ELAPSED_PROCESS);
+		measure(new BatchParser());
+	}
+
+	private void measure(ASTBatchParser parser) throws Exception {
+		List<ICompilationUnit> list= new ArrayList<>();
+		addAllCUs(MyTestSetup.fJProject1.getChildren(), list);
+		// units of a fix or clean up arrive in no particular order
+		Collections.shuffle(list, new Random(0));
+		ICompilationUnit[] units= list.toArray(new ICompilationUnit[list.size()]);
+		assertTrue(units.length > 2 * MAX_AT_ONCE);
+
+		int[] count= { 0 };
+		ASTRequestor requestor= new ASTRequestor() {
+			@Override
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				count[0]++;
+			}
+		};
+
+		joinBackgroudActivities();
+		for (int i= 0; i < 12; i++) {
+			count[0]= 0;
+			boolean measure= i >= 2;
+			if (measure)
+				startMeasuring();
+			parser.createASTs(units, new String[0], requestor, null);
+			if (measure)
+				stopMeasuring();
+			assertEquals(units.length, count[0]);
+		}
+
+		commitMeasurements();
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.JavaTestPlugin;
+import org.eclipse.test.OrderedTestSuite;
+import org.eclipse.test.performance.Dimension;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+import org.eclipse.jdt.internal.corext.callhierarchy.CallGraphIndex;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
+
+public class CallHierarchyPerfTest extends JdtPerformanceTestCase {
+
+	private static final int LEVELS= 4;
+
+	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static IJavaProject fJProject1;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		@Override
+		protected void setUp() throws Exception {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar13(fJProject1) != null);
+			File junitSrcArchive= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.JUNIT_SRC_381);
+			JavaProjectHelper.addSourceContainerWithImport(fJProject1, SRC_CONTAINER, junitSrcArchive, JavaProjectHelper.JUNIT_SRC_ENCODING);
+		}
+
+		@Override
+		protected void tearDown() throws Exception {
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
+		}
+	}
+
+	public static Test suite() {
+		OrderedTestSuite testSuite= new OrderedTestSuite(
+				CallHierarchyPerfTest.class,
+				new String[] {
+					"testExpandCalleesWithoutIndex",
+					"testExpandCalleesColdIndex",
+					"testExpandCalleesWarmIndex",
+				});
+		return new MyTestSetup(testSuite);
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	public CallHierarchyPerfTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		CallGraphIndex.getDefault().setEnabled(true);
+		super.tearDown();
+	}
+
+	public void testExpandCalleesWithoutIndex() throws Exception {
+		CallGraphIndex.getDefault().setEnabled(false);
+		measureExpandCallees(false);
+	}
+
+	public void testExpandCalleesColdIndex() throws Exception {
+		tagAsSummary("Expand callees with call graph index", Dimension.ELAPSED_PROCESS);
+		measureExpandCallees(true);
+	}
+
+	public void testExpandCalleesWarmIndex() throws Exception {
+		expandCallees(getRoot());
+		measureExpandCallees(false);
+	}
+
+	private void measureExpandCallees(boolean clearIndex) throws Exception {
+		IMethod root= getRoot();
+		int count= expandCallees(root);
+		for (int i= 0; i < 10; i++) {
+			if (clearIndex)
+				CallGraphIndex.getDefault().clear();
+			joinBackgroudActivities();
+			startMeasuring();
+			assertEquals(count, expandCallees(root));
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+
+	private static IMethod getRoot() throws Exception {
+		IMethod method= MyTestSetup.fJProject1.findType("junit.textui.TestRunner").getMethod("start", new String[] { "[QString;" });
+		assertTrue(method.exists());
+		return method;
+	}
+
+	/**
+	 * Expands the callees of the method like the call hierarchy view.
+	 *
+	 * @param method the root method
+	 * @return the number of expanded nodes
+	 */
+	private static int expandCallees(IMethod method) {
+		MethodWrapper[] roots= CallHierarchy.getDefault().getCalleeRoots(new IMember[] { method });
+		List<MethodWrapper> level= new ArrayList<>();
+		for (int i= 0; i < roots.length; i++) {
+			level.add(roots[i]);
+		}
+		int count= 0;
+		for (int depth= 0; depth < LEVELS; depth++) {
+			List<MethodWrapper> next= new ArrayList<>();
+			for (int i= 0; i < level.size(); i++) {
+				MethodWrapper[] calls= level.get(i).getCalls(new NullProgressMonitor());
+				for (int j= 0; j < calls.length; j++) {
+					if (!calls[j].isRecursive())
+						next.add(calls[j]);
+				}
+				count++;
+			}
+			level= next;
+		}
+		return count;
+	}
+}
@@ -117,6 +117,9 @@ public class CleanUpPerfTest extends JdtPerformanceTestCase {
 			"testVariableDeclarationCleanUp",
 			"testCodeFormatCleanUp",
 			"testOrganizeImports",
+			"testParallelCleanUp1Worker",
+			"testParallelCleanUp2Workers",
+			"testParallelCleanUp4Workers",
 		}));
 	}
 
@@ -446,6 +449,43 @@ public class CleanUpPerfTest extends JdtPerformanceTestCase {
 		doCleanUp(cleanUpRefactoring);
 	}
 
+	public void testParallelCleanUp1Worker() throws Exception {
+		doParallelCleanUp(1);
+	}
+
+	public void testParallelCleanUp2Workers() throws Exception {
+		doParallelCleanUp(2);
+	}
+
+	public void testParallelCleanUp4Workers() throws Exception {
+		doParallelCleanUp(4);
+	}
+
+	private void doParallelCleanUp(int workerCount) throws Exception {
+		CleanUpRefactoring cleanUpRefactoring= new CleanUpRefactoring();
+		cleanUpRefactoring.setWorkerCount(workerCount);
+		addAllCUs(cleanUpRefactoring, MyTestSetup.fJProject1.getChildren());
+
+		Map<String, String> node= getNullSettings();
+
+		node.put(CleanUpConstants.ADD_MISSING_ANNOTATIONS, CleanUpOptions.TRUE);
+		node.put(CleanUpConstants.ADD_MISSING_ANNOTATIONS_DEPRECATED, CleanUpOptions.TRUE);
+		node.put(CleanUpConstants.ADD_MISSING_ANNOTATIONS_OVERRIDE, CleanUpOptions.TRUE);
+		node.put(CleanUpConstants.CONTROL_STATEMENTS_USE_BLOCKS, CleanUpOptions.TRUE);
+		node.put(CleanUpConstants.CONTROL_STATMENTS_USE_BLOCKS_ALWAYS, CleanUpOptions.TRUE);
+		node.put(CleanUpConstants.REMOVE_UNUSED_CODE_LOCAL_VARIABLES, CleanUpOptions.TRUE);
+
+		storeSettings(node);
+
+		cleanUpRefactoring.addCleanUp(new Java50CleanUp());
+		cleanUpRefactoring.addCleanUp(new ControlStatementsCleanUp());
+		cleanUpRefactoring.addCleanUp(new UnusedCodeCleanUp());
+
+		tagAsSummary("Clean Up - Parallel with " + workerCount + " worker(s)", Dimension.ELAPSED_PROCESS);
+
+		doCleanUp(cleanUpRefactoring);
+	}
+
 	private void doCleanUp(CleanUpRefactoring refactoring) throws CoreException {
 		refactoring.setUseOptionsFromProfile(true);
 
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import junit.extensions.TestSetup;
+import junit.framework.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.test.OrderedTestSuite;
+import org.eclipse.test.performance.Dimension;
+
+import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.Match;
+import org.eclipse.search.ui.text.MatchFilter;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.SearchMatch;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCase;
+
+import org.eclipse.jdt.internal.ui.search.JavaSearchResult;
+import org.eclipse.jdt.internal.ui.search.JavaSearchResultPage;
+import org.eclipse.jdt.internal.ui.search.LevelTreeContentProvider;
+import org.eclipse.jdt.internal.ui.search.NewSearchResultCollector;
+
+/**
+ * Measures elapsed time and used heap for search results with a million matches.
+ */
+public class SearchResultPerfTest extends JdtPerformanceTestCase {
+
+	private static final int TYPES= 100;
+	private static final int METHODS= 100;
+	private static final int MATCHES= 1000000;
+
+	private static class MyTestSetup extends TestSetup {
+		public static final String SRC_CONTAINER= "src";
+
+		public static IJavaProject fJProject1;
+		public static IMethod[] fMethods;
+
+		public MyTestSetup(Test test) {
+			super(test);
+		}
+
+		@Override
+		protected void setUp() throws Exception {
+			fJProject1= JavaProjectHelper.createJavaProject("TestProject1", "bin");
+			assertTrue("rt not found", JavaProjectHelper.addRTJar13(fJProject1) != null);
+			IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject1, SRC_CONTAINER);
+			IPackageFragment pack= root.createPackageFragment("pack", true, null);
+			// handles are sufficient, the result and the content provider do not access the elements
+			fMethods= new IMethod[TYPES * METHODS];
+			for (int i= 0; i < TYPES; i++) {
+				IType type= pack.getCompilationUnit("T" + i + ".java").getType("T" + i);
+				for (int j= 0; j < METHODS; j++) {
+					fMethods[i * METHODS + j]= type.getMethod("m" + j, new String[0]);
+				}
+			}
+		}
+
+		@Override
+		protected void tearDown() throws Exception {
+			fMethods= null;
+			if (fJProject1 != null && fJProject1.exists())
+				JavaProjectHelper.delete(fJProject1);
+		}
+	}
+
+	public static Test suite() {
+		OrderedTestSuite testSuite= new OrderedTestSuite(
+				SearchResultPerfTest.class,
+				new String[] {
+					"testAddMatchObjects",
+					"testCollectMatches",
+					"testInitializeTree",
+					"testFilterMatches",
+					"testRemoveAll",
+				});
+		return new MyTestSetup(testSuite);
+	}
+
+	public static Test setUpTest(Test someTest) {
+		return new MyTestSetup(someTest);
+	}
+
+	public SearchResultPerfTest(String name) {
+		super(name);
+	}
+
+	/**
+	 * Reference: one {@link Match} object per match.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public void testAddMatchObjects() throws Exception {
+		IMethod[] methods= MyTestSetup.fMethods;
+		for (int i= 0; i < 5; i++) {
+			JavaSearchResult result= new JavaSearchResult(null);
+			collectGarbage();
+			startMeasuring();
+			for (int j= 0; j < MATCHES; j++) {
+				result.addMatch(new Match(methods[j % methods.length], j, 1));
+			}
+			stopMeasuring();
+			assertEquals(MATCHES, result.getMatchCount());
+		}
+		commitMeasurements();
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+
+	public void testCollectMatches() throws Exception {
+		tagAsSummary("Collect 1M Java search matches", new Dimension[] { Dimension.ELAPSED_PROCESS, Dimension.USED_JAVA_HEAP });
+		for (int i= 0; i < 5; i++) {
+			collectGarbage();
+			startMeasuring();
+			JavaSearchResult result= collectMatches();
+			stopMeasuring();
+			assertEquals(MATCHES, result.getMatchCount());
+		}
+		commitMeasurements();
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+
+	public void testInitializeTree() throws Exception {
+		final JavaSearchResult result= collectMatches();
+		JavaSearchResultPage page= new JavaSearchResultPage() {
+			@Override
+			public AbstractTextSearchResult getInput() {
+				return result;
+			}
+		};
+		for (int i= 0; i < 10; i++) {
+			LevelTreeContentProvider provider= new LevelTreeContentProvider(page, LevelTreeContentProvider.LEVEL_PACKAGE);
+			collectGarbage();
+			startMeasuring();
+			provider.inputChanged(null, null, result);
+			Object[] elements= provider.getElements(result);
+			stopMeasuring();
+			assertEquals(1, elements.length);
+		}
+		commitMeasurements();
+		assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+	}
+
+	/**
+	 * Applies the last used match filters to all matches.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public void testFilterMatches() throws Exception {
+		JavaSearchResult result= collectMatches();
+		MatchFilter[] filters= result.getActiveMatchFilters();
+		try {
+			for (int i= 0; i < 10; i++) {
+				result.setActiveMatchFilters(new MatchFilter[0]);
+				collectGarbage();
+				startMeasuring();
+				result.setActiveMatchFilters(filters);
+				stopMeasuring();
+			}
+			commitMeasurements();
+			assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+		} finally {
+			result.setActiveMatchFilters(filters);
+		}
+	}
+
+	/**
+	 * The heap used by a result should be released when its matches are removed.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	public void testRemoveAll() throws Exception {
+		for (int i= 0; i < 5; i++) {
+			JavaSearchResult result= new JavaSearchResult(null);
+			collectGarbage();
+			startMeasuring();
+			collectMatches(result);
+			result.removeAll();
+			collectGarbage();
+			stopMeasuring();
+			assertEquals(0, result.getMatchCount());
+		}
+		commitMeasurements();
+		assertPerformanceInRelativeBand(Dimension.USED_JAVA_HEAP, -100, +10);
+	}
+
+	private static JavaSearchResult collectMatches() throws Exception {
+		JavaSearchResult result= new JavaSearchResult(null);
+		collectMatches(result);
+		return result;
+	}
+
+	private static void collectMatches(JavaSearchResult result) throws Exception {
+		IMethod[] methods= MyTestSetup.fMethods;
+		NewSearchResultCollector collector= new NewSearchResultCollector(result, false);
+		for (int j= 0; j < MATCHES; j++) {
+			collector.acceptSearchMatch(new SearchMatch(methods[j % methods.length], SearchMatch.A_ACCURATE, j, 1, null, null));
+		}
+	}
+
+	private static void collectGarbage() {
+		for (int i= 0; i < 3; i++) {
+			System.gc();
+		}
+	}
+}
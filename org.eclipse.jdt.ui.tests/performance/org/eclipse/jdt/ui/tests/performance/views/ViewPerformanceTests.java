@@ -27,6 +27,8 @@ public class ViewPerformanceTests extends TestCase {
 		suite.addTest(PackageExplorerWorkspacePerfTest.suite());
 		suite.addTest(PackageExplorerWorkspaceWarmPerfTest.suite());
 		suite.addTest(TypeHierarchyPerfTest.suite());
+		suite.addTest(CallHierarchyPerfTest.suite());
+		suite.addTest(SearchResultPerfTest.suite());
 		return suite;
 	}
 }
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.internal.junit5.runner.EventMultiplexer;
+
+import junit.framework.TestCase;
+
+public class EventMultiplexerTest extends TestCase {
+
+	private static final int THREADS= 8;
+
+	private static final int EVENTS= 2000;
+
+	private static final long TIMEOUT= 10000;
+
+	public void testPostDispatchesInCallingThread() {
+		EventMultiplexer multiplexer= new EventMultiplexer();
+		List<Thread> threads= new ArrayList<>();
+		multiplexer.post(() -> threads.add(Thread.currentThread()));
+		assertEquals(Collections.singletonList(Thread.currentThread()), threads);
+	}
+
+	public void testAwaitDispatchedWhenIdle() {
+		EventMultiplexer multiplexer= new EventMultiplexer();
+		multiplexer.awaitDispatched();
+		AtomicInteger count= new AtomicInteger();
+		multiplexer.post(() -> count.incrementAndGet());
+		multiplexer.awaitDispatched();
+		assertEquals(1, count.get());
+	}
+
+	public void testConcurrentPosts() throws Exception {
+		EventMultiplexer multiplexer= new EventMultiplexer();
+		AtomicInteger running= new AtomicInteger();
+		AtomicInteger overlaps= new AtomicInteger();
+		List<List<Integer>> dispatched= new ArrayList<>();
+		for (int i= 0; i < THREADS; i++) {
+			dispatched.add(new ArrayList<Integer>());
+		}
+
+		CountDownLatch start= new CountDownLatch(1);
+		List<Thread> threads= new ArrayList<>();
+		for (int i= 0; i < THREADS; i++) {
+			List<Integer> events= dispatched.get(i);
+			Thread thread= new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int j= 0; j < EVENTS; j++) {
+					Integer event= Integer.valueOf(j);
+					multiplexer.post(() -> {
+						if (running.incrementAndGet() != 1)
+							overlaps.incrementAndGet();
+						events.add(event);
+						running.decrementAndGet();
+					});
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join(TIMEOUT);
+			assertFalse(thread.isAlive());
+		}
+		multiplexer.awaitDispatched();
+
+		assertEquals(0, overlaps.get());
+		for (List<Integer> events : dispatched) {
+			assertEquals(EVENTS, events.size());
+			for (int j= 0; j < EVENTS; j++) {
+				assertEquals(j, events.get(j).intValue());
+			}
+		}
+	}
+
+	public void testAwaitDispatchedWaitsForDispatchingThread() throws Exception {
+		EventMultiplexer multiplexer= new EventMultiplexer();
+		CountDownLatch dispatching= new CountDownLatch(1);
+		CountDownLatch release= new CountDownLatch(1);
+		AtomicInteger count= new AtomicInteger();
+
+		Thread poster= new Thread(() -> multiplexer.post(() -> {
+			dispatching.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				// finish the event
+			}
+			count.incrementAndGet();
+		}));
+		poster.start();
+		assertTrue(dispatching.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+		// queued, since the poster is dispatching
+		multiplexer.post(() -> count.incrementAndGet());
+		assertEquals(0, count.get());
+
+		CountDownLatch awaited= new CountDownLatch(1);
+		Thread waiter= new Thread(() -> {
+			multiplexer.awaitDispatched();
+			awaited.countDown();
+		});
+		waiter.start();
+		assertFalse(awaited.await(100, TimeUnit.MILLISECONDS));
+
+		release.countDown();
+		assertTrue(awaited.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		assertEquals(2, count.get());
+		poster.join(TIMEOUT);
+		waiter.join(TIMEOUT);
+	}
+}
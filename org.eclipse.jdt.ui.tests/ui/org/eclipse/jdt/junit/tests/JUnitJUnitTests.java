@@ -40,6 +40,12 @@ public class JUnitJUnitTests {
 		suite.addTestSuite(TestRunFilteredStandardRunnerTest4.class);
 		suite.addTestSuite(TestRunFilteredParameterizedRunnerTest4.class);
 
+		suite.addTestSuite(RemoteTestRunnerClientTest.class);
+		suite.addTestSuite(TestRunSessionMemoryTest.class);
+		suite.addTestSuite(TestRunSessionStreamingTest.class);
+		suite.addTestSuite(TestPrioritizerTest.class);
+		suite.addTestSuite(EventMultiplexerTest.class);
+
 		suite.addTest(TestRunSessionSerializationTests3.suite());
 		suite.addTest(TestRunSessionSerializationTests4.suite());
 
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.junit.model.ITestRunListener2;
+import org.eclipse.jdt.internal.junit.model.RemoteTestRunnerClient;
+import org.eclipse.jdt.internal.junit.runner.FramedMessageWriter;
+import org.eclipse.jdt.internal.junit.runner.MessageIds;
+import org.eclipse.jdt.internal.junit.runner.MessageSender;
+
+import junit.framework.TestCase;
+
+/**
+ * Runs a synthetic test runner against the {@link RemoteTestRunnerClient} with the
+ * text and with the binary protocol.
+ */
+public class RemoteTestRunnerClientTest extends TestCase {
+
+	private static final int TEST_COUNT= 150000;
+
+	private static class RecordingListener implements ITestRunListener2 {
+
+		final List<String> fEvents= new ArrayList<>();
+
+		final boolean fRecordAll;
+
+		int fStarted;
+
+		int fEnded;
+
+		final CountDownLatch fDone= new CountDownLatch(1);
+
+		RecordingListener(boolean recordAll) {
+			fRecordAll= recordAll;
+		}
+
+		private void record(String event) {
+			if (fRecordAll)
+				fEvents.add(event);
+		}
+
+		@Override
+		public void testRunStarted(int testCount) {
+			record("runStarted " + testCount);
+		}
+
+		@Override
+		public void testRunEnded(long elapsedTime) {
+			record("runEnded " + elapsedTime);
+			fDone.countDown();
+		}
+
+		@Override
+		public void testRunStopped(long elapsedTime) {
+			record("runStopped " + elapsedTime);
+			fDone.countDown();
+		}
+
+		@Override
+		public void testStarted(String testId, String testName) {
+			fStarted++;
+			record("started " + testId + " " + testName);
+		}
+
+		@Override
+		public void testEnded(String testId, String testName) {
+			fEnded++;
+			record("ended " + testId + " " + testName);
+		}
+
+		@Override
+		public void testRunTerminated() {
+			record("terminated");
+			fDone.countDown();
+		}
+
+		@Override
+		public void testTreeEntry(String description) {
+			record("tree " + description);
+		}
+
+		@Override
+		public void testFailed(int status, String testId, String testName, String trace, String expected, String actual) {
+			record("failed " + status + " " + testId + " " + testName + " [" + trace + "] [" + expected + "] [" + actual + "]");
+		}
+
+		@Override
+		public void testReran(String testId, String testClass, String testName, int status, String trace, String expected, String actual) {
+			record("reran " + testId);
+		}
+	}
+
+	private static class TextSender implements MessageSender {
+		private final PrintWriter fWriter;
+
+		TextSender(OutputStream output) {
+			fWriter= new PrintWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)), false);
+		}
+
+		@Override
+		public void sendMessage(String msg) {
+			fWriter.println(msg);
+		}
+
+		@Override
+		public void flush() {
+			fWriter.flush();
+		}
+	}
+
+	private static class BinarySender implements MessageSender {
+		private final FramedMessageWriter fWriter;
+
+		BinarySender(OutputStream output) throws Exception {
+			output.write((MessageIds.PROTOCOL + MessageIds.BINARY_PROTOCOL + "\n").getBytes(StandardCharsets.UTF_8));
+			fWriter= new FramedMessageWriter(output);
+		}
+
+		@Override
+		public void sendMessage(String msg) {
+			try {
+				fWriter.writeMessage(msg);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public void flush() {
+			try {
+				fWriter.flush();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private static int findFreePort() throws Exception {
+		try (ServerSocket socket= new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	/**
+	 * Sends the messages of a test run in the same order and with the same
+	 * flushes as the FirstRunExecutionListener of the RemoteTestRunner.
+	 */
+	private static void sendTestRun(MessageSender sender, int testCount) {
+		sender.sendMessage(MessageIds.TEST_RUN_START + testCount + " v2");
+		sender.sendMessage(MessageIds.TEST_TREE + "1,pack.ATestCase,true," + testCount + ",false,-1,pack.ATestCase,,");
+		for (int i= 0; i < testCount; i++) {
+			String test= (i + 2) + ",test" + i + "(pack.ATestCase)";
+			sender.sendMessage(MessageIds.TEST_START + test);
+			sender.flush();
+			if (i % 1000 == 999) {
+				sender.sendMessage(MessageIds.TEST_FAILED + test);
+				sender.sendMessage(MessageIds.EXPECTED_START);
+				sender.sendMessage("expected \u00e9");
+				sender.sendMessage(MessageIds.EXPECTED_END);
+				sender.sendMessage(MessageIds.ACTUAL_START);
+				sender.sendMessage("actual");
+				sender.sendMessage(MessageIds.ACTUAL_END);
+				sender.sendMessage(MessageIds.TRACE_START);
+				sender.sendMessage("junit.framework.ComparisonFailure: test" + i + "\n\tat pack.ATestCase.test" + i + "(ATestCase.java:5)");
+				sender.sendMessage(MessageIds.TRACE_END);
+				sender.flush();
+			}
+			sender.sendMessage(MessageIds.TEST_END + test);
+		}
+		sender.sendMessage(MessageIds.TEST_RUN_END + 42);
+		sender.flush();
+	}
+
+	private long runSynthetic(RecordingListener listener, boolean binary, int testCount) throws Exception {
+		int port= findFreePort();
+		RemoteTestRunnerClient client= new RemoteTestRunnerClient();
+		client.startListening(new ITestRunListener2[] { listener }, port);
+
+		Socket socket= null;
+		for (int i= 0; socket == null; i++) {
+			try {
+				socket= new Socket("localhost", port);
+			} catch (Exception e) {
+				if (i == 100)
+					throw e;
+				Thread.sleep(50);
+			}
+		}
+		try {
+			long start= System.nanoTime();
+			MessageSender sender= binary ? new BinarySender(socket.getOutputStream()) : new TextSender(socket.getOutputStream());
+			sendTestRun(sender, testCount);
+			assertTrue("test run did not end", listener.fDone.await(2, TimeUnit.MINUTES));
+			return System.nanoTime() - start;
+		} finally {
+			socket.close();
+		}
+	}
+
+	public void testSameEventsForBothProtocols() throws Exception {
+		RecordingListener text= new RecordingListener(true);
+		runSynthetic(text, false, 2500);
+		RecordingListener binary= new RecordingListener(true);
+		runSynthetic(binary, true, 2500);
+
+		assertEquals(2 + 2 * 2500 + 2 + 1, text.fEvents.size());
+		assertEquals(text.fEvents, binary.fEvents);
+	}
+
+	public void testThroughput() throws Exception {
+		RecordingListener text= new RecordingListener(false);
+		long textTime= runSynthetic(text, false, TEST_COUNT);
+		RecordingListener binary= new RecordingListener(false);
+		long binaryTime= runSynthetic(binary, true, TEST_COUNT);
+
+		assertEquals(TEST_COUNT, text.fEnded);
+		assertEquals(TEST_COUNT, binary.fEnded);
+		assertEquals(TEST_COUNT, binary.fStarted);
+		System.out.println("Test runner protocol with " + TEST_COUNT + " tests: text " + textTime / 1000000 + " ms, binary " + binaryTime / 1000000 + " ms");
+	}
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.junit.launcher.TestPrioritizer;
+import org.eclipse.jdt.internal.junit.launcher.TestStatistics;
+
+public class TestPrioritizerTest extends TestCase {
+	private IJavaProject fProject;
+	private IPackageFragment fPackage;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		// statistics are cached per project name
+		fProject= JavaProjectHelper.createJavaProject("TestPrioritizer_" + getName(), "bin");
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fProject, "src");
+		fPackage= root.createPackageFragment("p", true, null);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JavaProjectHelper.delete(fProject);
+		super.tearDown();
+	}
+
+	private IType createType(String name) throws Exception {
+		return fPackage.createCompilationUnit(name + ".java", "package p;\npublic class " + name + " {}\n", true, null).getType(name);
+	}
+
+	private static void record(TestStatistics statistics, IType type, String test, boolean failed, double seconds) {
+		statistics.recordTest(TestPrioritizer.getClassName(type), test + "(" + type.getFullyQualifiedName() + ")", failed, seconds);
+		statistics.setInputStamp(TestPrioritizer.getClassName(type), TestPrioritizer.getStamp(type));
+	}
+
+	public void testPrioritize() throws Exception {
+		IType slow= createType("Slow");
+		IType fast= createType("Fast");
+		IType failing= createType("Failing");
+		IType unknown= createType("Unknown");
+		TestStatistics statistics= TestStatistics.getStatistics(fProject);
+		for (int i= 0; i < 5; i++) {
+			record(statistics, slow, "test", false, 10);
+			record(statistics, fast, "test", false, 0.1);
+			record(statistics, failing, "test", i == 4, 5);
+		}
+
+		IType[] order= new TestPrioritizer(statistics).prioritize(new IType[] { slow, fast, failing, unknown });
+		assertEquals(Arrays.asList(unknown, fast, failing, slow), Arrays.asList(order));
+
+		List<String> failed= new TestPrioritizer(statistics).getLastFailedTests(order);
+		assertEquals(Arrays.asList("test(p.Failing)"), failed);
+	}
+
+	public void testChangedClassFirst() throws Exception {
+		IType a= createType("A");
+		IType b= createType("B");
+		TestStatistics statistics= TestStatistics.getStatistics(fProject);
+		record(statistics, a, "test", false, 1);
+		record(statistics, b, "test", false, 1);
+		statistics.setInputStamp("p.B", 0);
+
+		IType[] order= new TestPrioritizer(statistics).prioritize(new IType[] { a, b });
+		assertEquals(Arrays.asList(b, a), Arrays.asList(order));
+	}
+
+	public void testNestedClass() throws Exception {
+		IType outer= fPackage.createCompilationUnit("Outer.java", "package p;\npublic class Outer {\n    public static class Inner {}\n}\n", true, null).getType("Outer");
+		IType inner= outer.getType("Inner");
+		IType a= createType("A");
+		TestStatistics statistics= TestStatistics.getStatistics(fProject);
+		// recorded under the class name of the test element, which separates nested classes by '.'
+		statistics.recordTest("p.Outer.Inner", "test(p.Outer$Inner)", true, 1);
+		record(statistics, a, "test", false, 1);
+
+		IType[] order= new TestPrioritizer(statistics).prioritize(new IType[] { a, inner });
+		assertEquals(Arrays.asList(inner, a), Arrays.asList(order));
+		assertEquals(Arrays.asList("test(p.Outer$Inner)"), new TestPrioritizer(statistics).getLastFailedTests(order));
+	}
+
+	public void testDropClassesNotRun() throws Exception {
+		IType a= createType("A");
+		IType b= createType("B");
+		TestStatistics statistics= TestStatistics.getStatistics(fProject);
+		record(statistics, a, "test", false, 1);
+		for (int i= 0; i < 100; i++) {
+			record(statistics, b, "test", false, 1);
+			statistics.finishRun();
+		}
+		assertTrue(statistics.hasRecords("p.A"));
+
+		record(statistics, b, "test", false, 1);
+		statistics.finishRun();
+		assertFalse(statistics.hasRecords("p.A"));
+		assertTrue(statistics.hasRecords("p.B"));
+
+		statistics.save();
+		TestStatistics loaded= TestStatistics.load(statistics.getFile());
+		assertFalse(loaded.hasRecords("p.A"));
+		assertTrue(loaded.hasRecords("p.B"));
+	}
+
+	public void testShard() throws Exception {
+		IType[] types= new IType[6];
+		double[] durations= { 8, 7, 6, 5, 4, 2 };
+		TestStatistics statistics= TestStatistics.getStatistics(fProject);
+		for (int i= 0; i < types.length; i++) {
+			types[i]= createType("T" + i);
+			record(statistics, types[i], "test", false, durations[i]);
+		}
+
+		List<IType[]> shards= new TestPrioritizer(statistics).shard(types, 2);
+		assertEquals(2, shards.size());
+		double[] loads= new double[2];
+		int count= 0;
+		for (int i= 0; i < 2; i++) {
+			for (IType type : shards.get(i)) {
+				loads[i]+= statistics.getDuration(type.getFullyQualifiedName());
+				count++;
+			}
+		}
+		assertEquals(types.length, count);
+		assertEquals(32.0, loads[0] + loads[1], 0.001);
+		assertTrue(Math.abs(loads[0] - loads[1]) <= 2.001);
+
+		assertEquals(3, new TestPrioritizer(statistics).shard(new IType[] { types[0], types[1], types[2] }, 5).size());
+	}
+
+	public void testSaveAndLoad() throws Exception {
+		IType type= createType("Saved");
+		TestStatistics statistics= TestStatistics.getStatistics(fProject);
+		record(statistics, type, "test", true, 3);
+		record(statistics, type, "test", false, 1);
+		statistics.save();
+
+		assertTrue(statistics.getFile().isFile());
+		TestStatistics loaded= TestStatistics.load(statistics.getFile());
+
+		assertEquals(statistics.getDuration("p.Saved"), loaded.getDuration("p.Saved"), 0.0);
+		assertEquals(statistics.getFailureProbability("p.Saved", TestPrioritizer.getStamp(type)), loaded.getFailureProbability("p.Saved", TestPrioritizer.getStamp(type)), 0.0);
+		assertTrue(loaded.getLastFailedTests("p.Saved").isEmpty());
+	}
+}
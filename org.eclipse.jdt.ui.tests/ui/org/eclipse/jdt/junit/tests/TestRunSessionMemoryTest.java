@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import org.eclipse.jdt.junit.model.ITestElement.Result;
+
+import org.eclipse.jdt.internal.junit.model.TestCaseElement;
+import org.eclipse.jdt.internal.junit.model.TestElement;
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+import org.eclipse.jdt.internal.junit.model.TestSuiteElement;
+
+import junit.framework.TestCase;
+
+/**
+ * Measures the heap retained by a synthetic test run session with 200k JUnit 5 tests.
+ */
+public class TestRunSessionMemoryTest extends TestCase {
+
+	private static final int SUITE_COUNT= 2000;
+
+	private static final int TESTS_PER_SUITE= 100;
+
+	private static final int MAX_BYTES_PER_TEST= 1024;
+
+	private static long usedMemory() {
+		Runtime runtime= Runtime.getRuntime();
+		long used= Long.MAX_VALUE;
+		for (int i= 0; i < 5; i++) {
+			System.gc();
+			used= Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+
+	private static String createTrace(String className, int test) {
+		StringBuilder trace= new StringBuilder("org.opentest4j.AssertionFailedError: expected: <1> but was: <2>\n");
+		for (int i= 0; i < 40; i++) {
+			trace.append("\tat ").append(className).append(".test").append(test).append("(Test.java:").append(i).append(")\n");
+		}
+		return trace.toString();
+	}
+
+	private static TestRunSession createSession() {
+		TestRunSession session= new TestRunSession("Memory", null);
+		int id= 0;
+		for (int s= 0; s < SUITE_COUNT; s++) {
+			String className= "org.example.pack" + s % 20 + ".SomeTest" + s;
+			String suiteId= "[engine:junit-jupiter]/[class:" + className + "]";
+			TestSuiteElement suite= (TestSuiteElement) session.createTestElement(session.getTestRoot(), Integer.toString(id++), className, true, 0, false, "SomeTest" + s, null, suiteId);
+			for (int t= 0; t < TESTS_PER_SUITE; t++) {
+				String testName= "test" + t + "(" + className + ")";
+				TestElement test= session.createTestElement(suite, Integer.toString(id++), testName, false, 0, false, "test" + t + "(int)", new String[] { "int" },
+						suiteId + "/[method:test" + t + "(int)]");
+				if (t % 50 == 49) {
+					session.registerTestFailureStatus(test, Status.FAILURE, createTrace(className, t), "1", "2");
+				}
+				session.registerTestEnded(test, true);
+			}
+		}
+		return session;
+	}
+
+	public void testRetainedHeap() throws Exception {
+		long before= usedMemory();
+		TestRunSession session= createSession();
+		long after= usedMemory();
+
+		int testCount= SUITE_COUNT * TESTS_PER_SUITE;
+		assertEquals(testCount, session.getTotalCount());
+		assertEquals(SUITE_COUNT * 2, session.getFailureCount());
+
+		TestCaseElement failed= (TestCaseElement) session.getTestElement("50");
+		assertEquals(Result.FAILURE, failed.getTestResult(false));
+		assertEquals(createTrace("org.example.pack0.SomeTest0", 49), failed.getTrace());
+		assertEquals("1", failed.getExpected());
+		assertEquals("[engine:junit-jupiter]/[class:org.example.pack0.SomeTest0]/[method:test49(int)]", failed.getUniqueId());
+
+		long bytesPerTest= (after - before) / testCount;
+		System.out.println("Test run session with " + testCount + " tests retains " + (after - before) / 1024 + " KB (" + bytesPerTest + " bytes per test)");
+		assertTrue("retained " + bytesPerTest + " bytes per test", bytesPerTest < MAX_BYTES_PER_TEST);
+
+		session.removeSwapFile();
+	}
+
+	public void testFailureTraceAfterStoreDisposed() throws Exception {
+		TestRunSession session= new TestRunSession("Traces", null);
+		TestSuiteElement suite= (TestSuiteElement) session.createTestElement(session.getTestRoot(), "0", "SomeTest", true, 1, false, "SomeTest", null, null);
+		TestElement test= session.createTestElement(suite, "1", "test(SomeTest)", false, 0, false, "test", null, null);
+		String trace= createTrace("SomeTest", 0);
+		session.registerTestFailureStatus(test, Status.FAILURE, trace, "1", "2");
+		session.registerTestEnded(test, true);
+		assertEquals(trace, test.getTrace());
+
+		// clients may still hold the elements after the store of the session is deleted
+		session.removeSwapFile();
+		assertEquals(trace, test.getTrace());
+		assertEquals("1", test.getExpected());
+		assertEquals("2", test.getActual());
+	}
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.model.JUnitModel;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+
+import junit.framework.TestCase;
+
+/**
+ * Imports and exports a large synthetic test run report.
+ * <p>
+ * The report size in megabytes can be set with the system property
+ * <code>org.eclipse.jdt.junit.tests.reportSize</code>, e.g. to 500 for a full benchmark.
+ * </p>
+ */
+public class TestRunSessionStreamingTest extends TestCase {
+
+	private static final int TESTS_PER_SUITE= 100;
+
+	private static final int FAILURE_INTERVAL= 20;
+
+	private static class CountingMonitor extends NullProgressMonitor {
+		int fTotal;
+		int fWorked;
+		int fCancelAfter= -1;
+
+		@Override
+		public void beginTask(String name, int totalWork) {
+			fTotal= totalWork;
+		}
+
+		@Override
+		public void worked(int work) {
+			fWorked+= work;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return fCancelAfter >= 0 && fWorked >= fCancelAfter;
+		}
+	}
+
+	private File fReport;
+
+	private File fExport;
+
+	private int fTestCount;
+
+	@Override
+	protected void setUp() throws Exception {
+		long size= Long.getLong("org.eclipse.jdt.junit.tests.reportSize", 20).longValue() * 1024 * 1024;
+		fReport= File.createTempFile("report", ".xml");
+		fExport= File.createTempFile("export", ".xml");
+		fTestCount= writeReport(fReport, size);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fReport.delete();
+		fExport.delete();
+	}
+
+	private static int writeReport(File file, long size) throws Exception {
+		int tests= 0;
+		int suites= 0;
+		try (Writer writer= new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			StringBuilder suite= new StringBuilder();
+			while (file.length() < size) {
+				suite.setLength(0);
+				String className= "org.example.pack" + suites % 20 + ".SomeTest" + suites;
+				suite.append("  <testsuite name=\"").append(className).append("\" time=\"0.1\">\n");
+				for (int t= 0; t < TESTS_PER_SUITE; t++, tests++) {
+					suite.append("    <testcase name=\"test").append(t).append("\" classname=\"").append(className).append("\" time=\"0.001\"");
+					if (t % FAILURE_INTERVAL != 0) {
+						suite.append("/>\n");
+						continue;
+					}
+					suite.append(">\n      <failure>java.lang.AssertionError: test").append(t).append(" &lt;failed&gt;\n");
+					for (int i= 0; i < 30; i++) {
+						suite.append("\tat ").append(className).append(".test").append(t).append("(SomeTest.java:").append(i).append(")\n");
+					}
+					suite.append("</failure>\n    </testcase>\n");
+				}
+				suite.append("  </testsuite>\n");
+				if (suites == 0) {
+					writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testrun name=\"Streaming\" project=\"P\" tests=\"0\" started=\"0\" failures=\"0\" errors=\"0\" ignored=\"0\">\n");
+				}
+				writer.write(suite.toString());
+				writer.flush();
+				suites++;
+			}
+			writer.write("</testrun>\n");
+		}
+		return tests;
+	}
+
+	public void testImportExport() throws Exception {
+		CountingMonitor monitor= new CountingMonitor();
+		long start= System.nanoTime();
+		TestRunSession session= JUnitModel.importTestRunSession(fReport, monitor);
+		long importTime= System.nanoTime() - start;
+		try {
+			assertEquals(fTestCount, session.getTotalCount());
+			assertEquals(fTestCount / FAILURE_INTERVAL, session.getFailureCount());
+			assertEquals(monitor.fTotal, monitor.fWorked);
+
+			start= System.nanoTime();
+			JUnitModel.exportTestRunSession(session, fExport);
+			long exportTime= System.nanoTime() - start;
+
+			TestRunSession reimported= JUnitModel.importTestRunSession(fExport);
+			assertEquals(fTestCount, reimported.getTotalCount());
+			assertEquals(fTestCount / FAILURE_INTERVAL, reimported.getFailureCount());
+			JUnitCorePlugin.getModel().removeTestRunSession(reimported);
+
+			System.out.println("Test run report with " + fTestCount + " tests (" + fReport.length() / 1024 / 1024 + " MB): import "
+					+ importTime / 1000000 + " ms, export " + exportTime / 1000000 + " ms");
+		} finally {
+			JUnitCorePlugin.getModel().removeTestRunSession(session);
+		}
+	}
+
+	public void testCancelImport() throws Exception {
+		CountingMonitor monitor= new CountingMonitor();
+		monitor.fCancelAfter= 1024;
+		try {
+			JUnitModel.importTestRunSession(fReport, monitor);
+			fail("import not cancelled");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		assertTrue(monitor.fWorked < monitor.fTotal);
+	}
+}
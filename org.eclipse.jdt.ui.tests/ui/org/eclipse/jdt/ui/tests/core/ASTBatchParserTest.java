@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.internal.corext.dom.ASTBatchParser;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Tests how the {@link ASTBatchParser} splits the compilation units into batches. Only handles
+ * are used, so no project needs to exist.
+ */
+public class ASTBatchParserTest extends TestCase {
+
+	private static final int MAX_AT_ONCE= 10;
+
+	private static final class BatchParser extends ASTBatchParser {
+		@Override
+		protected int getMaxAtOnce() {
+			return MAX_AT_ONCE;
+		}
+
+		ICompilationUnit[][] split(ICompilationUnit[] units) {
+			return createBatches(units);
+		}
+	}
+
+	private IPackageFragmentRoot fRoot;
+
+	public static Test suite() {
+		return new TestSuite(ASTBatchParserTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		IJavaProject project= JavaCore.create(ResourcesPlugin.getWorkspace().getRoot().getProject("ASTBatchParserTest"));
+		fRoot= project.getPackageFragmentRoot(project.getProject().getFolder("src"));
+	}
+
+	/*
+	 * Creates the given number of units per package, shuffled.
+	 */
+	private ICompilationUnit[] createUnits(int... packageSizes) {
+		List<ICompilationUnit> units= new ArrayList<>();
+		for (int i= 0; i < packageSizes.length; i++) {
+			for (int j= 0; j < packageSizes[i]; j++) {
+				units.add(fRoot.getPackageFragment("p" + i).getCompilationUnit("A" + j + ".java"));
+			}
+		}
+		Collections.shuffle(units, new Random(0));
+		return units.toArray(new ICompilationUnit[units.size()]);
+	}
+
+	private static void assertBatches(int[] expectedSizes, ICompilationUnit[][] batches) {
+		int[] sizes= new int[batches.length];
+		for (int i= 0; i < batches.length; i++) {
+			sizes[i]= batches[i].length;
+		}
+		assertEquals(Arrays.toString(expectedSizes), Arrays.toString(sizes));
+	}
+
+	private static void assertSortedByPackage(ICompilationUnit[] units, ICompilationUnit[][] batches) {
+		List<ICompilationUnit> all= new ArrayList<>();
+		for (int i= 0; i < batches.length; i++) {
+			all.addAll(Arrays.asList(batches[i]));
+		}
+		assertEquals(units.length, all.size());
+		assertTrue(all.containsAll(Arrays.asList(units)));
+		for (int i= 1; i < all.size(); i++) {
+			String previous= all.get(i - 1).getParent().getHandleIdentifier();
+			String current= all.get(i).getParent().getHandleIdentifier();
+			assertTrue(previous.compareTo(current) <= 0);
+		}
+	}
+
+	private static int countPackages(ICompilationUnit[] batch) {
+		List<IJavaElement> packages= new ArrayList<>();
+		for (int i= 0; i < batch.length; i++) {
+			if (!packages.contains(batch[i].getParent()))
+				packages.add(batch[i].getParent());
+		}
+		return packages.size();
+	}
+
+	public void testSingleBatchKeepsOrder() {
+		ICompilationUnit[] units= createUnits(3, 4, 3);
+		ICompilationUnit[][] batches= new BatchParser().split(units);
+		assertEquals(1, batches.length);
+		assertSame(units, batches[0]);
+	}
+
+	public void testBatchesEndAtPackageBoundary() {
+		ICompilationUnit[] units= createUnits(4, 4, 4, 4, 4);
+		ICompilationUnit[] copy= units.clone();
+		ICompilationUnit[][] batches= new BatchParser().split(units);
+		assertBatches(new int[] { 8, 8, 4 }, batches);
+		assertSortedByPackage(units, batches);
+		for (int i= 0; i < batches.length; i++) {
+			assertEquals(batches[i].length / 4, countPackages(batches[i]));
+		}
+		assertTrue(Arrays.equals(copy, units)); // the caller's array is not reordered
+	}
+
+	public void testSmallBatchesAreFilled() {
+		// ending the first batch after p0 would make it smaller than half of the maximum
+		ICompilationUnit[] units= createUnits(3, 12);
+		ICompilationUnit[][] batches= new BatchParser().split(units);
+		assertBatches(new int[] { 10, 5 }, batches);
+		assertSortedByPackage(units, batches);
+	}
+
+	public void testLargePackageIsSplit() {
+		ICompilationUnit[] units= createUnits(25);
+		ICompilationUnit[][] batches= new BatchParser().split(units);
+		assertBatches(new int[] { 10, 10, 5 }, batches);
+		assertSortedByPackage(units, batches);
+	}
+
+	public void testBatchAtMaximumKeepsFullPackages() {
+		ICompilationUnit[] units= createUnits(5, 5, 5);
+		ICompilationUnit[][] batches= new BatchParser().split(units);
+		assertBatches(new int[] { 10, 5 }, batches);
+		assertEquals(2, countPackages(batches[0]));
+		assertEquals(1, countPackages(batches[1]));
+	}
+}
@@ -15,6 +15,7 @@
 package org.eclipse.jdt.ui.tests.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 import junit.framework.Test;
@@ -23,12 +24,16 @@ import junit.framework.TestSuite;
 
 import org.eclipse.core.runtime.NullProgressMonitor;
 
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IInitializer;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 
+import org.eclipse.jdt.internal.corext.callhierarchy.CallGraphIndex;
 import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallLocation;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallerSearchEngine;
 import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
 
 import org.eclipse.jdt.ui.tests.callhierarchy.CallHierarchyTestHelper;
@@ -455,6 +460,94 @@ public class CallHierarchyTest extends TestCase {
         assertEquals("Wrong line number", 12, recursiveMethod2Wrapper.getMethodCall().getFirstCallLocation().getLineNumber());
     }
 
+    public void testParallelCallerSearch() throws Exception {
+        helper.createSimpleClasses();
+        CallerSearchEngine engine= CallerSearchEngine.getDefault();
+        engine.clearCache();
+
+        MethodWrapper[] frontier= new MethodWrapper[] {
+                getSingleCallerRoot(helper.getMethod1()),
+                getSingleCallerRoot(helper.getMethod2()),
+                getSingleCallerRoot(helper.getMethod3()),
+                getSingleCallerRoot(helper.getMethod4())
+        };
+        engine.searchCalls(frontier, new NullProgressMonitor());
+        for (int i= 0; i < frontier.length; i++) {
+            assertTrue(frontier[i].isCached());
+        }
+        helper.assertCalls(Arrays.<IMember> asList(helper.getMethod2(), helper.getMethod3()), frontier[0].getCalls(new NullProgressMonitor()));
+        helper.assertCalls(Arrays.<IMember> asList(helper.getMethod3()), frontier[1].getCalls(new NullProgressMonitor()));
+        helper.assertCalls(Arrays.<IMember> asList(helper.getMethod4()), frontier[2].getCalls(new NullProgressMonitor()));
+        helper.assertCalls(new ArrayList<IMember>(), frontier[3].getCalls(new NullProgressMonitor()));
+
+        // results are shared with new call hierarchies
+        MethodWrapper wrapper= getSingleCallerRoot(helper.getMethod1());
+        assertTrue(wrapper.isCached());
+        helper.assertCalls(Arrays.<IMember> asList(helper.getMethod2(), helper.getMethod3()), wrapper.getCalls(new NullProgressMonitor()));
+
+        // and discarded when the Java model changes
+        ICompilationUnit cu= helper.getPackage2().createCompilationUnit("C.java", "package pack2;\npublic class C {\n public void method5(pack1.A a) { a.method1(); }\n}\n", true, null);
+        IMethod method5= cu.getType("C").getMethod("method5", new String[] { "Qpack1.A;" });
+        wrapper= getSingleCallerRoot(helper.getMethod1());
+        assertFalse(wrapper.isCached());
+        helper.assertCalls(Arrays.<IMember> asList(helper.getMethod2(), helper.getMethod3(), method5), wrapper.getCalls(new NullProgressMonitor()));
+
+        engine.dispose();
+        assertFalse(getSingleCallerRoot(helper.getMethod1()).isCached());
+    }
+
+    public void testCalleeIndex() throws Exception {
+        helper.createSimpleClasses();
+        CallGraphIndex index= CallGraphIndex.getDefault();
+        index.clear();
+        ICompilationUnit cu= helper.getType2().getCompilationUnit();
+
+        MethodWrapper[] calls= getSingleCalleeRoot(helper.getMethod3()).getCalls(new NullProgressMonitor());
+        assertTrue(index.isIndexed(cu));
+        helper.assertCalls(Arrays.<IMember> asList(helper.getMethod1(), helper.getMethod2()), calls);
+
+        // same call locations as without the index
+        index.setEnabled(false);
+        try {
+            MethodWrapper[] visitorCalls= getSingleCalleeRoot(helper.getMethod3()).getCalls(new NullProgressMonitor());
+            assertEquals(visitorCalls.length, calls.length);
+            for (int i= 0; i < calls.length; i++) {
+                CallLocation expected= visitorCalls[i].getMethodCall().getFirstCallLocation();
+                CallLocation actual= calls[i].getMethodCall().getFirstCallLocation();
+                assertEquals(expected.getStart(), actual.getStart());
+                assertEquals(expected.getEnd(), actual.getEnd());
+                assertEquals(expected.getLineNumber(), actual.getLineNumber());
+            }
+            assertFalse(index.isIndexed(cu));
+        } finally {
+            index.setEnabled(true);
+        }
+
+        // body changes are picked up from the reconcile delta
+        getSingleCalleeRoot(helper.getMethod4()).getCalls(new NullProgressMonitor());
+        assertTrue(index.isIndexed(cu));
+        cu.becomeWorkingCopy(null);
+        try {
+            String contents= cu.getBuffer().getContents();
+            cu.getBuffer().setContents(contents.replace("public void method4() { method3(); }", "public void method4() { method3(); method1(); }"));
+            cu.reconcile(ICompilationUnit.NO_AST, false, null, null);
+            assertFalse(index.isIndexed(cu));
+            calls= getSingleCalleeRoot(helper.getMethod4()).getCalls(new NullProgressMonitor());
+            helper.assertCalls(Arrays.<IMember> asList(helper.getMethod3(), helper.getMethod1()), calls);
+            cu.commitWorkingCopy(true, null);
+        } finally {
+            cu.discardWorkingCopy();
+        }
+
+        // private methods without references in the indexed compilation unit have no callers
+        ICompilationUnit cuC= helper.getPackage2().createCompilationUnit("C.java", "package pack2;\npublic class C {\n private void unused() { }\n private void used() { }\n public void caller() { used(); }\n}\n", true, null);
+        IType typeC= cuC.getType("C");
+        getSingleCalleeRoot(typeC.getMethod("caller", EMPTY)).getCalls(new NullProgressMonitor());
+        assertTrue(index.isIndexed(cuC));
+        assertEquals(0, getSingleCallerRoot(typeC.getMethod("unused", EMPTY)).getCalls(new NullProgressMonitor()).length);
+        helper.assertCalls(Arrays.<IMember> asList(typeC.getMethod("caller", EMPTY)), getSingleCallerRoot(typeC.getMethod("used", EMPTY)).getCalls(new NullProgressMonitor()));
+    }
+
     private void assertRecursive(MethodWrapper[] callResults, boolean shouldBeRecursive) {
         for (int i= 0; i < callResults.length; i++) {
             assertEquals(
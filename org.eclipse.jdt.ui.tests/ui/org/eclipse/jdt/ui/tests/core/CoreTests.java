@@ -70,6 +70,7 @@ public class CoreTests extends TestCase {
 		suite.addTest(IndentManipulationTest.suite());
 		suite.addTest(SelectionHistoryTest.suite());
 		suite.addTest(ASTProviderTest.suite());
+		suite.addTest(ASTBatchParserTest.suite());
 		suite.addTest(JDTFlagsTest18.suite());
 
 		return new ProjectTestSetup(suite);
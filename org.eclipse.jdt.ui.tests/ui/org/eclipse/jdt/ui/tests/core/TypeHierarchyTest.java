@@ -15,6 +15,8 @@ package org.eclipse.jdt.ui.tests.core;
 
 import org.eclipse.jdt.testplugin.JavaProjectHelper;
 
+import org.eclipse.core.runtime.jobs.Job;
+
 import org.eclipse.jface.text.IDocument;
 
 import org.eclipse.ui.IEditorPart;
@@ -33,6 +35,9 @@ import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.ui.JavaUI;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.typehierarchy.ITypeHierarchyModel;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyLifeCycle;
+import org.eclipse.jdt.internal.ui.util.BusyIndicatorRunnableContext;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -294,7 +299,49 @@ public class TypeHierarchyTest extends TestCase {
 
 	}
 
+	public void testIncrementalLifeCycleUpdate() throws Exception {
+		IPackageFragmentRoot root1= JavaProjectHelper.addSourceContainer(fJavaProject1, "src");
+		IPackageFragment pack1= root1.createPackageFragment("pack1", true, null);
+
+		IType typeA= pack1.getCompilationUnit("A.java").createType("public class A {\n}\n", null, true, null);
+		IType typeB= pack1.getCompilationUnit("B.java").createType("public class B extends A {\n}\n", null, true, null);
+
+		TypeHierarchyLifeCycle lifeCycle= new TypeHierarchyLifeCycle(false);
+		try {
+			lifeCycle.ensureRefreshedTypeHierarchy(typeA, new BusyIndicatorRunnableContext());
+			assertEquals(typeA, lifeCycle.getHierarchy().getSuperclass(typeB));
+
+			// new subtype
+			ICompilationUnit cu3= pack1.getCompilationUnit("C.java");
+			IType typeC= cu3.createType("public class C extends B {\n}\n", null, true, null);
+			Job.getJobManager().join(lifeCycle, null);
 
+			ITypeHierarchyModel hierarchy= lifeCycle.getHierarchy();
+			assertEquals(typeB, hierarchy.getSuperclass(typeC));
+			assertEquals(2, hierarchy.getAllSubtypes(typeA).length);
 
+			// changed supertype
+			cu3.getBuffer().setContents("package pack1;\npublic class C extends A {\n}\n");
+			cu3.save(null, true);
+			Job.getJobManager().join(lifeCycle, null);
+
+			hierarchy= lifeCycle.getHierarchy();
+			assertEquals(typeA, hierarchy.getSuperclass(typeC));
+			assertEquals(0, hierarchy.getSubtypes(typeB).length);
+
+			// removed subtype
+			cu3.delete(true, null);
+			Job.getJobManager().join(lifeCycle, null);
+
+			hierarchy= lifeCycle.getHierarchy();
+			assertFalse(hierarchy.contains(typeC));
+			assertEquals(1, hierarchy.getAllSubtypes(typeA).length);
+
+			assertEquals(1, lifeCycle.getFullRefreshCount());
+			assertTrue(lifeCycle.getIncrementalRefreshCount() >= 3);
+		} finally {
+			lifeCycle.freeHierarchy();
+		}
+	}
 
 }
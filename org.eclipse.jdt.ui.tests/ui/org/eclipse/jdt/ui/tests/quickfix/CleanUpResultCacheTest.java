@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.quickfix;
+
+import java.io.File;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+
+import org.eclipse.jdt.internal.corext.fix.CleanUpConstants;
+import org.eclipse.jdt.internal.corext.fix.CleanUpRefactoring;
+import org.eclipse.jdt.internal.corext.fix.CleanUpResultCache;
+import org.eclipse.jdt.internal.corext.fix.CleanUpResultCache.CachedResult;
+
+import org.eclipse.jdt.ui.tests.core.ProjectTestSetup;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class CleanUpResultCacheTest extends CleanUpTestCase {
+
+	private static final Class<CleanUpResultCacheTest> THIS= CleanUpResultCacheTest.class;
+
+	public CleanUpResultCacheTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return setUpTest(new TestSuite(THIS));
+	}
+
+	public static Test setUpTest(Test test) {
+		return new ProjectTestSetup(test);
+	}
+
+	private void performCachedRefactoring(CleanUpResultCache cache, ICompilationUnit cu) throws Exception {
+		CleanUpRefactoring ref= new CleanUpRefactoring();
+		ref.setUseOptionsFromProfile(true);
+		ref.setResultCache(cache);
+		performRefactoring(ref, new ICompilationUnit[] { cu }, JavaPlugin.getDefault().getCleanUpRegistry().createCleanUps());
+	}
+
+	public void testCachedChange() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("    public void foo(boolean b) {\n");
+		buf.append("        if (b)\n");
+		buf.append("            System.out.println();\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		String original= buf.toString();
+		ICompilationUnit cu1= pack1.createCompilationUnit("E1.java", original, false, null);
+
+		enable(CleanUpConstants.CONTROL_STATEMENTS_USE_BLOCKS);
+		enable(CleanUpConstants.CONTROL_STATMENTS_USE_BLOCKS_ALWAYS);
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("    public void foo(boolean b) {\n");
+		buf.append("        if (b) {\n");
+		buf.append("            System.out.println();\n");
+		buf.append("        }\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		String expected= buf.toString();
+
+		CleanUpResultCache cache= new CleanUpResultCache(null, 100, 10000);
+		performCachedRefactoring(cache, cu1);
+		assertEquals(expected, cu1.getBuffer().getContents());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.size());
+
+		cu1.getBuffer().setContents(original);
+		cu1.save(null, true);
+
+		performCachedRefactoring(cache, cu1);
+		assertEquals(expected, cu1.getBuffer().getContents());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	public void testCachedNoChange() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("    public void foo(boolean b) {\n");
+		buf.append("        if (b) {\n");
+		buf.append("            System.out.println();\n");
+		buf.append("        }\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		String original= buf.toString();
+		ICompilationUnit cu1= pack1.createCompilationUnit("E1.java", original, false, null);
+
+		enable(CleanUpConstants.CONTROL_STATEMENTS_USE_BLOCKS);
+		enable(CleanUpConstants.CONTROL_STATMENTS_USE_BLOCKS_ALWAYS);
+
+		CleanUpResultCache cache= new CleanUpResultCache(null, 100, 10000);
+		performCachedRefactoring(cache, cu1);
+		performCachedRefactoring(cache, cu1);
+
+		assertEquals(original, cu1.getBuffer().getContents());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0.5, cache.getHitRate(), 0.001);
+	}
+
+	public void testConfigurationChangeInvalidates() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("    public void foo(boolean b) {\n");
+		buf.append("        if (b)\n");
+		buf.append("            System.out.println();\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		String original= buf.toString();
+		ICompilationUnit cu1= pack1.createCompilationUnit("E1.java", original, false, null);
+
+		CleanUpResultCache cache= new CleanUpResultCache(null, 100, 10000);
+		performCachedRefactoring(cache, cu1);
+		assertEquals(original, cu1.getBuffer().getContents());
+
+		enable(CleanUpConstants.CONTROL_STATEMENTS_USE_BLOCKS);
+		enable(CleanUpConstants.CONTROL_STATMENTS_USE_BLOCKS_ALWAYS);
+
+		performCachedRefactoring(cache, cu1);
+		assertFalse(original.equals(cu1.getBuffer().getContents()));
+		assertEquals(0, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	public void testReferencedTypeChangeInvalidates() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("}\n");
+		ICompilationUnit cu1= pack1.createCompilationUnit("E1.java", buf.toString(), false, null);
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E2 extends E1 {\n");
+		buf.append("    public void foo() {}\n");
+		buf.append("}\n");
+		String original= buf.toString();
+		ICompilationUnit cu2= pack1.createCompilationUnit("E2.java", original, false, null);
+
+		enable(CleanUpConstants.ADD_MISSING_ANNOTATIONS);
+		enable(CleanUpConstants.ADD_MISSING_ANNOTATIONS_OVERRIDE);
+
+		CleanUpResultCache cache= new CleanUpResultCache(null, 100, 10000);
+		performCachedRefactoring(cache, cu2);
+		assertEquals(original, cu2.getBuffer().getContents());
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("    public void foo() {}\n");
+		buf.append("}\n");
+		cu1.getBuffer().setContents(buf.toString());
+		cu1.save(null, true);
+
+		performCachedRefactoring(cache, cu2);
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class E2 extends E1 {\n");
+		buf.append("    @Override\n");
+		buf.append("    public void foo() {}\n");
+		buf.append("}\n");
+		assertEquals(buf.toString(), cu2.getBuffer().getContents());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	public void testEvictionAndPersistence() throws Exception {
+		File file= File.createTempFile("cleanUpResults", ".cache");
+		try {
+			String configuration= CleanUpResultCache.computeContentHash("configuration");
+			String[] contents= { "class A {}", "class B {}", "class C {}" };
+
+			CleanUpResultCache cache= new CleanUpResultCache(file, 2, 10000);
+			for (int i= 0; i < contents.length; i++) {
+				cache.putChange(CleanUpResultCache.computeContentHash(contents[i]), configuration, contents[i], "public " + contents[i]);
+			}
+			assertEquals(2, cache.size());
+			assertEquals(1, cache.getEvictionCount());
+			assertNull(cache.get(CleanUpResultCache.computeContentHash(contents[0]), configuration));
+			cache.save();
+
+			CleanUpResultCache loaded= new CleanUpResultCache(file, 2, 10000);
+			loaded.load();
+			assertEquals(2, loaded.size());
+			for (int i= 1; i < contents.length; i++) {
+				CachedResult result= loaded.get(CleanUpResultCache.computeContentHash(contents[i]), configuration);
+				assertNotNull(result);
+				IDocument document= new Document(contents[i]);
+				result.createEdit().apply(document);
+				assertEquals("public " + contents[i], document.get());
+			}
+			assertEquals(2, loaded.getHitCount());
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -90,6 +90,7 @@ public class CleanUpTestCase extends QuickFixTest {
 		suite.addTest(SaveParticipantTest.suite());
 		suite.addTest(CleanUpActionTest.suite());
 		suite.addTest(NullAnnotationsCleanUpTest18.suite());
+		suite.addTest(CleanUpResultCacheTest.suite());
 
 		return suite;
 	}
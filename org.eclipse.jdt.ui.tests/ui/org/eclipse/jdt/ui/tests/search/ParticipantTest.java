@@ -17,18 +17,33 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 
 import org.eclipse.core.resources.IProject;
 
+import org.eclipse.search.ui.NewSearchUI;
+import org.eclipse.search.ui.text.Match;
+
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
 
 import org.eclipse.jdt.ui.search.IQueryParticipant;
+import org.eclipse.jdt.ui.search.ISearchRequestor;
+import org.eclipse.jdt.ui.search.PatternQuerySpecification;
+import org.eclipse.jdt.ui.search.QuerySpecification;
 
 import org.eclipse.jdt.internal.ui.search.JavaSearchQuery;
 import org.eclipse.jdt.internal.ui.search.JavaSearchResult;
+import org.eclipse.jdt.internal.ui.search.JavaSearchScopeFactory;
 import org.eclipse.jdt.internal.ui.search.SearchParticipantDescriptor;
 import org.eclipse.jdt.internal.ui.search.SearchParticipantRecord;
 import org.eclipse.jdt.internal.ui.search.SearchParticipantsExtensionPoint;
@@ -39,17 +54,39 @@ public class ParticipantTest extends TestCase {
 
 	private static Class<ParticipantTest> THIS= ParticipantTest.class;
 
+	private static boolean fgAddSlowParticipant;
+
+	private static TestParticipantRecord fgSlowParticipantRecord;
+
+	private static CountDownLatch fgSlowParticipantDone;
+
+	private static volatile boolean fgSlowParticipantInterrupted;
+
 	static class TestExtensionPoint extends SearchParticipantsExtensionPoint {
 		@Override
 		public SearchParticipantRecord[] getSearchParticipants(IProject[] concernedProjects) {
+			if (fgAddSlowParticipant) {
+				fgSlowParticipantRecord= new TestParticipantRecord(SLOW_PARTICIPANT_ID);
+				return new SearchParticipantRecord[] { new SearchParticipantRecord(new TestParticipantRecord(), new TestParticipant()),
+						new SearchParticipantRecord(fgSlowParticipantRecord, new SlowParticipant()) };
+			}
 			return new SearchParticipantRecord[] { new SearchParticipantRecord(new TestParticipantRecord(), new TestParticipant()) };
 		}
 	}
 
+	private static final String SLOW_PARTICIPANT_ID= "SlowParticipant ID";
+
 	static class TestParticipantRecord extends SearchParticipantDescriptor {
 
+		private final String fID;
+
 		TestParticipantRecord() {
+			this("TestParticipant1 ID");
+		}
+
+		TestParticipantRecord(String id) {
 			super(null);
+			fID= id;
 		}
 
 		@Override
@@ -64,7 +101,7 @@ public class ParticipantTest extends TestCase {
 
 		@Override
 		public String getID() {
-			return "TestParticipant1 ID";
+			return fID;
 		}
 
 		@Override
@@ -81,10 +118,46 @@ public class ParticipantTest extends TestCase {
 		return new JUnitSourceSetup(test, new TestExtensionPoint());
 	}
 
+	/**
+	 * Reports a match, then ignores cancellation for a while, reports another match and fails.
+	 */
+	static class SlowParticipant extends TestParticipant {
+		@Override
+		public void search(ISearchRequestor requestor, QuerySpecification data, IProgressMonitor monitor) throws CoreException {
+			try {
+				requestor.reportMatch(new Match(Integer.valueOf(-1), -1, -1));
+				try {
+					Thread.sleep(2000);
+				} catch (InterruptedException e) {
+					fgSlowParticipantInterrupted= true;
+				}
+				requestor.reportMatch(new Match(Integer.valueOf(-2), -1, -1));
+				throw new IllegalStateException("abandoned");
+			} finally {
+				fgSlowParticipantDone.countDown();
+			}
+		}
+	}
+
 	public ParticipantTest(String name) {
 		super(name);
 	}
 
+	@Override
+	protected void setUp() throws Exception {
+		fgSlowParticipantRecord= null;
+		fgSlowParticipantDone= new CountDownLatch(1);
+		fgSlowParticipantInterrupted= false;
+	}
+
+	private static void assertSlowParticipantAbandoned(JavaSearchResult result) throws InterruptedException {
+		assertTrue(fgSlowParticipantDone.await(5000, TimeUnit.MILLISECONDS));
+		assertFalse(fgSlowParticipantInterrupted);
+		// failing after the search has abandoned it does not disable the participant
+		assertTrue(fgSlowParticipantRecord.isEnabled());
+		assertEquals(0, result.getMatchCount(Integer.valueOf(-2)));
+	}
+
 	public void testSimpleParticipant() throws Exception {
 		JavaSearchQuery query= SearchTestHelper.runMethodRefQuery("frufru");
 		JavaSearchResult result= (JavaSearchResult) query.getSearchResult();
@@ -94,6 +167,55 @@ public class ParticipantTest extends TestCase {
 		for (int i= 0; i < elements.length; i++) {
 			assertTrue(elements[i] instanceof Integer);
 		}
+		assertTrue(query.getParticipantTimes().containsKey("TestParticipant1 ID"));
+	}
+
+	public void testSlowParticipant() throws Exception {
+		fgAddSlowParticipant= true;
+		try {
+			JavaSearchQuery query= new JavaSearchQuery(new PatternQuerySpecification("frufru", IJavaSearchConstants.METHOD, true, IJavaSearchConstants.REFERENCES, JavaSearchScopeFactory.getInstance().createWorkspaceScope(true), "workspace scope"));
+			query.setParticipantTimeout(200, 200);
+			long start= System.currentTimeMillis();
+			NewSearchUI.runQueryInForeground(null, query);
+			assertTrue(System.currentTimeMillis() - start < 4000);
+
+			// the match reported after the timeout is ignored
+			JavaSearchResult result= (JavaSearchResult) query.getSearchResult();
+			assertEquals(21, result.getMatchCount());
+			assertEquals(0, result.getMatchCount(Integer.valueOf(-2)));
+
+			Map<String, Long> times= query.getParticipantTimes();
+			assertEquals(2, times.size());
+			assertTrue(times.get(SLOW_PARTICIPANT_ID).longValue() >= 400);
+
+			assertSlowParticipantAbandoned(result);
+		} finally {
+			fgAddSlowParticipant= false;
+		}
+	}
+
+	public void testCanceledSearch() throws Exception {
+		fgAddSlowParticipant= true;
+		try {
+			JavaSearchQuery query= new JavaSearchQuery(new PatternQuerySpecification("frufru", IJavaSearchConstants.METHOD, true, IJavaSearchConstants.REFERENCES, JavaSearchScopeFactory.getInstance().createWorkspaceScope(true), "workspace scope"));
+			final long cancelTime= System.currentTimeMillis() + 300;
+			try {
+				query.run(new NullProgressMonitor() {
+					@Override
+					public boolean isCanceled() {
+						return System.currentTimeMillis() > cancelTime;
+					}
+				});
+				fail();
+			} catch (OperationCanceledException e) {
+				// expected
+			}
+
+			// the slow participant reports a match after the search has been canceled
+			assertSlowParticipantAbandoned((JavaSearchResult) query.getSearchResult());
+		} finally {
+			fgAddSlowParticipant= false;
+		}
 	}
 
 }
@@ -36,10 +36,12 @@ import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.SearchMatch;
 
 import org.eclipse.jdt.internal.ui.search.JavaSearchResult;
 import org.eclipse.jdt.internal.ui.search.JavaSearchResultPage;
 import org.eclipse.jdt.internal.ui.search.LevelTreeContentProvider;
+import org.eclipse.jdt.internal.ui.search.NewSearchResultCollector;
 
 /**
  */
@@ -258,6 +260,61 @@ public class TreeContentProviderTest extends TestCase {
 		assertEquals(0, fProvider.getElements(fResult).length);
 	}
 
+	public void testLazyGroups() throws Exception {
+		IMethod method= SearchTestHelper.getMethod("junit.framework.TestCase", "getName", new String[0]);
+		IMethod method2= SearchTestHelper.getMethod("junit.framework.Assert", "fail", new String[0]);
+		IType type= method.getDeclaringType();
+		IType type2= method2.getDeclaringType();
+		IPackageFragment pkg= type.getPackageFragment();
+		addMatch(new Match(method, 0, 1));
+		addMatch(new Match(method2, 0, 1));
+
+		fProvider.setLevel(LevelTreeContentProvider.LEVEL_PROJECT);
+		Object[] elements= fProvider.getElements(fResult);
+		assertEquals(1, elements.length);
+		assertEquals(pkg.getJavaProject(), elements[0]);
+		assertTrue(fProvider.hasChildren(elements[0]));
+
+		assertEquals(2, fProvider.getChildren(pkg).length);
+		assertEquals(1, fProvider.getChildren(type).length);
+		assertEquals(method2, fProvider.getChildren(type2)[0]);
+
+		removeMatch(fResult.getMatches(method2)[0]);
+		assertEquals(1, fProvider.getChildren(pkg).length);
+		assertEquals(0, fProvider.getChildren(type2).length);
+	}
+
+	public void testCompactMatches() throws Exception {
+		IType type= SearchTestHelper.getType("junit.framework.TestCase");
+		IMethod[] methods= type.getMethods();
+		NewSearchResultCollector collector= new NewSearchResultCollector(fResult, false);
+		int count= 20000;
+		for (int i= 0; i < count; i++) {
+			collector.acceptSearchMatch(new SearchMatch(methods[i % methods.length], SearchMatch.A_ACCURATE, count - i, 1, null, null));
+		}
+		fProvider.inputChanged(null, null, fResult);
+
+		assertTrue(fResult.hasCompactMatches());
+		assertEquals(count, fResult.getMatchCount());
+		assertEquals(methods.length, fResult.getElements().length);
+		assertEquals(methods.length, fProvider.getChildren(type).length);
+
+		Match[] matches= fResult.getMatches(methods[0]);
+		assertEquals(fResult.getMatchCount(methods[0]), matches.length);
+		Match[] matches2= fResult.getMatches(methods[0]);
+		for (int i= 0; i < matches.length; i++) {
+			if (i > 0)
+				assertTrue(matches[i - 1].getOffset() < matches[i].getOffset());
+			assertEquals(matches[i], matches2[i]);
+		}
+
+		fResult.removeMatches(matches);
+		fProvider.elementsChanged(new Object[] { methods[0] });
+		assertEquals(0, fResult.getMatchCount(methods[0]));
+		assertEquals(count - matches.length, fResult.getMatchCount());
+		assertEquals(methods.length - 1, fProvider.getChildren(type).length);
+	}
+
 	private void removeMatch(Match match) {
 		fResult.removeMatch(match);
 		fProvider.elementsChanged(new Object[] { match.getElement() });
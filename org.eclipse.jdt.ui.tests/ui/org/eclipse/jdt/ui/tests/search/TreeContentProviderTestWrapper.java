@@ -76,4 +76,12 @@ public class TreeContentProviderTestWrapper extends TestCase {
 	public void testRemoveParentLast() throws Exception {
 		fTest.testRemoveParentLast();
 	}
+
+	public void testLazyGroups() throws Exception {
+		fTest.testLazyGroups();
+	}
+
+	public void testCompactMatches() throws Exception {
+		fTest.testCompactMatches();
+	}
 }
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+/**
+ * An index of the calls in compilation units, used to find the callees of a member without
+ * parsing and visiting its compilation unit again for every member.
+ * <p>
+ * A compilation unit is indexed with a single pass over its AST the first time one of its
+ * members is queried. The edges are stored as an <code>int</code> array that refers to the
+ * members of the compilation unit by local ids. The index of a compilation unit is discarded when
+ * a Java element delta changes it, the whole index is discarded when a delta may change the
+ * bindings of other compilation units.
+ * </p>
+ * <p>
+ * Only callees found in the compilation unit are remembered. The search scope and the implementor
+ * settings of the {@link CallHierarchy} are applied when the index is queried.
+ * </p>
+ *
+ * @since 3.16.100
+ */
+public class CallGraphIndex {
+
+	/**
+	 * The id used for calls that are not inside a member.
+	 */
+	static final int NO_MEMBER= -1;
+
+	/**
+	 * Flag for calls of a method that is declared in an interface.
+	 */
+	static final int FLAG_INTERFACE= 1;
+
+	/**
+	 * Flag for method references. They are not shown as callees, but they are references.
+	 */
+	static final int FLAG_REFERENCE= 2;
+
+	static final int EDGE_CALLER= 0;
+	static final int EDGE_CALLEE= 1;
+	static final int EDGE_FLAGS= 2;
+	static final int EDGE_START= 3;
+	static final int EDGE_END= 4;
+	static final int EDGE_LINE= 5;
+
+	/**
+	 * Number of <code>int</code>s per edge.
+	 */
+	static final int EDGE_SIZE= 6;
+
+	/**
+	 * Delta flags that can change the bindings in other compilation units.
+	 */
+	private static final int STRUCTURE_FLAGS= IJavaElementDelta.F_MODIFIERS | IJavaElementDelta.F_SUPER_TYPES
+			| IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+			| IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED;
+
+	private static CallGraphIndex fgInstance;
+
+	/**
+	 * The calls of a compilation unit.
+	 */
+	private static class CompilationUnitIndex {
+
+		private final IMember[] fMembers;
+		private final Map<IMember, Integer> fIds;
+		private final int[] fEdges;
+
+		CompilationUnitIndex(IMember[] members, int[] edges) {
+			fMembers= members;
+			fEdges= edges;
+			fIds= new HashMap<>(members.length * 2);
+			for (int i= 0; i < members.length; i++) {
+				fIds.put(members[i], Integer.valueOf(i));
+			}
+		}
+
+		int getId(IMember member) {
+			Integer id= fIds.get(member);
+			return id == null ? NO_MEMBER : id.intValue();
+		}
+
+		Map<String, MethodCall> getCallees(IMember member) {
+			CallSearchResultCollector collector= new CallSearchResultCollector();
+			int id= getId(member);
+			if (id == NO_MEMBER)
+				return collector.getCallers();
+			for (int offset= 0; offset < fEdges.length; offset+= EDGE_SIZE) {
+				if (fEdges[offset + EDGE_CALLER] != id)
+					continue;
+				int flags= fEdges[offset + EDGE_FLAGS];
+				if ((flags & FLAG_REFERENCE) != 0)
+					continue;
+				IMember callee= CalleeAnalyzerVisitor.getReferencedMember(fMembers[fEdges[offset + EDGE_CALLEE]], (flags & FLAG_INTERFACE) != 0);
+				collector.addMember(member, callee, fEdges[offset + EDGE_START], fEdges[offset + EDGE_END], fEdges[offset + EDGE_LINE]);
+			}
+			return collector.getCallers();
+		}
+
+		boolean isReferenced(IMember member) {
+			int id= getId(member);
+			if (id == NO_MEMBER)
+				return false;
+			for (int offset= 0; offset < fEdges.length; offset+= EDGE_SIZE) {
+				if (fEdges[offset + EDGE_CALLEE] == id)
+					return true;
+			}
+			return false;
+		}
+	}
+
+	private final Map<ICompilationUnit, CompilationUnitIndex> fIndex= new HashMap<>();
+
+	/**
+	 * Incremented whenever entries are discarded, so that an index that was built concurrently
+	 * from an outdated AST is not added.
+	 */
+	private int fGeneration;
+
+	private volatile boolean fEnabled= true;
+
+	private IElementChangedListener fListener;
+
+	private CallGraphIndex() {
+	}
+
+	public static synchronized CallGraphIndex getDefault() {
+		if (fgInstance == null) {
+			fgInstance= new CallGraphIndex();
+		}
+		return fgInstance;
+	}
+
+	/**
+	 * Enables or disables the index. When disabled, {@link #getCallees(IMember, IProgressMonitor)}
+	 * returns <code>null</code> and callees are found by visiting the AST of the member.
+	 *
+	 * @param enabled <code>true</code> to use the index
+	 */
+	public void setEnabled(boolean enabled) {
+		fEnabled= enabled;
+		if (!enabled)
+			clear();
+	}
+
+	public boolean isEnabled() {
+		return fEnabled;
+	}
+
+	/**
+	 * Returns the callees of the given member.
+	 *
+	 * @param member the member
+	 * @param monitor the progress monitor, or <code>null</code>
+	 * @return a map from handle identifier to {@link MethodCall}, or <code>null</code> if the
+	 *         member is not in a compilation unit that can be indexed
+	 */
+	public Map<String, MethodCall> getCallees(IMember member, IProgressMonitor monitor) {
+		int type= member.getElementType();
+		if (type != IJavaElement.METHOD && type != IJavaElement.INITIALIZER)
+			return null;
+		CompilationUnitIndex index= getIndex(member.getCompilationUnit(), monitor);
+		if (index == null)
+			return null;
+		return index.getCallees(member);
+	}
+
+	/**
+	 * Tells whether the given method is not referenced from its own compilation unit. The answer
+	 * is only meaningful for private methods, which cannot be referenced from elsewhere.
+	 *
+	 * @param method the method
+	 * @param monitor the progress monitor, or <code>null</code>
+	 * @return <code>true</code> if the compilation unit of the method has been indexed and the
+	 *         method is neither called nor referenced in it, <code>false</code> otherwise
+	 */
+	public boolean isUnreferenced(IMethod method, IProgressMonitor monitor) {
+		CompilationUnitIndex index= getIndex(method.getCompilationUnit(), monitor);
+		return index != null && !index.isReferenced(method);
+	}
+
+	/**
+	 * @param cu the compilation unit
+	 * @return <code>true</code> iff the calls of the compilation unit are currently indexed
+	 */
+	public synchronized boolean isIndexed(ICompilationUnit cu) {
+		return fIndex.containsKey(cu);
+	}
+
+	/**
+	 * Discards the whole index.
+	 */
+	public synchronized void clear() {
+		fGeneration++;
+		fIndex.clear();
+	}
+
+	private synchronized void remove(ICompilationUnit cu) {
+		fGeneration++;
+		fIndex.remove(cu);
+	}
+
+	private CompilationUnitIndex getIndex(ICompilationUnit cu, IProgressMonitor monitor) {
+		if (!fEnabled || cu == null || cu.getOwner() != null)
+			return null;
+		int generation;
+		synchronized (this) {
+			CompilationUnitIndex index= fIndex.get(cu);
+			if (index != null)
+				return index;
+			generation= fGeneration;
+		}
+		installListener();
+
+		CompilationUnit root= CallHierarchy.getCompilationUnitNode(cu, true);
+		if (root == null)
+			return null;
+		CallGraphIndexer indexer= new CallGraphIndexer(cu, root, monitor);
+		root.accept(indexer);
+		CompilationUnitIndex index= new CompilationUnitIndex(indexer.getMembers(), indexer.getEdges());
+
+		synchronized (this) {
+			if (generation == fGeneration && fEnabled)
+				fIndex.put(cu, index);
+		}
+		return index;
+	}
+
+	private synchronized void installListener() {
+		if (fListener != null)
+			return;
+		fListener= new IElementChangedListener() {
+			@Override
+			public void elementChanged(ElementChangedEvent event) {
+				synchronized (CallGraphIndex.this) {
+					if (fIndex.isEmpty())
+						return;
+				}
+				processDelta(event.getDelta());
+			}
+		};
+		JavaCore.addElementChangedListener(fListener, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	/**
+	 * Discards the entries that the delta may affect.
+	 *
+	 * @param delta the delta
+	 * @return <code>false</code> if the whole index has been discarded
+	 */
+	private boolean processDelta(IJavaElementDelta delta) {
+		IJavaElement element= delta.getElement();
+		int kind= delta.getKind();
+		int flags= delta.getFlags();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (kind != IJavaElementDelta.CHANGED || (flags & STRUCTURE_FLAGS) != 0) {
+					clear();
+					return false;
+				}
+				IJavaElementDelta[] children= delta.getAffectedChildren();
+				for (int i= 0; i < children.length; i++) {
+					if (!processDelta(children[i]))
+						return false;
+				}
+				return true;
+			case IJavaElement.COMPILATION_UNIT:
+				if (kind != IJavaElementDelta.CHANGED) {
+					clear();
+					return false;
+				}
+				if ((flags & IJavaElementDelta.F_CONTENT) == 0 && (flags & IJavaElementDelta.F_CHILDREN) == 0)
+					return true; // e.g. working copy state or markers
+				if ((flags & IJavaElementDelta.F_FINE_GRAINED) == 0 || affectsOtherCompilationUnits(delta)) {
+					clear();
+					return false;
+				}
+				// changes in member bodies only affect the calls of this compilation unit
+				remove(((ICompilationUnit) element).getPrimary());
+				return true;
+			default:
+				clear();
+				return false;
+		}
+	}
+
+	/**
+	 * Tells whether a fine-grained compilation unit delta changes the members or their
+	 * signatures, so that bindings in other compilation units may change.
+	 *
+	 * @param delta the delta of an element in a compilation unit
+	 * @return <code>true</code> if other compilation units may be affected
+	 */
+	private static boolean affectsOtherCompilationUnits(IJavaElementDelta delta) {
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			IJavaElementDelta child= children[i];
+			if (child.getKind() != IJavaElementDelta.CHANGED || (child.getFlags() & STRUCTURE_FLAGS) != 0)
+				return true;
+			if (affectsOtherCompilationUnits(child))
+				return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.BodyDeclaration;
+import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ConstructorInvocation;
+import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.MethodReference;
+import org.eclipse.jdt.core.dom.SuperConstructorInvocation;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+
+import org.eclipse.jdt.internal.corext.dom.HierarchicalASTVisitor;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Extracts the call edges of all members of a compilation unit in a single pass.
+ * <p>
+ * The calls attributed to a member are the ones that {@link CalleeAnalyzerVisitor} finds for
+ * that member: calls in anonymous and local types belong to the members of those types, and the
+ * constructors of a local type are callees of the member that declares the type.
+ * </p>
+ *
+ * @see CallGraphIndex
+ */
+class CallGraphIndexer extends HierarchicalASTVisitor {
+
+	private final ICompilationUnit fCompilationUnit;
+	private final CompilationUnit fRoot;
+	private final IProgressMonitor fProgressMonitor;
+
+	private final List<IMember> fMembers= new ArrayList<>();
+	private final Map<IMember, Integer> fMemberIds= new HashMap<>();
+
+	/**
+	 * Resolved callees by binding key, as {callee id, flags}.
+	 */
+	private final Map<String, int[]> fResolvedCallees= new HashMap<>();
+
+	private int[] fEdges= new int[64 * CallGraphIndex.EDGE_SIZE];
+	private int fEdgeCount;
+
+	/**
+	 * The members that enclose the current node, {@link CallGraphIndex#NO_MEMBER} for type bodies.
+	 * Calls in a nested type are not attributed to the member that encloses the type.
+	 */
+	private int[] fCallers= new int[16];
+	private int fCallerDepth;
+
+	CallGraphIndexer(ICompilationUnit compilationUnit, CompilationUnit root, IProgressMonitor progressMonitor) {
+		fCompilationUnit= compilationUnit;
+		fRoot= root;
+		fProgressMonitor= progressMonitor;
+	}
+
+	/**
+	 * @return the members referenced by the edges, indexed by member id
+	 */
+	IMember[] getMembers() {
+		return fMembers.toArray(new IMember[fMembers.size()]);
+	}
+
+	/**
+	 * @return the edges, {@link CallGraphIndex#EDGE_SIZE} ints per edge
+	 */
+	int[] getEdges() {
+		int[] edges= new int[fEdgeCount * CallGraphIndex.EDGE_SIZE];
+		System.arraycopy(fEdges, 0, edges, 0, edges.length);
+		return edges;
+	}
+
+	@Override
+	public boolean visit(AbstractTypeDeclaration node) {
+		checkCanceled();
+		int caller= getCaller();
+		if (caller != CallGraphIndex.NO_MEMBER) {
+			// local type: its constructors are callees of the enclosing member
+			List<BodyDeclaration> bodyDeclarations= node.bodyDeclarations();
+			for (Iterator<BodyDeclaration> iter= bodyDeclarations.iterator(); iter.hasNext();) {
+				BodyDeclaration bodyDeclaration= iter.next();
+				if (bodyDeclaration instanceof MethodDeclaration) {
+					MethodDeclaration child= (MethodDeclaration) bodyDeclaration;
+					if (child.isConstructor()) {
+						addEdge(caller, child.resolveBinding(), child.getName(), 0);
+					}
+				}
+			}
+		}
+		pushCaller(CallGraphIndex.NO_MEMBER);
+		return true;
+	}
+
+	@Override
+	public void endVisit(AbstractTypeDeclaration node) {
+		popCaller();
+	}
+
+	@Override
+	public boolean visit(AnonymousClassDeclaration node) {
+		pushCaller(CallGraphIndex.NO_MEMBER);
+		return true;
+	}
+
+	@Override
+	public void endVisit(AnonymousClassDeclaration node) {
+		popCaller();
+	}
+
+	@Override
+	public boolean visit(MethodDeclaration node) {
+		checkCanceled();
+		IMethodBinding binding= node.resolveBinding();
+		pushCaller(binding != null ? getMemberId(binding.getJavaElement()) : CallGraphIndex.NO_MEMBER);
+		return true;
+	}
+
+	@Override
+	public void endVisit(MethodDeclaration node) {
+		popCaller();
+	}
+
+	@Override
+	public boolean visit(Initializer node) {
+		IJavaElement element= null;
+		try {
+			element= fCompilationUnit.getElementAt(node.getStartPosition());
+		} catch (JavaModelException e) {
+			JavaPlugin.log(e);
+		}
+		pushCaller(element != null && element.getElementType() == IJavaElement.INITIALIZER ? getMemberId(element) : CallGraphIndex.NO_MEMBER);
+		return true;
+	}
+
+	@Override
+	public void endVisit(Initializer node) {
+		popCaller();
+	}
+
+	@Override
+	public boolean visit(VariableDeclarationFragment node) {
+		if (node.getParent() instanceof FieldDeclaration) {
+			IVariableBinding binding= node.resolveBinding();
+			pushCaller(binding != null ? getMemberId(binding.getJavaElement()) : CallGraphIndex.NO_MEMBER);
+		}
+		return true;
+	}
+
+	@Override
+	public void endVisit(VariableDeclarationFragment node) {
+		if (node.getParent() instanceof FieldDeclaration) {
+			popCaller();
+		}
+	}
+
+	@Override
+	public boolean visit(EnumConstantDeclaration node) {
+		IVariableBinding binding= node.resolveVariable();
+		pushCaller(binding != null ? getMemberId(binding.getJavaElement()) : CallGraphIndex.NO_MEMBER);
+		return true;
+	}
+
+	@Override
+	public void endVisit(EnumConstantDeclaration node) {
+		popCaller();
+	}
+
+	@Override
+	public boolean visit(ClassInstanceCreation node) {
+		addEdge(getCaller(), node.resolveConstructorBinding(), node, 0);
+		return true;
+	}
+
+	@Override
+	public boolean visit(ConstructorInvocation node) {
+		addEdge(getCaller(), node.resolveConstructorBinding(), node, 0);
+		return true;
+	}
+
+	@Override
+	public boolean visit(SuperConstructorInvocation node) {
+		addEdge(getCaller(), node.resolveConstructorBinding(), node, 0);
+		return true;
+	}
+
+	@Override
+	public boolean visit(MethodInvocation node) {
+		addEdge(getCaller(), node.resolveMethodBinding(), node, 0);
+		return true;
+	}
+
+	@Override
+	public boolean visit(SuperMethodInvocation node) {
+		addEdge(getCaller(), node.resolveMethodBinding(), node, 0);
+		return true;
+	}
+
+	@Override
+	public boolean visit(MethodReference node) {
+		addEdge(getCaller(), node.resolveMethodBinding(), node, CallGraphIndex.FLAG_REFERENCE);
+		return true;
+	}
+
+	/**
+	 * Adds an edge. Calls outside of members are recorded with {@link CallGraphIndex#NO_MEMBER}
+	 * as caller, so that the index knows all members that are referenced in the compilation unit.
+	 *
+	 * @param caller the id of the calling member
+	 * @param calledMethodBinding the called method binding
+	 * @param node the AST node of the call
+	 * @param flags additional edge flags
+	 */
+	private void addEdge(int caller, IMethodBinding calledMethodBinding, ASTNode node, int flags) {
+		if (calledMethodBinding == null)
+			return;
+		int[] callee= resolveCallee(calledMethodBinding);
+		if (callee == null)
+			return;
+
+		if (fEdgeCount * CallGraphIndex.EDGE_SIZE == fEdges.length) {
+			int[] edges= new int[fEdges.length * 2];
+			System.arraycopy(fEdges, 0, edges, 0, fEdges.length);
+			fEdges= edges;
+		}
+		int position= node.getStartPosition();
+		int lineNumber= fRoot.getLineNumber(position);
+		int offset= fEdgeCount * CallGraphIndex.EDGE_SIZE;
+		fEdges[offset + CallGraphIndex.EDGE_CALLER]= caller;
+		fEdges[offset + CallGraphIndex.EDGE_CALLEE]= callee[0];
+		fEdges[offset + CallGraphIndex.EDGE_FLAGS]= callee[1] | flags;
+		fEdges[offset + CallGraphIndex.EDGE_START]= position;
+		fEdges[offset + CallGraphIndex.EDGE_END]= position + node.getLength();
+		fEdges[offset + CallGraphIndex.EDGE_LINE]= lineNumber < 1 ? 1 : lineNumber;
+		fEdgeCount++;
+	}
+
+	/**
+	 * Resolves the called member like {@link CalleeAnalyzerVisitor}.
+	 *
+	 * @param calledMethodBinding the called method binding
+	 * @return {callee id, flags}, or <code>null</code> if there is no callee
+	 */
+	private int[] resolveCallee(IMethodBinding calledMethodBinding) {
+		String key= calledMethodBinding.getKey();
+		if (fResolvedCallees.containsKey(key))
+			return fResolvedCallees.get(key);
+
+		int[] callee= null;
+		try {
+			IType calledType= CalleeAnalyzerVisitor.getCalledType(calledMethodBinding);
+			IMethod calledMethod= CalleeAnalyzerVisitor.findIncludingSupertypes(calledMethodBinding, calledType, fProgressMonitor);
+			IMember calledMember= CalleeAnalyzerVisitor.getCalledMember(calledMethodBinding, calledType, calledMethod);
+			if (calledMember != null) {
+				int flags= calledMethod != null && calledType.isInterface() ? CallGraphIndex.FLAG_INTERFACE : 0;
+				callee= new int[] { getMemberId(calledMember), flags };
+			}
+		} catch (JavaModelException e) {
+			JavaPlugin.log(e);
+		}
+		fResolvedCallees.put(key, callee);
+		return callee;
+	}
+
+	private int getMemberId(IJavaElement element) {
+		if (!(element instanceof IMember))
+			return CallGraphIndex.NO_MEMBER;
+		IMember member= (IMember) element;
+		Integer id= fMemberIds.get(member);
+		if (id == null) {
+			id= Integer.valueOf(fMembers.size());
+			fMembers.add(member);
+			fMemberIds.put(member, id);
+		}
+		return id.intValue();
+	}
+
+	private int getCaller() {
+		return fCallerDepth == 0 ? CallGraphIndex.NO_MEMBER : fCallers[fCallerDepth - 1];
+	}
+
+	private void pushCaller(int caller) {
+		if (fCallerDepth == fCallers.length) {
+			int[] callers= new int[fCallers.length * 2];
+			System.arraycopy(fCallers, 0, callers, 0, fCallers.length);
+			fCallers= callers;
+		}
+		fCallers[fCallerDepth++]= caller;
+	}
+
+	private void popCaller() {
+		fCallerDepth--;
+	}
+
+	private void checkCanceled() {
+		if (fProgressMonitor != null && fProgressMonitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+	}
+}
@@ -86,6 +86,7 @@ public class CallHierarchy {
         IPreferenceStore settings = JavaPlugin.getDefault().getPreferenceStore();
 
         settings.setValue(PREF_FILTER_TESTCODE, enabled);
+        CallerSearchEngine.getDefault().clearCache();
     }
 
 
@@ -192,6 +193,9 @@ public class CallHierarchy {
     }
 
     public void setSearchScope(IJavaSearchScope searchScope) {
+        if (fSearchScope == null || !fSearchScope.equals(searchScope)) {
+            CallerSearchEngine.getDefault().clearCache();
+        }
         this.fSearchScope = searchScope;
     }
 
@@ -224,6 +228,7 @@ public class CallHierarchy {
     public void setFilterEnabled(boolean filterEnabled) {
         IPreferenceStore settings = JavaPlugin.getDefault().getPreferenceStore();
         settings.setValue(PREF_USE_FILTERS, filterEnabled);
+        CallerSearchEngine.getDefault().clearCache();
     }
 
     /**
@@ -241,6 +246,7 @@ public class CallHierarchy {
 
         IPreferenceStore settings = JavaPlugin.getDefault().getPreferenceStore();
         settings.setValue(PREF_FILTERS_LIST, filters);
+        CallerSearchEngine.getDefault().clearCache();
     }
 
     /**
@@ -299,7 +305,10 @@ public class CallHierarchy {
     }
 
     static CompilationUnit getCompilationUnitNode(IMember member, boolean resolveBindings) {
-    	ITypeRoot typeRoot= member.getTypeRoot();
+    	return getCompilationUnitNode(member.getTypeRoot(), resolveBindings);
+    }
+
+    static CompilationUnit getCompilationUnitNode(ITypeRoot typeRoot, boolean resolveBindings) {
         try {
 	    	if (typeRoot.exists() && typeRoot.getBuffer() != null) {
 				ASTParser parser= ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
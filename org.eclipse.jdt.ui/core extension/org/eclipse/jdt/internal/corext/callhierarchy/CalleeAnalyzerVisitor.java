@@ -239,35 +239,14 @@ class CalleeAnalyzerVisitor extends HierarchicalASTVisitor {
             if (calledMethodBinding != null) {
                 fProgressMonitor.worked(1);
 
-                ITypeBinding calledTypeBinding = calledMethodBinding.getDeclaringClass();
-                IType calledType = null;
-
-                if (!calledTypeBinding.isAnonymous()) {
-                    calledType = (IType) calledTypeBinding.getJavaElement();
-                } else {
-                    if (!"java.lang.Object".equals(calledTypeBinding.getSuperclass().getQualifiedName())) { //$NON-NLS-1$
-                        calledType= (IType) calledTypeBinding.getSuperclass().getJavaElement();
-                    } else {
-                        calledType = (IType) calledTypeBinding.getInterfaces()[0].getJavaElement();
-                    }
-                }
-
+                IType calledType = getCalledType(calledMethodBinding);
                 IMethod calledMethod = findIncludingSupertypes(calledMethodBinding,
                         calledType, fProgressMonitor);
 
                 IMember referencedMember= null;
-                if (calledMethod == null) {
-                    if (calledMethodBinding.isConstructor() && calledMethodBinding.getParameterTypes().length == 0) {
-                        referencedMember= calledType;
-                    }
-                } else {
-                    if (calledType.isInterface()) {
-                        calledMethod = findImplementingMethods(calledMethod);
-                    }
-
-                    if (!isIgnoredBySearchScope(calledMethod)) {
-                        referencedMember= calledMethod;
-                    }
+                IMember calledMember= getCalledMember(calledMethodBinding, calledType, calledMethod);
+                if (calledMember != null) {
+                    referencedMember= getReferencedMember(calledMember, calledMethod != null && calledType.isInterface());
                 }
                 final int position= node.getStartPosition();
 				final int number= fCompilationUnit.getLineNumber(position);
@@ -278,7 +257,70 @@ class CalleeAnalyzerVisitor extends HierarchicalASTVisitor {
         }
     }
 
-    private static IMethod findIncludingSupertypes(IMethodBinding method, IType type, IProgressMonitor pm) throws JavaModelException {
+    /**
+     * Returns the type to look up the called method in.
+     *
+     * @param calledMethodBinding the called method binding
+     * @return the declaring type of the called method, or the supertype of an anonymous
+     *         declaring type
+     */
+    static IType getCalledType(IMethodBinding calledMethodBinding) {
+        ITypeBinding calledTypeBinding = calledMethodBinding.getDeclaringClass();
+
+        if (!calledTypeBinding.isAnonymous()) {
+            return (IType) calledTypeBinding.getJavaElement();
+        } else {
+            if (!"java.lang.Object".equals(calledTypeBinding.getSuperclass().getQualifiedName())) { //$NON-NLS-1$
+                return (IType) calledTypeBinding.getSuperclass().getJavaElement();
+            } else {
+                return (IType) calledTypeBinding.getInterfaces()[0].getJavaElement();
+            }
+        }
+    }
+
+    /**
+     * Returns the member that is called, independent of the search scope and of the
+     * implementor settings of the call hierarchy.
+     *
+     * @param calledMethodBinding the called method binding
+     * @param calledType the type returned by {@link #getCalledType(IMethodBinding)}
+     * @param calledMethod the called method, or <code>null</code> if not found
+     * @return the called method, the called type for an implicit default constructor, or
+     *         <code>null</code>
+     */
+    static IMember getCalledMember(IMethodBinding calledMethodBinding, IType calledType, IMethod calledMethod) {
+        if (calledMethod == null) {
+            if (calledMethodBinding.isConstructor() && calledMethodBinding.getParameterTypes().length == 0) {
+                return calledType;
+            }
+            return null;
+        }
+        return calledMethod;
+    }
+
+    /**
+     * Returns the member that is shown as callee for a called member.
+     *
+     * @param calledMember the member returned by {@link #getCalledMember(IMethodBinding, IType, IMethod)}
+     * @param isInterfaceMethod <code>true</code> if the method is called on an interface
+     * @return the callee, or <code>null</code> if the callee is outside the search scope
+     */
+    static IMember getReferencedMember(IMember calledMember, boolean isInterfaceMethod) {
+        if (!(calledMember instanceof IMethod)) {
+            return calledMember;
+        }
+        IMethod calledMethod= (IMethod) calledMember;
+        if (isInterfaceMethod) {
+            calledMethod = findImplementingMethods(calledMethod);
+        }
+
+        if (isIgnoredBySearchScope(calledMethod)) {
+            return null;
+        }
+        return calledMethod;
+    }
+
+    static IMethod findIncludingSupertypes(IMethodBinding method, IType type, IProgressMonitor pm) throws JavaModelException {
 		IMethod inThisType= Bindings.findMethod(method, type);
 		if (inThisType != null)
 			return inThisType;
@@ -291,7 +333,7 @@ class CalleeAnalyzerVisitor extends HierarchicalASTVisitor {
 		return null;
 	}
 
-    private boolean isIgnoredBySearchScope(IMethod enclosingElement) {
+    private static boolean isIgnoredBySearchScope(IMethod enclosingElement) {
         if (enclosingElement != null) {
             return !getSearchScope().encloses(enclosingElement);
         } else {
@@ -299,7 +341,7 @@ class CalleeAnalyzerVisitor extends HierarchicalASTVisitor {
         }
     }
 
-    private IJavaSearchScope getSearchScope() {
+    private static IJavaSearchScope getSearchScope() {
         return CallHierarchy.getDefault().getSearchScope();
     }
 
@@ -333,7 +375,7 @@ class CalleeAnalyzerVisitor extends HierarchicalASTVisitor {
         return isNodeWithinMethod(node) || isNodeEnclosingMethod(node);
     }
 
-    private IMethod findImplementingMethods(IMethod calledMethod) {
+    private static IMethod findImplementingMethods(IMethod calledMethod) {
         Collection<IJavaElement> implementingMethods = CallHierarchy.getDefault()
                                                         .getImplementingMethods(calledMethod);
 
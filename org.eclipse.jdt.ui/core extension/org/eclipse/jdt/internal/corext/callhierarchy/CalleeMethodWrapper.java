@@ -82,13 +82,19 @@ class CalleeMethodWrapper extends MethodWrapper {
     }
 
 	/**
-     * Find callees called from the current method.
+     * Find callees called from the current method. The {@link CallGraphIndex} is used for members
+     * of compilation units, other members are analyzed on their own.
 	 * @see org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper#findChildren(org.eclipse.core.runtime.IProgressMonitor)
      */
     @Override
 	protected Map<String, MethodCall> findChildren(IProgressMonitor progressMonitor) {
     	IMember member= getMember();
 		if (member.exists()) {
+			Map<String, MethodCall> callees= CallGraphIndex.getDefault().getCallees(member, progressMonitor);
+			if (callees != null) {
+				return callees;
+			}
+
 			CompilationUnit cu= CallHierarchy.getCompilationUnitNode(member, true);
 		    if (progressMonitor != null) {
 		        progressMonitor.worked(5);
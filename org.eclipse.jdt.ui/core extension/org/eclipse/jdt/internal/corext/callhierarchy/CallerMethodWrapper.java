@@ -92,12 +92,35 @@ public class CallerMethodWrapper extends MethodWrapper {
 		return member instanceof IMethod || member instanceof IType;
 	}
 
+	@Override
+	public boolean isCached() {
+		return super.isCached() || CallerSearchEngine.getDefault().isCached(this);
+	}
+
+	@Override
+	public void removeFromCache() {
+		super.removeFromCache();
+		CallerSearchEngine.getDefault().removeFromCache(this);
+	}
+
 	/**
 	 * @return The result of the search for children
 	 * @see org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper#findChildren(org.eclipse.core.runtime.IProgressMonitor)
 	 */
 	@Override
 	protected Map<String, MethodCall> findChildren(IProgressMonitor progressMonitor) {
+		CallerSearchEngine engine= CallerSearchEngine.getDefault();
+		Map<String, MethodCall> callers= engine.getCachedCallers(this);
+		if (callers == null) {
+			int generation= engine.getGeneration();
+			callers= searchCallers(progressMonitor);
+			checkCanceled(progressMonitor);
+			engine.cacheCallers(this, callers, generation);
+		}
+		return callers;
+	}
+
+	private Map<String, MethodCall> searchCallers(IProgressMonitor progressMonitor) {
 		try {
 
 			IProgressMonitor monitor= new SubProgressMonitor(progressMonitor, 95, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL);
@@ -105,6 +128,10 @@ public class CallerMethodWrapper extends MethodWrapper {
 			checkCanceled(progressMonitor);
 
 			IMember member= getMember();
+			if (isUnreferencedPrivateMethod(member, progressMonitor)) {
+				return new HashMap<>(0);
+			}
+
 			SearchPattern pattern= null;
 			IType type= null;
 			if (member instanceof IType) {
@@ -162,6 +189,22 @@ public class CallerMethodWrapper extends MethodWrapper {
 		}
 	}
 
+	/**
+	 * Private methods can only be referenced from their own compilation unit, so the
+	 * {@link CallGraphIndex} tells whether there are any references without a search.
+	 *
+	 * @param member the member
+	 * @param progressMonitor the progress monitor
+	 * @return <code>true</code> if the member is a private method that is known to have no callers
+	 * @throws JavaModelException if the flags of the member cannot be accessed
+	 */
+	private static boolean isUnreferencedPrivateMethod(IMember member, IProgressMonitor progressMonitor) throws JavaModelException {
+		if (!(member instanceof IMethod) || member.getCompilationUnit() == null || !JdtFlags.isPrivate(member))
+			return false;
+		IMethod method= (IMethod) member;
+		return !method.isConstructor() && CallGraphIndex.getDefault().isUnreferenced(method, progressMonitor);
+	}
+
 	private IJavaSearchScope getAccurateSearchScope(IJavaSearchScope defaultSearchScope, IMember member) throws JavaModelException {
 		if (! JdtFlags.isPrivate(member))
 			return defaultSearchScope;
@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Searches callers for the nodes of a call hierarchy.
+ * <p>
+ * The callers found for a member are remembered for the rest of the session, so that the same
+ * member is not searched again when it shows up in another branch or in another call hierarchy.
+ * The remembered results are discarded when a Java element delta may affect references, and when
+ * the search scope or the filters of the {@link CallHierarchy} change.
+ * </p>
+ * <p>
+ * {@link #searchCalls(MethodWrapper[], IProgressMonitor)} searches the callers of several nodes
+ * concurrently, e.g. the nodes of one level of the hierarchy.
+ * </p>
+ */
+public class CallerSearchEngine {
+
+	/**
+	 * Maximum number of concurrent searches.
+	 */
+	private static final int MAX_WORKERS= 4;
+
+	/**
+	 * Interval in which canceling is checked while waiting for the workers, in milliseconds.
+	 */
+	private static final long CANCEL_CHECK_INTERVAL= 100;
+
+	/**
+	 * Delta flags that can change the references found in an element.
+	 */
+	private static final int CHANGED_FLAGS= IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_MODIFIERS | IJavaElementDelta.F_SUPER_TYPES
+			| IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+			| IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED;
+
+	private static CallerSearchEngine fgInstance;
+
+	private final Map<String, Map<String, MethodCall>> fCallers= new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented whenever the cache is cleared, so that searches which started before are not
+	 * added to the cache.
+	 */
+	private final AtomicInteger fGeneration= new AtomicInteger();
+
+	private IElementChangedListener fListener;
+
+	private CallerSearchEngine() {
+	}
+
+	public static synchronized CallerSearchEngine getDefault() {
+		if (fgInstance == null) {
+			fgInstance= new CallerSearchEngine();
+		}
+		return fgInstance;
+	}
+
+	/**
+	 * Returns the callers found for the member of the given method wrapper in this session.
+	 *
+	 * @param wrapper the method wrapper
+	 * @return a copy of the cached map from handle identifier to {@link MethodCall}, or
+	 *         <code>null</code> if the callers have not been searched yet
+	 */
+	public Map<String, MethodCall> getCachedCallers(CallerMethodWrapper wrapper) {
+		Map<String, MethodCall> callers= fCallers.get(getKey(wrapper));
+		return callers == null ? null : new HashMap<>(callers);
+	}
+
+	/**
+	 * @param wrapper the method wrapper
+	 * @return <code>true</code> iff the callers of the member of the method wrapper are cached
+	 */
+	public boolean isCached(CallerMethodWrapper wrapper) {
+		return fCallers.containsKey(getKey(wrapper));
+	}
+
+	/**
+	 * Returns a stamp that must be passed to {@link #cacheCallers(CallerMethodWrapper, Map, int)}
+	 * when the callers found by a search are added to the cache.
+	 *
+	 * @return the current generation of the cache
+	 */
+	public int getGeneration() {
+		return fGeneration.get();
+	}
+
+	/**
+	 * Adds the callers of the member of the given method wrapper to the cache, unless the cache
+	 * has been cleared since the search started.
+	 *
+	 * @param wrapper the method wrapper
+	 * @param callers the callers, a map from handle identifier to {@link MethodCall}
+	 * @param generation the {@link #getGeneration() generation} when the search started
+	 */
+	public void cacheCallers(CallerMethodWrapper wrapper, Map<String, MethodCall> callers, int generation) {
+		installListener();
+		if (generation != fGeneration.get())
+			return;
+		fCallers.put(getKey(wrapper), Collections.unmodifiableMap(new HashMap<>(callers)));
+		if (generation != fGeneration.get()) {
+			// cleared concurrently
+			fCallers.clear();
+		}
+	}
+
+	/**
+	 * Removes the callers of the member of the given method wrapper from the cache.
+	 *
+	 * @param wrapper the method wrapper
+	 */
+	public void removeFromCache(CallerMethodWrapper wrapper) {
+		fCallers.remove(getKey(wrapper));
+	}
+
+	/**
+	 * Discards all cached callers.
+	 */
+	public void clearCache() {
+		fGeneration.incrementAndGet();
+		fCallers.clear();
+	}
+
+	/**
+	 * Discards all cached callers and stops listening for Java element changes. The listener is
+	 * installed again when callers are cached the next time.
+	 */
+	public synchronized void dispose() {
+		if (fListener != null) {
+			JavaCore.removeElementChangedListener(fListener);
+			fListener= null;
+		}
+		clearCache();
+	}
+
+	/**
+	 * Finds the calls of the given method wrappers, searching up to {@value #MAX_WORKERS}
+	 * method wrappers concurrently. Method wrappers whose calls are already known are not
+	 * searched again. Afterwards, {@link MethodWrapper#getCalls(IProgressMonitor)} returns
+	 * without searching.
+	 *
+	 * @param wrappers the method wrappers
+	 * @param monitor the progress monitor, or <code>null</code>
+	 * @throws OperationCanceledException if the monitor has been canceled
+	 */
+	public void searchCalls(MethodWrapper[] wrappers, IProgressMonitor monitor) {
+		final IProgressMonitor progressMonitor= monitor != null ? monitor : new NullProgressMonitor();
+		final List<MethodWrapper> pending= new ArrayList<>(wrappers.length);
+		for (int i= 0; i < wrappers.length; i++) {
+			if (!wrappers[i].isCached())
+				pending.add(wrappers[i]);
+		}
+		progressMonitor.beginTask(CallHierarchyMessages.CallerMethodWrapper_taskname, pending.size());
+		try {
+			int workerCount= Math.min(Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors()), pending.size());
+			if (workerCount <= 1) {
+				for (int i= 0; i < pending.size(); i++) {
+					if (progressMonitor.isCanceled())
+						throw new OperationCanceledException();
+					pending.get(i).getCalls(createWorkerMonitor(progressMonitor));
+					progressMonitor.worked(1);
+				}
+				return;
+			}
+			searchInParallel(pending, workerCount, progressMonitor);
+		} finally {
+			progressMonitor.done();
+		}
+	}
+
+	private void searchInParallel(List<MethodWrapper> wrappers, int workerCount, IProgressMonitor monitor) {
+		final IProgressMonitor workerMonitor= createWorkerMonitor(monitor);
+		ExecutorService executor= Executors.newFixedThreadPool(workerCount, new ThreadFactory() {
+			private final AtomicInteger fThreadCount= new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread= new Thread(runnable, "Call Hierarchy Search-" + fThreadCount.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			List<Future<MethodWrapper[]>> futures= new ArrayList<>(wrappers.size());
+			for (int i= 0; i < wrappers.size(); i++) {
+				final MethodWrapper wrapper= wrappers.get(i);
+				futures.add(executor.submit(new Callable<MethodWrapper[]>() {
+					@Override
+					public MethodWrapper[] call() {
+						return wrapper.getCalls(workerMonitor);
+					}
+				}));
+			}
+			for (int i= 0; i < futures.size(); i++) {
+				Future<MethodWrapper[]> future= futures.get(i);
+				boolean done= false;
+				while (!done) {
+					if (monitor.isCanceled())
+						throw new OperationCanceledException();
+					try {
+						future.get(CANCEL_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+						done= true;
+					} catch (TimeoutException e) {
+						// check for cancellation and continue waiting
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new OperationCanceledException();
+					} catch (ExecutionException e) {
+						Throwable cause= e.getCause();
+						if (cause instanceof RuntimeException)
+							throw (RuntimeException) cause;
+						JavaPlugin.log(cause);
+						done= true;
+					}
+				}
+				monitor.worked(1);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns a progress monitor for a search in a worker thread. The progress of the workers is
+	 * not reported, but canceling the given monitor cancels the workers.
+	 *
+	 * @param monitor the monitor of the caller
+	 * @return the monitor for the worker
+	 */
+	private static IProgressMonitor createWorkerMonitor(final IProgressMonitor monitor) {
+		return new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return monitor.isCanceled();
+			}
+		};
+	}
+
+	private static String getKey(CallerMethodWrapper wrapper) {
+		IJavaElement member= wrapper.getMember();
+		if (member.getElementType() == IJavaElement.FIELD)
+			return member.getHandleIdentifier() + '#' + wrapper.getFieldSearchMode();
+		return member.getHandleIdentifier();
+	}
+
+	private synchronized void installListener() {
+		if (fListener != null)
+			return;
+		fListener= new IElementChangedListener() {
+			@Override
+			public void elementChanged(ElementChangedEvent event) {
+				if (!fCallers.isEmpty() && affectsReferences(event.getDelta()))
+					clearCache();
+			}
+		};
+		JavaCore.addElementChangedListener(fListener, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	/**
+	 * Tells whether the delta may add or remove references. Deltas that only change the working
+	 * copy state or markers do not.
+	 *
+	 * @param delta the delta
+	 * @return <code>true</code> if cached callers may be outdated
+	 */
+	private static boolean affectsReferences(IJavaElementDelta delta) {
+		int kind= delta.getKind();
+		if (kind == IJavaElementDelta.ADDED || kind == IJavaElementDelta.REMOVED)
+			return true;
+		if ((delta.getFlags() & CHANGED_FLAGS) != 0)
+			return true;
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			if (affectsReferences(children[i]))
+				return true;
+		}
+		return false;
+	}
+}
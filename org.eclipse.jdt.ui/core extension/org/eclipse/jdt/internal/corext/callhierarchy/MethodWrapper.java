@@ -19,6 +19,7 @@ package org.eclipse.jdt.internal.corext.callhierarchy;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -39,12 +40,13 @@ import org.eclipse.jdt.internal.ui.callhierarchy.MethodWrapperWorkbenchAdapter;
  *
  */
 public abstract class MethodWrapper extends PlatformObject {
-    private Map<String, MethodCall> fElements = null;
+    private volatile Map<String, MethodCall> fElements = null;
 
     /*
      * A cache of previously found methods. This cache should be searched
      * before adding a "new" method object reference to the list of elements.
      * This way previously found methods won't be searched again.
+     * Wrappers of the same tree may be searched concurrently, see CallerSearchEngine.
      */
     private Map<String, Map<String, MethodCall>> fMethodCache;
     private final MethodCall fMethodCall;
@@ -60,7 +62,7 @@ public abstract class MethodWrapper extends PlatformObject {
         Assert.isNotNull(methodCall);
 
         if (parent == null) {
-            setMethodCache(new HashMap<String, Map<String, MethodCall>>());
+            setMethodCache(new ConcurrentHashMap<String, Map<String, MethodCall>>());
             fLevel = 1;
         } else {
             setMethodCache(parent.getMethodCache());
@@ -88,11 +90,12 @@ public abstract class MethodWrapper extends PlatformObject {
             doFindChildren(progressMonitor);
         }
 
-        MethodWrapper[] result = new MethodWrapper[fElements.size()];
+        Map<String, MethodCall> elements = fElements;
+        MethodWrapper[] result = new MethodWrapper[elements.size()];
         int i = 0;
 
-        for (Iterator<String> iter = fElements.keySet().iterator(); iter.hasNext();) {
-            MethodCall methodCall = getMethodCallFromMap(fElements, iter.next());
+        for (Iterator<String> iter = elements.keySet().iterator(); iter.hasNext();) {
+            MethodCall methodCall = getMethodCallFromMap(elements, iter.next());
             result[i++] = createMethodWrapper(methodCall);
         }
 
@@ -206,11 +209,6 @@ public abstract class MethodWrapper extends PlatformObject {
 
     protected abstract String getTaskName();
 
-    private void addCallToCache(MethodCall methodCall) {
-        Map<String, MethodCall> cachedCalls = lookupMethod(this.getMethodCall());
-        cachedCalls.put(methodCall.getKey(), methodCall);
-    }
-
 	/**
 	 * Creates a method wrapper for the child of the receiver.
 	 * 
@@ -223,11 +221,8 @@ public abstract class MethodWrapper extends PlatformObject {
         Map<String, MethodCall> existingResults = lookupMethod(getMethodCall());
 
         if (existingResults != null && !existingResults.isEmpty()) {
-            fElements = new HashMap<>();
-            fElements.putAll(existingResults);
+            fElements = new HashMap<>(existingResults);
         } else {
-            initCalls();
-
             if (progressMonitor != null) {
                 progressMonitor.beginTask(getTaskName(), 100);
             }
@@ -245,6 +240,20 @@ public abstract class MethodWrapper extends PlatformObject {
         }
     }
 
+    /**
+     * Tells whether the calls of this method wrapper are known, i.e. whether
+     * {@link #getCalls(IProgressMonitor)} returns without searching.
+     *
+     * @return <code>true</code> if the calls are known
+     */
+    public boolean isCached() {
+        if (fElements != null) {
+            return true;
+        }
+        Map<String, MethodCall> existingResults = lookupMethod(getMethodCall());
+        return existingResults != null && !existingResults.isEmpty();
+    }
+
     /**
      * Determines if the method represents a recursion call (i.e. whether the
      * method call is already in the cache.)
@@ -286,12 +295,6 @@ public abstract class MethodWrapper extends PlatformObject {
         return fMethodCache;
     }
 
-    private void initCalls() {
-        this.fElements = new HashMap<>();
-
-        initCacheForMethod();
-    }
-
     /**
      * Looks up a previously created search result in the "global" cache.
      * @param methodCall the method call
@@ -302,25 +305,18 @@ public abstract class MethodWrapper extends PlatformObject {
     }
 
     private void performSearch(IProgressMonitor progressMonitor) {
-        fElements = findChildren(progressMonitor);
-
-        for (Iterator<String> iter = fElements.keySet().iterator(); iter.hasNext();) {
-            checkCanceled(progressMonitor);
+        Map<String, MethodCall> elements = findChildren(progressMonitor);
+        checkCanceled(progressMonitor);
 
-            MethodCall methodCall = getMethodCallFromMap(fElements, iter.next());
-            addCallToCache(methodCall);
-        }
+        // publish the complete result, other wrappers of the tree may look it up concurrently
+        getMethodCache().put(getMethodCall().getKey(), new HashMap<>(elements));
+        fElements = elements;
     }
 
     private MethodCall getMethodCallFromMap(Map<String, MethodCall> elements, String key) {
         return elements.get(key);
     }
 
-    private void initCacheForMethod() {
-        Map<String, MethodCall> cachedCalls = new HashMap<>();
-        getMethodCache().put(this.getMethodCall().getKey(), cachedCalls);
-    }
-
     /**
      * Checks with the progress monitor to see whether the creation of the type hierarchy
      * should be canceled. Should be regularly called
@@ -16,6 +16,7 @@ package org.eclipse.jdt.internal.corext.dom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
@@ -25,6 +26,7 @@ import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SubProgressMonitor;
 
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.ASTRequestor;
@@ -34,6 +36,8 @@ import org.eclipse.jdt.core.dom.IBinding;
  * Creates AST from a set of compilation units. Uses the
  * batch parser. Splits the set of compilation units in subsets
  * such that it is unlikely that a out of memory exception will occur.
+ * Units of the same package are kept in the same subset where possible,
+ * such that the bindings they share are only looked up once.
  *
  * @since 3.4
  */
@@ -80,22 +84,10 @@ public class ASTBatchParser {
 
 			ICompilationUnit[][] splited= splitByProject(compilationUnits);
 			for (int i= 0; i < splited.length; i++) {
-				ICompilationUnit[] units= splited[i];
-
-				if (units.length <= MAX_AT_ONCE) {
+				ICompilationUnit[][] batches= createBatches(splited[i]);
+				for (int j= 0; j < batches.length; j++) {
+					ICompilationUnit[] units= batches[j];
 					createParser(units[0].getJavaProject()).createASTs(units, bindingKeys, requestor, new SubProgressMonitor(monitor, units.length));
-				} else {
-					List<ICompilationUnit> list= Arrays.asList(units);
-					int end= 0;
-					int cursor= 0;
-					while (cursor < units.length) {
-						end= Math.min(end + MAX_AT_ONCE, units.length);
-						List<ICompilationUnit> toParse= list.subList(cursor, end);
-
-						createParser(units[0].getJavaProject()).createASTs(toParse.toArray(new ICompilationUnit[toParse.size()]), bindingKeys, requestor,
-								new SubProgressMonitor(monitor, toParse.size()));
-						cursor= end;
-					}
 				}
 			}
 		} finally {
@@ -121,6 +113,81 @@ public class ASTBatchParser {
 		return result;
 	}
 
+	/**
+	 * Returns the maximal number of compilation units that are parsed at once.
+	 * <p>
+	 * Subclasses may override
+	 * </p>
+	 *
+	 * @return the maximal number of compilation units in a batch
+	 */
+	protected int getMaxAtOnce() {
+		return MAX_AT_ONCE;
+	}
+
+	/**
+	 * Splits the compilation units of a project into the batches that are parsed at once. The
+	 * units are sorted by package, and a batch is ended at a package boundary if this does not make
+	 * it smaller than half of the maximal batch size.
+	 * <p>
+	 * Subclasses may override
+	 * </p>
+	 *
+	 * @param units the compilation units of one project
+	 * @return the batches, none of them empty
+	 * @see #getMaxAtOnce()
+	 */
+	protected ICompilationUnit[][] createBatches(ICompilationUnit[] units) {
+		int maxAtOnce= getMaxAtOnce();
+		if (units.length <= maxAtOnce)
+			return new ICompilationUnit[][] { units };
+
+		ICompilationUnit[] sorted= sortByPackage(units);
+		List<ICompilationUnit[]> batches= new ArrayList<>();
+		int cursor= 0;
+		while (cursor < sorted.length) {
+			int end= getBatchEnd(sorted, cursor, maxAtOnce);
+			batches.add(Arrays.copyOfRange(sorted, cursor, end));
+			cursor= end;
+		}
+		return batches.toArray(new ICompilationUnit[batches.size()][]);
+	}
+
+	/**
+	 * Returns the end of the batch starting at <code>start</code>. The batch is ended at a package
+	 * boundary if this does not make it smaller than half of the maximal batch size.
+	 *
+	 * @param units the units, sorted by package
+	 * @param start the start of the batch
+	 * @param maxAtOnce the maximal batch size
+	 * @return the end (exclusive) of the batch
+	 */
+	private static int getBatchEnd(ICompilationUnit[] units, int start, int maxAtOnce) {
+		int end= Math.min(start + maxAtOnce, units.length);
+		if (end == units.length)
+			return end;
+
+		IJavaElement pack= units[end].getParent();
+		int packageStart= end;
+		while (packageStart > start && pack.equals(units[packageStart - 1].getParent())) {
+			packageStart--;
+		}
+		if (packageStart - start >= maxAtOnce / 2)
+			return packageStart;
+		return end;
+	}
+
+	private static ICompilationUnit[] sortByPackage(ICompilationUnit[] units) {
+		ICompilationUnit[] result= units.clone();
+		Arrays.sort(result, new Comparator<ICompilationUnit>() {
+			@Override
+			public int compare(ICompilationUnit u1, ICompilationUnit u2) {
+				return u1.getParent().getHandleIdentifier().compareTo(u2.getParent().getHandleIdentifier());
+			}
+		});
+		return result;
+	}
+
 	private static ICompilationUnit[][] splitByProject(ICompilationUnit[] units) {
 		if (hasOnlyOneProject(units))
 			return new ICompilationUnit[][] { units };
@@ -28,6 +28,20 @@ import org.eclipse.jdt.internal.ui.fix.UnimplementedCodeCleanUp;
 
 public class CleanUpConstantsOptions extends CleanUpConstants {
 
+	/**
+	 * The number of workers used to compute the changes when cleaning up more than one
+	 * compilation unit, see {@link CleanUpRefactoring#setWorkerCount(int)}. Values greater than
+	 * <code>1</code> require clean ups that support concurrent calls to
+	 * {@link org.eclipse.jdt.ui.cleanup.ICleanUp#createFix(org.eclipse.jdt.ui.cleanup.CleanUpContext)}.<br>
+	 * <br>
+	 * Possible values: Integer value<br>
+	 * Default value: <code><b>1</b></code><br>
+	 * <br>
+	 *
+	 * @since 3.16.100
+	 */
+	public static final String CLEANUP_WORKER_COUNT= "cleanup.worker_count"; //$NON-NLS-1$
+
 	private static void setEclipseDefaultSettings(CleanUpOptions options) {
 
 		//Member Accesses
@@ -216,6 +230,7 @@ public class CleanUpConstantsOptions extends CleanUpConstants {
 		}
 
 		store.setDefault(SHOW_CLEAN_UP_WIZARD, true);
+		store.setDefault(CLEANUP_WORKER_COUNT, 1);
 		store.setDefault(CLEANUP_PROFILE, DEFAULT_PROFILE);
 		store.setDefault(CLEANUP_ON_SAVE_PROFILE, DEFAULT_SAVE_PARTICIPANT_PROFILE);
 	}
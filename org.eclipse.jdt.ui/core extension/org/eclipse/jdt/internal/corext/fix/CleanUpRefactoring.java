@@ -13,13 +13,28 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.fix;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.swt.widgets.Display;
 
@@ -57,10 +72,12 @@ import org.eclipse.ltk.core.refactoring.Refactoring;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.RefactoringTickProvider;
 import org.eclipse.ltk.core.refactoring.TextChange;
+import org.eclipse.ltk.core.refactoring.TextEditBasedChange;
 import org.eclipse.ltk.core.refactoring.TextEditBasedChangeGroup;
 import org.eclipse.ltk.core.refactoring.TextFileChange;
 
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.JavaModelException;
@@ -87,6 +104,7 @@ import org.eclipse.jdt.ui.text.java.IProblemLocation;
 
 import org.eclipse.jdt.internal.ui.IJavaStatusConstants;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.fix.IConcurrentCleanUp;
 import org.eclipse.jdt.internal.ui.fix.IMultiFix.MultiFixContext;
 import org.eclipse.jdt.internal.ui.fix.MapCleanUpOptions;
 import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
@@ -254,10 +272,12 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		private final Hashtable<ICompilationUnit, List<CleanUpChange>> fSolutions;
 		private final Hashtable<ICompilationUnit, ParseListElement> fCompilationUnitParseElementMap;
 		private final CleanUpRefactoringProgressMonitor fMonitor;
+		private final Set<ICompilationUnit> fProcessedUnits;
 
-		public CleanUpASTRequestor(List<ParseListElement> parseList, Hashtable<ICompilationUnit, List<CleanUpChange>> solutions, CleanUpRefactoringProgressMonitor monitor) {
+		public CleanUpASTRequestor(List<ParseListElement> parseList, Hashtable<ICompilationUnit, List<CleanUpChange>> solutions, CleanUpRefactoringProgressMonitor monitor, Set<ICompilationUnit> processedUnits) {
 			fSolutions= solutions;
 			fMonitor= monitor;
+			fProcessedUnits= processedUnits;
 			fUndoneElements= new ArrayList<>();
 			fCompilationUnitParseElementMap= new Hashtable<>(parseList.size());
 			for (Iterator<ParseListElement> iter= parseList.iterator(); iter.hasNext();) {
@@ -288,6 +308,8 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 				fMonitor.reset();
 			} else {
 				fMonitor.flush();
+				if (fProcessedUnits != null)
+					fProcessedUnits.add(primary);
 			}
 		}
 
@@ -335,8 +357,20 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		private final Map<String, String> fCleanUpOptions;
 		private final int fSize;
 		private int fIndex;
+		private final Set<ICompilationUnit> fProcessedUnits;
 
 		public CleanUpFixpointIterator(CleanUpTarget[] targets, ICleanUp[] cleanUps) {
+			this(targets, cleanUps, null);
+		}
+
+		/**
+		 * @param targets the targets to clean up
+		 * @param cleanUps the clean ups to apply
+		 * @param processedUnits concurrent set to which the primary compilation unit of a target is
+		 *            added once the target has been completely processed, or <code>null</code>
+		 */
+		public CleanUpFixpointIterator(CleanUpTarget[] targets, ICleanUp[] cleanUps, Set<ICompilationUnit> processedUnits) {
+			fProcessedUnits= processedUnits;
 			fSolutions= new Hashtable<>(targets.length);
 			fWorkingCopies= new Hashtable<>();
 
@@ -388,7 +422,7 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 				}
 
 				CleanUpRefactoringProgressMonitor cuMonitor= new CleanUpRefactoringProgressMonitor(monitor, parseList.size() + sourceList.size(), fSize, fIndex);
-				CleanUpASTRequestor requestor= new CleanUpASTRequestor(fParseList, fSolutions, cuMonitor);
+				CleanUpASTRequestor requestor= new CleanUpASTRequestor(fParseList, fSolutions, cuMonitor, fProcessedUnits);
 				if (parseList.size() > 0) {
 					ASTBatchParser parser= new ASTBatchParser() {
 						@Override
@@ -516,6 +550,23 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 	 */
 	private static final int SLOW_CLEAN_UP_THRESHOLD= 2000;
 
+	/**
+	 * Number of shards created per worker when cleaning up in parallel. Using more shards
+	 * than workers balances the load when packages differ a lot in size.
+	 */
+	private static final int SHARDS_PER_WORKER= 4;
+
+	/**
+	 * Interval in ms in which the progress of a parallel clean up is reported.
+	 */
+	private static final int PARALLEL_PROGRESS_INTERVAL= 250;
+
+	/**
+	 * Whether clean up refactorings use the {@link CleanUpResultCache#getDefault() default result
+	 * cache} unless another cache is set, e.g. for headless clean ups on a build server.
+	 */
+	private static final boolean USE_RESULT_CACHE= Boolean.getBoolean("org.eclipse.jdt.ui.cleanUpResultCache"); //$NON-NLS-1$
+
 	private final List<ICleanUp> fCleanUps;
 	private final Hashtable<IJavaProject, List<CleanUpTarget>> fProjects;
 	private Change fChange;
@@ -523,6 +574,8 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 	private final String fName;
 
 	private boolean fUseOptionsFromProfile;
+	private int fWorkerCount;
+	private CleanUpResultCache fResultCache;
 
 	public CleanUpRefactoring() {
 		this(FixMessages.CleanUpRefactoring_Refactoring_name);
@@ -533,6 +586,8 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		fCleanUps= new ArrayList<>();
 		fProjects= new Hashtable<>();
 		fUseOptionsFromProfile= false;
+		fWorkerCount= 1;
+		fResultCache= USE_RESULT_CACHE ? CleanUpResultCache.getDefault() : null;
 	}
 
 	public void setUseOptionsFromProfile(boolean enabled) {
@@ -595,6 +650,38 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		fLeaveFilesDirty= leaveFilesDirty;
 	}
 
+	/**
+	 * Sets the number of workers used to compute the changes. If more than one worker is used,
+	 * the targets of each project are split into shards by package and the shards are parsed and
+	 * fixed concurrently. This is only done if all clean ups are {@link IConcurrentCleanUp}s,
+	 * other clean ups are run by one worker.
+	 *
+	 * @param workerCount the number of workers, values smaller than <code>1</code> are treated
+	 *            as <code>1</code>
+	 */
+	public void setWorkerCount(int workerCount) {
+		fWorkerCount= Math.max(1, workerCount);
+	}
+
+	public int getWorkerCount() {
+		return fWorkerCount;
+	}
+
+	/**
+	 * Sets the cache used to look up and record the results of cleaning up compilation units.
+	 * Units whose result is cached are not parsed. Targets of type {@link MultiFixTarget} are
+	 * never cached.
+	 *
+	 * @param cache the cache or <code>null</code> to not use a cache
+	 */
+	public void setResultCache(CleanUpResultCache cache) {
+		fResultCache= cache;
+	}
+
+	public CleanUpResultCache getResultCache() {
+		return fResultCache;
+	}
+
 	@Override
 	public String getName() {
 		return fName;
@@ -676,6 +763,13 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 			findFilesToBeModified(change, files);
 			result.merge(Checks.validateModifiesFiles(files.toArray(new IFile[files.size()]), getValidationContext()));
 		} finally {
+			if (fResultCache != null) {
+				try {
+					fResultCache.save();
+				} catch (IOException e) {
+					JavaPlugin.log(e);
+				}
+			}
 			pm.done();
 		}
 
@@ -697,6 +791,75 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 	}
 
 	private Change[] cleanUpProject(IJavaProject project, CleanUpTarget[] targets, ICleanUp[] cleanUps, IProgressMonitor monitor) throws CoreException {
+		if (fResultCache == null)
+			return computeChanges(project, targets, cleanUps, monitor);
+
+		Map<String, String> compilerOptions= RefactoringASTParser.getCompilerOptions(project);
+		for (int i= 0; i < cleanUps.length; i++) {
+			Map<String, String> cleanUpCompilerOptions= cleanUps[i].getRequirements().getCompilerOptions();
+			if (cleanUpCompilerOptions != null)
+				compilerOptions.putAll(cleanUpCompilerOptions);
+		}
+		Map<String, String> profileOptions= fUseOptionsFromProfile ? CleanUpPreferenceUtil.loadOptions(new ProjectScope(project.getProject())) : null;
+		String environmentHash= CleanUpResultCache.computeEnvironmentHash(project);
+		String configurationHash= CleanUpResultCache.computeConfigurationHash(cleanUps, profileOptions, compilerOptions, environmentHash);
+
+		List<Change> result= new ArrayList<>();
+		List<CleanUpTarget> uncachedTargets= new ArrayList<>();
+		Map<ICompilationUnit, String> sources= new Hashtable<>();
+		Map<ICompilationUnit, String> contentHashes= new Hashtable<>();
+		for (int i= 0; i < targets.length; i++) {
+			CleanUpTarget target= targets[i];
+			ICompilationUnit unit= target.getCompilationUnit();
+			String source= target instanceof MultiFixTarget ? null : unit.getSource();
+			if (source == null) {
+				uncachedTargets.add(target);
+				continue;
+			}
+
+			String contentHash= CleanUpResultCache.computeContentHash(source);
+			CleanUpResultCache.CachedResult cached= fResultCache.get(contentHash, configurationHash);
+			if (cached == null) {
+				uncachedTargets.add(target);
+				sources.put(unit, source);
+				contentHashes.put(unit, contentHash);
+			} else {
+				if (!cached.isNoChange()) {
+					CleanUpChange change= new CleanUpChange(getChangeName(unit), unit);
+					change.setEdit(cached.createEdit());
+					change.setSaveMode(fLeaveFilesDirty ? TextFileChange.LEAVE_DIRTY : TextFileChange.KEEP_SAVE_STATE);
+					result.add(change);
+				}
+				monitor.worked(2 * cleanUps.length);
+			}
+		}
+
+		if (!uncachedTargets.isEmpty()) {
+			Change[] changes= computeChanges(project, uncachedTargets.toArray(new CleanUpTarget[uncachedTargets.size()]), cleanUps, monitor);
+			for (int i= 0; i < changes.length; i++) {
+				Change change= changes[i];
+				ICompilationUnit unit= null;
+				if (change instanceof CompilationUnitChange) {
+					unit= ((CompilationUnitChange) change).getCompilationUnit();
+				} else if (change instanceof MultiStateCompilationUnitChange) {
+					unit= ((MultiStateCompilationUnitChange) change).getCompilationUnit();
+				}
+				String contentHash= unit != null ? contentHashes.remove(unit) : null;
+				if (contentHash != null)
+					fResultCache.putChange(contentHash, configurationHash, sources.get(unit), ((TextEditBasedChange) change).getPreviewContent(new NullProgressMonitor()));
+				result.add(change);
+			}
+			for (Iterator<String> iter= contentHashes.values().iterator(); iter.hasNext();) {
+				fResultCache.putNoChange(iter.next(), configurationHash);
+			}
+		}
+		return result.toArray(new Change[result.size()]);
+	}
+
+	private Change[] computeChanges(IJavaProject project, CleanUpTarget[] targets, ICleanUp[] cleanUps, IProgressMonitor monitor) throws CoreException {
+		if (fWorkerCount > 1 && targets.length > 1 && areConcurrent(cleanUps))
+			return cleanUpProjectInParallel(project, targets, cleanUps, monitor);
+
 		CleanUpFixpointIterator iter= new CleanUpFixpointIterator(targets, cleanUps);
 
 		SubProgressMonitor subMonitor= new SubProgressMonitor(monitor, 2 * targets.length * cleanUps.length);
@@ -714,6 +877,188 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		}
 	}
 
+	private static boolean areConcurrent(ICleanUp[] cleanUps) {
+		for (int i= 0; i < cleanUps.length; i++) {
+			if (!(cleanUps[i] instanceof IConcurrentCleanUp))
+				return false;
+		}
+		return true;
+	}
+
+	private Change[] cleanUpProjectInParallel(IJavaProject project, CleanUpTarget[] targets, final ICleanUp[] cleanUps, IProgressMonitor monitor) throws CoreException {
+		List<CleanUpTarget[]> shards= createShards(targets, fWorkerCount * SHARDS_PER_WORKER);
+		int workerCount= Math.min(fWorkerCount, shards.size());
+
+		SubProgressMonitor subMonitor= new SubProgressMonitor(monitor, 2 * targets.length * cleanUps.length);
+		subMonitor.beginTask("", targets.length); //$NON-NLS-1$
+		subMonitor.subTask(Messages.format(FixMessages.CleanUpRefactoring_Parser_Startup_message, BasicElementLabels.getResourceName(project.getProject())));
+
+		final Set<ICompilationUnit> processedUnits= ConcurrentHashMap.newKeySet();
+		final IProgressMonitor workerMonitor= new NullProgressMonitor() {
+			private volatile boolean fCanceled;
+
+			@Override
+			public boolean isCanceled() {
+				return fCanceled;
+			}
+
+			@Override
+			public void setCanceled(boolean canceled) {
+				fCanceled= canceled;
+			}
+		};
+		ExecutorService executor= Executors.newFixedThreadPool(workerCount, new ThreadFactory() {
+			private final AtomicInteger fThreadCount= new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread= new Thread(runnable, "Clean Up Worker-" + fThreadCount.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			List<Future<Change[]>> futures= new ArrayList<>(shards.size());
+			for (Iterator<CleanUpTarget[]> iter= shards.iterator(); iter.hasNext();) {
+				final CleanUpTarget[] shard= iter.next();
+				futures.add(executor.submit(new Callable<Change[]>() {
+					@Override
+					public Change[] call() throws CoreException {
+						return cleanUpShard(shard, cleanUps, processedUnits, workerMonitor);
+					}
+				}));
+			}
+
+			long start= System.currentTimeMillis();
+			int reported= 0;
+			List<Change> result= new ArrayList<>();
+			for (Iterator<Future<Change[]>> iter= futures.iterator(); iter.hasNext();) {
+				Future<Change[]> future= iter.next();
+				Change[] changes= null;
+				while (changes == null) {
+					if (subMonitor.isCanceled())
+						throw new OperationCanceledException();
+					try {
+						changes= future.get(PARALLEL_PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+					} catch (TimeoutException e) {
+						// report progress and continue waiting
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new OperationCanceledException();
+					} catch (ExecutionException e) {
+						Throwable cause= e.getCause();
+						if (cause instanceof CoreException)
+							throw (CoreException) cause;
+						if (cause instanceof RuntimeException)
+							throw (RuntimeException) cause;
+						throw new CoreException(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), IJavaStatusConstants.INTERNAL_ERROR, cause.getMessage(), cause));
+					}
+
+					int processed= processedUnits.size();
+					if (processed > reported) {
+						subMonitor.worked(processed - reported);
+						reported= processed;
+					}
+					long elapsed= Math.max(1, System.currentTimeMillis() - start);
+					long throughput= processed * 1000L / elapsed;
+					subMonitor.subTask(Messages.format(FixMessages.CleanUpRefactoring_ProcessingInParallel_message,
+							new Object[] { Integer.valueOf(processed), Integer.valueOf(targets.length), Integer.valueOf(workerCount), Long.valueOf(throughput) }));
+				}
+				Collections.addAll(result, changes);
+			}
+			return result.toArray(new Change[result.size()]);
+		} finally {
+			// stop the remaining workers before returning, also if a shard has failed
+			workerMonitor.setCanceled(true);
+			executor.shutdownNow();
+			awaitTermination(executor);
+			subMonitor.done();
+		}
+	}
+
+	private static void awaitTermination(ExecutorService executor) {
+		boolean interrupted= false;
+		try {
+			while (true) {
+				try {
+					if (executor.awaitTermination(PARALLEL_PROGRESS_INTERVAL, TimeUnit.MILLISECONDS))
+						return;
+				} catch (InterruptedException e) {
+					interrupted= true;
+				}
+			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	private Change[] cleanUpShard(CleanUpTarget[] shard, ICleanUp[] cleanUps, Set<ICompilationUnit> processedUnits, IProgressMonitor monitor) throws CoreException {
+		CleanUpFixpointIterator iter= new CleanUpFixpointIterator(shard, cleanUps, processedUnits);
+		try {
+			while (iter.hasNext()) {
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				iter.next(monitor);
+			}
+			return iter.getResult();
+		} finally {
+			iter.dispose();
+		}
+	}
+
+	/**
+	 * Splits the given targets into at most <code>maxShards</code> shards. Targets of the same
+	 * package are kept in the same shard, so that each shard can share the binding environment of
+	 * its packages. Packages are assigned largest first to the currently smallest shard.
+	 *
+	 * @param targets the targets of one project
+	 * @param maxShards the maximal number of shards
+	 * @return the shards, never empty
+	 */
+	static List<CleanUpTarget[]> createShards(CleanUpTarget[] targets, int maxShards) {
+		Map<IJavaElement, List<CleanUpTarget>> packages= new LinkedHashMap<>();
+		for (int i= 0; i < targets.length; i++) {
+			IJavaElement pack= targets[i].getCompilationUnit().getParent();
+			List<CleanUpTarget> packageTargets= packages.get(pack);
+			if (packageTargets == null) {
+				packageTargets= new ArrayList<>();
+				packages.put(pack, packageTargets);
+			}
+			packageTargets.add(targets[i]);
+		}
+
+		List<List<CleanUpTarget>> packageLists= new ArrayList<>(packages.values());
+		Collections.sort(packageLists, new Comparator<List<CleanUpTarget>>() {
+			@Override
+			public int compare(List<CleanUpTarget> o1, List<CleanUpTarget> o2) {
+				return o2.size() - o1.size();
+			}
+		});
+
+		int shardCount= Math.max(1, Math.min(maxShards, packageLists.size()));
+		List<List<CleanUpTarget>> shards= new ArrayList<>(shardCount);
+		for (int i= 0; i < shardCount; i++) {
+			shards.add(new ArrayList<CleanUpTarget>());
+		}
+		for (Iterator<List<CleanUpTarget>> iter= packageLists.iterator(); iter.hasNext();) {
+			List<CleanUpTarget> smallest= shards.get(0);
+			for (int i= 1; i < shardCount; i++) {
+				if (shards.get(i).size() < smallest.size())
+					smallest= shards.get(i);
+			}
+			smallest.addAll(iter.next());
+		}
+
+		List<CleanUpTarget[]> result= new ArrayList<>(shardCount);
+		for (Iterator<List<CleanUpTarget>> iter= shards.iterator(); iter.hasNext();) {
+			List<CleanUpTarget> shard= iter.next();
+			if (!shard.isEmpty())
+				result.add(shard.toArray(new CleanUpTarget[shard.size()]));
+		}
+		return result;
+	}
+
 	private RefactoringStatus setOptionsFromProfile(IJavaProject javaProject, ICleanUp[] cleanUps) {
 		Map<String, String> options= CleanUpPreferenceUtil.loadOptions(new ProjectScope(javaProject.getProject()));
 		if (options == null)
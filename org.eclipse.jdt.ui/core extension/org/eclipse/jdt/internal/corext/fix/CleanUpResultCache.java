@@ -0,0 +1,514 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.fix;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.osgi.service.prefs.BackingStoreException;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ProjectScope;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.ui.JavaUI;
+import org.eclipse.jdt.ui.cleanup.ICleanUp;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * A persistent cache of clean up results. A result is keyed by the hash of the content of a
+ * compilation unit and the hash of the clean up configuration (the clean ups, their options, the
+ * compiler options and the environment of the unit) and records either that no change is needed
+ * or the single replacement which transforms the content into the cleaned up content.
+ * <p>
+ * Units which hit the cache do not need to be parsed at all. Since the result of a clean up can
+ * depend on the types a unit references, the environment covers the source of the whole project
+ * and of the projects it requires, see {@link #computeEnvironmentHash(IJavaProject)}. The cache
+ * therefore pays off if the same tree is cleaned up repeatedly, e.g. on a build server.
+ * </p>
+ * <p>
+ * The cache is bounded by the number of entries and the size of the cached replacement texts,
+ * least recently used entries are evicted first. All methods are thread safe.
+ * </p>
+ *
+ * @see CleanUpRefactoring#setResultCache(CleanUpResultCache)
+ */
+public class CleanUpResultCache {
+
+	/**
+	 * The cached result of a clean up of one compilation unit.
+	 */
+	public static final class CachedResult {
+
+		private final int fOffset;
+		private final int fLength;
+		private final String fText;
+
+		private CachedResult(int offset, int length, String text) {
+			fOffset= offset;
+			fLength= length;
+			fText= text;
+		}
+
+		/**
+		 * @return <code>true</code> if the clean up did not change the unit
+		 */
+		public boolean isNoChange() {
+			return fText == null;
+		}
+
+		/**
+		 * @return the edit which transforms the content into the cleaned up content, or
+		 *         <code>null</code> if no change is needed
+		 */
+		public TextEdit createEdit() {
+			if (fText == null)
+				return null;
+			return new ReplaceEdit(fOffset, fLength, fText);
+		}
+
+		private int getTextSize() {
+			return fText == null ? 0 : fText.length();
+		}
+	}
+
+	private static final CachedResult NO_CHANGE= new CachedResult(0, 0, null);
+
+	private static final int FILE_MAGIC= 0x4A435243; // "JCRC"
+	private static final int FILE_VERSION= 1;
+
+	private static final String DEFAULT_CACHE_FILE_NAME= "cleanUpResults.cache"; //$NON-NLS-1$
+	private static final int DEFAULT_MAX_ENTRIES= 100000;
+	private static final int DEFAULT_MAX_TEXT_SIZE= 16 * 1024 * 1024;
+
+	private static CleanUpResultCache fgDefault;
+
+	private final File fFile;
+	private final int fMaxEntries;
+	private final long fMaxTextSize;
+	private final LinkedHashMap<String, CachedResult> fEntries;
+
+	private long fTextSize;
+	private boolean fDirty;
+	private int fHitCount;
+	private int fMissCount;
+	private int fEvictionCount;
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param file the file to persist the cache to, or <code>null</code> for an in-memory cache
+	 * @param maxEntries the maximal number of entries
+	 * @param maxTextSize the maximal number of characters of all cached replacement texts
+	 */
+	public CleanUpResultCache(File file, int maxEntries, long maxTextSize) {
+		fFile= file;
+		fMaxEntries= maxEntries;
+		fMaxTextSize= maxTextSize;
+		fEntries= new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	/**
+	 * Returns the cache stored in the state location of the Java UI plug-in. The cache is loaded on
+	 * first access.
+	 *
+	 * @return the default cache
+	 */
+	public static synchronized CleanUpResultCache getDefault() {
+		if (fgDefault == null) {
+			File file= JavaPlugin.getDefault().getStateLocation().append(DEFAULT_CACHE_FILE_NAME).toFile();
+			fgDefault= new CleanUpResultCache(file, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_TEXT_SIZE);
+			try {
+				fgDefault.load();
+			} catch (IOException e) {
+				JavaPlugin.log(e);
+				fgDefault.clear();
+			}
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * @param content the content of a compilation unit
+	 * @return the hash of the content
+	 */
+	public static String computeContentHash(String content) {
+		MessageDigest digest= createDigest();
+		digest.update(content.getBytes(StandardCharsets.UTF_8));
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Computes the hash of the environment in which the units of a project are cleaned up: the
+	 * version of the Java UI plug-in, the Java UI preferences of the workspace and the project
+	 * (which include the import order and the code templates), the source of all compilation
+	 * units of the project and of the projects it requires, and the time stamps of its libraries.
+	 * <p>
+	 * Any change of a unit thus invalidates the results of all units of the project, since a unit
+	 * cannot tell which types it references without being resolved. The source is read but not
+	 * parsed.
+	 * </p>
+	 *
+	 * @param project the project
+	 * @return the hash of the environment
+	 * @throws JavaModelException if the class path or a unit cannot be read
+	 */
+	public static String computeEnvironmentHash(IJavaProject project) throws JavaModelException {
+		MessageDigest digest= createDigest();
+		update(digest, JavaPlugin.getDefault().getBundle().getVersion().toString());
+		update(digest, InstanceScope.INSTANCE.getNode(JavaUI.ID_PLUGIN));
+		update(digest, new ProjectScope(project.getProject()).getNode(JavaUI.ID_PLUGIN));
+		updateWithProject(digest, project, new HashSet<IJavaProject>());
+		return toHex(digest.digest());
+	}
+
+	private static void updateWithProject(MessageDigest digest, IJavaProject project, Set<IJavaProject> visited) throws JavaModelException {
+		if (!visited.add(project) || !project.exists())
+			return;
+
+		IWorkspaceRoot root= ResourcesPlugin.getWorkspace().getRoot();
+		IClasspathEntry[] entries= project.getResolvedClasspath(true);
+		for (int i= 0; i < entries.length; i++) {
+			IClasspathEntry entry= entries[i];
+			update(digest, entry.getPath().toString());
+			switch (entry.getEntryKind()) {
+				case IClasspathEntry.CPE_SOURCE:
+					IPackageFragmentRoot[] roots= project.findPackageFragmentRoots(entry);
+					for (int j= 0; j < roots.length; j++) {
+						updateWithSource(digest, roots[j]);
+					}
+					break;
+				case IClasspathEntry.CPE_PROJECT:
+					updateWithProject(digest, JavaCore.create(root.getProject(entry.getPath().lastSegment())), visited);
+					break;
+				case IClasspathEntry.CPE_LIBRARY:
+					IResource resource= root.findMember(entry.getPath());
+					IPath location= resource != null ? resource.getLocation() : entry.getPath();
+					if (location != null)
+						updateWithFile(digest, location.toFile());
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	private static void updateWithSource(MessageDigest digest, IPackageFragmentRoot root) throws JavaModelException {
+		IJavaElement[] children= root.getChildren();
+		for (int i= 0; i < children.length; i++) {
+			ICompilationUnit[] units= ((IPackageFragment) children[i]).getCompilationUnits();
+			for (int j= 0; j < units.length; j++) {
+				update(digest, units[j].getPath().toString());
+				update(digest, units[j].getSource());
+			}
+		}
+	}
+
+	private static void updateWithFile(MessageDigest digest, File file) {
+		update(digest, file.getName() + ':' + file.length() + ':' + file.lastModified());
+		File[] members= file.listFiles();
+		if (members != null) {
+			Arrays.sort(members);
+			for (int i= 0; i < members.length; i++) {
+				updateWithFile(digest, members[i]);
+			}
+		}
+	}
+
+	/**
+	 * Computes the hash of a clean up configuration.
+	 *
+	 * @param cleanUps the clean ups, their options are represented by their step descriptions
+	 * @param cleanUpOptions the clean up profile options or <code>null</code> if not known
+	 * @param compilerOptions the compiler options used to parse the units
+	 * @param environmentHash the hash of the environment of the units
+	 * @return the hash of the configuration
+	 * @see #computeEnvironmentHash(IJavaProject)
+	 */
+	public static String computeConfigurationHash(ICleanUp[] cleanUps, Map<String, String> cleanUpOptions, Map<String, String> compilerOptions, String environmentHash) {
+		MessageDigest digest= createDigest();
+		update(digest, environmentHash);
+		for (int i= 0; i < cleanUps.length; i++) {
+			update(digest, cleanUps[i].getClass().getName());
+			String[] descriptions= cleanUps[i].getStepDescriptions();
+			if (descriptions != null) {
+				for (int j= 0; j < descriptions.length; j++) {
+					update(digest, descriptions[j]);
+				}
+			}
+		}
+		if (cleanUpOptions != null)
+			update(digest, cleanUpOptions);
+		update(digest, compilerOptions);
+		return toHex(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, Map<String, String> options) {
+		for (Iterator<Entry<String, String>> iter= new TreeMap<>(options).entrySet().iterator(); iter.hasNext();) {
+			Entry<String, String> entry= iter.next();
+			update(digest, entry.getKey());
+			update(digest, entry.getValue());
+		}
+	}
+
+	private static void update(MessageDigest digest, IEclipsePreferences preferences) {
+		try {
+			String[] keys= preferences.keys();
+			Arrays.sort(keys);
+			for (int i= 0; i < keys.length; i++) {
+				update(digest, keys[i]);
+				update(digest, preferences.get(keys[i], null));
+			}
+		} catch (BackingStoreException e) {
+			JavaPlugin.log(e);
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		if (value != null)
+			digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder buf= new StringBuilder(bytes.length * 2);
+		for (int i= 0; i < bytes.length; i++) {
+			int b= bytes[i] & 0xFF;
+			buf.append(Character.forDigit(b >> 4, 16));
+			buf.append(Character.forDigit(b & 0xF, 16));
+		}
+		return buf.toString();
+	}
+
+	private static String getKey(String contentHash, String configurationHash) {
+		return contentHash + configurationHash;
+	}
+
+	/**
+	 * @param contentHash the hash of the unit content
+	 * @param configurationHash the hash of the clean up configuration
+	 * @return the cached result or <code>null</code> if not cached
+	 */
+	public synchronized CachedResult get(String contentHash, String configurationHash) {
+		CachedResult result= fEntries.get(getKey(contentHash, configurationHash));
+		if (result == null) {
+			fMissCount++;
+		} else {
+			fHitCount++;
+		}
+		return result;
+	}
+
+	/**
+	 * Records that the unit with the given content needs no change.
+	 *
+	 * @param contentHash the hash of the unit content
+	 * @param configurationHash the hash of the clean up configuration
+	 */
+	public synchronized void putNoChange(String contentHash, String configurationHash) {
+		put(getKey(contentHash, configurationHash), NO_CHANGE);
+	}
+
+	/**
+	 * Records the change of the unit with the given original content.
+	 *
+	 * @param contentHash the hash of the original unit content
+	 * @param configurationHash the hash of the clean up configuration
+	 * @param originalContent the original content
+	 * @param newContent the cleaned up content
+	 */
+	public synchronized void putChange(String contentHash, String configurationHash, String originalContent, String newContent) {
+		int prefix= 0;
+		int maxPrefix= Math.min(originalContent.length(), newContent.length());
+		while (prefix < maxPrefix && originalContent.charAt(prefix) == newContent.charAt(prefix)) {
+			prefix++;
+		}
+		int suffix= 0;
+		int maxSuffix= maxPrefix - prefix;
+		while (suffix < maxSuffix && originalContent.charAt(originalContent.length() - suffix - 1) == newContent.charAt(newContent.length() - suffix - 1)) {
+			suffix++;
+		}
+		if (prefix == originalContent.length() && prefix == newContent.length()) {
+			put(getKey(contentHash, configurationHash), NO_CHANGE);
+		} else {
+			String text= newContent.substring(prefix, newContent.length() - suffix);
+			put(getKey(contentHash, configurationHash), new CachedResult(prefix, originalContent.length() - suffix - prefix, text));
+		}
+	}
+
+	private void put(String key, CachedResult result) {
+		CachedResult old= fEntries.put(key, result);
+		if (old != null)
+			fTextSize-= old.getTextSize();
+		fTextSize+= result.getTextSize();
+		fDirty= true;
+
+		for (Iterator<CachedResult> iter= fEntries.values().iterator(); iter.hasNext() && (fEntries.size() > fMaxEntries || fTextSize > fMaxTextSize);) {
+			CachedResult eldest= iter.next();
+			iter.remove();
+			fTextSize-= eldest.getTextSize();
+			fEvictionCount++;
+		}
+	}
+
+	public synchronized int size() {
+		return fEntries.size();
+	}
+
+	public synchronized int getHitCount() {
+		return fHitCount;
+	}
+
+	public synchronized int getMissCount() {
+		return fMissCount;
+	}
+
+	public synchronized int getEvictionCount() {
+		return fEvictionCount;
+	}
+
+	/**
+	 * @return the ratio of hits to lookups, <code>0</code> if nothing has been looked up
+	 */
+	public synchronized double getHitRate() {
+		int lookups= fHitCount + fMissCount;
+		return lookups == 0 ? 0 : (double) fHitCount / lookups;
+	}
+
+	public synchronized void resetStatistics() {
+		fHitCount= 0;
+		fMissCount= 0;
+		fEvictionCount= 0;
+	}
+
+	public synchronized void clear() {
+		fEntries.clear();
+		fTextSize= 0;
+		fDirty= true;
+	}
+
+	/**
+	 * Loads the cache from its file, if the file exists.
+	 *
+	 * @throws IOException if reading fails
+	 */
+	public synchronized void load() throws IOException {
+		fEntries.clear();
+		fTextSize= 0;
+		fDirty= false;
+		if (fFile == null || !fFile.isFile())
+			return;
+
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(fFile)))) {
+			if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION)
+				return; // unknown format, start with an empty cache
+
+			int count= in.readInt();
+			for (int i= 0; i < count; i++) {
+				String key= in.readUTF();
+				int offset= in.readInt();
+				if (offset < 0) {
+					put(key, NO_CHANGE);
+				} else {
+					int length= in.readInt();
+					byte[] text= new byte[in.readInt()];
+					in.readFully(text);
+					put(key, new CachedResult(offset, length, new String(text, StandardCharsets.UTF_8)));
+				}
+			}
+		}
+		fDirty= false;
+	}
+
+	/**
+	 * Saves the cache to its file, if it has been changed since it has been loaded.
+	 *
+	 * @throws IOException if writing fails
+	 */
+	public synchronized void save() throws IOException {
+		if (fFile == null || !fDirty)
+			return;
+
+		try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fFile)))) {
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(FILE_VERSION);
+			out.writeInt(fEntries.size());
+			// entries are written in access order, least recently used first, which is preserved on load
+			for (Iterator<Entry<String, CachedResult>> iter= fEntries.entrySet().iterator(); iter.hasNext();) {
+				Entry<String, CachedResult> entry= iter.next();
+				CachedResult result= entry.getValue();
+				out.writeUTF(entry.getKey());
+				if (result.isNoChange()) {
+					out.writeInt(-1);
+				} else {
+					out.writeInt(result.fOffset);
+					out.writeInt(result.fLength);
+					byte[] text= result.fText.getBytes(StandardCharsets.UTF_8);
+					out.writeInt(text.length);
+					out.write(text);
+				}
+			}
+		}
+		fDirty= false;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "CleanUpResultCache [entries=" + fEntries.size() + ", hits=" + fHitCount + ", misses=" + fMissCount //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", evictions=" + fEvictionCount + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
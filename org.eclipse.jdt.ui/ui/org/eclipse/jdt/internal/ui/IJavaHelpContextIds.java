@@ -485,6 +485,11 @@ public interface IJavaHelpContextIds {
 	 */
 	public static final String CALL_HIERARCHY_SEARCH_IN_DIALOG= PREFIX + "call_hierarchy_search_in_dialog_context"; //$NON-NLS-1$
 	public static final String CALL_HIERARCHY_PIN_VIEW_ACTION= PREFIX + "call_hierarchy_pin_view_action_context"; //$NON-NLS-1$
+
+	/**
+	 * @since 3.16.100
+	 */
+	public static final String CALL_HIERARCHY_EXPAND_LEVELS_ACTION= PREFIX + "call_hierarchy_expand_levels_action_context"; //$NON-NLS-1$
 	/**
 	 * @since 3.2
 	 */
@@ -13,7 +13,18 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -159,6 +170,19 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 	 * @since 3.0
 	 */
 	private static final String CODE_TEMPLATES_MIGRATION_KEY= "org.eclipse.jdt.ui.text.code_templates_migrated"; //$NON-NLS-1$
+	/**
+	 * The file that shares the content assist history between workspaces, or <code>null</code> to
+	 * keep the history in the preferences of the workspace.
+	 * @since 3.16.100
+	 */
+	private static final String CONTENT_ASSIST_HISTORY_FILE= System.getProperty("org.eclipse.jdt.ui.contentAssistHistoryFile"); //$NON-NLS-1$
+	/**
+	 * The key to store the content assist history in the compact format. The XML format stored
+	 * under {@link PreferenceConstants#CODEASSIST_LRU_HISTORY} is only read if there is no history
+	 * under this key yet, and is left untouched for earlier versions.
+	 * @since 3.16.100
+	 */
+	private static final String CONTENT_ASSIST_HISTORY_KEY= "content_assist_history"; //$NON-NLS-1$
 
 	public static boolean DEBUG_AST_PROVIDER;
 
@@ -168,6 +192,8 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 
 	public static boolean DEBUG_RESULT_COLLECTOR;
 
+	public static boolean DEBUG_SEMANTIC_HIGHLIGHTING;
+
 	private static JavaPlugin fgJavaPlugin;
 
 	private static LinkedHashMap<String, Long> fgRepeatedMessages= new LinkedHashMap<String, Long>(20, 0.75f, true) {
@@ -509,7 +535,10 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 			}
 
 			if (fContentAssistHistory != null) {
-				ContentAssistHistory.store(fContentAssistHistory, getPluginPreferences(), PreferenceConstants.CODEASSIST_LRU_HISTORY);
+				if (CONTENT_ASSIST_HISTORY_FILE != null)
+					storeContentAssistHistory(new File(CONTENT_ASSIST_HISTORY_FILE));
+				else
+					ContentAssistHistory.store(fContentAssistHistory, getPluginPreferences(), CONTENT_ASSIST_HISTORY_KEY);
 				fContentAssistHistory= null;
 			}
 
@@ -965,7 +994,13 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 	public ContentAssistHistory getContentAssistHistory() {
 		if (fContentAssistHistory == null) {
 			try {
-				fContentAssistHistory= ContentAssistHistory.load(getPluginPreferences(), PreferenceConstants.CODEASSIST_LRU_HISTORY);
+				if (CONTENT_ASSIST_HISTORY_FILE != null)
+					fContentAssistHistory= loadContentAssistHistory(new File(CONTENT_ASSIST_HISTORY_FILE));
+				else {
+					fContentAssistHistory= ContentAssistHistory.load(getPluginPreferences(), CONTENT_ASSIST_HISTORY_KEY);
+					if (fContentAssistHistory == null)
+						fContentAssistHistory= ContentAssistHistory.load(getPluginPreferences(), PreferenceConstants.CODEASSIST_LRU_HISTORY);
+				}
 			} catch (CoreException x) {
 				log(x);
 			}
@@ -976,6 +1011,43 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 		return fContentAssistHistory;
 	}
 
+	private static ContentAssistHistory loadContentAssistHistory(File file) throws CoreException {
+		if (!file.isFile())
+			return null;
+		try (Reader reader= new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+			return ContentAssistHistory.load(reader);
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, getPluginId(), IStatus.OK, e.getMessage(), e));
+		}
+	}
+
+	/*
+	 * The file may be read by other workspaces at any time, hence the history is written to a
+	 * temporary file which then replaces the file.
+	 */
+	private void storeContentAssistHistory(File file) throws CoreException {
+		File temp= null;
+		try {
+			File directory= file.getAbsoluteFile().getParentFile();
+			directory.mkdirs();
+			temp= File.createTempFile(file.getName(), ".tmp", directory); //$NON-NLS-1$
+			try (Writer writer= new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+				ContentAssistHistory.store(fContentAssistHistory, writer);
+			}
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp= null;
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, getPluginId(), IStatus.OK, e.getMessage(), e));
+		} finally {
+			if (temp != null)
+				temp.delete();
+		}
+	}
+
 	/**
 	 * Returns a section in the Java plugin's dialog settings. If the section doesn't exist yet, it is created.
 	 *
@@ -1063,5 +1135,6 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 		DEBUG_BREADCRUMB_ITEM_DROP_DOWN= options.getBooleanOption("org.eclipse.jdt.ui/debug/BreadcrumbItemDropDown", false); //$NON-NLS-1$
 		DEBUG_TYPE_CONSTRAINTS= options.getBooleanOption("org.eclipse.jdt.ui/debug/TypeConstraints", false); //$NON-NLS-1$
 		DEBUG_RESULT_COLLECTOR= options.getBooleanOption("org.eclipse.jdt.ui/debug/ResultCollector", false); //$NON-NLS-1$
+		DEBUG_SEMANTIC_HIGHLIGHTING= options.getBooleanOption("org.eclipse.jdt.ui/debug/SemanticHighlighting", false); //$NON-NLS-1$
 	}
 }
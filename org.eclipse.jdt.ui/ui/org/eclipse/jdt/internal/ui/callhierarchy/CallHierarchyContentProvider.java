@@ -19,6 +19,7 @@ import java.lang.reflect.InvocationTargetException;
 import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 
 import org.eclipse.jface.operation.IRunnableContext;
 import org.eclipse.jface.operation.IRunnableWithProgress;
@@ -104,6 +105,9 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
 		} else if (parentElement instanceof RealCallers) {
 			MethodWrapper parentWrapper= ((RealCallers)parentElement).getParent();
 			RealCallers element= ((RealCallers)parentElement);
+			if (element.isCached()) {
+				return element.getCalls(new NullProgressMonitor());
+			}
 			if (fManager != null) {
 				Object[] children= fManager.getChildren(new DeferredMethodWrapper(this, element));
 				if (children != null)
@@ -121,27 +125,8 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
 					CallerMethodWrapper caller= (CallerMethodWrapper)parentElement;
 					ensureDefaultExpandWithConstructors(caller);
 					if (caller.getExpandWithConstructors()) {
-						IType type= caller.getMember().getDeclaringType();
 						try {
-							if (type.isAnonymous()) {
-								IMember anonymousClass= type;
-								MethodCall anonymousConstructor= new MethodCall(anonymousClass);
-								CallerMethodWrapper anonymousWrapper= (CallerMethodWrapper)caller.createMethodWrapper(anonymousConstructor);
-								return new Object[] { anonymousWrapper, new RealCallers(methodWrapper, caller.getMethodCall()) };
-							} else {
-								IMember[] constructors= JavaElementUtil.getAllConstructors(type);
-								if (constructors.length == 0) {
-									constructors= new IType[] { type }; // type stands for the default constructor
-								}
-								Object children[]= new Object[constructors.length + 1];
-								for (int j= 0; j < constructors.length; j++) {
-									MethodCall constructor= new MethodCall(constructors[j]);
-									CallerMethodWrapper constructorWrapper= (CallerMethodWrapper)caller.createMethodWrapper(constructor);
-									children[j]= constructorWrapper;
-								}
-								children[constructors.length]= new RealCallers(methodWrapper, caller.getMethodCall());
-								return children;
-							}
+							return getConstructorChildren(caller);
 						} catch (JavaModelException e) {
 							JavaPlugin.log(e);
 							return null;
@@ -149,6 +134,10 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
 
 					}
 				}
+				if (methodWrapper.isCached()) {
+					// no need to defer, e.g. after ExpandLevelsAction
+					return methodWrapper.getCalls(new NullProgressMonitor());
+				}
 				if (fManager != null) {
 					Object[] children= fManager.getChildren(new DeferredMethodWrapper(this, methodWrapper));
 					if (children != null)
@@ -160,6 +149,37 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
         return EMPTY_ARRAY;
     }
 
+	/**
+	 * Returns the children of a caller method wrapper in "expand with constructors" mode: the
+	 * constructors of the declaring type followed by the {@link RealCallers}.
+	 *
+	 * @param caller the caller method wrapper in "expand with constructors" mode
+	 * @return the constructor method wrappers and the real callers node
+	 * @throws JavaModelException if the constructors could not be determined
+	 */
+	static Object[] getConstructorChildren(CallerMethodWrapper caller) throws JavaModelException {
+		IType type= caller.getMember().getDeclaringType();
+		if (type.isAnonymous()) {
+			IMember anonymousClass= type;
+			MethodCall anonymousConstructor= new MethodCall(anonymousClass);
+			CallerMethodWrapper anonymousWrapper= (CallerMethodWrapper)caller.createMethodWrapper(anonymousConstructor);
+			return new Object[] { anonymousWrapper, new RealCallers(caller, caller.getMethodCall()) };
+		} else {
+			IMember[] constructors= JavaElementUtil.getAllConstructors(type);
+			if (constructors.length == 0) {
+				constructors= new IType[] { type }; // type stands for the default constructor
+			}
+			Object children[]= new Object[constructors.length + 1];
+			for (int j= 0; j < constructors.length; j++) {
+				MethodCall constructor= new MethodCall(constructors[j]);
+				CallerMethodWrapper constructorWrapper= (CallerMethodWrapper)caller.createMethodWrapper(constructor);
+				children[j]= constructorWrapper;
+			}
+			children[constructors.length]= new RealCallers(caller, caller.getMethodCall());
+			return children;
+		}
+	}
+
 	/**
 	 * Sets the default "expand with constructors" mode for the method wrapper. Does nothing if the
 	 * mode has already been set.
@@ -371,7 +391,7 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
     	return fPart;
     }
 
-	private boolean shouldStopTraversion(MethodWrapper methodWrapper) {
+	static boolean shouldStopTraversion(MethodWrapper methodWrapper) {
         return (methodWrapper.getLevel() > CallHierarchyUI.getDefault().getMaxCallDepth()) || methodWrapper.isRecursive();
     }
 
@@ -160,6 +160,14 @@ public final class CallHierarchyMessages extends NLS {
 	public static String ExpandWithConstructorsAction_expandWithConstructors_text;
 	public static String ExpandWithConstructorsAction_expandWithConstructors_description;
 	public static String ExpandWithConstructorsAction_expandWithConstructors_tooltip;
+	public static String ExpandLevelsAction_text;
+	public static String ExpandLevelsAction_description;
+	public static String ExpandLevelsAction_tooltip;
+	public static String ExpandLevelsAction_dialog_title;
+	public static String ExpandLevelsAction_dialog_message;
+	public static String ExpandLevelsAction_error_invalidLevels;
+	public static String ExpandLevelsAction_job_name;
+	public static String ExpandLevelsAction_job_level;
 	public static String ExpandWithConstructorsDialog_title;
 	public static String PinCallHierarchyViewAction_label;
 	public static String PinCallHierarchyViewAction_tooltip;
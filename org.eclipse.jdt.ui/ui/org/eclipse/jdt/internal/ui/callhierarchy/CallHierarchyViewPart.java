@@ -100,6 +100,7 @@ import org.eclipse.jdt.core.search.IJavaSearchScope;
 
 import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
 import org.eclipse.jdt.internal.corext.callhierarchy.CallLocation;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallerSearchEngine;
 import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
 import org.eclipse.jdt.internal.corext.callhierarchy.RealCallers;
 import org.eclipse.jdt.internal.corext.util.Messages;
@@ -230,6 +231,7 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
     private CallHierarchyFiltersActionGroup fFiltersActionGroup;
     private HistoryDropDownAction fHistoryDropDownAction;
     private RefreshElementAction fRefreshSingleElementAction;
+    private ExpandLevelsAction fExpandLevelsAction;
     private RefreshViewAction fRefreshViewAction;
     private OpenLocationAction fOpenLocationAction;
 	private LocationCopyAction fLocationCopyAction;
@@ -744,6 +746,8 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
 			getViewSite().getPage().removePartListener(fPartListener);
 			fPartListener= null;
 		}
+
+		CallerSearchEngine.getDefault().dispose();
 		super.dispose();
 	}
 
@@ -771,6 +775,7 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
      *
      */
     public void refresh() {
+        CallerSearchEngine.getDefault().clearCache();
         setCalleeRoots(null);
         setCallerRoots(null);
 
@@ -1023,6 +1028,9 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
         if (fExpandWithConstructorsAction.canActionBeAdded()) {
         	menu.appendToGroup(GROUP_FOCUS, fExpandWithConstructorsAction);
         }
+        if (fExpandLevelsAction.canActionBeAdded()) {
+        	menu.appendToGroup(GROUP_FOCUS, fExpandLevelsAction);
+        }
         
         if (fRemoveFromViewAction.canActionBeAdded()){
         	menu.appendToGroup(GROUP_FOCUS, fRemoveFromViewAction);
@@ -1075,6 +1083,7 @@ public class CallHierarchyViewPart extends ViewPart implements ICallHierarchyVie
         fCancelSearchAction = new CancelSearchAction(this);
         setCancelEnabled(false);
         fExpandWithConstructorsAction= new ExpandWithConstructorsAction(this, fCallHierarchyViewer);
+        fExpandLevelsAction= new ExpandLevelsAction(this, fCallHierarchyViewer);
         fRemoveFromViewAction= new RemoveFromViewAction(this, fCallHierarchyViewer);
         fPinViewAction= new PinCallHierarchyViewAction(this);
         fToggleOrientationActions = new ToggleOrientationAction[] {
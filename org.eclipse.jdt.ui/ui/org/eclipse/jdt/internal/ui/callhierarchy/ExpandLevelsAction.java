@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.callhierarchy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.dialogs.IInputValidator;
+import org.eclipse.jface.dialogs.InputDialog;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.window.Window;
+
+import org.eclipse.ui.PlatformUI;
+
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.internal.corext.callhierarchy.CallerMethodWrapper;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallerSearchEngine;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
+import org.eclipse.jdt.internal.corext.callhierarchy.RealCallers;
+import org.eclipse.jdt.internal.corext.util.Messages;
+
+import org.eclipse.jdt.internal.ui.IJavaHelpContextIds;
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * The action to expand the selected members several levels deep in the background.
+ * <p>
+ * The hierarchy is searched level by level, the members of a level are searched concurrently
+ * by the {@link CallerSearchEngine}. The viewer is expanded after each level, so that results
+ * show up while deeper levels are still searched.
+ * </p>
+ *
+ * @since 3.16.100
+ */
+class ExpandLevelsAction extends Action {
+
+	private static final int DEFAULT_LEVELS= 3;
+
+	/**
+	 * The call hierarchy view part.
+	 */
+	private final CallHierarchyViewPart fPart;
+
+	/**
+	 * The call hierarchy viewer.
+	 */
+	private final CallHierarchyViewer fCallHierarchyViewer;
+
+	/**
+	 * The number of levels last entered by the user.
+	 */
+	private int fLevels= DEFAULT_LEVELS;
+
+	/**
+	 * Creates the action to expand levels in the background.
+	 *
+	 * @param part the call hierarchy view part
+	 * @param viewer the call hierarchy viewer
+	 */
+	public ExpandLevelsAction(CallHierarchyViewPart part, CallHierarchyViewer viewer) {
+		fPart= part;
+		fCallHierarchyViewer= viewer;
+		setText(CallHierarchyMessages.ExpandLevelsAction_text);
+		setDescription(CallHierarchyMessages.ExpandLevelsAction_description);
+		setToolTipText(CallHierarchyMessages.ExpandLevelsAction_tooltip);
+		PlatformUI.getWorkbench().getHelpSystem().setHelp(this, IJavaHelpContextIds.CALL_HIERARCHY_EXPAND_LEVELS_ACTION);
+	}
+
+	/*
+	 * @see Action#run
+	 */
+	@Override
+	public void run() {
+		List<MethodWrapper> roots= getSelectedWrappers();
+		if (roots.isEmpty())
+			return;
+
+		final int maxLevels= CallHierarchyUI.getDefault().getMaxCallDepth();
+		final String rangeMessage= Messages.format(CallHierarchyMessages.ExpandLevelsAction_error_invalidLevels, String.valueOf(maxLevels));
+		InputDialog dialog= new InputDialog(fPart.getSite().getShell(), CallHierarchyMessages.ExpandLevelsAction_dialog_title,
+				Messages.format(CallHierarchyMessages.ExpandLevelsAction_dialog_message, String.valueOf(maxLevels)),
+				String.valueOf(Math.min(fLevels, maxLevels)), new IInputValidator() {
+					@Override
+					public String isValid(String newText) {
+						try {
+							int levels= Integer.parseInt(newText.trim());
+							if (levels >= 1 && levels <= maxLevels)
+								return null;
+						} catch (NumberFormatException e) {
+							// fall through
+						}
+						return rangeMessage;
+					}
+				});
+		if (dialog.open() != Window.OK)
+			return;
+		fLevels= Integer.parseInt(dialog.getValue().trim());
+
+		Job job= new ExpandLevelsJob(roots, fLevels, fCallHierarchyViewer.getInput());
+		job.setUser(true);
+		job.schedule();
+	}
+
+	/**
+	 * Checks whether this action can be added for the selected element in the call hierarchy.
+	 *
+	 * @return <code>true</code> if the action can be added, <code>false</code> otherwise
+	 */
+	public boolean canActionBeAdded() {
+		return !getSelectedWrappers().isEmpty();
+	}
+
+	private List<MethodWrapper> getSelectedWrappers() {
+		ISelection selection= fPart.getSelection();
+		if (!(selection instanceof IStructuredSelection) || selection.isEmpty())
+			return Collections.emptyList();
+		List<MethodWrapper> wrappers= new ArrayList<>();
+		for (Iterator<?> iter= ((IStructuredSelection) selection).iterator(); iter.hasNext();) {
+			Object element= iter.next();
+			if (!(element instanceof MethodWrapper))
+				return Collections.emptyList();
+			wrappers.add((MethodWrapper) element);
+		}
+		return wrappers;
+	}
+
+	/**
+	 * Adds the constructor nodes that the content provider shows for a caller in "expand with
+	 * constructors" mode.
+	 *
+	 * @param wrapper the method wrapper
+	 * @param children the list to add the constructor nodes to
+	 * @return <code>true</code> if the method wrapper is in "expand with constructors" mode and
+	 *         its calls need not be searched
+	 */
+	static boolean addConstructorChildren(MethodWrapper wrapper, List<MethodWrapper> children) {
+		if (!(wrapper instanceof CallerMethodWrapper) || wrapper instanceof RealCallers)
+			return false;
+		CallerMethodWrapper caller= (CallerMethodWrapper) wrapper;
+		CallHierarchyContentProvider.ensureDefaultExpandWithConstructors(caller);
+		if (!caller.getExpandWithConstructors())
+			return false;
+		try {
+			Object[] constructorChildren= CallHierarchyContentProvider.getConstructorChildren(caller);
+			for (int i= 0; i < constructorChildren.length; i++) {
+				children.add((MethodWrapper) constructorChildren[i]);
+			}
+		} catch (JavaModelException e) {
+			JavaPlugin.log(e);
+		}
+		return true;
+	}
+
+	private class ExpandLevelsJob extends Job {
+
+		private final List<MethodWrapper> fRoots;
+		private final int fLevelCount;
+		private final Object fInput;
+		private final Display fDisplay;
+
+		ExpandLevelsJob(List<MethodWrapper> roots, int levels, Object input) {
+			super(CallHierarchyMessages.ExpandLevelsAction_job_name);
+			fRoots= roots;
+			fLevelCount= levels;
+			fInput= input;
+			fDisplay= fCallHierarchyViewer.getControl().getDisplay();
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			monitor.beginTask(CallHierarchyMessages.ExpandLevelsAction_job_name, fLevelCount);
+			try {
+				List<MethodWrapper> level= new ArrayList<>(fRoots);
+				for (int depth= 1; depth <= fLevelCount && !level.isEmpty(); depth++) {
+					if (monitor.isCanceled() || isInputChanged())
+						return Status.CANCEL_STATUS;
+
+					List<MethodWrapper> toSearch= new ArrayList<>();
+					List<MethodWrapper> next= new ArrayList<>();
+					for (Iterator<MethodWrapper> iter= level.iterator(); iter.hasNext();) {
+						MethodWrapper wrapper= iter.next();
+						if (!wrapper.canHaveChildren() || CallHierarchyContentProvider.shouldStopTraversion(wrapper))
+							continue;
+						if (!addConstructorChildren(wrapper, next))
+							toSearch.add(wrapper);
+					}
+					monitor.subTask(Messages.format(CallHierarchyMessages.ExpandLevelsAction_job_level,
+							new Object[] { String.valueOf(depth), String.valueOf(fLevelCount), String.valueOf(toSearch.size()) }));
+					CallerSearchEngine.getDefault().searchCalls(toSearch.toArray(new MethodWrapper[toSearch.size()]), new SubProgressMonitor(monitor, 1));
+					for (Iterator<MethodWrapper> iter= toSearch.iterator(); iter.hasNext();) {
+						Collections.addAll(next, iter.next().getCalls(monitor));
+					}
+					expandToLevel(depth);
+					level= next;
+				}
+				return Status.OK_STATUS;
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			} finally {
+				monitor.done();
+			}
+		}
+
+		private boolean isInputChanged() {
+			if (fDisplay.isDisposed())
+				return true;
+			final boolean[] changed= new boolean[1];
+			fDisplay.syncExec(new Runnable() {
+				@Override
+				public void run() {
+					changed[0]= fCallHierarchyViewer.getControl().isDisposed() || fCallHierarchyViewer.getInput() != fInput;
+				}
+			});
+			return changed[0];
+		}
+
+		private void expandToLevel(final int level) {
+			if (fDisplay.isDisposed())
+				return;
+			fDisplay.asyncExec(new Runnable() {
+				@Override
+				public void run() {
+					if (fCallHierarchyViewer.getControl().isDisposed() || fCallHierarchyViewer.getInput() != fInput)
+						return;
+					for (Iterator<MethodWrapper> iter= fRoots.iterator(); iter.hasNext();) {
+						fCallHierarchyViewer.expandToLevel(iter.next(), level);
+					}
+				}
+			});
+		}
+	}
+}
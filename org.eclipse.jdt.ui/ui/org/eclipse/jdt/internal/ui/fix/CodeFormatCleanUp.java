@@ -31,7 +31,7 @@ import org.eclipse.jdt.ui.cleanup.ICleanUpFix;
 
 import org.eclipse.jdt.internal.ui.fix.IMultiLineCleanUp.MultiLineCleanUpContext;
 
-public class CodeFormatCleanUp extends AbstractCleanUp {
+public class CodeFormatCleanUp extends AbstractCleanUp implements IConcurrentCleanUp {
 
 	public CodeFormatCleanUp() {
 		super();
@@ -28,7 +28,7 @@ import org.eclipse.jdt.ui.cleanup.CleanUpContext;
 import org.eclipse.jdt.ui.cleanup.CleanUpRequirements;
 import org.eclipse.jdt.ui.cleanup.ICleanUpFix;
 
-public class ControlStatementsCleanUp extends AbstractCleanUp {
+public class ControlStatementsCleanUp extends AbstractCleanUp implements IConcurrentCleanUp {
 
 	public ControlStatementsCleanUp(Map<String, String> options) {
 		super(options);
@@ -28,7 +28,7 @@ import org.eclipse.jdt.ui.cleanup.CleanUpContext;
 import org.eclipse.jdt.ui.cleanup.CleanUpRequirements;
 import org.eclipse.jdt.ui.cleanup.ICleanUpFix;
 
-public class ExpressionsCleanUp extends AbstractCleanUp {
+public class ExpressionsCleanUp extends AbstractCleanUp implements IConcurrentCleanUp {
 
 	public ExpressionsCleanUp(Map<String, String> options) {
 		super(options);
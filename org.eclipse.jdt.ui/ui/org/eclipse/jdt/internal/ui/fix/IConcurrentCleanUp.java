@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.fix;
+
+import org.eclipse.jdt.ui.cleanup.CleanUpContext;
+import org.eclipse.jdt.ui.cleanup.ICleanUp;
+
+/**
+ * A clean up whose {@link ICleanUp#createFix(CleanUpContext)} may be called for several
+ * compilation units concurrently, because it keeps no state between the calls other than its
+ * options. The clean up refactoring only uses more than one worker if all clean ups implement
+ * this interface.
+ *
+ * @since 3.16.100
+ */
+public interface IConcurrentCleanUp extends ICleanUp {
+}
@@ -38,7 +38,7 @@ import org.eclipse.jdt.ui.text.java.IProblemLocation;
  * @see org.eclipse.jdt.internal.corext.fix.Java50Fix
  *
  */
-public class Java50CleanUp extends AbstractMultiFix {
+public class Java50CleanUp extends AbstractMultiFix implements IConcurrentCleanUp {
 
 	public Java50CleanUp(Map<String, String> options) {
 		super(options);
@@ -55,7 +55,7 @@ import org.eclipse.jdt.ui.text.java.IProblemLocation;
  * <li>For nested interfaces the <code>static</code> modifier is redundant.</li>
  * </ul>
  */
-public class RedundantModifiersCleanUp extends AbstractMultiFix {
+public class RedundantModifiersCleanUp extends AbstractMultiFix implements IConcurrentCleanUp {
 	public RedundantModifiersCleanUp() {
 		this(Collections.emptyMap());
 	}
@@ -38,7 +38,7 @@ import org.eclipse.jdt.ui.text.java.IProblemLocation;
  * @see org.eclipse.jdt.internal.corext.fix.StringFix
  *
  */
-public class StringCleanUp extends AbstractMultiFix {
+public class StringCleanUp extends AbstractMultiFix implements IConcurrentCleanUp {
 
 	public StringCleanUp(Map<String, String> options) {
 		super(options);
@@ -32,7 +32,7 @@ import org.eclipse.jdt.ui.cleanup.CleanUpRequirements;
 import org.eclipse.jdt.ui.cleanup.ICleanUpFix;
 import org.eclipse.jdt.ui.text.java.IProblemLocation;
 
-public class TypeParametersCleanUp extends AbstractMultiFix {
+public class TypeParametersCleanUp extends AbstractMultiFix implements IConcurrentCleanUp {
 
 	private Map<String, String> fOptions;
 
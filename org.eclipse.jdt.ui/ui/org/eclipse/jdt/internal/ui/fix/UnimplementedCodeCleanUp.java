@@ -40,7 +40,7 @@ import org.eclipse.jdt.ui.text.java.IProblemLocation;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 
-public class UnimplementedCodeCleanUp extends AbstractMultiFix {
+public class UnimplementedCodeCleanUp extends AbstractMultiFix implements IConcurrentCleanUp {
 
 	public static final String MAKE_TYPE_ABSTRACT= "cleanup.make_type_abstract_if_missing_method"; //$NON-NLS-1$
 
@@ -28,7 +28,7 @@ import org.eclipse.jdt.ui.cleanup.CleanUpContext;
 import org.eclipse.jdt.ui.cleanup.CleanUpRequirements;
 import org.eclipse.jdt.ui.cleanup.ICleanUpFix;
 
-public class VariableDeclarationCleanUp extends AbstractCleanUp {
+public class VariableDeclarationCleanUp extends AbstractCleanUp implements IConcurrentCleanUp {
 
 	public VariableDeclarationCleanUp(Map<String, String> options) {
 		super(options);
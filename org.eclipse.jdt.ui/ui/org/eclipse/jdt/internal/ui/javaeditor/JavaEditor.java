@@ -195,6 +195,7 @@ import org.eclipse.jdt.core.util.IModifierConstants;
 import org.eclipse.jdt.internal.core.manipulation.search.IOccurrencesFinder;
 import org.eclipse.jdt.internal.core.manipulation.search.IOccurrencesFinder.OccurrenceLocation;
 import org.eclipse.jdt.internal.core.manipulation.search.OccurrencesFinder;
+import org.eclipse.jdt.internal.core.manipulation.search.OccurrencesIndex;
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 
 import org.eclipse.jdt.ui.IContextMenuConstants;
@@ -1678,6 +1679,11 @@ public abstract class JavaEditor extends AbstractDecoratedTextEditor implements
 	private ActivationListener fActivationListener= new ActivationListener();
 	private ISelectionListenerWithAST fPostSelectionListenerWithAST;
 	private OccurrencesFinderJob fOccurrencesFinderJob;
+	/**
+	 * The occurrences of all bindings in the last AST used to mark occurrences.
+	 * @since 3.16.100
+	 */
+	private volatile OccurrencesIndex fOccurrencesIndex;
 	/** The occurrences finder job canceler */
 	private OccurrencesFinderJobCanceler fOccurrencesFinderJobCanceler;
 	/**
@@ -3366,9 +3372,14 @@ public abstract class JavaEditor extends AbstractDecoratedTextEditor implements
 		if (locations == null && selectedNode instanceof Name) {
 			IBinding binding= ((Name)selectedNode).resolveBinding();
 			if (binding != null && markOccurrencesOfType(binding)) {
-				OccurrencesFinder finder= new OccurrencesFinder();
-				if (finder.initialize(astRoot, selectedNode) == null) {
-					locations= finder.getOccurrences();
+				OccurrencesIndex index= getOccurrencesIndex(astRoot);
+				if (index.isIndexed((Name) selectedNode)) {
+					locations= index.getOccurrences((Name) selectedNode);
+				} else {
+					OccurrencesFinder finder= new OccurrencesFinder();
+					if (finder.initialize(astRoot, selectedNode) == null) {
+						locations= finder.getOccurrences();
+					}
 				}
 			}
 		}
@@ -3388,6 +3399,23 @@ public abstract class JavaEditor extends AbstractDecoratedTextEditor implements
 		fOccurrencesFinderJob.run(new NullProgressMonitor());
 	}
 
+	/**
+	 * Returns the index of the occurrences in the given AST. The index is built once per AST, so
+	 * that moving the caret only needs lookups.
+	 *
+	 * @param astRoot the compilation unit AST
+	 * @return the occurrences index
+	 * @since 3.16.100
+	 */
+	private OccurrencesIndex getOccurrencesIndex(CompilationUnit astRoot) {
+		OccurrencesIndex index= fOccurrencesIndex;
+		if (index == null || index.getASTRoot() != astRoot) {
+			index= new OccurrencesIndex(astRoot);
+			fOccurrencesIndex= index;
+		}
+		return index;
+	}
+
 	protected void installOccurrencesFinder(boolean forceUpdate) {
 		fMarkOccurrenceAnnotations= true;
 
@@ -3419,6 +3447,7 @@ public abstract class JavaEditor extends AbstractDecoratedTextEditor implements
 
 	protected void uninstallOccurrencesFinder() {
 		fMarkOccurrenceAnnotations= false;
+		fOccurrencesIndex= null;
 
 		if (fOccurrencesFinderJob != null) {
 			fOccurrencesFinderJob.cancel();
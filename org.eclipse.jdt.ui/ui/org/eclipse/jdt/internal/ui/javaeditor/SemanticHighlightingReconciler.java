@@ -25,7 +25,9 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.ITextInputListener;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.TextPresentation;
@@ -36,12 +38,17 @@ import org.eclipse.ui.IWorkbenchPartSite;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.ConstructorInvocation;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
 import org.eclipse.jdt.core.dom.SuperConstructorInvocation;
 import org.eclipse.jdt.core.manipulation.SharedASTProviderCore;
 
@@ -73,8 +80,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		protected boolean visitLiteral(Expression node) {
 			fToken.update(node);
 			for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
-				SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
-				if (fJobHighlightings[i].isEnabled() && semanticHighlighting.consumesLiteral(fToken)) {
+				if (fJobHighlightings[i].isEnabled() && consumes(i, true)) {
 					int offset= node.getStartPosition();
 					int length= node.getLength();
 					if (offset > -1 && length > 0)
@@ -149,8 +155,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		public boolean visit(SimpleName node) {
 			fToken.update(node);
 			for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
-				SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
-				if (fJobHighlightings[i].isEnabled() && semanticHighlighting.consumes(fToken)) {
+				if (fJobHighlightings[i].isEnabled() && consumes(i, false)) {
 					int offset= node.getStartPosition();
 					int length= node.getLength();
 					if (offset > -1 && length > 0)
@@ -162,6 +167,61 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			return false;
 		}
 
+		/*
+		 * @see org.eclipse.jdt.internal.corext.dom.GenericVisitor#visit(org.eclipse.jdt.core.dom.MethodDeclaration)
+		 * @since 3.16.100
+		 */
+		@Override
+		public boolean visit(MethodDeclaration node) {
+			if (!super.visit(node))
+				return false;
+			addBody(node.getBody());
+			return true;
+		}
+
+		/*
+		 * @see org.eclipse.jdt.internal.corext.dom.GenericVisitor#visit(org.eclipse.jdt.core.dom.Initializer)
+		 * @since 3.16.100
+		 */
+		@Override
+		public boolean visit(Initializer node) {
+			if (!super.visit(node))
+				return false;
+			addBody(node.getBody());
+			return true;
+		}
+
+		/**
+		 * Remembers the range of a method or initializer body for incremental reconciles.
+		 *
+		 * @param body the body, or <code>null</code> if none
+		 * @since 3.16.100
+		 */
+		private void addBody(Block body) {
+			if (body != null)
+				fJobBodies.add(new Position(body.getStartPosition(), body.getLength()));
+		}
+
+		/**
+		 * Tells whether the semantic highlighting with the given index consumes the current token.
+		 * Measures the time the semantic highlighting takes if timing is enabled.
+		 *
+		 * @param index the index of the semantic highlighting
+		 * @param literal <code>true</code> if the token is a literal
+		 * @return <code>true</code> iff the semantic highlighting consumes the token
+		 * @since 3.16.100
+		 */
+		private boolean consumes(int index, boolean literal) {
+			SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[index];
+			if (fJobTimes == null)
+				return literal ? semanticHighlighting.consumesLiteral(fToken) : semanticHighlighting.consumes(fToken);
+
+			long start= System.nanoTime();
+			boolean consumes= literal ? semanticHighlighting.consumesLiteral(fToken) : semanticHighlighting.consumes(fToken);
+			fJobTimes[index]+= System.nanoTime() - start;
+			return consumes;
+		}
+
 		/**
 		 * Add a position with the given range and highlighting iff it does not exist already.
 		 * @param offset The range offset
@@ -170,10 +230,11 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		 */
 		private void addPosition(int offset, int length, Highlighting highlighting) {
 			boolean isExisting= false;
-			// TODO: use binary search
-			for (int i= 0, n= fRemovedPositions.size(); i < n; i++) {
-				HighlightedPosition position= (HighlightedPosition) fRemovedPositions.get(i);
-				if (position == null)
+			for (int i= computeIndexAtOffset(offset), n= fOldPositions.length; i < n; i++) {
+				HighlightedPosition position= (HighlightedPosition) fOldPositions[i];
+				if (position.getOffset() > offset)
+					break;
+				if (fRemovedPositions.get(i) == null)
 					continue;
 				if (position.isEqual(offset, length, highlighting)) {
 					isExisting= true;
@@ -196,17 +257,131 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		 */
 		@Override
 		protected void retainPositions(int offset, int length) {
-			// TODO: use binary search
-			for (int i= 0, n= fRemovedPositions.size(); i < n; i++) {
-				HighlightedPosition position= (HighlightedPosition) fRemovedPositions.get(i);
-				if (position != null && position.isContained(offset, length)) {
+			for (int i= computeIndexAtOffset(offset), n= fOldPositions.length; i < n; i++) {
+				HighlightedPosition position= (HighlightedPosition) fOldPositions[i];
+				if (position.getOffset() > offset + length)
+					break;
+				if (fRemovedPositions.get(i) != null && position.isContained(offset, length)) {
 					fRemovedPositions.set(i, null);
 					fNOfRemovedPositions--;
 				}
 			}
 		}
+
+		/**
+		 * Returns the index of the first old position at or after the given offset.
+		 *
+		 * @param offset the offset
+		 * @return the index of the first position with an offset greater than or equal to
+		 *         <code>offset</code>
+		 * @since 3.16.100
+		 */
+		private int computeIndexAtOffset(int offset) {
+			int i= -1;
+			int j= fOldPositions.length;
+			while (j - i > 1) {
+				int k= (i + j) >> 1;
+				if (fOldPositions[k].getOffset() >= offset)
+					j= k;
+				else
+					i= k;
+			}
+			return j;
+		}
 	}
 
+	/**
+	 * Tracks the document changes since the last reconcile as a single region of the document the
+	 * last reconciled AST was created from.
+	 *
+	 * @since 3.16.100
+	 */
+	private final class DocumentChangeTracker implements IDocumentListener, ITextInputListener {
+
+		/** The start of the changed region, or <code>-1</code> if the document did not change */
+		private int fStart= -1;
+		/** The end of the changed region */
+		private int fEnd;
+		/** The length delta of all changes */
+		private int fDelta;
+
+		/**
+		 * Returns the changes since the last call and forgets them.
+		 * <p>
+		 * NOTE: Called from background thread.
+		 * </p>
+		 *
+		 * @return the start and end of the changed region and the length delta, or
+		 *         <code>null</code> if the document did not change
+		 */
+		synchronized int[] takeChanges() {
+			if (fStart == -1)
+				return null;
+			int[] changes= { fStart, fEnd, fDelta };
+			fStart= -1;
+			fEnd= 0;
+			fDelta= 0;
+			return changes;
+		}
+
+		/*
+		 * @see org.eclipse.jface.text.IDocumentListener#documentAboutToBeChanged(org.eclipse.jface.text.DocumentEvent)
+		 */
+		@Override
+		public void documentAboutToBeChanged(DocumentEvent event) {
+		}
+
+		/*
+		 * @see org.eclipse.jface.text.IDocumentListener#documentChanged(org.eclipse.jface.text.DocumentEvent)
+		 */
+		@Override
+		public synchronized void documentChanged(DocumentEvent event) {
+			int offset= event.getOffset();
+			int end= offset + event.getLength();
+			String text= event.getText();
+			int delta= (text != null ? text.length() : 0) - event.getLength();
+
+			if (fStart == -1) {
+				fStart= offset;
+				fEnd= end;
+			} else {
+				// the event is in current coordinates, the region in the coordinates before the first change
+				int changedEnd= fEnd + fDelta;
+				if (offset < fStart)
+					fStart= offset;
+				if (end > changedEnd)
+					fEnd= Math.max(fEnd, end - fDelta);
+			}
+			fDelta+= delta;
+		}
+
+		/*
+		 * @see org.eclipse.jface.text.ITextInputListener#inputDocumentAboutToBeChanged(org.eclipse.jface.text.IDocument, org.eclipse.jface.text.IDocument)
+		 */
+		@Override
+		public void inputDocumentAboutToBeChanged(IDocument oldInput, IDocument newInput) {
+			if (oldInput != null)
+				oldInput.removeDocumentListener(this);
+		}
+
+		/*
+		 * @see org.eclipse.jface.text.ITextInputListener#inputDocumentChanged(org.eclipse.jface.text.IDocument, org.eclipse.jface.text.IDocument)
+		 */
+		@Override
+		public void inputDocumentChanged(IDocument oldInput, IDocument newInput) {
+			if (newInput != null)
+				newInput.addDocumentListener(this);
+			fFullReconcileNeeded= true;
+		}
+	}
+
+	/**
+	 * Tells whether reconciles are incremental by default.
+	 *
+	 * @since 3.16.100
+	 */
+	private static final boolean INCREMENTAL_RECONCILE= Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.ui.semanticHighlightingIncremental", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	/** Position collector */
 	private PositionCollector fCollector= new PositionCollector();
 
@@ -227,6 +402,41 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	private List<Position> fRemovedPositions= new ArrayList<>();
 	/** Number of removed positions */
 	private int fNOfRemovedPositions;
+	/**
+	 * Background job's positions from the last reconcile, sorted by offset. The position at an index
+	 * is retained iff the removed position at that index is <code>null</code>.
+	 * @since 3.16.100
+	 */
+	private Position[] fOldPositions;
+
+	/**
+	 * Tells whether a reconcile after document changes within a single method or initializer body
+	 * only revisits that body and keeps the positions elsewhere.
+	 * @since 3.16.100
+	 */
+	private boolean fIncremental= INCREMENTAL_RECONCILE;
+	/**
+	 * The document change tracker, or <code>null</code> if not installed.
+	 * @since 3.16.100
+	 */
+	private DocumentChangeTracker fChangeTracker;
+	/**
+	 * Ranges of the method and initializer bodies in the last reconciled AST, sorted by offset, or
+	 * <code>null</code> if the next reconcile has to revisit the entire AST.
+	 * @since 3.16.100
+	 */
+	private List<Position> fBodies;
+	/**
+	 * Length of the last reconciled AST.
+	 * @since 3.16.100
+	 */
+	private int fASTLength;
+	/**
+	 * <code>true</code> iff the next reconcile has to revisit the entire AST, e.g. because
+	 * highlightings were enabled or a presentation update was dropped.
+	 * @since 3.16.100
+	 */
+	private volatile boolean fFullReconcileNeeded;
 
 	/** Background job */
 	private Job fJob;
@@ -257,6 +467,32 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 */
 	private Highlighting fJobDeprecatedMemberHighlighting;
 
+	/**
+	 * Method and initializer body ranges collected by the background job, only valid during
+	 * {@link #reconciled(CompilationUnit, boolean, IProgressMonitor)}
+	 * @since 3.16.100
+	 */
+	private List<Position> fJobBodies;
+	/**
+	 * The range of the revisited body in the last reconciled AST, or <code>null</code> if the
+	 * entire AST is revisited, only valid during
+	 * {@link #reconciled(CompilationUnit, boolean, IProgressMonitor)}
+	 * @since 3.16.100
+	 */
+	private Position fJobChangedBody;
+	/**
+	 * The length delta of the revisited body, only valid during
+	 * {@link #reconciled(CompilationUnit, boolean, IProgressMonitor)}
+	 * @since 3.16.100
+	 */
+	private int fJobDelta;
+	/**
+	 * Nanoseconds spent in each semantic highlighting, or <code>null</code> if timing is disabled,
+	 * only valid during {@link #reconciled(CompilationUnit, boolean, IProgressMonitor)}
+	 * @since 3.16.100
+	 */
+	private long[] fJobTimes;
+
 	/*
 	 * @see org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener#aboutToBeReconciled()
 	 */
@@ -290,7 +526,10 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			if (ast == null || fJobPresenter.isCanceled())
 				return;
 
-			ASTNode[] subtrees= getAffectedSubtrees(ast);
+			long start= JavaPlugin.DEBUG_SEMANTIC_HIGHLIGHTING ? System.currentTimeMillis() : 0;
+			fJobTimes= JavaPlugin.DEBUG_SEMANTIC_HIGHLIGHTING ? new long[fJobSemanticHighlightings.length] : null;
+
+			ASTNode[] subtrees= getAffectedSubtrees(ast, forced);
 			if (subtrees.length == 0)
 				return;
 
@@ -316,11 +555,18 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 				updatePresentation(textPresentation, fAddedPositions, fRemovedPositions);
 
 			stopReconcilingPositions();
+			updateBodies(ast);
+
+			if (JavaPlugin.DEBUG_SEMANTIC_HIGHLIGHTING)
+				printTimes(System.currentTimeMillis() - start);
 		} finally {
 			fJobPresenter= null;
 			fJobSemanticHighlightings= null;
 			fJobHighlightings= null;
 			fJobDeprecatedMemberHighlighting= null;
+			fJobBodies= null;
+			fJobChangedBody= null;
+			fJobTimes= null;
 			synchronized (fReconcileLock) {
 				fIsReconciling= false;
 			}
@@ -328,12 +574,124 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	}
 
 	/**
-	 * @param node Root node
+	 * Returns the subtrees to revisit. Changes within a method or initializer body cannot affect
+	 * the bindings outside of it, so if all document changes since the last reconcile are within
+	 * one body, whose bounds match the ones from the last reconcile, only that body is revisited.
+	 *
+	 * @param ast the AST
+	 * @param forced <code>true</code> iff the reconcile was forced, e.g. because a dependency
+	 *            changed
 	 * @return Array of subtrees that may be affected by past document changes
 	 */
-	private ASTNode[] getAffectedSubtrees(ASTNode node) {
-		// TODO: only return nodes which are affected by document changes - would require an 'anchor' concept for taking distant effects into account
-		return new ASTNode[] { node };
+	private ASTNode[] getAffectedSubtrees(CompilationUnit ast, boolean forced) {
+		DocumentChangeTracker changeTracker= fChangeTracker;
+		int[] changes= changeTracker != null ? changeTracker.takeChanges() : null;
+		boolean fullReconcileNeeded= fFullReconcileNeeded;
+		fFullReconcileNeeded= false;
+
+		fJobBodies= new ArrayList<>();
+		fJobChangedBody= null;
+		if (fIncremental && !forced && !fullReconcileNeeded && fBodies != null && changes != null && ast.getLength() == fASTLength + changes[2]) {
+			Block body= findChangedBody(ast, changes[0], changes[1], changes[2]);
+			if (body != null)
+				return new ASTNode[] { body };
+		}
+		return new ASTNode[] { ast };
+	}
+
+	/**
+	 * Finds the innermost body that contained the changed region in the last reconciled AST, and
+	 * returns its counterpart in the given AST if it has the same bounds.
+	 *
+	 * @param ast the AST
+	 * @param start the start of the changed region in the last reconciled AST
+	 * @param end the end of the changed region in the last reconciled AST
+	 * @param delta the length delta of the changes
+	 * @return the body to revisit, or <code>null</code> if the entire AST has to be revisited
+	 * @since 3.16.100
+	 */
+	private Block findChangedBody(CompilationUnit ast, int start, int end, int delta) {
+		Position changedBody= null;
+		for (int i= 0, n= fBodies.size(); i < n; i++) {
+			Position body= fBodies.get(i);
+			if (body.getOffset() >= start)
+				break;
+			if (end < body.getOffset() + body.getLength())
+				changedBody= body;
+		}
+		if (changedBody == null)
+			return null;
+
+		ASTNode node= new NodeFinder(ast, start, end + delta - start).getCoveringNode();
+		while (node != null && !isBody(node))
+			node= node.getParent();
+		if (node == null || node.getStartPosition() != changedBody.getOffset() || node.getLength() != changedBody.getLength() + delta)
+			return null;
+
+		fJobChangedBody= changedBody;
+		fJobDelta= delta;
+		return (Block) node;
+	}
+
+	private static boolean isBody(ASTNode node) {
+		StructuralPropertyDescriptor location= node.getLocationInParent();
+		return location == MethodDeclaration.BODY_PROPERTY || location == Initializer.BODY_PROPERTY;
+	}
+
+	/**
+	 * Remembers the body ranges of the reconciled AST for the next reconcile.
+	 *
+	 * @param ast the reconciled AST
+	 * @since 3.16.100
+	 */
+	private void updateBodies(CompilationUnit ast) {
+		if (fJobPresenter.isCanceled()) {
+			fBodies= null;
+			return;
+		}
+
+		if (fJobChangedBody == null) {
+			fBodies= fJobBodies;
+		} else {
+			int changedOffset= fJobChangedBody.getOffset();
+			int changedEnd= changedOffset + fJobChangedBody.getLength();
+			List<Position> bodies= new ArrayList<>(fBodies.size() + fJobBodies.size());
+			for (int i= 0, n= fBodies.size(); i < n; i++) {
+				Position body= fBodies.get(i);
+				int offset= body.getOffset();
+				int end= offset + body.getLength();
+				if (end <= changedOffset) {
+					bodies.add(body);
+				} else if (offset < changedOffset) {
+					// encloses the revisited body
+					bodies.add(new Position(offset, body.getLength() + fJobDelta));
+				} else if (end <= changedEnd) {
+					// the revisited body and the bodies within are replaced by the revisited ones
+					if (offset == changedOffset) {
+						bodies.add(new Position(changedOffset, fJobChangedBody.getLength() + fJobDelta));
+						bodies.addAll(fJobBodies);
+					}
+				} else {
+					bodies.add(new Position(offset + fJobDelta, body.getLength()));
+				}
+			}
+			fBodies= bodies;
+		}
+		fASTLength= ast.getLength();
+	}
+
+	/**
+	 * Prints the time the reconcile and each enabled semantic highlighting took.
+	 *
+	 * @param time the time of the reconcile in milliseconds
+	 * @since 3.16.100
+	 */
+	private void printTimes(long time) {
+		System.err.println("Semantic Highlighting (" + (fJobChangedBody != null ? "incremental" : "full") + "):\t" + time); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
+			if (fJobHighlightings[i].isEnabled())
+				System.err.println("\t" + fJobSemanticHighlightings[i].getPreferenceKey() + ":\t" + fJobTimes[i] / 1000000); //$NON-NLS-1$ //$NON-NLS-2$
+		}
 	}
 
 	/**
@@ -342,6 +700,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	private void startReconcilingPositions() {
 		fJobPresenter.addAllPositions(fRemovedPositions);
 		fNOfRemovedPositions= fRemovedPositions.size();
+		fOldPositions= fRemovedPositions.toArray(new Position[fNOfRemovedPositions]);
 	}
 
 	/**
@@ -350,9 +709,13 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @param subtrees the AST subtrees
 	 */
 	private void reconcilePositions(ASTNode[] subtrees) {
-		// FIXME: remove positions not covered by subtrees
-
-
+		if (fJobChangedBody != null) {
+			// keep the positions outside of the revisited body
+			ASTNode body= subtrees[0];
+			int bodyEnd= body.getStartPosition() + body.getLength();
+			fCollector.retainPositions(0, body.getStartPosition());
+			fCollector.retainPositions(bodyEnd, Integer.MAX_VALUE - bodyEnd);
+		}
 
 		for (int i= 0, n= subtrees.length; i < n; i++)
 			subtrees[i].accept(fCollector);
@@ -374,10 +737,21 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @param removedPositions the removed positions
 	 */
 	private void updatePresentation(TextPresentation textPresentation, List<Position> addedPositions, List<Position> removedPositions) {
-		Runnable runnable= fJobPresenter.createUpdateRunnable(textPresentation, addedPositions, removedPositions);
-		if (runnable == null)
+		final Runnable update= fJobPresenter.createUpdateRunnable(textPresentation, addedPositions, removedPositions);
+		if (update == null)
 			return;
 
+		final SemanticHighlightingPresenter presenter= fJobPresenter;
+		Runnable runnable= new Runnable() {
+			@Override
+			public void run() {
+				// the presenter drops the update if the document changed in the meantime
+				if (presenter.isCanceled())
+					fFullReconcileNeeded= true;
+				update.run();
+			}
+		};
+
 		JavaEditor editor= fEditor;
 		if (editor == null)
 			return;
@@ -404,6 +778,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		fRemovedPositions.clear();
 		fNOfRemovedPositions= 0;
 		fAddedPositions.clear();
+		fOldPositions= null;
 	}
 
 	/**
@@ -422,6 +797,12 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		fEditor= editor;
 		fSourceViewer= sourceViewer;
 
+		fChangeTracker= new DocumentChangeTracker();
+		fSourceViewer.addTextInputListener(fChangeTracker);
+		IDocument document= fSourceViewer.getDocument();
+		if (document != null)
+			document.addDocumentListener(fChangeTracker);
+
 		if (fEditor instanceof CompilationUnitEditor) {
 			((CompilationUnitEditor)fEditor).addReconcileListener(this);
 		} else if (fEditor == null) {
@@ -445,6 +826,14 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			fEditor= null;
 		}
 
+		if (fChangeTracker != null) {
+			fSourceViewer.removeTextInputListener(fChangeTracker);
+			IDocument document= fSourceViewer.getDocument();
+			if (document != null)
+				document.removeDocumentListener(fChangeTracker);
+			fChangeTracker= null;
+		}
+
 		fSourceViewer= null;
 		fSemanticHighlightings= null;
 		fHighlightings= null;
@@ -523,6 +912,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @since 3.2
 	 */
 	public void refresh() {
+		fFullReconcileNeeded= true;
 		scheduleJob();
 	}
 }
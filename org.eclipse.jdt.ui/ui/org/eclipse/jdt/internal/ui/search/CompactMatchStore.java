@@ -0,0 +1,372 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores search matches in columns of <code>int</code>s instead of as individual
+ * {@link JavaElementMatch} objects. Each match takes seven <code>int</code>s: the id of its
+ * element, offset, length, flags, stamp and the indexes of the previous and next match of the
+ * same element.
+ * <p>
+ * The slots of removed matches are reused by later matches. A match is therefore identified by
+ * its index together with its stamp, which is unique within the store, see
+ * {@link #isCurrent(int, int)}. The store is not thread safe, clients have to synchronize.
+ * </p>
+ */
+class CompactMatchStore {
+
+	private static final int ACCURACY_MASK= 0x3;
+	private static final int FLAG_READ_ACCESS= 1 << 2;
+	private static final int FLAG_WRITE_ACCESS= 1 << 3;
+	private static final int FLAG_JAVADOC= 1 << 4;
+	private static final int FLAG_SUPER_INVOCATION= 1 << 5;
+	private static final int FLAG_FILTERED= 1 << 6;
+	private static final int FLAG_REMOVED= 1 << 7;
+	private static final int MATCH_RULE_SHIFT= 8;
+
+	private static final int NONE= -1;
+	private static final int[] NO_INDEXES= new int[0];
+
+	private static final int INITIAL_MATCH_CAPACITY= 256;
+	private static final int INITIAL_ELEMENT_CAPACITY= 64;
+
+	private int[] fElementIds;
+	private int[] fOffsets;
+	private int[] fLengths;
+	private int[] fFlags;
+	private int[] fStamps;
+	private int[] fPrevious;
+	private int[] fNext;
+	private int fSize;
+	private int fFree;
+	private int fLastStamp;
+
+	private List<Object> fElements;
+	private Map<Object, Integer> fIds;
+	private int[] fFirst;
+	private int[] fLast;
+	private int[] fCounts;
+	private int[] fFilteredCounts;
+
+	private int fMatchCount;
+	private int fElementCount;
+
+	CompactMatchStore() {
+		clear();
+	}
+
+	static int encodeFlags(int matchRule, int accuracy, boolean isReadAccess, boolean isWriteAccess, boolean isJavadoc, boolean isSuperInvocation) {
+		int flags= (matchRule << MATCH_RULE_SHIFT) | (accuracy & ACCURACY_MASK);
+		if (isReadAccess)
+			flags|= FLAG_READ_ACCESS;
+		if (isWriteAccess)
+			flags|= FLAG_WRITE_ACCESS;
+		if (isJavadoc)
+			flags|= FLAG_JAVADOC;
+		if (isSuperInvocation)
+			flags|= FLAG_SUPER_INVOCATION;
+		return flags;
+	}
+
+	/**
+	 * Adds a match.
+	 *
+	 * @param element the element of the match
+	 * @param offset the offset of the match
+	 * @param length the length of the match
+	 * @param flags the flags created by {@link #encodeFlags(int, int, boolean, boolean, boolean, boolean)}
+	 * @return the index of the new match
+	 */
+	int add(Object element, int offset, int length, int flags) {
+		int elementId= getElementId(element);
+		int index;
+		if (fFree != NONE) {
+			index= fFree;
+			fFree= fNext[index];
+		} else {
+			if (fSize == fOffsets.length) {
+				int capacity= fSize * 2;
+				fElementIds= grow(fElementIds, capacity);
+				fOffsets= grow(fOffsets, capacity);
+				fLengths= grow(fLengths, capacity);
+				fFlags= grow(fFlags, capacity);
+				fStamps= grow(fStamps, capacity);
+				fPrevious= grow(fPrevious, capacity);
+				fNext= grow(fNext, capacity);
+			}
+			index= fSize++;
+		}
+		fElementIds[index]= elementId;
+		fOffsets[index]= offset;
+		fLengths[index]= length;
+		fFlags[index]= flags & ~(FLAG_FILTERED | FLAG_REMOVED);
+		fStamps[index]= ++fLastStamp;
+		fPrevious[index]= fLast[elementId];
+		fNext[index]= NONE;
+		if (fLast[elementId] == NONE) {
+			fFirst[elementId]= index;
+		} else {
+			fNext[fLast[elementId]]= index;
+		}
+		fLast[elementId]= index;
+		if (fCounts[elementId]++ == 0)
+			fElementCount++;
+		fMatchCount++;
+		return index;
+	}
+
+	private int getElementId(Object element) {
+		Integer id= fIds.get(element);
+		if (id != null)
+			return id.intValue();
+		int elementId= fElements.size();
+		fElements.add(element);
+		fIds.put(element, Integer.valueOf(elementId));
+		if (elementId == fFirst.length) {
+			int capacity= elementId * 2;
+			fFirst= grow(fFirst, capacity);
+			fLast= grow(fLast, capacity);
+			fCounts= grow(fCounts, capacity);
+			fFilteredCounts= grow(fFilteredCounts, capacity);
+		}
+		fFirst[elementId]= NONE;
+		fLast[elementId]= NONE;
+		fCounts[elementId]= 0;
+		fFilteredCounts[elementId]= 0;
+		return elementId;
+	}
+
+	private static int[] grow(int[] array, int capacity) {
+		int[] result= new int[capacity];
+		System.arraycopy(array, 0, result, 0, array.length);
+		return result;
+	}
+
+	/**
+	 * Removes a match. Its slot is reused by a later match.
+	 *
+	 * @param index the index of the match
+	 * @param stamp the stamp of the match
+	 * @return <code>true</code> if the match had not been removed before
+	 */
+	boolean remove(int index, int stamp) {
+		if (!isCurrent(index, stamp))
+			return false;
+		int elementId= fElementIds[index];
+		if ((fFlags[index] & FLAG_FILTERED) != 0)
+			fFilteredCounts[elementId]--;
+		fFlags[index]|= FLAG_REMOVED;
+		if (--fCounts[elementId] == 0)
+			fElementCount--;
+		fMatchCount--;
+
+		int previous= fPrevious[index];
+		int next= fNext[index];
+		if (previous == NONE) {
+			fFirst[elementId]= next;
+		} else {
+			fNext[previous]= next;
+		}
+		if (next == NONE) {
+			fLast[elementId]= previous;
+		} else {
+			fPrevious[next]= previous;
+		}
+		fNext[index]= fFree;
+		fFree= index;
+		return true;
+	}
+
+	/**
+	 * @param index the index of a match
+	 * @param stamp the stamp of the match
+	 * @return <code>true</code> if the match has neither been removed nor its slot been reused
+	 */
+	boolean isCurrent(int index, int stamp) {
+		return index < fSize && fStamps[index] == stamp && (fFlags[index] & FLAG_REMOVED) == 0;
+	}
+
+	/**
+	 * @param index the index of the match
+	 * @return the stamp of the match, which tells it apart from earlier and later matches at the
+	 *         same index
+	 */
+	int getStamp(int index) {
+		return fStamps[index];
+	}
+
+	/**
+	 * Removes all matches and releases the storage. Stamps are not reused.
+	 */
+	void clear() {
+		fElementIds= new int[INITIAL_MATCH_CAPACITY];
+		fOffsets= new int[INITIAL_MATCH_CAPACITY];
+		fLengths= new int[INITIAL_MATCH_CAPACITY];
+		fFlags= new int[INITIAL_MATCH_CAPACITY];
+		fStamps= new int[INITIAL_MATCH_CAPACITY];
+		fPrevious= new int[INITIAL_MATCH_CAPACITY];
+		fNext= new int[INITIAL_MATCH_CAPACITY];
+		fSize= 0;
+		fFree= NONE;
+
+		fElements= new ArrayList<>();
+		fIds= new HashMap<>();
+		fFirst= new int[INITIAL_ELEMENT_CAPACITY];
+		fLast= new int[INITIAL_ELEMENT_CAPACITY];
+		fCounts= new int[INITIAL_ELEMENT_CAPACITY];
+		fFilteredCounts= new int[INITIAL_ELEMENT_CAPACITY];
+
+		fMatchCount= 0;
+		fElementCount= 0;
+	}
+
+	int getMatchCount() {
+		return fMatchCount;
+	}
+
+	int getMatchCount(Object element) {
+		Integer id= fIds.get(element);
+		return id == null ? 0 : fCounts[id.intValue()];
+	}
+
+	/**
+	 * @param element the element
+	 * @return the number of matches of the element that are not filtered
+	 */
+	int getDisplayedMatchCount(Object element) {
+		Integer id= fIds.get(element);
+		return id == null ? 0 : fCounts[id.intValue()] - fFilteredCounts[id.intValue()];
+	}
+
+	/**
+	 * @return the elements that have matches
+	 */
+	Object[] getElements() {
+		Object[] elements= new Object[fElementCount];
+		int k= 0;
+		for (int i= 0; i < fElements.size(); i++) {
+			if (fCounts[i] > 0)
+				elements[k++]= fElements.get(i);
+		}
+		return elements;
+	}
+
+	/**
+	 * @param element the element
+	 * @return the indexes of the matches of the element, in the order they have been added
+	 */
+	int[] getMatchIndexes(Object element) {
+		Integer id= fIds.get(element);
+		if (id == null || fCounts[id.intValue()] == 0)
+			return NO_INDEXES;
+		int elementId= id.intValue();
+		int[] indexes= new int[fCounts[elementId]];
+		int k= 0;
+		for (int index= fFirst[elementId]; index != NONE; index= fNext[index]) {
+			indexes[k++]= index;
+		}
+		return indexes;
+	}
+
+	/**
+	 * @return the index of the first match of every element that has matches
+	 */
+	int[] getFirstMatchIndexes() {
+		int[] indexes= new int[fElementCount];
+		int k= 0;
+		for (int elementId= 0; elementId < fElements.size(); elementId++) {
+			if (fCounts[elementId] > 0)
+				indexes[k++]= fFirst[elementId];
+		}
+		return indexes;
+	}
+
+	boolean isRemoved(int index) {
+		return (fFlags[index] & FLAG_REMOVED) != 0;
+	}
+
+	Object getElement(int index) {
+		return fElements.get(fElementIds[index]);
+	}
+
+	int getOffset(int index) {
+		return fOffsets[index];
+	}
+
+	void setOffset(int index, int offset) {
+		fOffsets[index]= offset;
+	}
+
+	int getLength(int index) {
+		return fLengths[index];
+	}
+
+	void setLength(int index, int length) {
+		fLengths[index]= length;
+	}
+
+	int getAccuracy(int index) {
+		return fFlags[index] & ACCURACY_MASK;
+	}
+
+	int getMatchRule(int index) {
+		return fFlags[index] >>> MATCH_RULE_SHIFT;
+	}
+
+	boolean isReadAccess(int index) {
+		return (fFlags[index] & FLAG_READ_ACCESS) != 0;
+	}
+
+	boolean isWriteAccess(int index) {
+		return (fFlags[index] & FLAG_WRITE_ACCESS) != 0;
+	}
+
+	boolean isJavadoc(int index) {
+		return (fFlags[index] & FLAG_JAVADOC) != 0;
+	}
+
+	boolean isSuperInvocation(int index) {
+		return (fFlags[index] & FLAG_SUPER_INVOCATION) != 0;
+	}
+
+	/**
+	 * @param index the index of the match
+	 * @return the flags of the match as passed to {@link #add(Object, int, int, int)}. Matches of
+	 *         the same element with the same flags differ only in offset and length.
+	 */
+	int getFlags(int index) {
+		return fFlags[index] & ~(FLAG_FILTERED | FLAG_REMOVED);
+	}
+
+	boolean isFiltered(int index) {
+		return (fFlags[index] & FLAG_FILTERED) != 0;
+	}
+
+	void setFiltered(int index, boolean filtered) {
+		if (filtered == isFiltered(index) || isRemoved(index))
+			return;
+		if (filtered) {
+			fFlags[index]|= FLAG_FILTERED;
+			fFilteredCounts[fElementIds[index]]++;
+		} else {
+			fFlags[index]&= ~FLAG_FILTERED;
+			fFilteredCounts[fElementIds[index]]--;
+		}
+	}
+}
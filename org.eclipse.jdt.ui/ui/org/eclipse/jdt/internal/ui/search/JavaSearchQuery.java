@@ -14,12 +14,25 @@
 package org.eclipse.jdt.internal.ui.search;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.PerformanceStats;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
@@ -60,9 +73,32 @@ public class JavaSearchQuery implements ISearchQuery {
 
 	private static final String PERF_SEARCH_PARTICIPANT= "org.eclipse.jdt.ui/perf/search/participants"; //$NON-NLS-1$
 
+	/**
+	 * Time in milliseconds after which a participant's progress monitor is canceled.
+	 */
+	static final long PARTICIPANT_TIMEOUT= 30000;
+
+	/**
+	 * Time in milliseconds that a participant has to return after its progress monitor has been
+	 * canceled. Afterwards the search does no longer wait for it and ignores its matches.
+	 */
+	static final long PARTICIPANT_CANCEL_BUDGET= 2000;
+
+	private static final int MAX_PARTICIPANT_THREADS= 4;
+
+	/**
+	 * Interval in milliseconds in which the search checks for cancellation and timeouts while it
+	 * waits for participants.
+	 */
+	private static final long CANCEL_CHECK_INTERVAL= 50;
+
 	private ISearchResult fResult;
 	private final List<QuerySpecification> fPatternDataList;
 
+	private long fParticipantTimeout= PARTICIPANT_TIMEOUT;
+	private long fParticipantCancelBudget= PARTICIPANT_CANCEL_BUDGET;
+	private volatile Map<String, Long> fParticipantTimes= Collections.emptyMap();
+
 	public JavaSearchQuery(QuerySpecification data) {
 		if (data == null) {
 			throw new IllegalArgumentException("data must not be null"); //$NON-NLS-1$
@@ -81,8 +117,12 @@ public class JavaSearchQuery implements ISearchQuery {
 	private static class SearchRequestor implements ISearchRequestor {
 		private IQueryParticipant fParticipant;
 		private JavaSearchResult fSearchResult;
+		private volatile boolean fClosed;
+		private volatile long fDeadline= Long.MAX_VALUE;
 		@Override
 		public void reportMatch(Match match) {
+			if (fClosed || System.currentTimeMillis() > fDeadline)
+				return; // the search does no longer wait for the participant
 			IMatchPresentation participant= fParticipant.getUIParticipant();
 			if (participant == null || match.getElement() instanceof IJavaElement || match.getElement() instanceof IResource) {
 				fSearchResult.addMatch(match);
@@ -96,6 +136,133 @@ public class JavaSearchQuery implements ISearchQuery {
 			fParticipant= participant;
 			fSearchResult= result;
 		}
+
+		void close() {
+			fClosed= true;
+		}
+
+		void setDeadline(long deadline) {
+			fDeadline= deadline;
+		}
+	}
+
+	/**
+	 * Runs a search participant in a worker thread. Its progress monitor is canceled when the
+	 * search is canceled or when the participant times out, also while the search engine is still
+	 * running. Matches reported after the cancel budget or after the search has ended are ignored.
+	 */
+	private class ParticipantSearch implements Runnable {
+		private final SearchParticipantRecord fRecord;
+		private final SearchRequestor fRequestor;
+		private final IProgressMonitor fProgressMonitor;
+		private volatile boolean fCanceled;
+		private volatile long fStartTime;
+		private volatile long fEndTime;
+
+		ParticipantSearch(SearchParticipantRecord record, JavaSearchResult result, final IProgressMonitor monitor) {
+			fRecord= record;
+			fRequestor= new SearchRequestor(record.getParticipant(), result);
+			fProgressMonitor= new NullProgressMonitor() {
+				@Override
+				public boolean isCanceled() {
+					return fCanceled || monitor.isCanceled() || getElapsedTime() > fParticipantTimeout;
+				}
+			};
+		}
+
+		@Override
+		public void run() {
+			long startTime= System.currentTimeMillis();
+			fRequestor.setDeadline(startTime + fParticipantTimeout + fParticipantCancelBudget);
+			fStartTime= startTime;
+			ISafeRunnable runnable= new ISafeRunnable() {
+				@Override
+				public void handleException(Throwable exception) {
+					// the participant may fail while it stops because the search canceled or abandoned it
+					if (exception instanceof OperationCanceledException || fProgressMonitor.isCanceled())
+						return;
+					fRecord.getDescriptor().disable();
+					String message= SearchMessages.JavaSearchQuery_error_participant_search;
+					JavaPlugin.log(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), 0, message, exception));
+				}
+
+				@Override
+				public void run() throws Exception {
+
+					final IQueryParticipant participant= fRecord.getParticipant();
+
+					final PerformanceStats stats= PerformanceStats.getStats(PERF_SEARCH_PARTICIPANT, participant);
+					stats.startRun();
+
+					for (QuerySpecification querySpecification : fPatternDataList) {
+						if (fProgressMonitor.isCanceled())
+							break;
+						participant.search(fRequestor, querySpecification, fProgressMonitor);
+					}
+
+					stats.endRun();
+				}
+			};
+			try {
+				SafeRunner.run(runnable);
+			} finally {
+				fEndTime= System.currentTimeMillis();
+			}
+		}
+
+		/**
+		 * @return the time the participant has been running in milliseconds, or 0 if it has not
+		 *         started yet
+		 */
+		long getElapsedTime() {
+			long startTime= fStartTime;
+			if (startTime == 0)
+				return 0;
+			long endTime= fEndTime;
+			return (endTime != 0 ? endTime : System.currentTimeMillis()) - startTime;
+		}
+
+		/**
+		 * Cancels the participant and ignores its further matches.
+		 */
+		void cancel() {
+			fCanceled= true;
+			fRequestor.close();
+		}
+
+		/**
+		 * Waits until the participant is done, and abandons it when it does not return within the
+		 * cancel budget after it has timed out.
+		 *
+		 * @param future the future of this participant search
+		 * @param monitor the monitor of the query, checked for cancellation
+		 */
+		void join(Future<?> future, IProgressMonitor monitor) {
+			while (true) {
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				try {
+					future.get(CANCEL_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+					return;
+				} catch (TimeoutException e) {
+					long elapsed= getElapsedTime();
+					if (elapsed > fParticipantTimeout + fParticipantCancelBudget) {
+						cancel();
+						// do not interrupt, the Java model does not cope well with interrupted threads
+						future.cancel(false);
+						String message= Messages.format(SearchMessages.JavaSearchQuery_error_participant_timeout, new Object[] { fRecord.getDescriptor().getID(), Long.valueOf(elapsed) });
+						JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), 0, message, null));
+						return;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new OperationCanceledException();
+				} catch (ExecutionException e) {
+					JavaPlugin.log(e.getCause());
+					return;
+				}
+			}
+		}
 	}
 
 	@Override
@@ -174,38 +341,34 @@ public class JavaSearchQuery implements ISearchQuery {
 			boolean ignorePotentials= NewSearchUI.arePotentialMatchesIgnored();
 			NewSearchResultCollector collector= new NewSearchResultCollector(textResult, ignorePotentials);
 
-
-			engine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, getFirstSpecification().getScope(), collector, subMonitor.split(1000));
-			for (int i= 0; i < participantDescriptors.length; i++) {
-				final ISearchRequestor requestor= new SearchRequestor(participantDescriptors[i].getParticipant(), textResult);
-				final IProgressMonitor participantPM= subMonitor.split(ticks[i]);
-
-				final int iPrime= i;
-				ISafeRunnable runnable= new ISafeRunnable() {
-					@Override
-					public void handleException(Throwable exception) {
-						participantDescriptors[iPrime].getDescriptor().disable();
-						String message= SearchMessages.JavaSearchQuery_error_participant_search;
-						JavaPlugin.log(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), 0, message, exception));
-					}
-
-					@Override
-					public void run() throws Exception {
-
-						final IQueryParticipant participant= participantDescriptors[iPrime].getParticipant();
-
-						final PerformanceStats stats= PerformanceStats.getStats(PERF_SEARCH_PARTICIPANT, participant);
-						stats.startRun();
-
-						for (QuerySpecification querySpecification : fPatternDataList) {
-							participant.search(requestor, querySpecification, participantPM);
-						}
-
-						stats.endRun();
-					}
-				};
-
-				SafeRunner.run(runnable);
+			// participants run concurrently with the search engine and report their matches as they find them
+			ParticipantSearch[] participantSearches= new ParticipantSearch[participantDescriptors.length];
+			List<Future<?>> futures= new ArrayList<>(participantDescriptors.length);
+			ExecutorService executor= null;
+			if (participantDescriptors.length > 0) {
+				executor= createParticipantExecutor(participantDescriptors.length);
+				for (int i= 0; i < participantDescriptors.length; i++) {
+					participantSearches[i]= new ParticipantSearch(participantDescriptors[i], textResult, subMonitor);
+					futures.add(executor.submit(participantSearches[i]));
+				}
+			}
+			try {
+				engine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, getFirstSpecification().getScope(), collector, subMonitor.split(1000));
+				Map<String, Long> participantTimes= new HashMap<>();
+				for (int i= 0; i < participantSearches.length; i++) {
+					participantSearches[i].join(futures.get(i), subMonitor);
+					participantTimes.put(participantDescriptors[i].getDescriptor().getID(), Long.valueOf(participantSearches[i].getElapsedTime()));
+					subMonitor.worked(ticks[i]);
+				}
+				fParticipantTimes= participantTimes;
+			} finally {
+				// also if the search has been canceled or has failed, participants must not add matches afterwards
+				for (int i= 0; i < participantSearches.length; i++) {
+					if (participantSearches[i] != null)
+						participantSearches[i].cancel();
+				}
+				if (executor != null)
+					executor.shutdown();
 			}
 
 		} catch (CoreException e) {
@@ -215,6 +378,40 @@ public class JavaSearchQuery implements ISearchQuery {
 		return new Status(IStatus.OK, JavaPlugin.getPluginId(), 0, message, null);
 	}
 
+	private static ExecutorService createParticipantExecutor(int participantCount) {
+		return Executors.newFixedThreadPool(Math.min(participantCount, MAX_PARTICIPANT_THREADS), new ThreadFactory() {
+			private final AtomicInteger fThreadCount= new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread= new Thread(runnable, "Java Search Participant-" + fThreadCount.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Sets the time after which search participants are canceled, and the time they have to
+	 * return after they have been canceled.
+	 *
+	 * @param timeout the timeout in milliseconds
+	 * @param cancelBudget the cancel budget in milliseconds
+	 */
+	public void setParticipantTimeout(long timeout, long cancelBudget) {
+		fParticipantTimeout= timeout;
+		fParticipantCancelBudget= cancelBudget;
+	}
+
+	/**
+	 * Returns the time each search participant took in the last run of this query.
+	 *
+	 * @return a map from participant id to elapsed time in milliseconds
+	 */
+	public Map<String, Long> getParticipantTimes() {
+		return fParticipantTimes;
+	}
+
 	private int getMatchMode(String pattern) {
 		if (pattern.indexOf('*') != -1 || pattern.indexOf('?') != -1) {
 			return SearchPattern.R_PATTERN_MATCH;
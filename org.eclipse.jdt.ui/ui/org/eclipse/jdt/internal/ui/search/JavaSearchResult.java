@@ -13,8 +13,15 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.search;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -22,7 +29,10 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.resource.ImageDescriptor;
 
 import org.eclipse.search.ui.ISearchQuery;
+import org.eclipse.search.ui.ISearchResult;
+import org.eclipse.search.ui.text.FilterUpdateEvent;
 import org.eclipse.search.ui.text.Match;
+import org.eclipse.search.ui.text.MatchEvent;
 import org.eclipse.search.ui.text.MatchFilter;
 
 import org.eclipse.jdt.internal.corext.util.Messages;
@@ -31,11 +41,134 @@ import org.eclipse.jdt.ui.search.IMatchPresentation;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 
+/**
+ * The result of a {@link JavaSearchQuery}.
+ * <p>
+ * The first {@value #COMPACT_STORE_THRESHOLD} matches reported by the {@link NewSearchResultCollector}
+ * are added as {@link JavaElementMatch} objects. Further matches are kept in a
+ * {@link CompactMatchStore} and {@link Match} objects for them are only created when the matches
+ * of an element are requested, e.g. when the element is shown in the viewer. Matches of search
+ * participants are always added as objects.
+ * </p>
+ */
 public class JavaSearchResult extends AbstractJavaSearchResult {
 
+	/**
+	 * Number of matches after which matches are added to the compact match store.
+	 */
+	static final int COMPACT_STORE_THRESHOLD= 10000;
+
+	/**
+	 * Maximum number of elements for which the {@link Match} objects created from the compact match
+	 * store are kept, so that the same objects are returned while an element is being worked with.
+	 */
+	private static final int MATERIALIZED_ELEMENTS= 256;
+
+	private static final Comparator<Match> OFFSET_COMPARATOR= new Comparator<Match>() {
+		@Override
+		public int compare(Match m1, Match m2) {
+			if (m1.getOffset() != m2.getOffset())
+				return m1.getOffset() - m2.getOffset();
+			return m1.getLength() - m2.getLength();
+		}
+	};
+
+	/**
+	 * A match in the compact match store. Equal to all other objects for the same match. Offset
+	 * and length are read from and written to the store while the match has not been removed.
+	 */
+	private class CompactMatch extends JavaElementMatch {
+
+		private final int fIndex;
+		private final int fStamp;
+
+		CompactMatch(int index) {
+			super(fCompactMatches.getElement(index), fCompactMatches.getMatchRule(index), fCompactMatches.getOffset(index), fCompactMatches.getLength(index),
+					fCompactMatches.getAccuracy(index), fCompactMatches.isReadAccess(index), fCompactMatches.isWriteAccess(index),
+					fCompactMatches.isJavadoc(index), fCompactMatches.isSuperInvocation(index));
+			fIndex= index;
+			fStamp= fCompactMatches.getStamp(index);
+			setFiltered(fCompactMatches.isFiltered(index));
+		}
+
+		JavaSearchResult getResult() {
+			return JavaSearchResult.this;
+		}
+
+		@Override
+		public int getOffset() {
+			synchronized (JavaSearchResult.this) {
+				if (fCompactMatches.isCurrent(fIndex, fStamp))
+					return fCompactMatches.getOffset(fIndex);
+			}
+			return super.getOffset();
+		}
+
+		@Override
+		public void setOffset(int offset) {
+			super.setOffset(offset);
+			synchronized (JavaSearchResult.this) {
+				if (fCompactMatches.isCurrent(fIndex, fStamp))
+					fCompactMatches.setOffset(fIndex, offset);
+			}
+		}
+
+		@Override
+		public int getLength() {
+			synchronized (JavaSearchResult.this) {
+				if (fCompactMatches.isCurrent(fIndex, fStamp))
+					return fCompactMatches.getLength(fIndex);
+			}
+			return super.getLength();
+		}
+
+		@Override
+		public void setLength(int length) {
+			super.setLength(length);
+			synchronized (JavaSearchResult.this) {
+				if (fCompactMatches.isCurrent(fIndex, fStamp))
+					fCompactMatches.setLength(fIndex, length);
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CompactMatch))
+				return false;
+			CompactMatch other= (CompactMatch) obj;
+			return other.fIndex == fIndex && other.fStamp == fStamp && other.getResult() == getResult();
+		}
+
+		@Override
+		public int hashCode() {
+			return fIndex;
+		}
+	}
+
+	private static class CompactMatchEvent extends MatchEvent {
+		private static final long serialVersionUID= 1L;
+
+		CompactMatchEvent(ISearchResult searchResult, int kind, Match[] matches) {
+			super(searchResult);
+			setKind(kind);
+			setMatches(matches);
+		}
+	}
+
 	private final JavaSearchQuery fQuery;
 	private final Map<Object, IMatchPresentation> fElementsToParticipants;
 
+	private final CompactMatchStore fCompactMatches= new CompactMatchStore();
+
+	private final Map<Object, Match[]> fMaterializedMatches= new LinkedHashMap<Object, Match[]>(16, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Match[]> eldest) {
+			return size() > MATERIALIZED_ELEMENTS;
+		}
+	};
+
 	public JavaSearchResult(JavaSearchQuery query) {
 		fQuery= query;
 		fElementsToParticipants= new HashMap<>();
@@ -63,6 +196,59 @@ public class JavaSearchResult extends AbstractJavaSearchResult {
 	public void setActiveMatchFilters(MatchFilter[] filters) {
 		super.setActiveMatchFilters(filters);
 		JavaMatchFilter.setLastUsedFilters(filters);
+
+		Match[] updated;
+		synchronized (this) {
+			if (fCompactMatches.getMatchCount() == 0)
+				return;
+			fMaterializedMatches.clear();
+			for (Object element : fCompactMatches.getElements()) {
+				updateFiltered(fCompactMatches.getMatchIndexes(element), filters);
+			}
+			updated= createCompactMatches(fCompactMatches.getFirstMatchIndexes());
+		}
+		fireChange(new FilterUpdateEvent(this, updated, filters));
+	}
+
+	/**
+	 * Updates the filtered state of the given matches of an element. The Java match filters do not
+	 * look at offset and length, so the filters are only evaluated once per distinct flags instead
+	 * of creating a {@link Match} object for every match.
+	 *
+	 * @param indexes the indexes of the matches of one element in the compact match store
+	 * @param filters the filters
+	 */
+	private void updateFiltered(int[] indexes, MatchFilter[] filters) {
+		int[] flags= new int[4];
+		boolean[] filtered= new boolean[4];
+		int count= 0;
+		for (int i= 0; i < indexes.length; i++) {
+			int index= indexes[i];
+			int matchFlags= fCompactMatches.getFlags(index);
+			int k= 0;
+			while (k < count && flags[k] != matchFlags)
+				k++;
+			if (k == count) {
+				if (count == flags.length) {
+					flags= Arrays.copyOf(flags, count * 2);
+					filtered= Arrays.copyOf(filtered, count * 2);
+				}
+				flags[k]= matchFlags;
+				filtered[k]= isFiltered(new CompactMatch(index), filters);
+				count++;
+			}
+			fCompactMatches.setFiltered(index, filtered[k]);
+		}
+	}
+
+	private static boolean isFiltered(Match match, MatchFilter[] filters) {
+		if (filters != null) {
+			for (int i= 0; i < filters.length; i++) {
+				if (filters[i].filters(match))
+					return true;
+			}
+		}
+		return false;
 	}
 
 	@Override
@@ -79,14 +265,140 @@ public class JavaSearchResult extends AbstractJavaSearchResult {
 		return fElementsToParticipants.get(element);
 	}
 
+	/**
+	 * Adds a match reported by the search engine. Once the result has
+	 * {@value #COMPACT_STORE_THRESHOLD} matches, the match is added to the compact match store.
+	 *
+	 * @param element the element of the match
+	 * @param matchRule the match rule
+	 * @param offset the offset of the match
+	 * @param length the length of the match
+	 * @param accuracy the accuracy of the match
+	 * @param isReadAccess whether the match is a read access
+	 * @param isWriteAccess whether the match is a write access
+	 * @param isJavadoc whether the match is in a Javadoc comment
+	 * @param isSuperInvocation whether the match is a super invocation
+	 */
+	void addJavaElementMatch(Object element, int matchRule, int offset, int length, int accuracy, boolean isReadAccess, boolean isWriteAccess, boolean isJavadoc, boolean isSuperInvocation) {
+		if (getMatchCount() < COMPACT_STORE_THRESHOLD) {
+			addMatch(new JavaElementMatch(element, matchRule, offset, length, accuracy, isReadAccess, isWriteAccess, isJavadoc, isSuperInvocation));
+			return;
+		}
+		Match match;
+		synchronized (this) {
+			int flags= CompactMatchStore.encodeFlags(matchRule, accuracy, isReadAccess, isWriteAccess, isJavadoc, isSuperInvocation);
+			int index= fCompactMatches.add(element, offset, length, flags);
+			match= new CompactMatch(index);
+			if (isFiltered(match, getActiveMatchFilters())) {
+				fCompactMatches.setFiltered(index, true);
+				match.setFiltered(true);
+			}
+			fMaterializedMatches.remove(element);
+		}
+		fireChange(new CompactMatchEvent(this, MatchEvent.ADDED, new Match[] { match }));
+	}
+
+	/**
+	 * Returns whether the result keeps matches in the compact match store.
+	 *
+	 * @return <code>true</code> if there are matches in the compact match store
+	 */
+	public synchronized boolean hasCompactMatches() {
+		return fCompactMatches.getMatchCount() > 0;
+	}
+
+	/**
+	 * Returns the number of matches of the given element that are not filtered, without creating
+	 * {@link Match} objects for the matches in the compact match store.
+	 *
+	 * @param element the element
+	 * @return the number of matches that are not filtered
+	 */
+	public int getDisplayedMatchCount(Object element) {
+		int count= 0;
+		Match[] matches= super.getMatches(element);
+		for (int i= 0; i < matches.length; i++) {
+			if (!matches[i].isFiltered())
+				count++;
+		}
+		synchronized (this) {
+			return count + fCompactMatches.getDisplayedMatchCount(element);
+		}
+	}
+
+	@Override
+	public Match[] getMatches(Object element) {
+		Match[] matches= super.getMatches(element);
+		Match[] compactMatches;
+		synchronized (this) {
+			if (fCompactMatches.getMatchCount(element) == 0)
+				return matches;
+			compactMatches= fMaterializedMatches.get(element);
+			if (compactMatches == null) {
+				compactMatches= createCompactMatches(fCompactMatches.getMatchIndexes(element));
+				Arrays.sort(compactMatches, OFFSET_COMPARATOR);
+				fMaterializedMatches.put(element, compactMatches);
+			}
+		}
+		if (matches.length == 0)
+			return compactMatches.clone();
+		Match[] result= new Match[matches.length + compactMatches.length];
+		System.arraycopy(matches, 0, result, 0, matches.length);
+		System.arraycopy(compactMatches, 0, result, matches.length, compactMatches.length);
+		Arrays.sort(result, OFFSET_COMPARATOR);
+		return result;
+	}
+
+	private Match[] createCompactMatches(int[] indexes) {
+		Match[] matches= new Match[indexes.length];
+		for (int i= 0; i < indexes.length; i++) {
+			matches[i]= new CompactMatch(indexes[i]);
+		}
+		return matches;
+	}
+
+	@Override
+	public int getMatchCount() {
+		int count= super.getMatchCount();
+		synchronized (this) {
+			return count + fCompactMatches.getMatchCount();
+		}
+	}
+
+	@Override
+	public int getMatchCount(Object element) {
+		int count= super.getMatchCount(element);
+		synchronized (this) {
+			return count + fCompactMatches.getMatchCount(element);
+		}
+	}
+
+	@Override
+	public Object[] getElements() {
+		Object[] elements= super.getElements();
+		Object[] compactElements;
+		synchronized (this) {
+			if (fCompactMatches.getMatchCount() == 0)
+				return elements;
+			compactElements= fCompactMatches.getElements();
+		}
+		if (elements.length == 0)
+			return compactElements;
+		Set<Object> union= new LinkedHashSet<>(Arrays.asList(elements));
+		union.addAll(Arrays.asList(compactElements));
+		return union.toArray();
+	}
+
 	boolean addMatch(Match match, IMatchPresentation participant) {
 		Object element= match.getElement();
-		if (fElementsToParticipants.get(element) != null) {
-			// TODO must access the participant id / label to properly report the error.
-			JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), 0, "A second search participant was found for an element", null)); //$NON-NLS-1$
-			return false;
+		synchronized (this) { // participants report matches concurrently
+			if (fElementsToParticipants.get(element) != null) {
+				// TODO must access the participant id / label to properly report the error.
+				JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), 0, "A second search participant was found for an element", null)); //$NON-NLS-1$
+				return false;
+			}
+			fElementsToParticipants.put(element, participant);
 		}
-		fElementsToParticipants.put(element, participant);
 		addMatch(match);
 		return true;
 	}
@@ -95,12 +407,42 @@ public class JavaSearchResult extends AbstractJavaSearchResult {
 	public void removeAll() {
 		synchronized(this) {
 			fElementsToParticipants.clear();
+			fCompactMatches.clear();
+			fMaterializedMatches.clear();
 		}
 		super.removeAll();
 	}
 
+	@Override
+	public void removeMatches(Match[] matches) {
+		List<Match> others= new ArrayList<>(matches.length);
+		List<Match> removed= new ArrayList<>();
+		synchronized (this) {
+			for (int i= 0; i < matches.length; i++) {
+				Match match= matches[i];
+				if (match instanceof CompactMatch && ((CompactMatch) match).getResult() == this) {
+					CompactMatch compactMatch= (CompactMatch) match;
+					if (fCompactMatches.remove(compactMatch.fIndex, compactMatch.fStamp)) {
+						fMaterializedMatches.remove(match.getElement());
+						removed.add(match);
+					}
+				} else {
+					others.add(match);
+				}
+			}
+		}
+		if (!others.isEmpty())
+			super.removeMatches(others.toArray(new Match[others.size()]));
+		if (!removed.isEmpty())
+			fireChange(new CompactMatchEvent(this, MatchEvent.REMOVED, removed.toArray(new Match[removed.size()])));
+	}
+
 	@Override
 	public void removeMatch(Match match) {
+		if (match instanceof CompactMatch) {
+			removeMatches(new Match[] { match });
+			return;
+		}
 		synchronized(this) {
 			if (getMatchCount(match.getElement()) == 1)
 				fElementsToParticipants.remove(match.getElement());
@@ -19,9 +19,6 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.DND;
 import org.eclipse.swt.dnd.Transfer;
 import org.eclipse.swt.widgets.Composite;
-import org.eclipse.swt.widgets.Item;
-import org.eclipse.swt.widgets.Table;
-import org.eclipse.swt.widgets.Tree;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IAdaptable;
@@ -37,7 +34,6 @@ import org.eclipse.jface.action.MenuManager;
 import org.eclipse.jface.action.Separator;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.IStructuredSelection;
-import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.OpenEvent;
 import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.TableViewer;
@@ -359,7 +355,8 @@ public class JavaSearchResultPage extends AbstractTextSearchViewPage implements
 
 	@Override
 	protected TableViewer createTableViewer(Composite parent) {
-		return new ProblemTableViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+		// virtual, so that labels are only computed for visible rows of large results
+		return new ProblemTableViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL | SWT.VIRTUAL);
 	}
 
 	void setSortOrder(int order) {
@@ -497,53 +494,28 @@ public class JavaSearchResultPage extends AbstractTextSearchViewPage implements
 	}
 
 	private int getFilteredMatchCount() {
-		StructuredViewer viewer= getViewer();
-		if (viewer instanceof TreeViewer) {
-			ITreeContentProvider tp= (ITreeContentProvider) viewer.getContentProvider();
-			return getMatchCount(tp, getRootElements((TreeViewer) getViewer()));
-		} else {
-			return getMatchCount((TableViewer) viewer);
-		}
-	}
-
-	private Object[] getRootElements(TreeViewer viewer) {
-		Tree t= viewer.getTree();
-		Item[] roots= t.getItems();
-		Object[] elements= new Object[roots.length];
-		for (int i = 0; i < elements.length; i++) {
-			elements[i]= roots[i].getData();
-		}
-		return elements;
-	}
-
-	private Object[] getRootElements(TableViewer viewer) {
-		Table t= viewer.getTable();
-		Item[] roots= t.getItems();
-		Object[] elements= new Object[roots.length];
-		for (int i = 0; i < elements.length; i++) {
-			elements[i]= roots[i].getData();
-		}
-		return elements;
-	}
-
-
-	private int getMatchCount(ITreeContentProvider cp, Object[] elements) {
+		// count per element, the viewers may not have created items or groups for all elements
+		Object[] elements= getInput().getElements();
 		int count= 0;
-		for (int j = 0; j < elements.length; j++) {
-			count+= getDisplayedMatchCount(elements[j]);
-			Object[] children = cp.getChildren(elements[j]);
-			count+= getMatchCount(cp, children);
+		for (int i= 0; i < elements.length; i++) {
+			count+= getDisplayedMatchCount(elements[i]);
 		}
 		return count;
 	}
 
-	private int getMatchCount(TableViewer viewer) {
-		Object[] elements= getRootElements(viewer);
-		int count= 0;
-		for (int i = 0; i < elements.length; i++) {
-			count+= getDisplayedMatchCount(elements[i]);
-		}
-		return count;
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Counts the matches of a {@link JavaSearchResult} without creating match objects for matches
+	 * in its compact match store.
+	 * </p>
+	 */
+	@Override
+	public int getDisplayedMatchCount(Object element) {
+		AbstractTextSearchResult input= getInput();
+		if (input instanceof JavaSearchResult)
+			return ((JavaSearchResult) input).getDisplayedMatchCount(element);
+		return super.getDisplayedMatchCount(element);
 	}
 
 	@Override
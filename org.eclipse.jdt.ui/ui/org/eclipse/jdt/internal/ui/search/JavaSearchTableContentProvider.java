@@ -16,18 +16,23 @@ package org.eclipse.jdt.internal.ui.search;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.eclipse.swt.widgets.Table;
-
 import org.eclipse.jface.viewers.TableViewer;
 
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
 
 public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
+	/**
+	 * The elements shown in the table. The table is virtual, so items can not be used to find the
+	 * shown elements.
+	 */
+	private final Set<Object> fShownElements= new HashSet<>();
+
 	public JavaSearchTableContentProvider(JavaSearchResultPage page) {
 		super(page);
 	}
 	@Override
 	public Object[] getElements(Object inputElement) {
+		fShownElements.clear();
 		if (inputElement instanceof AbstractTextSearchResult) {
 			Set<Object> filteredElements= new HashSet<>();
 			Object[] rawElements= ((AbstractTextSearchResult)inputElement).getElements();
@@ -40,6 +45,7 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 					}
 				}
 			}
+			fShownElements.addAll(filteredElements);
 			return filteredElements.toArray();
 		}
 		return EMPTY_ARR;
@@ -58,7 +64,7 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 		Set<Object> removed= new HashSet<>();
 		for (int i= 0; i < updatedElements.length; i++) {
 			if (getPage().getDisplayedMatchCount(updatedElements[i]) > 0) {
-				if (viewer.testFindItem(updatedElements[i]) != null)
+				if (fShownElements.contains(updatedElements[i]))
 					updated.add(updatedElements[i]);
 				else {
 					if (addLimit > 0) {
@@ -66,10 +72,12 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 						addLimit--;
 					}
 				}
-			} else {
+			} else if (fShownElements.contains(updatedElements[i])) {
 				removed.add(updatedElements[i]);
 			}
 		}
+		fShownElements.addAll(added);
+		fShownElements.removeAll(removed);
 
 		viewer.add(added.toArray());
 		viewer.update(updated.toArray(), new String[] { SearchLabelProvider.PROPERTY_MATCH_COUNT });
@@ -79,8 +87,7 @@ public class JavaSearchTableContentProvider extends JavaSearchContentProvider {
 	private int getAddLimit() {
 		int limit= getPage().getElementLimit().intValue();
 		if (limit != -1) {
-			Table table= (Table) getPage().getViewer().getControl();
-			int itemCount= table.getItemCount();
+			int itemCount= fShownElements.size();
 			if (itemCount >= limit) {
 				return 0;
 			}
@@ -15,9 +15,12 @@
 
 package org.eclipse.jdt.internal.ui.search;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,8 +40,22 @@ import org.eclipse.jdt.core.IType;
 
 import org.eclipse.jdt.ui.StandardJavaElementContentProvider;
 
+/**
+ * Groups the elements of a search result by their parents up to a level.
+ * <p>
+ * Groups are computed lazily: the children of a node are only computed when they are requested.
+ * Until then, the elements with matches below the node are kept as pending elements of the node.
+ * </p>
+ */
 public class LevelTreeContentProvider extends JavaSearchContentProvider implements ITreeContentProvider {
+	/**
+	 * The children of the nodes that have been expanded.
+	 */
 	private Map<Object, Set<Object>> fChildrenMap;
+	/**
+	 * The elements with matches below the nodes that have not been expanded yet.
+	 */
+	private Map<Object, Set<Object>> fPendingMap;
 	private StandardJavaElementContentProvider fContentProvider;
 
 	public static final int LEVEL_TYPE= 1;
@@ -130,6 +147,7 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 	protected synchronized void initialize(AbstractTextSearchResult result) {
 		super.initialize(result);
 		fChildrenMap= new HashMap<>();
+		fPendingMap= new HashMap<>();
 		if (result != null) {
 			Object[] elements= result.getElements();
 			for (int i= 0; i < elements.length; i++) {
@@ -141,23 +159,102 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 	}
 
 	protected void insert(Map<Object, Set<Object>> toAdd, Set<Object> toUpdate, Object child) {
-		Object parent= getParent(child);
-		while (parent != null) {
-			if (insertChild(parent, child)) {
+		List<Object> path= new ArrayList<>();
+		for (Object node= child; node != null; node= getParent(node)) {
+			path.add(node);
+		}
+		Object parent= getSearchResult();
+		Object existingParent= null;
+		boolean parentAdded= false;
+		for (int i= path.size() - 1; i >= 0; i--) {
+			Object node= path.get(i);
+			if (!isExpanded(parent)) {
+				if (addPending(parent, child) && !parentAdded && toUpdate != null)
+					toUpdate.add(parent); // parent gets children
+				return;
+			}
+			parentAdded= insertChild(parent, node);
+			if (parentAdded) {
 				if (toAdd != null)
-					insertInto(parent, child, toAdd);
+					insertInto(parent, node, toAdd);
 			} else {
-				if (toUpdate != null)
-					toUpdate.add(parent);
-				return;
+				existingParent= parent;
 			}
-			child= parent;
-			parent= getParent(child);
+			parent= node;
 		}
-		if (insertChild(getSearchResult(), child)) {
-			if (toAdd != null)
-				insertInto(getSearchResult(), child, toAdd);
+		if (existingParent != null && toUpdate != null)
+			toUpdate.add(existingParent);
+	}
+
+	private boolean isExpanded(Object node) {
+		return node == getSearchResult() || fChildrenMap.containsKey(node);
+	}
+
+	/**
+	 * Adds an element with matches below a node that has not been expanded yet.
+	 *
+	 * @param node the node
+	 * @param element the element with matches
+	 * @return <code>true</code> if the node had no pending elements before
+	 */
+	private boolean addPending(Object node, Object element) {
+		Set<Object> pending= fPendingMap.get(node);
+		if (pending == null) {
+			pending= new LinkedHashSet<>();
+			fPendingMap.put(node, pending);
 		}
+		return pending.add(element) && pending.size() == 1;
+	}
+
+	/**
+	 * Computes the children of a node from its pending elements.
+	 *
+	 * @param node the node
+	 */
+	private void expand(Object node) {
+		Set<Object> children= new HashSet<>();
+		fChildrenMap.put(node, children);
+		Set<Object> pending= fPendingMap.remove(node);
+		if (pending == null)
+			return;
+		for (Iterator<Object> iter= pending.iterator(); iter.hasNext();) {
+			Object element= iter.next();
+			Object child= element;
+			Object parent= getParent(child);
+			while (parent != null && !parent.equals(node)) {
+				child= parent;
+				parent= getParent(child);
+			}
+			if (parent == null)
+				continue;
+			children.add(child);
+			if (child != element)
+				addPending(child, element);
+		}
+	}
+
+	/**
+	 * Expands the node and the nodes above it.
+	 *
+	 * @param node the node
+	 * @return <code>false</code> if the node is not in the tree
+	 */
+	private boolean ensureExpanded(Object node) {
+		if (isExpanded(node))
+			return true;
+		Object parent= getParentOrResult(node);
+		if (!ensureExpanded(parent))
+			return false;
+		Set<Object> siblings= fChildrenMap.get(parent);
+		if (siblings == null || !siblings.contains(node))
+			return false;
+		expand(node);
+		return true;
+	}
+
+	private Object getParentOrResult(Object element) {
+		Object parent= getParent(element);
+		return parent != null ? parent : getSearchResult();
 	}
 
 	private boolean insertChild(Object parent, Object child) {
@@ -176,12 +273,14 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 	protected void remove(Set<Object> toRemove, Set<Object> toUpdate, Object element) {
 		// precondition here:  fResult.getMatchCount(child) <= 0
 
+		ensureExpanded(getParentOrResult(element));
 		if (hasChildren(element)) {
 			if (toUpdate != null)
 				toUpdate.add(element);
 		} else {
 			if (getPage().getDisplayedMatchCount(element) == 0) {
 				fChildrenMap.remove(element);
+				fPendingMap.remove(element);
 				Object parent= getParent(element);
 				if (parent != null) {
 					if (removeFromSiblings(element, parent)) {
@@ -219,6 +318,8 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 
 	@Override
 	public Object[] getChildren(Object parentElement) {
+		if (!ensureExpanded(parentElement))
+			return EMPTY_ARR;
 		Set<Object> children= fChildrenMap.get(parentElement);
 		if (children == null)
 			return EMPTY_ARR;
@@ -237,8 +338,12 @@ public class LevelTreeContentProvider extends JavaSearchContentProvider implemen
 
 	@Override
 	public boolean hasChildren(Object element) {
+		ensureExpanded(getParentOrResult(element));
 		Set<Object> children= fChildrenMap.get(element);
-		return children != null && !children.isEmpty();
+		if (children != null && !children.isEmpty())
+			return true;
+		Set<Object> pending= fPendingMap.get(element);
+		return pending != null && !pending.isEmpty();
 	}
 
 	@Override
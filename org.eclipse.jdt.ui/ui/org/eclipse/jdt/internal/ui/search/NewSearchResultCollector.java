@@ -63,7 +63,11 @@ public class NewSearchResultCollector extends SearchRequestor {
 				MethodReferenceMatch methodRef= (MethodReferenceMatch) match;
 				isSuperInvocation= methodRef.isSuperInvocation();
 			}
-			fSearch.addMatch(new JavaElementMatch(enclosingElement, match.getRule(), match.getOffset(), match.getLength(), match.getAccuracy(), isReadAccess, isWriteAccess, match.isInsideDocComment(), isSuperInvocation));
+			if (fSearch instanceof JavaSearchResult) {
+				((JavaSearchResult) fSearch).addJavaElementMatch(enclosingElement, match.getRule(), match.getOffset(), match.getLength(), match.getAccuracy(), isReadAccess, isWriteAccess, match.isInsideDocComment(), isSuperInvocation);
+			} else {
+				fSearch.addMatch(new JavaElementMatch(enclosingElement, match.getRule(), match.getOffset(), match.getLength(), match.getAccuracy(), isReadAccess, isWriteAccess, match.isInsideDocComment(), isSuperInvocation));
+			}
 		}
 	}
 
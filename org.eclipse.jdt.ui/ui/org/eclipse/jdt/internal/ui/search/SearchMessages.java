@@ -223,6 +223,7 @@ public final class SearchMessages extends NLS {
 	public static String JavaSearchQuery_status_ok_message;
 	public static String JavaSearchQuery_error_participant_estimate;
 	public static String JavaSearchQuery_error_participant_search;
+	public static String JavaSearchQuery_error_participant_timeout;
 	public static String SearchParticipant_error_noID;
 	public static String SearchParticipant_error_noNature;
 	public static String SearchParticipant_error_noClass;
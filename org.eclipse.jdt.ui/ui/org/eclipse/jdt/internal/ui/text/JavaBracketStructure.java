@@ -0,0 +1,424 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.DocumentPartitioningChangedEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IDocumentPartitioningListener;
+import org.eclipse.jface.text.IDocumentPartitioningListenerExtension2;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.TextUtilities;
+
+import org.eclipse.jdt.ui.text.IJavaPartitions;
+
+
+/**
+ * The positions of the braces, parentheses and brackets in the Java code of a document, which
+ * allow to find matching peers without scanning the document. The structure is built when it is
+ * first queried, and then kept up to date on document changes: only the changed text and the
+ * regions whose partitioning changed are scanned again.
+ * <p>
+ * The peers are matched like {@link JavaHeuristicScanner#findOpeningPeer(int, int, char, char)}
+ * and {@link JavaHeuristicScanner#findClosingPeer(int, int, char, char)} match them, i.e. each
+ * kind of peer is matched independently of the others.
+ * </p>
+ * <p>
+ * Instances are thread safe.
+ * </p>
+ *
+ * @since 3.16.100
+ */
+final class JavaBracketStructure implements IDocumentListener, IDocumentPartitioningListener, IDocumentPartitioningListenerExtension2 {
+
+	/**
+	 * The positions of the opening and closing peers of one kind, and their matches.
+	 */
+	private static final class Peers {
+
+		private final char fOpeningPeer;
+		private final char fClosingPeer;
+
+		/** The sorted positions of the peers */
+		private int[] fPositions= new int[64];
+		/** Whether the peer at the same index is an opening peer */
+		private boolean[] fOpening= new boolean[64];
+		private int fSize;
+
+		/**
+		 * The index of the innermost unmatched opening peer at or before the peer at the same
+		 * index, or <code>-1</code>. <code>null</code> if not computed yet.
+		 */
+		private int[] fEnclosingOpening;
+		/**
+		 * The index of the innermost unmatched closing peer at or after the peer at the same
+		 * index, or <code>-1</code>. <code>null</code> if not computed yet.
+		 */
+		private int[] fEnclosingClosing;
+
+		Peers(char openingPeer, char closingPeer) {
+			fOpeningPeer= openingPeer;
+			fClosingPeer= closingPeer;
+		}
+
+		void clear() {
+			fSize= 0;
+			fEnclosingOpening= null;
+			fEnclosingClosing= null;
+		}
+
+		void add(int position, boolean opening) {
+			if (fSize == fPositions.length) {
+				fPositions= Arrays.copyOf(fPositions, fSize * 2);
+				fOpening= Arrays.copyOf(fOpening, fSize * 2);
+			}
+			fPositions[fSize]= position;
+			fOpening[fSize]= opening;
+			fSize++;
+			fEnclosingOpening= null;
+			fEnclosingClosing= null;
+		}
+
+		/**
+		 * Removes the peers in the given range and shifts the peers after it.
+		 *
+		 * @param start the start of the range
+		 * @param end the end of the range, exclusive
+		 * @param delta the shift of the peers at or after <code>end</code>
+		 * @param inserted the peers to insert at the range, whose positions are not shifted
+		 */
+		void replace(int start, int end, int delta, Peers inserted) {
+			int from= indexOf(start);
+			int to= indexOf(end);
+			int size= fSize - (to - from) + inserted.fSize;
+			int[] positions= fPositions;
+			boolean[] opening= fOpening;
+			if (size > positions.length) {
+				positions= Arrays.copyOf(fPositions, Math.max(size, fPositions.length * 2));
+				opening= Arrays.copyOf(fOpening, positions.length);
+			}
+			System.arraycopy(fPositions, to, positions, from + inserted.fSize, fSize - to);
+			System.arraycopy(fOpening, to, opening, from + inserted.fSize, fSize - to);
+			System.arraycopy(inserted.fPositions, 0, positions, from, inserted.fSize);
+			System.arraycopy(inserted.fOpening, 0, opening, from, inserted.fSize);
+			if (delta != 0) {
+				for (int i= from + inserted.fSize; i < size; i++)
+					positions[i]+= delta;
+			}
+			fPositions= positions;
+			fOpening= opening;
+			fSize= size;
+			fEnclosingOpening= null;
+			fEnclosingClosing= null;
+		}
+
+		/**
+		 * Returns the index of the first peer at or after the given position.
+		 *
+		 * @param position the position
+		 * @return the index, <code>fSize</code> if all peers are before the position
+		 */
+		int indexOf(int position) {
+			int low= 0;
+			int high= fSize;
+			while (low < high) {
+				int middle= (low + high) >>> 1;
+				if (fPositions[middle] < position)
+					low= middle + 1;
+				else
+					high= middle;
+			}
+			return low;
+		}
+
+		int findOpeningPeer(int start, int bound) {
+			if (fEnclosingOpening == null) {
+				fEnclosingOpening= new int[fSize];
+				int[] stack= new int[fSize];
+				int depth= 0;
+				for (int i= 0; i < fSize; i++) {
+					if (fOpening[i])
+						stack[depth++]= i;
+					else if (depth > 0)
+						depth--;
+					fEnclosingOpening[i]= depth > 0 ? stack[depth - 1] : -1;
+				}
+			}
+
+			int index= indexOf(start + 1) - 1;
+			if (index < 0 || fEnclosingOpening[index] == -1)
+				return JavaHeuristicScanner.NOT_FOUND;
+			int position= fPositions[fEnclosingOpening[index]];
+			return position > bound ? position : JavaHeuristicScanner.NOT_FOUND;
+		}
+
+		int findClosingPeer(int start, int bound) {
+			if (fEnclosingClosing == null) {
+				fEnclosingClosing= new int[fSize];
+				int[] stack= new int[fSize];
+				int depth= 0;
+				for (int i= fSize - 1; i >= 0; i--) {
+					if (!fOpening[i])
+						stack[depth++]= i;
+					else if (depth > 0)
+						depth--;
+					fEnclosingClosing[i]= depth > 0 ? stack[depth - 1] : -1;
+				}
+			}
+
+			int index= indexOf(start);
+			if (index == fSize || fEnclosingClosing[index] == -1)
+				return JavaHeuristicScanner.NOT_FOUND;
+			int position= fPositions[fEnclosingClosing[index]];
+			return position < bound ? position : JavaHeuristicScanner.NOT_FOUND;
+		}
+	}
+
+	/** The structures of the documents, synchronized on itself */
+	private static final Map<IDocument, JavaBracketStructure> fgStructures= new WeakHashMap<>();
+
+
+	/**
+	 * Returns the bracket structure of the given document, and creates it if needed.
+	 *
+	 * @param document the document
+	 * @return the bracket structure
+	 */
+	static JavaBracketStructure get(IDocument document) {
+		synchronized (fgStructures) {
+			JavaBracketStructure structure= fgStructures.get(document);
+			if (structure == null) {
+				structure= new JavaBracketStructure();
+				document.addDocumentPartitioningListener(structure);
+				document.addDocumentListener(structure);
+				fgStructures.put(document, structure);
+			}
+			return structure;
+		}
+	}
+
+	/**
+	 * Tells whether the given peers are tracked by bracket structures.
+	 *
+	 * @param openingPeer the opening peer
+	 * @param closingPeer the closing peer
+	 * @return <code>true</code> if the peers are braces, parentheses or brackets
+	 */
+	static boolean isBracket(char openingPeer, char closingPeer) {
+		return openingPeer == '{' && closingPeer == '}' || openingPeer == '(' && closingPeer == ')' || openingPeer == '[' && closingPeer == ']';
+	}
+
+
+	/** The peers of each kind */
+	private final Peers[] fPeers= { new Peers('{', '}'), new Peers('(', ')'), new Peers('[', ']') };
+
+	/**
+	 * Tells whether the peers are known. The structure does not keep a reference to the document,
+	 * so that it does not keep the document alive, and is built on the first query.
+	 */
+	private boolean fBuilt;
+
+	/**
+	 * The number of document changes announced but not yet reported. More than one if listener
+	 * notification was stopped.
+	 */
+	private int fPendingChanges;
+
+	/** The start of the region whose partitioning changed during the current document change */
+	private int fPartitioningStart;
+
+	/** The end of the region whose partitioning changed during the current document change */
+	private int fPartitioningEnd;
+
+
+	private JavaBracketStructure() {
+	}
+
+	/**
+	 * Returns the position of the opening peer, like
+	 * {@link JavaHeuristicScanner#findOpeningPeer(int, int, char, char)} in the default partition
+	 * of the Java partitioning.
+	 *
+	 * @param document the document
+	 * @param start the start position
+	 * @param bound the bound, or {@link JavaHeuristicScanner#UNBOUND}
+	 * @param openingPeer the opening peer character
+	 * @return the matching peer character position, or {@link JavaHeuristicScanner#NOT_FOUND}
+	 */
+	synchronized int findOpeningPeer(IDocument document, int start, int bound, char openingPeer) {
+		build(document);
+		return getPeers(openingPeer).findOpeningPeer(start, bound == JavaHeuristicScanner.UNBOUND ? -1 : bound);
+	}
+
+	/**
+	 * Returns the position of the closing peer, like
+	 * {@link JavaHeuristicScanner#findClosingPeer(int, int, char, char)} in the default partition
+	 * of the Java partitioning.
+	 *
+	 * @param document the document
+	 * @param start the start position
+	 * @param bound the bound, or {@link JavaHeuristicScanner#UNBOUND}
+	 * @param openingPeer the opening peer character
+	 * @return the matching peer character position, or {@link JavaHeuristicScanner#NOT_FOUND}
+	 */
+	synchronized int findClosingPeer(IDocument document, int start, int bound, char openingPeer) {
+		build(document);
+		return getPeers(openingPeer).findClosingPeer(start, bound == JavaHeuristicScanner.UNBOUND ? document.getLength() : bound);
+	}
+
+	private Peers getPeers(char openingPeer) {
+		for (int i= 0; i < fPeers.length; i++) {
+			if (fPeers[i].fOpeningPeer == openingPeer)
+				return fPeers[i];
+		}
+		throw new IllegalArgumentException();
+	}
+
+	private void build(IDocument document) {
+		if (fBuilt)
+			return;
+		for (int i= 0; i < fPeers.length; i++)
+			fPeers[i].clear();
+		fBuilt= scan(document, 0, document.getLength(), fPeers);
+	}
+
+	/**
+	 * Scans the given range of the document for peers in the default partition.
+	 *
+	 * @param document the document
+	 * @param start the start of the range
+	 * @param end the end of the range, exclusive
+	 * @param peers the peers to add the found peers to
+	 * @return <code>true</code> if the range was scanned, <code>false</code> if the document
+	 *         changed concurrently
+	 */
+	private static boolean scan(IDocument document, int start, int end, Peers[] peers) {
+		if (start >= end)
+			return true;
+		try {
+			ITypedRegion[] partitions= TextUtilities.computePartitioning(document, IJavaPartitions.JAVA_PARTITIONING, start, end - start, false);
+			for (int i= 0; i < partitions.length; i++) {
+				ITypedRegion partition= partitions[i];
+				if (!IDocument.DEFAULT_CONTENT_TYPE.equals(partition.getType()))
+					continue;
+				int offset= Math.max(start, partition.getOffset());
+				String text= document.get(offset, Math.min(end, partition.getOffset() + partition.getLength()) - offset);
+				for (int j= 0; j < text.length(); j++) {
+					char c= text.charAt(j);
+					for (int k= 0; k < peers.length; k++) {
+						if (c == peers[k].fOpeningPeer) {
+							peers[k].add(offset + j, true);
+							break;
+						} else if (c == peers[k].fClosingPeer) {
+							peers[k].add(offset + j, false);
+							break;
+						}
+					}
+				}
+			}
+		} catch (BadLocationException e) {
+			// concurrent modification
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Scans the given range again. If the range cannot be scanned, the structure is built again
+	 * on the next query.
+	 *
+	 * @param document the document
+	 * @param start the start of the range
+	 * @param end the end of the range, exclusive
+	 * @param delta the shift of the peers at or after <code>end - delta</code>, i.e. the length
+	 *            change of the range
+	 */
+	private void update(IDocument document, int start, int end, int delta) {
+		Peers[] inserted= new Peers[fPeers.length];
+		for (int i= 0; i < fPeers.length; i++)
+			inserted[i]= new Peers(fPeers[i].fOpeningPeer, fPeers[i].fClosingPeer);
+		if (!scan(document, start, end, inserted)) {
+			fBuilt= false;
+			return;
+		}
+		for (int i= 0; i < fPeers.length; i++)
+			fPeers[i].replace(start, end - delta, delta, inserted[i]);
+	}
+
+	@Override
+	public synchronized void documentAboutToBeChanged(DocumentEvent event) {
+		// many changes in a rewrite session are cheaper to handle by a single scan afterwards; the
+		// scanner does not query the structure during the session
+		IDocument document= event.getDocument();
+		if (document instanceof IDocumentExtension4 && ((IDocumentExtension4) document).getActiveRewriteSession() != null)
+			fBuilt= false;
+
+		if (fPendingChanges++ == 0) {
+			fPartitioningStart= Integer.MAX_VALUE;
+			fPartitioningEnd= -1;
+		}
+	}
+
+	@Override
+	public synchronized void documentChanged(DocumentEvent event) {
+		// a deferred event does not describe all changes
+		if (fPendingChanges != 1)
+			fBuilt= false;
+		fPendingChanges= 0;
+		if (!fBuilt)
+			return;
+
+		IDocument document= event.getDocument();
+		int offset= event.getOffset();
+		String text= event.getText();
+		int length= text == null ? 0 : text.length();
+		int delta= length - event.getLength();
+		update(document, offset, offset + length, delta);
+
+		// the partitioning change is reported after the change, so does not need to be shifted
+		if (fBuilt && fPartitioningStart < fPartitioningEnd)
+			update(document, fPartitioningStart, fPartitioningEnd, 0);
+	}
+
+	@Override
+	public synchronized void documentPartitioningChanged(DocumentPartitioningChangedEvent event) {
+		if (!fBuilt)
+			return;
+
+		IRegion region= event.getChangedRegion(IJavaPartitions.JAVA_PARTITIONING);
+		if (region == null)
+			return;
+
+		if (fPendingChanges > 0) {
+			fPartitioningStart= Math.min(fPartitioningStart, region.getOffset());
+			fPartitioningEnd= Math.max(fPartitioningEnd, region.getOffset() + region.getLength());
+		} else {
+			update(event.getDocument(), region.getOffset(), region.getOffset() + region.getLength(), 0);
+		}
+	}
+
+	@Override
+	public synchronized void documentPartitioningChanged(IDocument document) {
+		// not called for extension 2 listeners
+		fBuilt= false;
+	}
+}
@@ -19,6 +19,8 @@ import org.eclipse.core.runtime.Assert;
 
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension3;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITypedRegion;
 import org.eclipse.jface.text.Region;
@@ -265,6 +267,13 @@ public final class JavaHeuristicScanner implements Symbols {
 	 */
 	private ITypedRegion fCachedPartition= new TypedRegion(-1, 0, "__no_partition_at_all"); //$NON-NLS-1$
 
+	/**
+	 * Tells whether matching peers are found using the {@link JavaBracketStructure bracket
+	 * structure} of the document instead of scanning it.
+	 * @since 3.16.100
+	 */
+	private static final boolean USE_BRACKET_STRUCTURE= Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.ui.bracketStructure", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	/* preset stop conditions */
 	private final StopCondition fNonWSDefaultPart= new NonWhitespaceDefaultPartition();
 	private final static StopCondition fNonWS= new NonWhitespace();
@@ -561,6 +570,16 @@ public final class JavaHeuristicScanner implements Symbols {
 	public int findClosingPeer(int start, int bound, final char openingPeer, final char closingPeer) {
 		Assert.isLegal(start >= 0);
 
+		JavaBracketStructure structure= getBracketStructure(openingPeer, closingPeer);
+		if (structure != null) {
+			int peer= structure.findClosingPeer(fDocument, start, bound, openingPeer);
+			if (peer != NOT_FOUND) {
+				fPos= peer;
+				fChar= closingPeer;
+			}
+			return peer;
+		}
+
 		try {
 			CharacterMatch match= new CharacterMatch(new char[] {openingPeer, closingPeer});
 			int depth= 1;
@@ -616,6 +635,16 @@ public final class JavaHeuristicScanner implements Symbols {
 	public int findOpeningPeer(int start, int bound, char openingPeer, char closingPeer) {
 		Assert.isLegal(start < fDocument.getLength());
 
+		JavaBracketStructure structure= getBracketStructure(openingPeer, closingPeer);
+		if (structure != null) {
+			int peer= structure.findOpeningPeer(fDocument, start, bound, openingPeer);
+			if (peer != NOT_FOUND) {
+				fPos= peer;
+				fChar= openingPeer;
+			}
+			return peer;
+		}
+
 		try {
 			final CharacterMatch match= new CharacterMatch(new char[] {openingPeer, closingPeer});
 			int depth= 1;
@@ -639,6 +668,29 @@ public final class JavaHeuristicScanner implements Symbols {
 		}
 	}
 
+	/**
+	 * Returns the bracket structure to find the given peers with.
+	 *
+	 * @param openingPeer the opening peer character
+	 * @param closingPeer the closing peer character
+	 * @return the bracket structure of the document, or <code>null</code> if the peers must be
+	 *         found by scanning the document, e.g. if the document has no Java partitioning or is
+	 *         in a rewrite session, where each change would make the structure scan the document
+	 *         again
+	 * @since 3.16.100
+	 */
+	private JavaBracketStructure getBracketStructure(char openingPeer, char closingPeer) {
+		if (!USE_BRACKET_STRUCTURE || !JavaBracketStructure.isBracket(openingPeer, closingPeer))
+			return null;
+		if (!IJavaPartitions.JAVA_PARTITIONING.equals(fPartitioning) || !IDocument.DEFAULT_CONTENT_TYPE.equals(fPartition))
+			return null;
+		if (!(fDocument instanceof IDocumentExtension3) || ((IDocumentExtension3) fDocument).getDocumentPartitioner(fPartitioning) == null)
+			return null;
+		if (fDocument instanceof IDocumentExtension4 && ((IDocumentExtension4) fDocument).getActiveRewriteSession() != null)
+			return null;
+		return JavaBracketStructure.get(fDocument);
+	}
+
 	/**
 	 * Computes the surrounding block around <code>offset</code>. The search is started at the
 	 * beginning of <code>offset</code>, i.e. an opening brace at <code>offset</code> will not be
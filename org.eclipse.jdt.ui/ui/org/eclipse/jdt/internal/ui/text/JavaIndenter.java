@@ -2158,6 +2158,58 @@ public final class JavaIndenter {
 	 *         otherwise
 	 */
 	private boolean skipScope(int openToken, int closeToken) {
+		char openingPeer;
+		char closingPeer;
+		switch (openToken) {
+			case Symbols.TokenLBRACE:
+				openingPeer= '{';
+				closingPeer= '}';
+				break;
+			case Symbols.TokenLPAREN:
+				openingPeer= '(';
+				closingPeer= ')';
+				break;
+			case Symbols.TokenLBRACKET:
+				openingPeer= '[';
+				closingPeer= ']';
+				break;
+			default:
+				return skipScopeByTokens(openToken, closeToken);
+		}
+
+		// find the peer directly, and leave the state as if the tokens in between were read
+		int peer= fPosition > 0 ? fScanner.findOpeningPeer(fPosition - 1, openingPeer, closingPeer) : JavaHeuristicScanner.NOT_FOUND;
+		if (peer == JavaHeuristicScanner.NOT_FOUND) {
+			// all tokens up to the start of the document have been read
+			int firstToken= fScanner.findNonWhitespaceForward(0, fPosition);
+			fPreviousPos= firstToken != JavaHeuristicScanner.NOT_FOUND ? firstToken : fPosition;
+			fToken= Symbols.TokenEOF;
+			fPosition= 0;
+			fLine= 0;
+			return false;
+		}
+		int firstToken= fScanner.findNonWhitespaceForward(peer + 1, fPosition);
+		fPreviousPos= firstToken != JavaHeuristicScanner.NOT_FOUND ? firstToken : fPosition;
+		fToken= openToken;
+		fPosition= peer;
+		try {
+			fLine= fDocument.getLineOfOffset(fPosition);
+		} catch (BadLocationException e) {
+			fLine= -1;
+		}
+		return true;
+	}
+
+	/**
+	 * Scans tokens backward until the matching peer of the current token is found, see
+	 * {@link #skipScope(int, int)}.
+	 *
+	 * @param openToken the opening peer token
+	 * @param closeToken the closing peer token
+	 * @return <code>true</code> if a matching token was found, <code>false</code> otherwise
+	 * @since 3.16.100
+	 */
+	private boolean skipScopeByTokens(int openToken, int closeToken) {
 
 		int depth= 1;
 
@@ -82,6 +82,8 @@ import org.eclipse.jdt.internal.ui.JavaPluginImages;
 import org.eclipse.jdt.internal.ui.JavaUIMessages;
 import org.eclipse.jdt.internal.ui.actions.CategoryFilterActionGroup;
 import org.eclipse.jdt.internal.ui.typehierarchy.AbstractHierarchyViewerSorter;
+import org.eclipse.jdt.internal.ui.typehierarchy.CoreTypeHierarchyModel;
+import org.eclipse.jdt.internal.ui.typehierarchy.ITypeHierarchyModel;
 import org.eclipse.jdt.internal.ui.viewsupport.AppearanceAwareLabelProvider;
 import org.eclipse.jdt.internal.ui.viewsupport.ColoredViewersManager;
 import org.eclipse.jdt.internal.ui.viewsupport.ColoringLabelProvider;
@@ -444,8 +446,9 @@ public class JavaOutlineInformationControl extends AbstractInformationControl {
 		 * @since 3.2
 		 */
 		@Override
-		protected ITypeHierarchy getHierarchy(IType type) {
-			return getSuperTypeHierarchy(type);
+		protected ITypeHierarchyModel getHierarchy(IType type) {
+			ITypeHierarchy hierarchy= getSuperTypeHierarchy(type);
+			return hierarchy != null ? new CoreTypeHierarchyModel(hierarchy) : null;
 		}
 
 		/*
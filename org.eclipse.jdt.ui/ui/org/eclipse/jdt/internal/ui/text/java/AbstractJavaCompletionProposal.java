@@ -278,6 +278,27 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 	 */
 	private ITextPresentationListener fTextPresentationListener;
 
+	/**
+	 * The text of {@link #fDisplayString}, or <code>null</code> if not computed yet.
+	 * @since 3.16.100
+	 */
+	private String fDisplayStringText;
+
+	/**
+	 * The strings this proposal was recently matched against, most recently added first. Keeping
+	 * them avoids recomputing their characters for every character typed while the proposal
+	 * popup is open.
+	 * @since 3.16.100
+	 */
+	private ProposalMatchString[] fMatchStrings;
+
+	/**
+	 * The number of match strings to keep, see {@link #fMatchStrings}. Subclasses match against up
+	 * to three different strings.
+	 * @since 3.16.100
+	 */
+	private static final int MATCH_STRINGS_SIZE= 3;
+
 	protected AbstractJavaCompletionProposal() {
 		fInvocationContext= null;
 	}
@@ -566,8 +587,11 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 
 	@Override
 	public String getDisplayString() {
-		if (fDisplayString != null)
-			return fDisplayString.getString();
+		if (fDisplayString != null) {
+			if (fDisplayStringText == null)
+				fDisplayStringText= fDisplayString.getString();
+			return fDisplayStringText;
+		}
 		return ""; //$NON-NLS-1$
 	}
 
@@ -923,25 +947,38 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 	 * @since 3.12
 	 */
 	protected int getPatternMatchRule(String pattern, String string) {
-		String start;
-		try {
-			start= string.substring(0, pattern.length());
-		} catch (StringIndexOutOfBoundsException e) {
+		if (pattern.length() > string.length()) {
 			String message= "Error retrieving proposal text.\nDisplay string:\n" + string + "\nPattern:\n" + pattern; //$NON-NLS-1$//$NON-NLS-2$
-			JavaPlugin.log(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), IStatus.OK, message, e));
+			JavaPlugin.log(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), IStatus.OK, message, null));
 			return -1;
 		}
-		if (start.equalsIgnoreCase(pattern)) {
+		ProposalMatchString matchString= getMatchString(string);
+		if (matchString.isPrefix(pattern)) {
 			return SearchPattern.R_PREFIX_MATCH;
-		} else if (isCamelCaseMatching() && CharOperation.camelCaseMatch(pattern.toCharArray(), string.toCharArray())) {
+		} else if (isCamelCaseMatching() && matchString.isCamelCaseMatch(pattern)) {
 			return SearchPattern.R_CAMELCASE_MATCH;
-		} else if (isSubstringMatching() && CharOperation.substringMatch(pattern.toCharArray(), string.toCharArray())) {
+		} else if (isSubstringMatching() && matchString.isSubstringMatch(pattern)) {
 			return SearchPattern.R_SUBSTRING_MATCH;
 		} else {
 			return -1;
 		}
 	}
 
+	private ProposalMatchString getMatchString(String string) {
+		if (fMatchStrings == null)
+			fMatchStrings= new ProposalMatchString[MATCH_STRINGS_SIZE];
+		for (int i= 0; i < fMatchStrings.length; i++) {
+			ProposalMatchString matchString= fMatchStrings[i];
+			if (matchString == null)
+				break;
+			if (matchString.isFor(string))
+				return matchString;
+		}
+		System.arraycopy(fMatchStrings, 0, fMatchStrings, 1, fMatchStrings.length - 1);
+		fMatchStrings[0]= new ProposalMatchString(string);
+		return fMatchStrings[0];
+	}
+
 	/**
 	 * Matches <code>prefix</code> against <code>string</code> and replaces the matched region
 	 * by prefix. Case is preserved as much as possible. This method returns <code>string</code> if camel case completion
@@ -1230,6 +1267,7 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 
 	protected void setDisplayString(String string) {
 		fDisplayString= new StyledString(string);
+		fDisplayStringText= null;
 	}
 
 	/*
@@ -1242,6 +1280,7 @@ public abstract class AbstractJavaCompletionProposal implements IJavaCompletionP
 
 	public void setStyledDisplayString(StyledString text) {
 		fDisplayString= text;
+		fDisplayStringText= null;
 	}
 
 	@Override
@@ -344,6 +344,23 @@ public final class CompletionProposalCategory {
 		return result;
 	}
 
+	/**
+	 * Returns the descriptors of the computers of this category that contribute to the given
+	 * partition.
+	 *
+	 * @param partition the partition type
+	 * @return the descriptors of this category's computers for <code>partition</code>
+	 * @since 3.16.100
+	 */
+	List<CompletionProposalComputerDescriptor> getProposalComputerDescriptors(String partition) {
+		List<CompletionProposalComputerDescriptor> result= new ArrayList<>();
+		for (CompletionProposalComputerDescriptor desc : fRegistry.getProposalComputerDescriptors(partition)) {
+			if (desc.getCategory() == this)
+				result.add(desc);
+		}
+		return result;
+	}
+
 	/**
 	 * Safely computes context information objects of all computers of this category through their
 	 * extension. If an extension is disabled, throws an exception or otherwise does not adhere to
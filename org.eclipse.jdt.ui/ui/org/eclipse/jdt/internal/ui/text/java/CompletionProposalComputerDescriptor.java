@@ -19,6 +19,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.osgi.framework.Bundle;
 
@@ -67,6 +68,11 @@ final class CompletionProposalComputerDescriptor {
 	private static final String ACTIVATE= "activate"; //$NON-NLS-1$
 	/** The extension schema name of the needsSortingAfterFiltering attribute. */
 	private static final String NEEDS_SORTING_AFTER_FILTERING= "needsSortingAfterFiltering"; //$NON-NLS-1$
+	/**
+	 * The extension schema name of the requiresUIThread attribute.
+	 * @since 3.16.100
+	 */
+	private static final String REQUIRES_UI_THREAD= "requiresUIThread"; //$NON-NLS-1$
 	/** The extension schema name of the partition child elements. */
 	private static final String PARTITION= "partition"; //$NON-NLS-1$
 	/** Set of Java partition types. */
@@ -123,15 +129,13 @@ final class CompletionProposalComputerDescriptor {
 	/** The ui category. */
 	private final CompletionProposalCategory fCategory;
 	/** The first error message in the most recent operation, or <code>null</code>. */
-	private String fLastError;
+	private volatile String fLastError;
 	/**
 	 * Tells whether to inform the user when <code>MAX_DELAY</code> has been exceeded.
 	 * We start timing execution after the first session because the first may take
 	 * longer due to plug-in activation and initialization.
 	 */
-	private boolean fIsReportingDelay= false;
-	/** The start of the last operation. */
-	private long fStart;
+	private volatile boolean fIsReportingDelay= false;
 	/**
 	 * Tells whether we tried to load the computer.
 	 * @since 3.4
@@ -147,6 +151,22 @@ final class CompletionProposalComputerDescriptor {
 	 */
 	private boolean fNeedsSortingAfterFiltering;
 
+	/**
+	 * Tells whether this proposal engine must be invoked in the UI thread.
+	 *
+	 * @since 3.16.100
+	 */
+	private final boolean fRequiresUIThread;
+
+	/**
+	 * Tells whether a computation of the extension is running. A computation that has been
+	 * abandoned after the deadline of an asynchronous proposal computation may still be running
+	 * when the next code assist session starts.
+	 *
+	 * @since 3.16.100
+	 */
+	private final AtomicBoolean fComputing= new AtomicBoolean();
+
 
 	/**
 	 * Creates a new descriptor.
@@ -192,6 +212,9 @@ final class CompletionProposalComputerDescriptor {
 		String needsSortingAfterFilteringAttribute= element.getAttribute(NEEDS_SORTING_AFTER_FILTERING);
 		fNeedsSortingAfterFiltering= Boolean.valueOf(needsSortingAfterFilteringAttribute).booleanValue();
 
+		String requiresUIThreadAttribute= element.getAttribute(REQUIRES_UI_THREAD);
+		fRequiresUIThread= requiresUIThreadAttribute == null || Boolean.valueOf(requiresUIThreadAttribute).booleanValue();
+
 		fClass= element.getAttribute(CLASS);
 		checkNotNull(fClass, CLASS);
 
@@ -324,6 +347,11 @@ final class CompletionProposalComputerDescriptor {
 	public List<ICompletionProposal> computeCompletionProposals(ContentAssistInvocationContext context, IProgressMonitor monitor) {
 		if (!isEnabled())
 			return Collections.emptyList();
+		if (!fComputing.compareAndSet(false, true)) {
+			// an abandoned computation is still running
+			monitor.done();
+			return Collections.emptyList();
+		}
 
 		IStatus status;
 		try {
@@ -332,9 +360,10 @@ final class CompletionProposalComputerDescriptor {
 				return Collections.emptyList();
 
 			try {
+				long start= System.currentTimeMillis();
 				PerformanceStats stats= startMeter(context, computer);
 				List<ICompletionProposal> proposals= computer.computeCompletionProposals(context, monitor);
-				stopMeter(stats, COMPUTE_COMPLETION_PROPOSALS);
+				stopMeter(stats, COMPUTE_COMPLETION_PROPOSALS, start);
 
 				if (proposals != null) {
 					fLastError= computer.getErrorMessage();
@@ -351,6 +380,7 @@ final class CompletionProposalComputerDescriptor {
 		} catch (RuntimeException x) {
 			status= createExceptionStatus(x);
 		} finally {
+			fComputing.set(false);
 			monitor.done();
 		}
 
@@ -372,6 +402,11 @@ final class CompletionProposalComputerDescriptor {
 	public List<IContextInformation> computeContextInformation(ContentAssistInvocationContext context, IProgressMonitor monitor) {
 		if (!isEnabled())
 			return Collections.emptyList();
+		if (!fComputing.compareAndSet(false, true)) {
+			// an abandoned computation is still running
+			monitor.done();
+			return Collections.emptyList();
+		}
 
 		IStatus status;
 		try {
@@ -379,9 +414,10 @@ final class CompletionProposalComputerDescriptor {
 			if (computer == null) // not active yet
 				return Collections.emptyList();
 
+			long start= System.currentTimeMillis();
 			PerformanceStats stats= startMeter(context, computer);
 			List<IContextInformation> proposals= computer.computeContextInformation(context, monitor);
-			stopMeter(stats, COMPUTE_CONTEXT_INFORMATION);
+			stopMeter(stats, COMPUTE_CONTEXT_INFORMATION, start);
 
 			if (proposals != null) {
 				fLastError= computer.getErrorMessage();
@@ -396,6 +432,7 @@ final class CompletionProposalComputerDescriptor {
 		} catch (RuntimeException x) {
 			status= createExceptionStatus(x);
 		} finally {
+			fComputing.set(false);
 			monitor.done();
 		}
 
@@ -413,7 +450,7 @@ final class CompletionProposalComputerDescriptor {
 	 * </em></p>
 	 */
 	public void sessionStarted() {
-		if (!isEnabled())
+		if (!isEnabled() || fComputing.get())
 			return;
 
 		IStatus status;
@@ -422,9 +459,10 @@ final class CompletionProposalComputerDescriptor {
 			if (computer == null) // not active yet
 				return;
 
+			long start= System.currentTimeMillis();
 			PerformanceStats stats= startMeter(SESSION_STARTED, computer);
 			computer.sessionStarted();
-			stopMeter(stats, SESSION_ENDED);
+			stopMeter(stats, SESSION_ENDED, start);
 
 			return;
 		} catch (InvalidRegistryObjectException x) {
@@ -446,7 +484,7 @@ final class CompletionProposalComputerDescriptor {
 	 * </em></p>
 	 */
 	public void sessionEnded() {
-		if (!isEnabled())
+		if (!isEnabled() || fComputing.get())
 			return;
 
 		IStatus status;
@@ -455,9 +493,10 @@ final class CompletionProposalComputerDescriptor {
 			if (computer == null) // not active yet
 				return;
 
+			long start= System.currentTimeMillis();
 			PerformanceStats stats= startMeter(SESSION_ENDED, computer);
 			computer.sessionEnded();
-			stopMeter(stats, SESSION_ENDED);
+			stopMeter(stats, SESSION_ENDED, start);
 
 			return;
 		} catch (InvalidRegistryObjectException x) {
@@ -480,29 +519,27 @@ final class CompletionProposalComputerDescriptor {
 			stats= null;
 		}
 
-		if (fIsReportingDelay) {
-			fStart= System.currentTimeMillis();
-		}
-
 		return stats;
 	}
 
-	private void stopMeter(final PerformanceStats stats, String operation) {
+	private void stopMeter(final PerformanceStats stats, String operation, long start) {
+		long time= System.currentTimeMillis() - start;
+		boolean slow;
 		if (MEASURE_PERFORMANCE) {
 			stats.endRun();
-			if (stats.isFailure()) {
-				IStatus status= createPerformanceStatus(operation);
-				fRegistry.informUser(this, status);
-				return;
-			}
+			slow= stats.isFailure();
+		} else {
+			slow= false;
 		}
+		if (!slow && fIsReportingDelay)
+			slow= time > MAX_DELAY;
 
-		if (fIsReportingDelay) {
-			long current= System.currentTimeMillis();
-			if (current - fStart > MAX_DELAY) {
-				IStatus status= createPerformanceStatus(operation);
-				fRegistry.informUser(this, status);
-			}
+		if (operation == COMPUTE_COMPLETION_PROPOSALS)
+			fRegistry.getMetrics().recordTime(this, time, slow);
+
+		if (slow) {
+			IStatus status= createPerformanceStatus(operation);
+			fRegistry.informUser(this, status);
 		}
 	}
 
@@ -591,4 +628,26 @@ final class CompletionProposalComputerDescriptor {
 	public boolean isSortingAfterFilteringNeeded() {
 		return fNeedsSortingAfterFiltering;
 	}
+
+	/**
+	 * Tells whether a computation of the described extension is running. Such a computer is
+	 * skipped by further computations and is not notified of session starts and ends.
+	 *
+	 * @return <code>true</code> if a computation is running
+	 * @since 3.16.100
+	 */
+	boolean isComputing() {
+		return fComputing.get();
+	}
+
+	/**
+	 * Returns the <code>requiresUIThread</code> flag of the described extension.
+	 *
+	 * @return <code>true</code> if the described extension must be invoked in the UI thread,
+	 *         <code>false</code> if it may be invoked in a background thread
+	 * @since 3.16.100
+	 */
+	public boolean requiresUIThread() {
+		return fRequiresUIThread;
+	}
 }
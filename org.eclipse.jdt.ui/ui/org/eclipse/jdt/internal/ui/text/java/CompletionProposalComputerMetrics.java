@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the time spent by the
+ * {@link org.eclipse.jdt.ui.text.java.IJavaCompletionProposalComputer}s contributed via the
+ * <code>org.eclipse.jdt.ui.javaCompletionProposalComputer</code> extension point while computing
+ * completion proposals. Instances are thread safe. The metrics of the default registry can be
+ * obtained from {@link CompletionProposalComputerRegistry#getMetrics()}.
+ *
+ * @since 3.16.100
+ */
+public final class CompletionProposalComputerMetrics {
+
+	/**
+	 * The metrics of one proposal computer. Instances are snapshots and do not change.
+	 */
+	public static final class ComputerMetrics {
+		private final String fId;
+		private final String fName;
+		private final int fCount;
+		private final long fTotalTime;
+		private final long fMaxTime;
+		private final int fSlowCount;
+		private final int fOverrunCount;
+
+		private ComputerMetrics(String id, String name, int count, long totalTime, long maxTime, int slowCount, int overrunCount) {
+			fId= id;
+			fName= name;
+			fCount= count;
+			fTotalTime= totalTime;
+			fMaxTime= maxTime;
+			fSlowCount= slowCount;
+			fOverrunCount= overrunCount;
+		}
+
+		/**
+		 * Returns the identifier of the computer's extension.
+		 *
+		 * @return the extension id
+		 */
+		public String getId() {
+			return fId;
+		}
+
+		/**
+		 * Returns the name of the computer's extension.
+		 *
+		 * @return the extension name
+		 */
+		public String getName() {
+			return fName;
+		}
+
+		/**
+		 * Returns the number of completed proposal computations.
+		 *
+		 * @return the number of computations
+		 */
+		public int getCount() {
+			return fCount;
+		}
+
+		/**
+		 * Returns the time spent in all completed proposal computations.
+		 *
+		 * @return the total time in milliseconds
+		 */
+		public long getTotalTime() {
+			return fTotalTime;
+		}
+
+		/**
+		 * Returns the time spent in the slowest completed proposal computation.
+		 *
+		 * @return the maximum time in milliseconds
+		 */
+		public long getMaxTime() {
+			return fMaxTime;
+		}
+
+		/**
+		 * Returns the number of computations that were reported as too slow.
+		 *
+		 * @return the number of slow computations
+		 */
+		public int getSlowCount() {
+			return fSlowCount;
+		}
+
+		/**
+		 * Returns the number of computations that did not finish before the content assist
+		 * deadline and were cancelled.
+		 *
+		 * @return the number of cancelled computations
+		 */
+		public int getOverrunCount() {
+			return fOverrunCount;
+		}
+
+		@Override
+		public String toString() {
+			long average= fCount == 0 ? 0 : fTotalTime / fCount;
+			return fName + ": " + fCount + " runs, " + fTotalTime + " ms total, " + average + " ms average, " + fMaxTime + " ms max, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+					+ fSlowCount + " slow, " + fOverrunCount + " cancelled"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private static final class Entry {
+		final String fName;
+		int fCount;
+		long fTotalTime;
+		long fMaxTime;
+		int fSlowCount;
+		int fOverrunCount;
+
+		Entry(String name) {
+			fName= name;
+		}
+	}
+
+	/** The metrics by extension id, in the order of the first computation. */
+	private final Map<String, Entry> fEntries= new LinkedHashMap<>();
+
+
+	/**
+	 * Records a completed proposal computation.
+	 *
+	 * @param descriptor the descriptor of the computer
+	 * @param time the time spent in milliseconds
+	 * @param slow <code>true</code> if the computation was reported as too slow
+	 */
+	synchronized void recordTime(CompletionProposalComputerDescriptor descriptor, long time, boolean slow) {
+		Entry entry= getEntry(descriptor);
+		entry.fCount++;
+		entry.fTotalTime+= time;
+		entry.fMaxTime= Math.max(entry.fMaxTime, time);
+		if (slow)
+			entry.fSlowCount++;
+	}
+
+	/**
+	 * Records a proposal computation that was cancelled because it did not finish before the
+	 * content assist deadline.
+	 *
+	 * @param descriptor the descriptor of the computer
+	 */
+	synchronized void recordOverrun(CompletionProposalComputerDescriptor descriptor) {
+		getEntry(descriptor).fOverrunCount++;
+	}
+
+	private Entry getEntry(CompletionProposalComputerDescriptor descriptor) {
+		Entry entry= fEntries.get(descriptor.getId());
+		if (entry == null) {
+			entry= new Entry(descriptor.getName());
+			fEntries.put(descriptor.getId(), entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Returns the metrics of all computers that computed proposals since the last
+	 * {@link #reset()}.
+	 *
+	 * @return a snapshot of the metrics
+	 */
+	public synchronized List<ComputerMetrics> getComputerMetrics() {
+		List<ComputerMetrics> result= new ArrayList<>(fEntries.size());
+		for (Map.Entry<String, Entry> mapEntry : fEntries.entrySet()) {
+			Entry entry= mapEntry.getValue();
+			result.add(new ComputerMetrics(mapEntry.getKey(), entry.fName, entry.fCount, entry.fTotalTime, entry.fMaxTime, entry.fSlowCount, entry.fOverrunCount));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the metrics of the computer with the given extension id.
+	 *
+	 * @param id the extension id
+	 * @return a snapshot of the metrics, or <code>null</code> if the computer did not compute
+	 *         proposals since the last {@link #reset()}
+	 */
+	public synchronized ComputerMetrics getComputerMetrics(String id) {
+		Entry entry= fEntries.get(id);
+		if (entry == null)
+			return null;
+		return new ComputerMetrics(id, entry.fName, entry.fCount, entry.fTotalTime, entry.fMaxTime, entry.fSlowCount, entry.fOverrunCount);
+	}
+
+	/**
+	 * Discards all collected metrics.
+	 */
+	public synchronized void reset() {
+		fEntries.clear();
+	}
+}
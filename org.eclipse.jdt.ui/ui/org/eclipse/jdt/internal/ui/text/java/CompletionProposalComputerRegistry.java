@@ -31,6 +31,7 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Link;
 
 import org.eclipse.core.runtime.CoreException;
@@ -48,6 +49,7 @@ import org.eclipse.jface.preference.IPreferenceStore;
 
 import org.eclipse.jface.text.IDocument;
 
+import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.dialogs.PreferencesUtil;
 
 import org.eclipse.jdt.internal.corext.util.Messages;
@@ -124,6 +126,13 @@ public final class CompletionProposalComputerRegistry {
 	private boolean fIsFirstTimeCheckForUninstalledComputers= false;
 	private boolean fHasUninstalledComputers= false;
 
+	/**
+	 * The time spent by the computers of this registry.
+	 *
+	 * @since 3.16.100
+	 */
+	private final CompletionProposalComputerMetrics fMetrics= new CompletionProposalComputerMetrics();
+
 
 	/**
 	 * Creates a new instance.
@@ -234,6 +243,17 @@ public final class CompletionProposalComputerRegistry {
 		return fPublicCategories;
 	}
 
+	/**
+	 * Returns the time spent by the computers of this registry while computing completion
+	 * proposals.
+	 *
+	 * @return the metrics of this registry's computers
+	 * @since 3.16.100
+	 */
+	public CompletionProposalComputerMetrics getMetrics() {
+		return fMetrics;
+	}
+
 	/**
 	 * Ensures that the extensions are read and stored in
 	 * <code>fDescriptorsByPartition</code>.
@@ -432,7 +452,20 @@ public final class CompletionProposalComputerRegistry {
 	 * @param descriptor the descriptor of the misbehaving extension
 	 * @param status a status object that will be logged
 	 */
-	void informUser(CompletionProposalComputerDescriptor descriptor, IStatus status) {
+	void informUser(final CompletionProposalComputerDescriptor descriptor, final IStatus status) {
+		if (Display.getCurrent() == null) {
+			// computers that do not require the UI thread report from a background thread
+			Display display= PlatformUI.getWorkbench().getDisplay();
+			if (!display.isDisposed()) {
+				display.asyncExec(new Runnable() {
+					@Override
+					public void run() {
+						informUser(descriptor, status);
+					}
+				});
+			}
+			return;
+		}
 		JavaPlugin.log(status);
         String title= JavaTextMessages.CompletionProposalComputerRegistry_error_dialog_title;
         CompletionProposalCategory category= descriptor.getCategory();
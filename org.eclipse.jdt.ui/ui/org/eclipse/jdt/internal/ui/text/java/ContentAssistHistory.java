@@ -13,9 +13,12 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.java;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -31,18 +34,11 @@ import java.util.Set;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
-import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -70,11 +66,12 @@ import org.eclipse.jdt.internal.ui.JavaUIStatus;
  */
 public final class ContentAssistHistory {
 	/**
-	 * Persistence implementation.
+	 * Reads histories stored as XML by earlier versions, see {@link CompactReaderWriter} for the
+	 * current format.
 	 *
 	 * @since 3.2
 	 */
-	private static final class ReaderWriter {
+	private static final class XMLHistoryReader {
 
 		private static final String NODE_ROOT= "history"; //$NON-NLS-1$
 		private static final String NODE_LHS= "lhs"; //$NON-NLS-1$
@@ -83,46 +80,6 @@ public final class ContentAssistHistory {
 		private static final String ATTRIBUTE_MAX_LHS= "maxLHS"; //$NON-NLS-1$
 		private static final String ATTRIBUTE_MAX_RHS= "maxRHS"; //$NON-NLS-1$
 
-		public void store(ContentAssistHistory history, StreamResult result) throws CoreException {
-			try {
-				DocumentBuilderFactory factory= DocumentBuilderFactory.newInstance();
-				DocumentBuilder builder= factory.newDocumentBuilder();
-				Document document= builder.newDocument();
-
-				Element rootElement = document.createElement(NODE_ROOT);
-				rootElement.setAttribute(ATTRIBUTE_MAX_LHS, Integer.toString(history.fMaxLHS));
-				rootElement.setAttribute(ATTRIBUTE_MAX_RHS, Integer.toString(history.fMaxRHS));
-				document.appendChild(rootElement);
-
-				for (Iterator<String> leftHandSides= history.fLHSCache.keySet().iterator(); leftHandSides.hasNext();) {
-					String lhs= leftHandSides.next();
-					Element lhsElement= document.createElement(NODE_LHS);
-					lhsElement.setAttribute(ATTRIBUTE_NAME, lhs);
-					rootElement.appendChild(lhsElement);
-
-					MRUSet<String> rightHandSides= history.fLHSCache.get(lhs);
-					for (Iterator<String> rhsIterator= rightHandSides.iterator(); rhsIterator.hasNext();) {
-						String rhs= rhsIterator.next();
-						Element rhsElement= document.createElement(NODE_RHS);
-						rhsElement.setAttribute(ATTRIBUTE_NAME, rhs);
-						lhsElement.appendChild(rhsElement);
-					}
-				}
-
-				Transformer transformer=TransformerFactory.newInstance().newTransformer();
-				transformer.setOutputProperty(OutputKeys.METHOD, "xml"); //$NON-NLS-1$
-				transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8"); //$NON-NLS-1$
-				transformer.setOutputProperty(OutputKeys.INDENT, "no"); //$NON-NLS-1$
-				DOMSource source = new DOMSource(document);
-
-				transformer.transform(source, result);
-			} catch (TransformerException e) {
-				throw createException(e, JavaTextMessages.ContentAssistHistory_serialize_error);
-			} catch (ParserConfigurationException e) {
-				throw createException(e, JavaTextMessages.ContentAssistHistory_serialize_error);
-			}
-		}
-
 		public ContentAssistHistory load(InputSource source) throws CoreException {
 			Element root;
 			try {
@@ -176,20 +133,92 @@ public final class ContentAssistHistory {
 
 			return history;
 		}
+	}
+
+	/**
+	 * Compact persistence implementation. Each type name is written once, the left hand sides
+	 * refer to the names by their index:
+	 *
+	 * <pre>
+	 * contentAssistHistory &lt;max LHS&gt; &lt;max RHS&gt;
+	 * &lt;number of names&gt;
+	 * &lt;name&gt;
+	 * ...
+	 * &lt;LHS index&gt; &lt;RHS index&gt; ...
+	 * ...
+	 * </pre>
+	 *
+	 * @since 3.16.100
+	 */
+	private static final class CompactReaderWriter {
+
+		private static final String HEADER= "contentAssistHistory"; //$NON-NLS-1$
+		private static final char SEPARATOR= ' ';
+		private static final char LINE_SEPARATOR= '\n';
+
+		public void store(ContentAssistHistory history, Writer writer) throws CoreException {
+			Map<String, Integer> indices= new LinkedHashMap<>();
+			StringBuilder lines= new StringBuilder();
+			for (Entry<String, MRUSet<String>> entry : history.fLHSCache.entrySet()) {
+				lines.append(getIndex(indices, entry.getKey()));
+				for (String rhs : entry.getValue())
+					lines.append(SEPARATOR).append(getIndex(indices, rhs));
+				lines.append(LINE_SEPARATOR);
+			}
 
-		private int parseNaturalInt(String attribute, int defaultValue) {
 			try {
-				int integer= Integer.parseInt(attribute);
-				if (integer > 0)
-					return integer;
-				return defaultValue;
-			} catch (NumberFormatException e) {
-				return defaultValue;
+				writer.write(HEADER + SEPARATOR + history.fMaxLHS + SEPARATOR + history.fMaxRHS + LINE_SEPARATOR);
+				writer.write(Integer.toString(indices.size()) + LINE_SEPARATOR);
+				for (String name : indices.keySet())
+					writer.write(name + LINE_SEPARATOR);
+				writer.write(lines.toString());
+				writer.flush();
+			} catch (IOException e) {
+				throw createException(e, JavaTextMessages.ContentAssistHistory_serialize_error);
 			}
 		}
 
-		private JavaUIException createException(Exception e, String message) {
-			return new JavaUIException(JavaUIStatus.createError(IStatus.ERROR, message, e));
+		private int getIndex(Map<String, Integer> indices, String name) {
+			Integer index= indices.get(name);
+			if (index == null) {
+				index= Integer.valueOf(indices.size());
+				indices.put(name, index);
+			}
+			return index.intValue();
+		}
+
+		public ContentAssistHistory load(BufferedReader reader) throws CoreException {
+			try {
+				String line= reader.readLine();
+				if (line == null)
+					return null;
+				String[] header= line.split(String.valueOf(SEPARATOR));
+				if (header.length != 3 || !HEADER.equals(header[0]))
+					return null;
+
+				int maxLHS= parseNaturalInt(header[1], DEFAULT_TRACKED_LHS);
+				int maxRHS= parseNaturalInt(header[2], DEFAULT_TRACKED_RHS);
+				ContentAssistHistory history= new ContentAssistHistory(maxLHS, maxRHS);
+
+				String[] names= new String[Integer.parseInt(reader.readLine())];
+				for (int i= 0; i < names.length; i++) {
+					names[i]= reader.readLine();
+					if (names[i] == null)
+						throw createException(null, JavaTextMessages.ContentAssistHistory_deserialize_error);
+				}
+
+				while ((line= reader.readLine()) != null) {
+					if (line.length() == 0)
+						continue;
+					String[] indices= line.split(String.valueOf(SEPARATOR));
+					Set<String> cache= history.getCache(names[Integer.parseInt(indices[0])]);
+					for (int i= 1; i < indices.length; i++)
+						cache.add(names[Integer.parseInt(indices[i])]);
+				}
+				return history;
+			} catch (IOException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+				throw createException(e, JavaTextMessages.ContentAssistHistory_deserialize_error);
+			}
 		}
 	}
 
@@ -341,6 +370,14 @@ public final class ContentAssistHistory {
 	private final int fMaxLHS;
 	private final int fMaxRHS;
 
+	/**
+	 * The right hand side histories handed out since the history was last changed, so that every
+	 * content assist invocation with the same expected type shares the same ranking.
+	 *
+	 * @since 3.16.100
+	 */
+	private final Map<String, RHSHistory> fRHSHistories= new HashMap<>();
+
 	/**
 	 * Creates a new history.
 	 *
@@ -382,9 +419,12 @@ public final class ContentAssistHistory {
 				// TODO remember for every member of the LHS hierarchy or not? Yes for now.
 				IType[] allLHSides= hierarchy.getAllSupertypes(lhs);
 				String rhsQualifiedName= rhs.getFullyQualifiedName();
-				for (int i= 0; i < allLHSides.length; i++)
-					rememberInternal(allLHSides[i], rhsQualifiedName);
-				rememberInternal(lhs, rhsQualifiedName);
+				synchronized (this) {
+					for (int i= 0; i < allLHSides.length; i++)
+						rememberInternal(allLHSides[i], rhsQualifiedName);
+					rememberInternal(lhs, rhsQualifiedName);
+					fRHSHistories.clear();
+				}
 			}
 		} catch (JavaModelException x) {
 			JavaPlugin.log(x);
@@ -399,7 +439,16 @@ public final class ContentAssistHistory {
 	 *        requested, or <code>null</code>
 	 * @return the right hand side history for the given type
 	 */
-	public RHSHistory getHistory(String lhs) {
+	public synchronized RHSHistory getHistory(String lhs) {
+		RHSHistory history= fRHSHistories.get(lhs);
+		if (history == null) {
+			history= createHistory(lhs);
+			fRHSHistories.put(lhs, history);
+		}
+		return history;
+	}
+
+	private RHSHistory createHistory(String lhs) {
 		MRUSet<String> rhsCache= fLHSCache.get(lhs);
 		if (rhsCache != null) {
 			int count= rhsCache.size();
@@ -420,7 +469,7 @@ public final class ContentAssistHistory {
 	 *
 	 * @return the set of remembered right hand sides ordered by least recent selection
 	 */
-	public Map<String, RHSHistory> getEntireHistory() {
+	public synchronized Map<String, RHSHistory> getEntireHistory() {
 		HashMap<String, RHSHistory> map= new HashMap<>((int) (fLHSCache.size() / 0.75));
 		for ( Iterator<Entry<String, MRUSet<String>>> it= fLHSCache.entrySet().iterator(); it.hasNext();) {
 			Entry<String, MRUSet<String>> entry= it.next();
@@ -458,8 +507,23 @@ public final class ContentAssistHistory {
 		return new NullProgressMonitor();
 	}
 
+	private static int parseNaturalInt(String attribute, int defaultValue) {
+		try {
+			int integer= Integer.parseInt(attribute);
+			if (integer > 0)
+				return integer;
+			return defaultValue;
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static JavaUIException createException(Exception e, String message) {
+		return new JavaUIException(JavaUIStatus.createError(IStatus.ERROR, message, e));
+	}
+
 	/**
-	 * Stores the history as XML document into the given preferences.
+	 * Stores the history into the given preferences.
 	 *
 	 * @param history the history to store
 	 * @param preferences the preferences to store the history into
@@ -469,12 +533,12 @@ public final class ContentAssistHistory {
 	 */
 	public static void store(ContentAssistHistory history, Preferences preferences, String key) throws CoreException {
 		StringWriter writer= new StringWriter();
-		new ReaderWriter().store(history, new StreamResult(writer));
+		store(history, writer);
 		preferences.setValue(key, writer.toString());
 	}
 
 	/**
-	 * Loads a history from an XML encoded preference value.
+	 * Loads a history from a preference value.
 	 *
 	 * @param preferences the preferences to retrieve the history from
 	 * @param key the key under which the history is stored
@@ -487,8 +551,47 @@ public final class ContentAssistHistory {
 	public static ContentAssistHistory load(Preferences preferences, String key) throws CoreException {
 		String value= preferences.getString(key);
 		if (value != null && value.length() > 0) {
-			return new ReaderWriter().load(new InputSource(new StringReader(value)));
+			return load(new StringReader(value));
 		}
 		return null;
 	}
+
+	/**
+	 * Writes the history to the given writer. Together with {@link #load(Reader)}, this allows to
+	 * share a history between workspaces.
+	 *
+	 * @param history the history to store
+	 * @param writer the writer to write the history to, is not closed by this method
+	 * @throws CoreException if serialization fails
+	 * @since 3.16.100
+	 */
+	public static void store(ContentAssistHistory history, Writer writer) throws CoreException {
+		synchronized (history) {
+			new CompactReaderWriter().store(history, writer);
+		}
+	}
+
+	/**
+	 * Reads a history written by {@link #store(ContentAssistHistory, Writer)}. Histories stored as
+	 * XML by earlier versions are read as well.
+	 *
+	 * @param reader the reader to read the history from, is not closed by this method
+	 * @return the deserialized history, or <code>null</code> if the reader does not contain a
+	 *         history
+	 * @throws CoreException if deserialization fails
+	 * @since 3.16.100
+	 */
+	public static ContentAssistHistory load(Reader reader) throws CoreException {
+		BufferedReader bufferedReader= new BufferedReader(reader);
+		try {
+			bufferedReader.mark(1);
+			int first= bufferedReader.read();
+			bufferedReader.reset();
+			if (first == '<')
+				return new XMLHistoryReader().load(new InputSource(bufferedReader));
+		} catch (IOException e) {
+			throw createException(e, JavaTextMessages.ContentAssistHistory_deserialize_error);
+		}
+		return new CompactReaderWriter().load(bufferedReader);
+	}
 }
@@ -21,8 +21,20 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -38,8 +50,10 @@ import org.eclipse.swt.widgets.Shell;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.InvalidRegistryObjectException;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubProgressMonitor;
 
 import org.eclipse.jface.action.LegacyActionTools;
@@ -56,6 +70,7 @@ import org.eclipse.jface.text.contentassist.ContentAssistant;
 import org.eclipse.jface.text.contentassist.ICompletionListener;
 import org.eclipse.jface.text.contentassist.ICompletionListenerExtension;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposalSorter;
 import org.eclipse.jface.text.contentassist.IContentAssistProcessor;
 import org.eclipse.jface.text.contentassist.IContentAssistantExtension2;
 import org.eclipse.jface.text.contentassist.IContentAssistantExtension3;
@@ -181,6 +196,7 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 			}
 
 			fSelectedProposal= null;
+			fDetailsResolver.clear();
 			fCategoryIteration= null;
 			fRepetition= -1;
 			fIterationGesture= null;
@@ -202,6 +218,7 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		@Override
 		public void selectionChanged(ICompletionProposal proposal, boolean smartToggle) {
 			fSelectedProposal= proposal;
+			fDetailsResolver.selectionChanged(proposal);
 		}
 
 		/*
@@ -214,6 +231,71 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		}
 	}
 
+	/**
+	 * A progress monitor that is canceled once the content assist deadline has passed.
+	 *
+	 * @since 3.16.100
+	 */
+	private static final class DeadlineProgressMonitor extends NullProgressMonitor {
+		private final long fEndTime;
+
+		DeadlineProgressMonitor(long endTime) {
+			fEndTime= endTime;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return super.isCanceled() || System.currentTimeMillis() > fEndTime;
+		}
+	}
+
+	/**
+	 * The proposal computation of one completion proposal computer.
+	 *
+	 * @since 3.16.100
+	 */
+	private static final class ComputerRun implements Callable<ComputerRun> {
+		final CompletionProposalComputerDescriptor fDescriptor;
+		final ContentAssistInvocationContext fContext;
+		final DeadlineProgressMonitor fMonitor;
+		List<ICompletionProposal> fProposals= Collections.emptyList();
+
+		ComputerRun(CompletionProposalComputerDescriptor descriptor, ContentAssistInvocationContext context, long endTime) {
+			fDescriptor= descriptor;
+			fContext= context;
+			fMonitor= new DeadlineProgressMonitor(endTime);
+		}
+
+		@Override
+		public ComputerRun call() {
+			fProposals= fDescriptor.computeCompletionProposals(fContext, fMonitor);
+			return this;
+		}
+	}
+
+	/**
+	 * Tells whether the completion proposal computers run concurrently under a deadline instead of
+	 * one after the other, see {@link #collectProposalsAsynchronously(List, ContentAssistInvocationContext, List)}.
+	 *
+	 * @since 3.16.100
+	 */
+	private static final boolean ASYNC_CODE_ASSIST= Boolean.getBoolean("org.eclipse.jdt.ui.codeAssistAsync"); //$NON-NLS-1$
+
+	/**
+	 * The time after which the computers of an asynchronous proposal computation are canceled.
+	 *
+	 * @since 3.16.100
+	 */
+	private static final long ASYNC_CODE_ASSIST_DEADLINE= Long.getLong("org.eclipse.jdt.ui.codeAssistDeadline", 1000).longValue(); // ms //$NON-NLS-1$
+
+	/**
+	 * The executor running the computers that do not require the UI thread, or <code>null</code>
+	 * if not created yet.
+	 *
+	 * @since 3.16.100
+	 */
+	private static ExecutorService fgExecutor;
+
 	/**
 	 * Dialog settings key for the "all categories are disabled" warning dialog. See
 	 * {@link OptionalMessageDialog}.
@@ -261,6 +343,27 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 	 */
 	private boolean fNeedsSortingAfterFiltering;
 
+	/**
+	 * Tells whether the proposals are computed asynchronously.
+	 *
+	 * @since 3.16.100
+	 */
+	private boolean fAsynchronous= ASYNC_CODE_ASSIST;
+
+	/**
+	 * The deadline for asynchronous proposal computations in milliseconds.
+	 *
+	 * @since 3.16.100
+	 */
+	private long fDeadline= ASYNC_CODE_ASSIST_DEADLINE;
+
+	/**
+	 * Resolves the details of the computed proposals in the background.
+	 *
+	 * @since 3.16.100
+	 */
+	private final ProposalDetailsResolver fDetailsResolver= new ProposalDetailsResolver();
+
 
 	public ContentAssistProcessor(ContentAssistant assistant, String partition) {
 		Assert.isNotNull(partition);
@@ -292,14 +395,16 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		long collect= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
 
 		monitor.subTask(JavaTextMessages.ContentAssistProcessor_sorting_proposals);
+		ICompletionProposalSorter popupSorter= null;
 		if (fNeedsSortingAfterFiltering)
-			setContentAssistSorter();
+			popupSorter= setContentAssistSorter();
 		else
 			proposals= sortProposals(proposals, monitor, context);
 		fNumberOfComputedResults= proposals.size();
 		long filter= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
 
 		ICompletionProposal[] result= proposals.toArray(new ICompletionProposal[proposals.size()]);
+		fDetailsResolver.setProposals(result, popupSorter);
 		monitor.done();
 
 		if (JavaPlugin.DEBUG_RESULT_COLLECTOR) {
@@ -330,12 +435,17 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		boolean needsSortingAfterFiltering= false;
 		List<ICompletionProposal> proposals= new ArrayList<>();
 		List<CompletionProposalCategory> providers= getCategories();
-		for (CompletionProposalCategory cat : providers) {
-			List<ICompletionProposal> computed= cat.computeCompletionProposals(context, fPartition, new SubProgressMonitor(monitor, 1));
-			proposals.addAll(computed);
-			needsSortingAfterFiltering= needsSortingAfterFiltering || (cat.isSortingAfterFilteringNeeded() && !computed.isEmpty());
-			if (fErrorMessage == null)
-				fErrorMessage= cat.getErrorMessage();
+		if (fAsynchronous) {
+			needsSortingAfterFiltering= collectProposalsAsynchronously(providers, context, proposals);
+			monitor.worked(providers.size());
+		} else {
+			for (CompletionProposalCategory cat : providers) {
+				List<ICompletionProposal> computed= cat.computeCompletionProposals(context, fPartition, new SubProgressMonitor(monitor, 1));
+				proposals.addAll(computed);
+				needsSortingAfterFiltering= needsSortingAfterFiltering || (cat.isSortingAfterFilteringNeeded() && !computed.isEmpty());
+				if (fErrorMessage == null)
+					fErrorMessage= cat.getErrorMessage();
+			}
 		}
 		if (fNeedsSortingAfterFiltering && !needsSortingAfterFiltering)
 			fAssistant.setSorter(null);
@@ -343,6 +453,108 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		return proposals;
 	}
 
+	/**
+	 * Collects the proposals of all computers of the given categories concurrently. Computers that
+	 * do not require the UI thread are run in the background while the others run in the calling
+	 * thread. The proposals are added in the order in which the computers finish. Computers that
+	 * have not finished when the deadline has passed are canceled and logged, and their proposals
+	 * are dropped.
+	 *
+	 * @param categories the categories whose computers to run
+	 * @param context the code assist invocation context
+	 * @param proposals the list to add the proposals to
+	 * @return <code>true</code> if any computer that contributed proposals requests sorting after
+	 *         filtering
+	 * @since 3.16.100
+	 */
+	private boolean collectProposalsAsynchronously(List<CompletionProposalCategory> categories, ContentAssistInvocationContext context, List<ICompletionProposal> proposals) {
+		long start= System.currentTimeMillis();
+		long endTime= start + fDeadline;
+		List<ComputerRun> uiRuns= new ArrayList<>();
+		Map<Future<ComputerRun>, ComputerRun> pending= new LinkedHashMap<>();
+		CompletionService<ComputerRun> service= new ExecutorCompletionService<>(getExecutor());
+		for (CompletionProposalCategory cat : categories) {
+			for (CompletionProposalComputerDescriptor desc : cat.getProposalComputerDescriptors(fPartition)) {
+				if (desc.isComputing())
+					continue; // abandoned after the deadline of an earlier computation and still running
+				ComputerRun run= new ComputerRun(desc, context, endTime);
+				if (desc.requiresUIThread())
+					uiRuns.add(run);
+				else
+					pending.put(service.submit(run), run);
+			}
+		}
+
+		List<ComputerRun> finished= new ArrayList<>();
+		for (ComputerRun run : uiRuns) {
+			if (System.currentTimeMillis() > endTime)
+				logOverrun(run, start);
+			else
+				finished.add(run.call());
+		}
+		while (!pending.isEmpty()) {
+			long remaining= endTime - System.currentTimeMillis();
+			Future<ComputerRun> future;
+			try {
+				future= remaining > 0 ? service.poll(remaining, TimeUnit.MILLISECONDS) : service.poll();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			if (future == null)
+				break;
+			ComputerRun run= pending.remove(future);
+			try {
+				finished.add(future.get());
+			} catch (ExecutionException e) {
+				JavaPlugin.log(e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			if (JavaPlugin.DEBUG_RESULT_COLLECTOR)
+				System.err.println("Code Assist (" + run.fDescriptor.getName() + "):\t" + (System.currentTimeMillis() - start)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		for (Map.Entry<Future<ComputerRun>, ComputerRun> entry : pending.entrySet()) {
+			// do not interrupt, the Java model does not cope well with interrupted threads
+			entry.getValue().fMonitor.setCanceled(true);
+			entry.getKey().cancel(false);
+			logOverrun(entry.getValue(), start);
+		}
+
+		boolean needsSortingAfterFiltering= false;
+		for (ComputerRun run : finished) {
+			proposals.addAll(run.fProposals);
+			needsSortingAfterFiltering= needsSortingAfterFiltering || (run.fDescriptor.isSortingAfterFilteringNeeded() && !run.fProposals.isEmpty());
+			if (fErrorMessage == null)
+				fErrorMessage= run.fDescriptor.getErrorMessage();
+		}
+		return needsSortingAfterFiltering;
+	}
+
+	private void logOverrun(ComputerRun run, long start) {
+		fComputerRegistry.getMetrics().recordOverrun(run.fDescriptor);
+		Object[] args= { run.fDescriptor.getName(), Long.valueOf(fDeadline), Long.valueOf(System.currentTimeMillis() - start) };
+		String message= Messages.format(JavaTextMessages.ContentAssistProcessor_computer_overrun, args);
+		JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), IStatus.OK, message, null));
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (fgExecutor == null) {
+			fgExecutor= Executors.newCachedThreadPool(new ThreadFactory() {
+				private final AtomicInteger fThreadCount= new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread= new Thread(runnable, "Java Content Assist Computer-" + fThreadCount.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return fgExecutor;
+	}
+
 	/**
 	 * Filters and sorts the proposals. The passed list may be modified
 	 * and returned, or a new list may be created and returned.
@@ -690,11 +902,15 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 	 * 
 	 * @since 3.8
 	 * @see ProposalSorterRegistry#getCurrentSorter() the sorter used if <code>true</code>
+	 * @return the sorter set into the content assistant, or <code>null</code> if it could not be
+	 *         created
 	 */
-	private void setContentAssistSorter() {
+	private ICompletionProposalSorter setContentAssistSorter() {
 		ProposalSorterHandle currentSorter= ProposalSorterRegistry.getDefault().getCurrentSorter();
 		try {
-			fAssistant.setSorter(currentSorter.getSorter());
+			ICompletionProposalSorter sorter= currentSorter.getSorter();
+			fAssistant.setSorter(sorter);
+			return sorter;
 		} catch (InvalidRegistryObjectException x) {
 			JavaPlugin.log(currentSorter.createExceptionStatus(x));
 		} catch (CoreException x) {
@@ -702,6 +918,7 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		} catch (RuntimeException x) {
 			JavaPlugin.log(currentSorter.createExceptionStatus(x));
 		}
+		return null;
 	}
 
 	/**
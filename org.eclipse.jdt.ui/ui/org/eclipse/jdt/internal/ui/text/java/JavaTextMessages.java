@@ -55,6 +55,7 @@ final class JavaTextMessages extends NLS {
 	public static String ContentAssistProcessor_computing_contexts;
 	public static String ContentAssistProcessor_collecting_contexts;
 	public static String ContentAssistProcessor_sorting_contexts;
+	public static String ContentAssistProcessor_computer_overrun;
 	public static String CompletionProposalComputerDescriptor_illegal_attribute_message;
 	public static String CompletionProposalComputerDescriptor_reason_invalid;
 	public static String CompletionProposalComputerDescriptor_reason_instantiation;
@@ -20,6 +20,7 @@ import org.eclipse.swt.graphics.Point;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.viewers.StyledString;
 
 import org.eclipse.jface.text.IDocument;
@@ -31,6 +32,7 @@ import org.eclipse.jdt.core.CompletionProposal;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 import org.eclipse.jdt.core.search.SearchPattern;
 
@@ -109,6 +111,13 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	private boolean fRelevanceComputed;
 	private FormatterPrefs fFormatterPrefs;
 
+	/**
+	 * The image descriptor of this proposal, or <code>null</code> if not computed yet. May be
+	 * computed in a background thread, see {@link #resolveDetails()}.
+	 * @since 3.16.100
+	 */
+	private volatile ImageDescriptor fImageDescriptor;
+
 	/**
 	 * The core proposal wrapped by this completion proposal.
 	 */
@@ -156,7 +165,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 * @param proposalInfo The additional information associated with this proposal or <code>null</code>
 	 */
 	@Override
-	public final void setProposalInfo(ProposalInfo proposalInfo) {
+	public final synchronized void setProposalInfo(ProposalInfo proposalInfo) {
 		fProposalInfoComputed= true;
 		super.setProposalInfo(proposalInfo);
 	}
@@ -169,7 +178,7 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	 *         exists
 	 */
 	@Override
-	protected final ProposalInfo getProposalInfo() {
+	protected final synchronized ProposalInfo getProposalInfo() {
 		if (!fProposalInfoComputed)
 			setProposalInfo(computeProposalInfo());
 		return super.getProposalInfo();
@@ -361,7 +370,44 @@ public class LazyJavaCompletionProposal extends AbstractJavaCompletionProposal {
 	}
 
 	protected Image computeImage() {
-		return JavaPlugin.getImageDescriptorRegistry().get(fInvocationContext.getLabelProvider().createImageDescriptor(fProposal));
+		ImageDescriptor descriptor= fImageDescriptor;
+		if (descriptor == null) {
+			descriptor= computeImageDescriptor();
+			fImageDescriptor= descriptor;
+		}
+		return JavaPlugin.getImageDescriptorRegistry().get(descriptor);
+	}
+
+	/**
+	 * Computes the descriptor of the image of this proposal. This method may be called in a
+	 * background thread.
+	 *
+	 * @return the image descriptor, or <code>null</code> for the missing image
+	 * @since 3.16.100
+	 */
+	protected ImageDescriptor computeImageDescriptor() {
+		return fInvocationContext.getLabelProvider().createImageDescriptor(fProposal);
+	}
+
+	/**
+	 * Resolves the details this proposal shows in the proposal popup and its additional info,
+	 * i.e. its image descriptor and the Java element of its proposal info. This method is called
+	 * in a background thread before the popup asks for the details, see
+	 * {@link ProposalDetailsResolver}. Details that are already resolved are not computed again.
+	 *
+	 * @since 3.16.100
+	 */
+	void resolveDetails() {
+		if (fImageDescriptor == null)
+			fImageDescriptor= computeImageDescriptor();
+		ProposalInfo info= getProposalInfo();
+		if (info != null) {
+			try {
+				info.getJavaElement();
+			} catch (JavaModelException e) {
+				// reported when the additional info is shown
+			}
+		}
 	}
 
 	/**
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposalSorter;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Resolves the details of the proposals shown in the proposal popup in a background thread,
+ * before the popup asks for them. Whenever the proposals or the selection change, the page of
+ * proposals around the selected proposal and the next page are resolved, see
+ * {@link LazyJavaCompletionProposal#resolveDetails()}. Proposals the popup asks for before they
+ * are resolved are still resolved in the UI thread.
+ * <p>
+ * Only the UI thread may call the methods of this class.
+ * </p>
+ *
+ * @since 3.16.100
+ */
+public final class ProposalDetailsResolver {
+
+	/**
+	 * The number of proposals resolved per page. Larger than the number of proposals the popup
+	 * shows at once.
+	 */
+	public static final int PAGE_SIZE= 20;
+
+	/**
+	 * The proposals shown in the popup. They are sorted like in the popup the first time a
+	 * resolution asks for them, so that the UI thread does not sort them twice.
+	 */
+	private static final class Window {
+		private final ICompletionProposal[] fComputed;
+		private final ICompletionProposalSorter fSorter;
+		private ICompletionProposal[] fSorted;
+		private Map<ICompletionProposal, Integer> fIndices;
+
+		Window(ICompletionProposal[] proposals, ICompletionProposalSorter sorter) {
+			fComputed= proposals;
+			fSorter= sorter;
+		}
+
+		synchronized ICompletionProposal[] getProposals() {
+			if (fSorted == null) {
+				if (fSorter == null) {
+					fSorted= fComputed;
+				} else {
+					fSorted= fComputed.clone();
+					Arrays.sort(fSorted, fSorter::compare);
+				}
+			}
+			return fSorted;
+		}
+
+		synchronized int indexOf(ICompletionProposal proposal) {
+			if (fIndices == null) {
+				ICompletionProposal[] proposals= getProposals();
+				fIndices= new IdentityHashMap<>(proposals.length);
+				for (int i= 0; i < proposals.length; i++)
+					fIndices.put(proposals[i], Integer.valueOf(i));
+			}
+			Integer index= fIndices.get(proposal);
+			return index != null ? index.intValue() : -1;
+		}
+	}
+
+	/**
+	 * The resolution of the proposals around a proposal.
+	 */
+	private static final class Resolution implements Runnable {
+		private final Window fWindow;
+		private final ICompletionProposal fSelected;
+		private volatile boolean fCanceled;
+
+		Resolution(Window window, ICompletionProposal selected) {
+			fWindow= window;
+			fSelected= selected;
+		}
+
+		void cancel() {
+			fCanceled= true;
+		}
+
+		@Override
+		public void run() {
+			if (fCanceled)
+				return;
+			ICompletionProposal[] proposals= fWindow.getProposals();
+			int index= fSelected != null ? fWindow.indexOf(fSelected) : 0;
+			if (index < 0)
+				return;
+
+			int end= Math.min(proposals.length, index + 2 * PAGE_SIZE);
+			for (int i= Math.max(0, index - PAGE_SIZE); i < end && !fCanceled; i++) {
+				ICompletionProposal proposal= proposals[i];
+				if (proposal instanceof LazyJavaCompletionProposal) {
+					try {
+						((LazyJavaCompletionProposal) proposal).resolveDetails();
+					} catch (RuntimeException e) {
+						JavaPlugin.log(e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The executor that runs the resolutions of all processors, or <code>null</code> if not
+	 * created yet.
+	 */
+	private static ExecutorService fgExecutor;
+
+	/** The executor that runs the resolutions of this resolver. */
+	private final Executor fExecutor;
+
+	/** The proposals shown in the popup, or <code>null</code> if none. */
+	private Window fWindow;
+
+	/** The pending resolution, or <code>null</code> if none. */
+	private Resolution fResolution;
+
+
+	/**
+	 * Creates a resolver that resolves in a background thread shared by all resolvers.
+	 */
+	public ProposalDetailsResolver() {
+		this(getExecutor());
+	}
+
+	/**
+	 * Creates a resolver.
+	 *
+	 * @param executor the executor that runs the resolutions
+	 */
+	public ProposalDetailsResolver(Executor executor) {
+		fExecutor= executor;
+	}
+
+	/**
+	 * Sets the proposals shown in the popup and resolves the details of the first pages. The
+	 * proposals are sorted in the background thread.
+	 *
+	 * @param proposals the computed proposals
+	 * @param sorter the sorter the popup sorts the proposals with, or <code>null</code> if the
+	 *            popup shows the proposals in the given order
+	 */
+	public void setProposals(ICompletionProposal[] proposals, ICompletionProposalSorter sorter) {
+		fWindow= new Window(proposals, sorter);
+		resolve(null);
+	}
+
+	/**
+	 * Resolves the details of the proposals around the selected proposal.
+	 *
+	 * @param proposal the selected proposal, or <code>null</code> if none
+	 */
+	public void selectionChanged(ICompletionProposal proposal) {
+		if (fWindow == null || proposal == null)
+			return;
+		resolve(proposal);
+	}
+
+	/**
+	 * Cancels the pending resolution and forgets the proposals.
+	 */
+	public void clear() {
+		cancel();
+		fWindow= null;
+	}
+
+	private void resolve(ICompletionProposal selected) {
+		cancel();
+		fResolution= new Resolution(fWindow, selected);
+		fExecutor.execute(fResolution);
+	}
+
+	private void cancel() {
+		if (fResolution != null) {
+			fResolution.cancel();
+			fResolution= null;
+		}
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (fgExecutor == null) {
+			fgExecutor= Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread= new Thread(runnable, "Java Content Assist Detail Resolver"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return fgExecutor;
+	}
+}
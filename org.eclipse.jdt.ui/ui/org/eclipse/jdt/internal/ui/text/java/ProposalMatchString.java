@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.java;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+
+/**
+ * A string a completion proposal is matched against while the user types with the proposal
+ * popup open. The characters needed for camel case and substring matching are computed once
+ * rather than for every character typed.
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ *
+ * @since 3.16.100
+ */
+final class ProposalMatchString {
+
+	private final String fString;
+
+	/** The characters of the string, or <code>null</code> if not computed yet. */
+	private char[] fChars;
+
+
+	ProposalMatchString(String string) {
+		fString= string;
+	}
+
+	/**
+	 * Tells whether this is the match string for the given string. Proposals usually pass the same
+	 * string instance, e.g. their cached display string, so the characters are only compared if
+	 * the instances differ but have the same length.
+	 *
+	 * @param string the string
+	 * @return <code>true</code> if the strings are equal
+	 */
+	boolean isFor(String string) {
+		return fString == string || fString.length() == string.length() && fString.equals(string);
+	}
+
+	/**
+	 * Tells whether <code>pattern</code> is a case insensitive prefix of this string.
+	 *
+	 * @param pattern the pattern
+	 * @return <code>true</code> if the string starts with the pattern, ignoring case
+	 */
+	boolean isPrefix(String pattern) {
+		return fString.regionMatches(true, 0, pattern, 0, pattern.length());
+	}
+
+	/**
+	 * Tells whether <code>pattern</code> matches this string as a camel case pattern.
+	 *
+	 * @param pattern the pattern
+	 * @return <code>true</code> if the pattern matches
+	 * @see CharOperation#camelCaseMatch(char[], char[])
+	 */
+	boolean isCamelCaseMatch(String pattern) {
+		return CharOperation.camelCaseMatch(pattern.toCharArray(), getChars());
+	}
+
+	/**
+	 * Tells whether <code>pattern</code> matches this string as a substring pattern.
+	 *
+	 * @param pattern the pattern
+	 * @return <code>true</code> if the pattern matches
+	 * @see CharOperation#substringMatch(char[], char[])
+	 */
+	boolean isSubstringMatch(String pattern) {
+		return CharOperation.substringMatch(pattern.toCharArray(), getChars());
+	}
+
+	private char[] getChars() {
+		if (fChars == null)
+			fChars= fString.toCharArray();
+		return fChars;
+	}
+}
@@ -45,6 +45,7 @@ public class JavaSpellingEngine extends SpellingEngine {
 	protected void check(IDocument document, IRegion[] regions, ISpellChecker checker, ISpellingProblemCollector collector, IProgressMonitor monitor) {
 		SpellEventListener listener= new SpellEventListener(collector, document);
 		boolean isIgnoringJavaStrings= PreferenceConstants.getPreferenceStore().getBoolean(PreferenceConstants.SPELLING_IGNORE_JAVA_STRINGS);
+		SpellingResultCache cache= SpellingResultCache.getCache(document, checker);
 		try {
 			for (int i= 0; i < regions.length; i++) {
 				IRegion region= regions[i];
@@ -62,7 +63,12 @@ public class JavaSpellingEngine extends SpellingEngine {
 					if (isIgnoringJavaStrings && type.equals(IJavaPartitions.JAVA_STRING))
 						continue;
 
-					if (!type.equals(IDocument.DEFAULT_CONTENT_TYPE) && !type.equals(IJavaPartitions.JAVA_CHARACTER))
+					if (type.equals(IDocument.DEFAULT_CONTENT_TYPE) || type.equals(IJavaPartitions.JAVA_CHARACTER))
+						continue;
+
+					if (cache != null)
+						cache.check(document, partition, listener);
+					else
 						checker.execute(listener, new SpellCheckIterator(document, partition, checker.getLocale()));
 				}
 			}
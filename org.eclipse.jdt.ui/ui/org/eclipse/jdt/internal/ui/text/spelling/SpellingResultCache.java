@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.spelling;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.ITypedRegion;
+
+import org.eclipse.jdt.internal.ui.text.spelling.engine.DefaultSpellChecker;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellChecker;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellEvent;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellEventListener;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.RankedWordProposal;
+
+
+/**
+ * Caches the spell events of the partitions of a document, keyed by the type and a hash of the
+ * partition content. When a partition with the same content is checked again, e.g. because the
+ * document was reconciled after a change elsewhere, the cached events are reported at the new
+ * location instead of checking the partition again.
+ * <p>
+ * The cache of a document is discarded when the spell checker or its {@link
+ * DefaultSpellChecker#getResultStamp() result stamp} change.
+ * </p>
+ *
+ * @since 3.16.100
+ */
+final class SpellingResultCache {
+
+	/**
+	 * The key of a partition.
+	 */
+	private static final class PartitionKey {
+
+		private final String fType;
+		private final int fLength;
+		private final long fHash;
+
+		PartitionKey(String type, String content) {
+			fType= type;
+			fLength= content.length();
+			// 64-bit FNV-1a, so that collisions are negligible even for large documents
+			long hash= 0xcbf29ce484222325L;
+			for (int i= 0; i < fLength; i++) {
+				hash^= content.charAt(i);
+				hash*= 0x100000001b3L;
+			}
+			fHash= hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (fHash ^ (fHash >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PartitionKey))
+				return false;
+			PartitionKey other= (PartitionKey) obj;
+			return fHash == other.fHash && fLength == other.fLength && fType.equals(other.fType);
+		}
+	}
+
+	/**
+	 * The spell events of a partition at the offset the partition was checked at.
+	 */
+	private static final class Result {
+
+		private final int fOffset;
+		private final ISpellEvent[] fEvents;
+
+		Result(int offset, ISpellEvent[] events) {
+			fOffset= offset;
+			fEvents= events;
+		}
+	}
+
+	/**
+	 * A spell event reported at another offset.
+	 */
+	private static final class MovedSpellEvent implements ISpellEvent {
+
+		private final ISpellEvent fEvent;
+		private final int fDelta;
+
+		MovedSpellEvent(ISpellEvent event, int delta) {
+			fEvent= event;
+			fDelta= delta;
+		}
+
+		@Override
+		public int getBegin() {
+			return fEvent.getBegin() + fDelta;
+		}
+
+		@Override
+		public int getEnd() {
+			return fEvent.getEnd() + fDelta;
+		}
+
+		@Override
+		public Set<RankedWordProposal> getProposals() {
+			return fEvent.getProposals();
+		}
+
+		@Override
+		public String getWord() {
+			return fEvent.getWord();
+		}
+
+		@Override
+		public boolean isMatch() {
+			return fEvent.isMatch();
+		}
+
+		@Override
+		public boolean isStart() {
+			return fEvent.isStart();
+		}
+	}
+
+	/**
+	 * A listener that records the events it forwards.
+	 */
+	private static final class RecordingListener implements ISpellEventListener {
+
+		private final ISpellEventListener fListener;
+		private final List<ISpellEvent> fEvents= new ArrayList<>();
+
+		RecordingListener(ISpellEventListener listener) {
+			fListener= listener;
+		}
+
+		@Override
+		public void handle(ISpellEvent event) {
+			fEvents.add(event);
+			fListener.handle(event);
+		}
+	}
+
+	/** The maximum number of partitions cached per document */
+	private static final int MAX_PARTITIONS= 10000;
+
+	/** The caches of the documents, synchronized on itself */
+	private static final Map<IDocument, SpellingResultCache> fgCaches= new WeakHashMap<>();
+
+
+	/**
+	 * Returns the cache for the given document and spell checker.
+	 *
+	 * @param document the document
+	 * @param checker the spell checker
+	 * @return the cache, or <code>null</code> if the results of the spell checker cannot be
+	 *         cached
+	 */
+	static SpellingResultCache getCache(IDocument document, ISpellChecker checker) {
+		if (!(checker instanceof DefaultSpellChecker) || !(document instanceof IDocumentExtension4))
+			return null;
+		String stamp= ((DefaultSpellChecker) checker).getResultStamp();
+		if (stamp == null)
+			return null;
+
+		synchronized (fgCaches) {
+			SpellingResultCache cache= fgCaches.get(document);
+			if (cache == null || cache.fChecker != checker || !cache.fStamp.equals(stamp)) {
+				cache= new SpellingResultCache(checker, stamp);
+				fgCaches.put(document, cache);
+			}
+			return cache;
+		}
+	}
+
+
+	/** The spell checker */
+	private final ISpellChecker fChecker;
+
+	/** The result stamp of the spell checker */
+	private final String fStamp;
+
+	/** The results of the partitions in access order, synchronized on itself */
+	private final Map<PartitionKey, Result> fResults= new LinkedHashMap<PartitionKey, Result>(16, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<PartitionKey, Result> eldest) {
+			return size() > MAX_PARTITIONS;
+		}
+	};
+
+
+	private SpellingResultCache(ISpellChecker checker, String stamp) {
+		fChecker= checker;
+		fStamp= stamp;
+	}
+
+	/**
+	 * Spell checks the given partition, or reports the cached events if a partition with the same
+	 * content was checked before.
+	 *
+	 * @param document the document
+	 * @param partition the partition
+	 * @param listener the listener
+	 * @throws BadLocationException if the partition is not in the document
+	 */
+	void check(IDocument document, ITypedRegion partition, SpellingEngine.SpellEventListener listener) throws BadLocationException {
+		long modificationStamp= ((IDocumentExtension4) document).getModificationStamp();
+		int offset= partition.getOffset();
+		PartitionKey key= new PartitionKey(partition.getType(), document.get(offset, partition.getLength()));
+		Result result;
+		synchronized (fResults) {
+			result= fResults.get(key);
+		}
+
+		if (result != null) {
+			int delta= offset - result.fOffset;
+			for (int i= 0; i < result.fEvents.length && !listener.isProblemsThresholdReached(); i++)
+				listener.handle(delta == 0 ? result.fEvents[i] : new MovedSpellEvent(result.fEvents[i], delta));
+			return;
+		}
+
+		RecordingListener recorder= new RecordingListener(listener);
+		fChecker.execute(recorder, new SpellCheckIterator(document, partition, fChecker.getLocale()));
+
+		// only cache the events if they match the content of the key
+		if (modificationStamp == ((IDocumentExtension4) document).getModificationStamp()) {
+			result= new Result(offset, recorder.fEvents.toArray(new ISpellEvent[recorder.fEvents.size()]));
+			synchronized (fResults) {
+				fResults.put(key, result);
+			}
+		}
+	}
+}
@@ -14,7 +14,9 @@
 package org.eclipse.jdt.internal.ui.text.spelling.engine;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -27,12 +29,15 @@ import java.nio.charset.CodingErrorAction;
 import java.nio.charset.MalformedInputException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 
@@ -122,6 +127,30 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	 */
 	protected static final float LOAD_FACTOR= 0.85f;
 
+	/**
+	 * The directory of the precompiled word lists in the state location
+	 * @since 3.16.100
+	 */
+	private static final String COMPILED_DICTIONARY_DIR= "dictionaries"; //$NON-NLS-1$
+
+	/**
+	 * The file extension of precompiled word lists
+	 * @since 3.16.100
+	 */
+	protected static final String COMPILED_DICTIONARY_EXTENSION= ".cdictionary"; //$NON-NLS-1$
+
+	/**
+	 * Tells whether proposals are computed from an edit distance index by default
+	 * @since 3.16.100
+	 */
+	private static final boolean USE_EDIT_DISTANCE_INDEX= Boolean.getBoolean("org.eclipse.jdt.ui.spellingEditDistanceIndex"); //$NON-NLS-1$
+
+	/**
+	 * The maximum number of proposals computed from the edit distance index
+	 * @since 3.16.100
+	 */
+	private static final int MAX_INDEXED_PROPOSALS= 20;
+
 	/** The phonetic distance algorithm */
 	private IPhoneticDistanceAlgorithm fDistanceAlgorithm= new DefaultPhoneticDistanceAlgorithm();
 
@@ -131,6 +160,32 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	/** The phonetic hash provider */
 	private IPhoneticHashProvider fHashProvider= new DefaultPhoneticHashProvider();
 
+	/**
+	 * The precompiled word list, or <code>null</code> if the word list is loaded into the hash
+	 * buckets. Words added later are always hashed into the hash buckets.
+	 * @since 3.16.100
+	 */
+	private volatile CompiledSpellDictionary fCompiledDictionary;
+
+	/**
+	 * The number of modifications of the dictionary that may change its results.
+	 * @since 3.16.100
+	 */
+	private volatile int fModificationCount;
+
+	/**
+	 * Tells whether proposals are computed from the edit distance index instead of the phonetic
+	 * neighborhood of the word.
+	 * @since 3.16.100
+	 */
+	private volatile boolean fUseEditDistanceIndex= USE_EDIT_DISTANCE_INDEX;
+
+	/**
+	 * The edit distance index of all words, or <code>null</code> if not built yet.
+	 * @since 3.16.100
+	 */
+	private volatile EditDistanceIndex fEditDistanceIndex;
+
 	/** Is the dictionary already loaded? */
 	private boolean fLoaded= false;
 	/**
@@ -155,6 +210,39 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		return 32;
 	}
 
+	/**
+	 * Returns the file of the precompiled form of the given word list. The word list is compiled
+	 * into this file when it is loaded the first time, and memory-mapped instead of being loaded
+	 * into the heap later on.
+	 * <p>
+	 * Subclasses may override. The default implementation returns <code>null</code>.
+	 * </p>
+	 *
+	 * @param url the URL of the word list
+	 * @return the file of the precompiled word list, or <code>null</code> if the word list is
+	 *         always loaded into the heap
+	 * @since 3.16.100
+	 */
+	protected File getCompiledFile(URL url) {
+		return null;
+	}
+
+	/**
+	 * Returns the file with the given name in the directory of the precompiled word lists.
+	 *
+	 * @param name the file name
+	 * @return the file, or <code>null</code> if there is no state location
+	 * @since 3.16.100
+	 */
+	protected static File getStateLocationFile(String name) {
+		try {
+			return JavaPlugin.getDefault().getStateLocation().append(COMPILED_DICTIONARY_DIR).append(name).toFile();
+		} catch (IllegalStateException e) {
+			// no state location
+			return null;
+		}
+	}
+
 	/**
 	 * Returns all candidates with the same phonetic hash.
 	 *
@@ -198,6 +286,23 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 
 			hash= hashs.get(index);
 
+			final CompiledSpellDictionary compiled= fCompiledDictionary;
+			final int bucket= compiled != null ? findBucket(compiled, hash) : -1;
+			if (bucket != -1) {
+				int end= Math.min(compiled.getFirstWord(bucket) + 500, compiled.getEndWord(bucket));
+				for (int offset= compiled.getFirstWord(bucket); offset < end; offset++) {
+					String candidate= compiled.getWord(offset);
+					distance= fDistanceAlgorithm.getDistance(word, candidate);
+					if (distance < DISTANCE_THRESHOLD) {
+						buffer.setLength(0);
+						buffer.append(candidate);
+						if (sentence)
+							buffer.setCharAt(0, Character.toUpperCase(buffer.charAt(0)));
+						result.add(new RankedWordProposal(buffer.toString(), -distance));
+					}
+				}
+			}
+
 			final Object candidates= getCandidates(hash);
 			if (candidates == null)
 				continue;
@@ -269,7 +374,29 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 
 		StringBuilder buffer= new StringBuilder(BUFFER_CAPACITY);
 
-		final Object candidates= getCandidates(fHashProvider.getHash(word));
+		final String hash= fHashProvider.getHash(word);
+		final CompiledSpellDictionary compiled= fCompiledDictionary;
+		final int bucket= compiled != null ? findBucket(compiled, hash) : -1;
+		if (bucket != -1) {
+			final ArrayList<RankedWordProposal> matches= new ArrayList<>();
+			for (int index= compiled.getFirstWord(bucket), end= compiled.getEndWord(bucket); index < end; index++) {
+				String candidate= compiled.getWord(index);
+				distance= fDistanceAlgorithm.getDistance(word, candidate);
+				if (distance <= minimum) {
+					if (distance < minimum)
+						matches.clear();
+					buffer.setLength(0);
+					buffer.append(candidate);
+					if (sentence)
+						buffer.setCharAt(0, Character.toUpperCase(buffer.charAt(0)));
+					matches.add(new RankedWordProposal(buffer.toString(), -distance));
+					minimum= distance;
+				}
+			}
+			result.addAll(matches);
+		}
+
+		final Object candidates= getCandidates(hash);
 		if (candidates == null)
 			return;
 		else if (candidates instanceof byte[]) {
@@ -328,7 +455,8 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 	 * @since 3.3
 	 */
 	protected boolean isEmpty() {
-		return fHashBuckets.size() == 0;
+		CompiledSpellDictionary compiled= fCompiledDictionary;
+		return fHashBuckets.size() == 0 && (compiled == null || compiled.getWordCount() == 0);
 	}
 
 	/**
@@ -366,6 +494,9 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			// Do nothing
 		}
 
+		if (fUseEditDistanceIndex)
+			return getIndexedCandidates(word, sentence);
+
 		final String hash= fHashProvider.getHash(word);
 		final char[] mutators= fHashProvider.getMutators();
 
@@ -460,6 +591,83 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		return candidates;
 	}
 
+	/**
+	 * Returns the words with the smallest edit distance to the specified word, ranked by the
+	 * phonetic distance algorithm like the proposals computed from the phonetic neighborhood.
+	 *
+	 * @param word the word to find the nearest matches for
+	 * @param sentence <code>true</code> iff the proposals start a new sentence,
+	 *            <code>false</code> otherwise
+	 * @return the ranked proposals
+	 * @since 3.16.100
+	 */
+	private Set<RankedWordProposal> getIndexedCandidates(final String word, final boolean sentence) {
+		final List<String> words= getEditDistanceIndex().getCandidates(word, word.length() <= 4 ? 1 : 2, MAX_INDEXED_PROPOSALS);
+		final StringBuilder buffer= new StringBuilder(BUFFER_CAPACITY);
+		final HashSet<RankedWordProposal> result= new HashSet<>(words.size());
+		for (int index= 0; index < words.size(); index++) {
+			String candidate= words.get(index);
+			buffer.setLength(0);
+			buffer.append(candidate);
+			if (sentence)
+				buffer.setCharAt(0, Character.toUpperCase(buffer.charAt(0)));
+			result.add(new RankedWordProposal(buffer.toString(), -fDistanceAlgorithm.getDistance(word, candidate)));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the edit distance index of all words, and builds it if needed.
+	 *
+	 * @return the edit distance index
+	 * @since 3.16.100
+	 */
+	private synchronized EditDistanceIndex getEditDistanceIndex() {
+		if (fEditDistanceIndex != null)
+			return fEditDistanceIndex;
+
+		EditDistanceIndex index= new EditDistanceIndex();
+		try {
+			for (Iterator<Object> iter= fHashBuckets.values().iterator(); iter.hasNext();) {
+				Object bucket= iter.next();
+				if (bucket instanceof byte[]) {
+					index.add(new String((byte[])bucket, UTF_8));
+				} else {
+					@SuppressWarnings("unchecked")
+					List<byte[]> bucketList= (List<byte[]>)bucket;
+					for (int i= 0; i < bucketList.size(); i++)
+						index.add(new String(bucketList.get(i), UTF_8));
+				}
+			}
+		} catch (UnsupportedEncodingException e) {
+			JavaPlugin.log(e);
+		}
+
+		CompiledSpellDictionary compiled= fCompiledDictionary;
+		if (compiled != null) {
+			for (int i= 0; i < compiled.getWordCount(); i++)
+				index.add(compiled.getWord(i));
+		}
+		fEditDistanceIndex= index;
+		return index;
+	}
+
+	/**
+	 * Sets whether proposals are computed from an index of the edit distances between the words
+	 * instead of the phonetic neighborhood of the misspelled word. The index is built when the
+	 * first proposals are requested.
+	 * <p>
+	 * The default is given by the <code>org.eclipse.jdt.ui.spellingEditDistanceIndex</code>
+	 * system property.
+	 * </p>
+	 *
+	 * @param enabled <code>true</code> to use the edit distance index
+	 * @since 3.16.100
+	 */
+	public final void setEditDistanceIndexEnabled(boolean enabled) {
+		fUseEditDistanceIndex= enabled;
+	}
+
 	/**
 	 * Returns the URL of the dictionary word list.
 	 *
@@ -502,6 +710,10 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			list.add(wordBytes);
 			fHashBuckets.put(hashBytes, list);
 		}
+		EditDistanceIndex index= fEditDistanceIndex;
+		if (index != null)
+			index.add(word);
+		fModificationCount++;
 	}
 
 	@Override
@@ -521,7 +733,11 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			// Do nothing
 		}
 
-		final Object candidates= getCandidates(fHashProvider.getHash(word));
+		final String hash= fHashProvider.getHash(word);
+		if (isCompiledWord(hash, word))
+			return true;
+
+		final Object candidates= getCandidates(hash);
 		if (candidates == null)
 			return false;
 		else if (candidates instanceof byte[]) {
@@ -556,9 +772,63 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		return false;
 	}
 
+	/**
+	 * Tells whether the precompiled word list contains the given word or its lower case form.
+	 *
+	 * @param hash the phonetic hash of the word
+	 * @param word the word
+	 * @return <code>true</code> iff the precompiled word list contains the word
+	 * @since 3.16.100
+	 */
+	private boolean isCompiledWord(String hash, String word) {
+		final CompiledSpellDictionary compiled= fCompiledDictionary;
+		final int bucket= compiled != null ? findBucket(compiled, hash) : -1;
+		if (bucket == -1)
+			return false;
+
+		byte[] wordBytes;
+		byte[] lowercaseWordBytes;
+		try {
+			wordBytes= word.getBytes(UTF_8);
+			lowercaseWordBytes= word.toLowerCase().getBytes(UTF_8);
+		} catch (UnsupportedEncodingException e) {
+			JavaPlugin.log(e);
+			return false;
+		}
+		for (int index= compiled.getFirstWord(bucket), end= compiled.getEndWord(bucket); index < end; index++) {
+			if (compiled.isWord(index, wordBytes) || compiled.isWord(index, lowercaseWordBytes))
+				return true;
+		}
+		return false;
+	}
+
+	private static int findBucket(CompiledSpellDictionary compiled, String hash) {
+		try {
+			return compiled.findBucket(hash.getBytes(UTF_8));
+		} catch (UnsupportedEncodingException e) {
+			JavaPlugin.log(e);
+			return -1;
+		}
+	}
+
 	@Override
 	public void setStripNonLetters(boolean state) {
-		fIsStrippingNonLetters= state;
+		if (fIsStrippingNonLetters != state) {
+			fIsStrippingNonLetters= state;
+			fModificationCount++;
+		}
+	}
+
+	/**
+	 * Returns the number of modifications of this dictionary that may change the results of
+	 * {@link #isCorrect(String)}, e.g. because words were added or the dictionary was unloaded.
+	 * Clients can cache results as long as this number does not change.
+	 *
+	 * @return the modification count
+	 * @since 3.16.100
+	 */
+	public final int getModificationCount() {
+		return fModificationCount;
 	}
 
 	/**
@@ -590,7 +860,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 
 	@Override
 	public synchronized final boolean isLoaded() {
-		return fLoaded || fHashBuckets.size() > 0;
+		return fLoaded || !isEmpty();
 	}
 
 	/**
@@ -606,68 +876,206 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			 return fLoaded;
 
 		if (url != null) {
-			InputStream stream= null;
-			int line= 0;
 			try {
-				stream= url.openStream();
-				if (stream != null) {
-					String word= null;
-
-					// Setup a reader with a decoder in order to read over malformed input if needed.
-					CharsetDecoder decoder= Charset.forName(getEncoding()).newDecoder();
-					decoder.onMalformedInput(CodingErrorAction.REPORT);
-					decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
-					final BufferedReader reader= new BufferedReader(new InputStreamReader(stream, decoder));
-
-					boolean doRead= true;
-					while (doRead) {
-						try {
-							word= reader.readLine();
-						} catch (MalformedInputException ex) {
-							// Tell the decoder to replace malformed input in order to read the line.
-							decoder.onMalformedInput(CodingErrorAction.REPLACE);
-							decoder.reset();
-							word= reader.readLine();
-							decoder.onMalformedInput(CodingErrorAction.REPORT);
-
-							String message= Messages.format(JavaUIMessages.AbstractSpellingDictionary_encodingError, new String[] { word, decoder.replacement(), BasicElementLabels.getURLPart(url.toString()) });
-							IStatus status= new Status(IStatus.ERROR, JavaUI.ID_PLUGIN, IStatus.OK, message, ex);
-							JavaPlugin.log(status);
-
-							doRead= word != null;
-							continue;
+				File compiledFile= getCompiledFile(url);
+				String stamp= compiledFile != null ? getCompiledStamp(url) : null;
+				if (stamp != null) {
+					compiledFile= getVersionedFile(compiledFile, stamp);
+					try {
+						CompiledSpellDictionary compiled= CompiledSpellDictionary.open(compiledFile, stamp);
+						if (compiled != null) {
+							fCompiledDictionary= compiled;
+							fModificationCount++;
+							return true;
 						}
-						doRead= word != null;
-						if (doRead)
-							hashWord(word);
+					} catch (IOException exception) {
+						JavaPlugin.log(exception);
 					}
-					return true;
 				}
-			} catch (FileNotFoundException ex) {
-				String urlString= url.toString();
-				String lowercaseUrlString= urlString.toLowerCase();
-				if (urlString.equals(lowercaseUrlString))
-					JavaPlugin.log(ex);
-				else
-					try {
-						return load(new URL(lowercaseUrlString));
-					} catch (MalformedURLException e) {
-						JavaPlugin.log(e);
-					}
-			} catch (IOException exception) {
-				if (line > 0) {
-					String message= Messages.format(JavaUIMessages.AbstractSpellingDictionary_encodingError, new Object[] { Integer.valueOf(line), BasicElementLabels.getURLPart(url.toString()) });
-					IStatus status= new Status(IStatus.ERROR, JavaUI.ID_PLUGIN, IStatus.OK, message, exception);
-					JavaPlugin.log(status);
-				} else
-					JavaPlugin.log(exception);
+
+				if (!loadWordList(url))
+					return false;
+				if (stamp != null)
+					compile(compiledFile, stamp);
+				return true;
 			} finally {
 				fMustLoad= false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the stamp of the precompiled form of the given word list, which changes whenever
+	 * the word list, its encoding or the phonetic hash provider change.
+	 *
+	 * @param url the URL of the word list
+	 * @return the stamp, or <code>null</code> if the word list is not a local file
+	 * @since 3.16.100
+	 */
+	private String getCompiledStamp(URL url) {
+		try {
+			File file= new File(FileLocator.toFileURL(url).getPath());
+			if (!file.isFile())
+				return null;
+			return file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified() + '|' + getEncoding() + '|' + fHashProvider.getClass().getName();
+		} catch (IOException exception) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the file of the precompiled word list with the given stamp. Each version of a word
+	 * list is compiled into a file of its own, since a file cannot be replaced while it is mapped
+	 * on some platforms, and mappings are only released when they are garbage collected.
+	 *
+	 * @param file the file of the precompiled word list
+	 * @param stamp the stamp of the word list
+	 * @return the file of the precompiled word list with the given stamp
+	 * @since 3.16.100
+	 */
+	private static File getVersionedFile(File file, String stamp) {
+		return new File(file.getParentFile(), file.getName() + '.' + Integer.toHexString(stamp.hashCode()));
+	}
+
+	/**
+	 * Deletes the files of other versions of the given precompiled word list. Files which are
+	 * still mapped cannot be deleted on some platforms and are kept until the next compilation.
+	 *
+	 * @param file the file of the current version of the precompiled word list
+	 * @since 3.16.100
+	 */
+	private static void deleteOtherVersions(final File file) {
+		final String current= file.getName();
+		final String prefix= current.substring(0, current.lastIndexOf('.') + 1);
+		File[] others= file.getParentFile().listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File directory, String name) {
+				return name.startsWith(prefix) && !name.equals(current) && name.indexOf('.', prefix.length()) == -1;
+			}
+		});
+		if (others != null) {
+			for (int i= 0; i < others.length; i++)
+				others[i].delete();
+		}
+	}
+
+	/**
+	 * Compiles the hash buckets into the given file and maps it instead.
+	 *
+	 * @param file the file of the precompiled word list
+	 * @param stamp the stamp of the word list
+	 * @since 3.16.100
+	 */
+	private void compile(File file, String stamp) {
+		CompiledSpellDictionary.Writer writer= new CompiledSpellDictionary.Writer(fHashBuckets.size());
+		for (Iterator<Map.Entry<ByteArrayWrapper, Object>> iter= fHashBuckets.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<ByteArrayWrapper, Object> entry= iter.next();
+			Object bucket= entry.getValue();
+			if (bucket instanceof byte[]) {
+				writer.addBucket(entry.getKey().byteArray, Collections.singletonList((byte[])bucket));
+			} else {
+				@SuppressWarnings("unchecked")
+				List<byte[]> bucketList= (List<byte[]>)bucket;
+				writer.addBucket(entry.getKey().byteArray, bucketList);
+			}
+		}
+
+		try {
+			writer.write(file, stamp);
+		} catch (IOException exception) {
+			// another workspace may have compiled and mapped the same version meanwhile
+			if (!file.isFile()) {
+				// keep the word list in the heap
+				JavaPlugin.log(exception);
+				return;
+			}
+		}
+		deleteOtherVersions(file);
+
+		try {
+			CompiledSpellDictionary compiled= CompiledSpellDictionary.open(file, stamp);
+			if (compiled != null) {
+				fCompiledDictionary= compiled;
+				fHashBuckets.clear();
+				fModificationCount++;
+			}
+		} catch (IOException exception) {
+			// keep the word list in the heap
+			JavaPlugin.log(exception);
+		}
+	}
+
+	/**
+	 * Loads a dictionary word list into the hash buckets.
+	 *
+	 * @param url
+	 *                   The URL of the word list to load
+	 * @return <code>true</code> iff the word list could be loaded, <code>false</code>
+	 *               otherwise
+	 * @since 3.16.100
+	 */
+	private boolean loadWordList(final URL url) {
+		InputStream stream= null;
+		int line= 0;
+		try {
+			stream= url.openStream();
+			if (stream != null) {
+				String word= null;
+
+				// Setup a reader with a decoder in order to read over malformed input if needed.
+				CharsetDecoder decoder= Charset.forName(getEncoding()).newDecoder();
+				decoder.onMalformedInput(CodingErrorAction.REPORT);
+				decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+				final BufferedReader reader= new BufferedReader(new InputStreamReader(stream, decoder));
+
+				boolean doRead= true;
+				while (doRead) {
+					try {
+						word= reader.readLine();
+					} catch (MalformedInputException ex) {
+						// Tell the decoder to replace malformed input in order to read the line.
+						decoder.onMalformedInput(CodingErrorAction.REPLACE);
+						decoder.reset();
+						word= reader.readLine();
+						decoder.onMalformedInput(CodingErrorAction.REPORT);
+
+						String message= Messages.format(JavaUIMessages.AbstractSpellingDictionary_encodingError, new String[] { word, decoder.replacement(), BasicElementLabels.getURLPart(url.toString()) });
+						IStatus status= new Status(IStatus.ERROR, JavaUI.ID_PLUGIN, IStatus.OK, message, ex);
+						JavaPlugin.log(status);
+
+						doRead= word != null;
+						continue;
+					}
+					doRead= word != null;
+					if (doRead)
+						hashWord(word);
+				}
+				return true;
+			}
+		} catch (FileNotFoundException ex) {
+			String urlString= url.toString();
+			String lowercaseUrlString= urlString.toLowerCase();
+			if (urlString.equals(lowercaseUrlString))
+				JavaPlugin.log(ex);
+			else
 				try {
-					if (stream != null)
-						stream.close();
-				} catch (IOException x) {
+					return loadWordList(new URL(lowercaseUrlString));
+				} catch (MalformedURLException e) {
+					JavaPlugin.log(e);
 				}
+		} catch (IOException exception) {
+			if (line > 0) {
+				String message= Messages.format(JavaUIMessages.AbstractSpellingDictionary_encodingError, new Object[] { Integer.valueOf(line), BasicElementLabels.getURLPart(url.toString()) });
+				IStatus status= new Status(IStatus.ERROR, JavaUI.ID_PLUGIN, IStatus.OK, message, exception);
+				JavaPlugin.log(status);
+			} else
+				JavaPlugin.log(exception);
+		} finally {
+			try {
+				if (stream != null)
+					stream.close();
+			} catch (IOException x) {
 			}
 		}
 		return false;
@@ -712,6 +1120,9 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		fLoaded= false;
 		fMustLoad= true;
 		fHashBuckets.clear();
+		fCompiledDictionary= null;
+		fEditDistanceIndex= null;
+		fModificationCount++;
 	}
 
 	@Override
@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.spelling.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * A precompiled, read-only spell dictionary that is memory-mapped from a file instead of being
+ * loaded into the heap.
+ * <p>
+ * The file contains the phonetic hashes of the words, sorted by their UTF-8 bytes, and the UTF-8
+ * encoded words of each hash:
+ * </p>
+ * <pre>
+ * int magic, int version, short stampLength, byte[stampLength] stamp,
+ * int bucketCount, int wordCount, int hashBlobLength, int wordBlobLength,
+ * (int hashOffset, int firstWord)[bucketCount + 1],
+ * int wordOffset[wordCount + 1],
+ * byte[hashBlobLength] hashBlob, byte[wordBlobLength] wordBlob
+ * </pre>
+ * <p>
+ * The last bucket and word offset are sentinels holding the blob lengths and the word count. The
+ * stamp identifies the word list, encoding and hash provider the file was compiled from.
+ * </p>
+ * <p>
+ * Instances are thread safe.
+ * </p>
+ *
+ * @since 3.16.100
+ */
+final class CompiledSpellDictionary {
+
+	/**
+	 * Collects the buckets of a dictionary and writes them to a file.
+	 */
+	static final class Writer {
+
+		private final List<byte[]> fHashes;
+		private final List<List<byte[]>> fBuckets;
+
+		/**
+		 * Creates a new writer.
+		 *
+		 * @param capacity the expected number of buckets
+		 */
+		Writer(int capacity) {
+			fHashes= new ArrayList<>(capacity);
+			fBuckets= new ArrayList<>(capacity);
+		}
+
+		/**
+		 * Adds a bucket.
+		 *
+		 * @param hash the UTF-8 bytes of the phonetic hash, unique among all buckets
+		 * @param words the UTF-8 bytes of the words with that hash, in lookup order
+		 */
+		void addBucket(byte[] hash, List<byte[]> words) {
+			fHashes.add(hash);
+			fBuckets.add(words);
+		}
+
+		/**
+		 * Writes the added buckets to the given file. The file is replaced atomically if possible,
+		 * but replacing fails on some platforms while the file is mapped.
+		 *
+		 * @param file the file
+		 * @param stamp the stamp of the word list
+		 * @throws IOException if the file could not be written
+		 */
+		void write(File file, String stamp) throws IOException {
+			Integer[] order= new Integer[fHashes.size()];
+			for (int i= 0; i < order.length; i++)
+				order[i]= Integer.valueOf(i);
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer i1, Integer i2) {
+					return compareBytes(fHashes.get(i1.intValue()), fHashes.get(i2.intValue()));
+				}
+			});
+
+			int wordCount= 0;
+			int hashBlobLength= 0;
+			int wordBlobLength= 0;
+			for (int i= 0; i < order.length; i++) {
+				int index= order[i].intValue();
+				hashBlobLength+= fHashes.get(index).length;
+				List<byte[]> words= fBuckets.get(index);
+				wordCount+= words.size();
+				for (int j= 0; j < words.size(); j++)
+					wordBlobLength+= words.get(j).length;
+			}
+
+			File directory= file.getParentFile();
+			if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+				throw new IOException("Failed to create directory " + directory); //$NON-NLS-1$
+
+			File temp= File.createTempFile(file.getName(), ".tmp", directory); //$NON-NLS-1$
+			DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				byte[] stampBytes= stamp.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeShort(stampBytes.length);
+				out.write(stampBytes);
+				out.writeInt(order.length);
+				out.writeInt(wordCount);
+				out.writeInt(hashBlobLength);
+				out.writeInt(wordBlobLength);
+
+				int hashOffset= 0;
+				int firstWord= 0;
+				for (int i= 0; i < order.length; i++) {
+					int index= order[i].intValue();
+					out.writeInt(hashOffset);
+					out.writeInt(firstWord);
+					hashOffset+= fHashes.get(index).length;
+					firstWord+= fBuckets.get(index).size();
+				}
+				out.writeInt(hashOffset);
+				out.writeInt(firstWord);
+
+				int wordOffset= 0;
+				for (int i= 0; i < order.length; i++) {
+					List<byte[]> words= fBuckets.get(order[i].intValue());
+					for (int j= 0; j < words.size(); j++) {
+						out.writeInt(wordOffset);
+						wordOffset+= words.get(j).length;
+					}
+				}
+				out.writeInt(wordOffset);
+
+				for (int i= 0; i < order.length; i++)
+					out.write(fHashes.get(order[i].intValue()));
+				for (int i= 0; i < order.length; i++) {
+					List<byte[]> words= fBuckets.get(order[i].intValue());
+					for (int j= 0; j < words.size(); j++)
+						out.write(words.get(j));
+				}
+			} finally {
+				out.close();
+			}
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				temp.delete();
+			}
+		}
+	}
+
+	/** The magic number of compiled dictionary files */
+	private static final int MAGIC= 0x4A445344;
+
+	/** The version of the file format */
+	private static final int VERSION= 1;
+
+	/** The mapped file */
+	private final ByteBuffer fBuffer;
+
+	/** The number of buckets */
+	private final int fBucketCount;
+
+	/** The number of words */
+	private final int fWordCount;
+
+	/** The start of the bucket table */
+	private final int fBucketTable;
+
+	/** The start of the word table */
+	private final int fWordTable;
+
+	/** The start of the hash blob */
+	private final int fHashBlob;
+
+	/** The start of the word blob */
+	private final int fWordBlob;
+
+
+	private CompiledSpellDictionary(ByteBuffer buffer, int bucketCount, int wordCount, int bucketTable) {
+		fBuffer= buffer;
+		fBucketCount= bucketCount;
+		fWordCount= wordCount;
+		fBucketTable= bucketTable;
+		fWordTable= bucketTable + (bucketCount + 1) * 8;
+		fHashBlob= fWordTable + (wordCount + 1) * 4;
+		fWordBlob= fHashBlob + buffer.getInt(fBucketTable + bucketCount * 8);
+	}
+
+	/**
+	 * Maps the compiled dictionary in the given file.
+	 *
+	 * @param file the file
+	 * @param stamp the stamp of the word list
+	 * @return the dictionary, or <code>null</code> if the file does not exist, has an unknown
+	 *         format or was compiled from another word list
+	 * @throws IOException if the file could not be read
+	 */
+	static CompiledSpellDictionary open(File file, String stamp) throws IOException {
+		if (!file.isFile())
+			return null;
+
+		MappedByteBuffer buffer;
+		RandomAccessFile randomAccessFile= new RandomAccessFile(file, "r"); //$NON-NLS-1$
+		try {
+			FileChannel channel= randomAccessFile.getChannel();
+			buffer= channel.map(MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			randomAccessFile.close();
+		}
+
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+				return null;
+			byte[] stampBytes= new byte[buffer.getShort() & 0xffff];
+			buffer.get(stampBytes);
+			if (!stamp.equals(new String(stampBytes, StandardCharsets.UTF_8)))
+				return null;
+
+			int bucketCount= buffer.getInt();
+			int wordCount= buffer.getInt();
+			long hashBlobLength= buffer.getInt();
+			long wordBlobLength= buffer.getInt();
+			long length= buffer.position() + (bucketCount + 1L) * 8 + (wordCount + 1L) * 4 + hashBlobLength + wordBlobLength;
+			if (bucketCount < 0 || wordCount < 0 || length != buffer.capacity())
+				return null;
+			return new CompiledSpellDictionary(buffer, bucketCount, wordCount, buffer.position());
+		} catch (BufferUnderflowException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the number of words.
+	 *
+	 * @return the number of words
+	 */
+	int getWordCount() {
+		return fWordCount;
+	}
+
+	/**
+	 * Finds the bucket of the given phonetic hash.
+	 *
+	 * @param hash the UTF-8 bytes of the phonetic hash
+	 * @return the index of the bucket, or <code>-1</code> if there is no word with that hash
+	 */
+	int findBucket(byte[] hash) {
+		int low= 0;
+		int high= fBucketCount - 1;
+		while (low <= high) {
+			int middle= (low + high) >>> 1;
+			int start= fHashBlob + fBuffer.getInt(fBucketTable + middle * 8);
+			int end= fHashBlob + fBuffer.getInt(fBucketTable + middle * 8 + 8);
+			int result= compareBytes(start, end, hash);
+			if (result < 0)
+				low= middle + 1;
+			else if (result > 0)
+				high= middle - 1;
+			else
+				return middle;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the first word in the given bucket.
+	 *
+	 * @param bucket the index of the bucket
+	 * @return the index of the first word
+	 */
+	int getFirstWord(int bucket) {
+		return fBuffer.getInt(fBucketTable + bucket * 8 + 4);
+	}
+
+	/**
+	 * Returns the index after the last word in the given bucket.
+	 *
+	 * @param bucket the index of the bucket
+	 * @return the index after the last word
+	 */
+	int getEndWord(int bucket) {
+		return fBuffer.getInt(fBucketTable + bucket * 8 + 12);
+	}
+
+	/**
+	 * Decodes the word with the given index.
+	 *
+	 * @param word the index of the word
+	 * @return the word
+	 */
+	String getWord(int word) {
+		ByteBuffer buffer= fBuffer.duplicate();
+		buffer.position(fWordBlob + fBuffer.getInt(fWordTable + word * 4));
+		buffer.limit(fWordBlob + fBuffer.getInt(fWordTable + word * 4 + 4));
+		return StandardCharsets.UTF_8.decode(buffer).toString();
+	}
+
+	/**
+	 * Tells whether the word with the given index has the given bytes, without decoding it.
+	 *
+	 * @param word the index of the word
+	 * @param bytes the UTF-8 bytes to compare with
+	 * @return <code>true</code> iff the word has the given bytes
+	 */
+	boolean isWord(int word, byte[] bytes) {
+		int start= fWordBlob + fBuffer.getInt(fWordTable + word * 4);
+		int end= fWordBlob + fBuffer.getInt(fWordTable + word * 4 + 4);
+		return end - start == bytes.length && compareBytes(start, end, bytes) == 0;
+	}
+
+	private int compareBytes(int start, int end, byte[] bytes) {
+		int length= Math.min(end - start, bytes.length);
+		for (int i= 0; i < length; i++) {
+			int result= (fBuffer.get(start + i) & 0xff) - (bytes[i] & 0xff);
+			if (result != 0)
+				return result;
+		}
+		return (end - start) - bytes.length;
+	}
+
+	private static int compareBytes(byte[] bytes1, byte[] bytes2) {
+		int length= Math.min(bytes1.length, bytes2.length);
+		for (int i= 0; i < length; i++) {
+			int result= (bytes1[i] & 0xff) - (bytes2[i] & 0xff);
+			if (result != 0)
+				return result;
+		}
+		return bytes1.length - bytes2.length;
+	}
+}
@@ -16,7 +16,9 @@ package org.eclipse.jdt.internal.ui.text.spelling.engine;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
@@ -36,6 +38,20 @@ public class DefaultSpellChecker implements ISpellChecker {
 	/** Array of URL prefixes */
 	public static final String[] URL_PREFIXES= new String[] { "http://", "https://", "www.", "ftp://", "ftps://", "news://", "mailto://" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
 
+	/**
+	 * The maximum number of words whose results are cached.
+	 * @since 3.16.100
+	 */
+	private static final int WORD_CACHE_SIZE= 10000;
+
+	/**
+	 * The preferences the results of {@link #execute(ISpellEventListener, ISpellCheckIterator)}
+	 * depend on.
+	 * @since 3.16.100
+	 */
+	private static final String[] RESULT_PREFERENCES= { PreferenceConstants.SPELLING_IGNORE_DIGITS, PreferenceConstants.SPELLING_IGNORE_MIXED, PreferenceConstants.SPELLING_IGNORE_SENTENCE,
+			PreferenceConstants.SPELLING_IGNORE_UPPER, PreferenceConstants.SPELLING_IGNORE_URLS, PreferenceConstants.SPELLING_IGNORE_NON_LETTERS, PreferenceConstants.SPELLING_IGNORE_SINGLE_LETTERS };
+
 	/**
 	 * Does this word contain digits?
 	 *
@@ -146,6 +162,32 @@ public class DefaultSpellChecker implements ISpellChecker {
 	 */
 	private Locale fLocale;
 
+	/**
+	 * The results of {@link #isCorrect(String)} for the most recently checked words, in access
+	 * order. Shared by all documents checked with this checker. Synchronized on itself.
+	 * @since 3.16.100
+	 */
+	private final Map<String, Boolean> fCorrectWords= new LinkedHashMap<String, Boolean>(WORD_CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+			return size() > WORD_CACHE_SIZE;
+		}
+	};
+
+	/**
+	 * The stamp of the dictionaries the cached words were checked with.
+	 * @since 3.16.100
+	 */
+	private long fCorrectWordsStamp;
+
+	/**
+	 * The number of changes to the dictionaries and ignored words.
+	 * @since 3.16.100
+	 */
+	private volatile int fGeneration;
+
 	/**
 	 * Creates a new default spell checker.
 	 *
@@ -164,6 +206,7 @@ public class DefaultSpellChecker implements ISpellChecker {
 	public final void addDictionary(final ISpellDictionary dictionary) {
 		// synchronizing is necessary as this is a write access
 		fDictionaries.add(dictionary);
+		dictionariesChanged();
 	}
 
 	@Override
@@ -207,6 +250,7 @@ public class DefaultSpellChecker implements ISpellChecker {
 	public final void checkWord(final String word) {
 		// synchronizing is necessary as this is a write access
 		fIgnored.remove(word.toLowerCase());
+		fGeneration++;
 	}
 
 	@Override
@@ -290,6 +334,7 @@ public class DefaultSpellChecker implements ISpellChecker {
 	public final void ignoreWord(final String word) {
 		// synchronizing is necessary as this is a write access
 		fIgnored.add(word.toLowerCase());
+		fGeneration++;
 	}
 
 	@Override
@@ -303,20 +348,104 @@ public class DefaultSpellChecker implements ISpellChecker {
 		if (fIgnored.contains(word.toLowerCase()))
 			return true;
 
+		final long stamp= getDictionariesStamp(copy);
+		if (stamp != -1) {
+			synchronized (fCorrectWords) {
+				if (stamp != fCorrectWordsStamp) {
+					fCorrectWords.clear();
+					fCorrectWordsStamp= stamp;
+				}
+				Boolean correct= fCorrectWords.get(word);
+				if (correct != null)
+					return correct.booleanValue();
+			}
+		}
+
+		boolean correct= false;
 		ISpellDictionary dictionary= null;
 		for (final Iterator<ISpellDictionary> iterator= copy.iterator(); iterator.hasNext();) {
 
 			dictionary= iterator.next();
-			if (dictionary.isCorrect(word))
-				return true;
+			if (dictionary.isCorrect(word)) {
+				correct= true;
+				break;
+			}
 		}
-		return false;
+
+		if (stamp != -1) {
+			synchronized (fCorrectWords) {
+				// dictionaries may have been loaded or modified in the meantime
+				if (stamp == fCorrectWordsStamp && stamp == getDictionariesStamp(copy))
+					fCorrectWords.put(word, Boolean.valueOf(correct));
+			}
+		}
+		return correct;
+	}
+
+	/**
+	 * Returns a stamp of the given dictionaries that changes whenever their results may change.
+	 *
+	 * @param dictionaries the dictionaries
+	 * @return the stamp, or <code>-1</code> if the dictionaries do not support modification
+	 *         counts
+	 * @since 3.16.100
+	 */
+	private static long getDictionariesStamp(Set<ISpellDictionary> dictionaries) {
+		long stamp= 0;
+		for (final Iterator<ISpellDictionary> iterator= dictionaries.iterator(); iterator.hasNext();) {
+			ISpellDictionary dictionary= iterator.next();
+			if (!(dictionary instanceof AbstractSpellDictionary))
+				return -1;
+			// modification counts only increase
+			stamp+= ((AbstractSpellDictionary) dictionary).getModificationCount();
+		}
+		return stamp;
+	}
+
+	/**
+	 * Forgets the cached results after dictionaries were added or removed.
+	 *
+	 * @since 3.16.100
+	 */
+	private void dictionariesChanged() {
+		synchronized (fCorrectWords) {
+			fCorrectWords.clear();
+			fCorrectWordsStamp= -1;
+		}
+		fGeneration++;
+	}
+
+	/**
+	 * Returns a stamp of the state the results of
+	 * {@link #execute(ISpellEventListener, ISpellCheckIterator)} depend on. The stamp changes
+	 * whenever dictionaries, added or ignored words, or the spelling preferences change, so that
+	 * results with an equal stamp can be reused.
+	 *
+	 * @return the stamp, or <code>null</code> if the results cannot be reused
+	 * @since 3.16.100
+	 */
+	public String getResultStamp() {
+		Set<ISpellDictionary> copy;
+		synchronized (fDictionaries) {
+			copy= new HashSet<>(fDictionaries);
+		}
+		long dictionariesStamp= getDictionariesStamp(copy);
+		if (dictionariesStamp == -1)
+			return null;
+
+		StringBuilder buffer= new StringBuilder();
+		buffer.append(fGeneration).append('/').append(dictionariesStamp).append('/');
+		for (int index= 0; index < RESULT_PREFERENCES.length; index++)
+			buffer.append(fPreferences.getBoolean(RESULT_PREFERENCES[index]) ? '1' : '0');
+		buffer.append('/').append(PreferenceConstants.getPreferenceStore().getInt(PreferenceConstants.SPELLING_PROBLEMS_THRESHOLD));
+		return buffer.toString();
 	}
 
 	@Override
 	public final void removeDictionary(final ISpellDictionary dictionary) {
 		// synchronizing is necessary as this is a write access
 		fDictionaries.remove(dictionary);
+		dictionariesChanged();
 	}
 
 	@Override
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.spelling.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * A BK-tree over the words of a dictionary, which finds the words within a given edit distance of
+ * a misspelled word without looking at most of the other words. Words are compared case
+ * insensitively by their Levenshtein distance, which is a metric as required by the tree.
+ * <p>
+ * The number of words visited per query is bounded, so that queries take bounded time even for
+ * long words or large distances.
+ * </p>
+ * <p>
+ * Instances are thread safe.
+ * </p>
+ *
+ * @since 3.16.100
+ */
+public final class EditDistanceIndex {
+
+	/**
+	 * A node of the tree. The child at index <code>i</code> holds the words with distance
+	 * <code>i</code> to the word of this node.
+	 */
+	private static final class Node {
+
+		private final String fWord;
+		private final char[] fKey;
+		private Node[] fChildren;
+
+		Node(String word, char[] key) {
+			fWord= word;
+			fKey= key;
+		}
+
+		Node getChild(int distance) {
+			return fChildren != null && distance < fChildren.length ? fChildren[distance] : null;
+		}
+
+		void setChild(int distance, Node child) {
+			if (fChildren == null)
+				fChildren= new Node[Math.max(4, distance + 1)];
+			else if (distance >= fChildren.length)
+				fChildren= Arrays.copyOf(fChildren, Math.max(fChildren.length * 2, distance + 1));
+			fChildren[distance]= child;
+		}
+	}
+
+	/** The maximum number of words visited per query */
+	private static final int MAX_VISITS= 20000;
+
+	/** The root of the tree, or <code>null</code> if empty */
+	private Node fRoot;
+
+	/** The number of words */
+	private int fSize;
+
+	/**
+	 * Adds a word to the index.
+	 *
+	 * @param word the word
+	 */
+	public synchronized void add(String word) {
+		char[] key= word.toLowerCase().toCharArray();
+		Node node= new Node(word, key);
+		fSize++;
+		if (fRoot == null) {
+			fRoot= node;
+			return;
+		}
+
+		int[] row= new int[key.length + 1];
+		Node parent= fRoot;
+		while (true) {
+			int distance= getDistance(key, parent.fKey, row);
+			Node child= parent.getChild(distance);
+			if (child == null) {
+				parent.setChild(distance, node);
+				return;
+			}
+			parent= child;
+		}
+	}
+
+	/**
+	 * Returns the number of words in the index.
+	 *
+	 * @return the number of words
+	 */
+	public synchronized int size() {
+		return fSize;
+	}
+
+	/**
+	 * Returns the words within the given edit distance of the given word, nearest first.
+	 *
+	 * @param word the word
+	 * @param maxDistance the maximum edit distance
+	 * @param maxCandidates the maximum number of words to return
+	 * @return the words within the distance, at most <code>maxCandidates</code>
+	 */
+	public synchronized List<String> getCandidates(String word, int maxDistance, int maxCandidates) {
+		if (fRoot == null)
+			return new ArrayList<>(0);
+
+		List<List<String>> byDistance= new ArrayList<>(maxDistance + 1);
+		for (int i= 0; i <= maxDistance; i++)
+			byDistance.add(new ArrayList<String>());
+
+		char[] key= word.toLowerCase().toCharArray();
+		int[] row= new int[key.length + 1];
+		List<Node> pending= new ArrayList<>();
+		pending.add(fRoot);
+		int visits= 0;
+		while (!pending.isEmpty() && visits++ < MAX_VISITS) {
+			Node node= pending.remove(pending.size() - 1);
+			int distance= getDistance(key, node.fKey, row);
+			if (distance <= maxDistance)
+				byDistance.get(distance).add(node.fWord);
+
+			if (node.fChildren != null) {
+				// by the triangle inequality, only children with a distance in [distance - max, distance + max] can match
+				int end= Math.min(node.fChildren.length - 1, distance + maxDistance);
+				for (int i= Math.max(0, distance - maxDistance); i <= end; i++) {
+					if (node.fChildren[i] != null)
+						pending.add(node.fChildren[i]);
+				}
+			}
+		}
+
+		List<String> candidates= new ArrayList<>();
+		for (int i= 0; i <= maxDistance && candidates.size() < maxCandidates; i++) {
+			List<String> words= byDistance.get(i);
+			candidates.addAll(words.subList(0, Math.min(words.size(), maxCandidates - candidates.size())));
+		}
+		return candidates;
+	}
+
+	/**
+	 * Computes the Levenshtein distance of two words. The exact distance is needed to select the
+	 * children to visit, so the computation cannot stop early.
+	 *
+	 * @param key the first word
+	 * @param other the second word
+	 * @param row a buffer of at least <code>key.length + 1</code> elements
+	 * @return the distance
+	 */
+	private static int getDistance(char[] key, char[] other, int[] row) {
+		int n= key.length;
+		for (int i= 0; i <= n; i++)
+			row[i]= i;
+		for (int j= 1; j <= other.length; j++) {
+			int diagonal= row[0];
+			row[0]= j;
+			char c= other[j - 1];
+			for (int i= 1; i <= n; i++) {
+				int above= row[i];
+				int cost= key[i - 1] == c ? diagonal : diagonal + 1;
+				row[i]= Math.min(cost, Math.min(above, row[i - 1]) + 1);
+				diagonal= above;
+			}
+		}
+		return row[n];
+	}
+}
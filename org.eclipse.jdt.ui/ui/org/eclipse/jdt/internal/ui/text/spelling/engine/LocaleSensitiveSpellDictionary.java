@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.spelling.engine;
 
+import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Locale;
@@ -62,4 +63,9 @@ public class LocaleSensitiveSpellDictionary extends AbstractSpellDictionary {
 	protected int getInitialSize() {
 		return 32 * 1024;
 	}
+
+	@Override
+	protected File getCompiledFile(URL url) {
+		return getStateLocationFile(fLocale.toString() + COMPILED_DICTIONARY_EXTENSION);
+	}
 }
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.spelling.engine;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
@@ -91,4 +92,9 @@ public class PersistentSpellDictionary extends AbstractSpellDictionary {
 	protected final URL getURL() {
 		return fLocation;
 	}
+
+	@Override
+	protected File getCompiledFile(URL url) {
+		return getStateLocationFile("user_" + Integer.toHexString(url.getPath().hashCode()) + COMPILED_DICTIONARY_EXTENSION); //$NON-NLS-1$
+	}
 }
@@ -19,10 +19,8 @@ import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
-import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.internal.corext.util.MethodOverrideTester;
 
 import org.eclipse.jdt.ui.JavaElementComparator;
@@ -46,7 +44,7 @@ public abstract class AbstractHierarchyViewerSorter extends ViewerComparator {
 		fSourcePositonSorter= new SourcePositionComparator();
 	}
 
-	protected abstract ITypeHierarchy getHierarchy(IType type);
+	protected abstract ITypeHierarchyModel getHierarchy(IType type);
 	public abstract boolean isSortByDefiningType();
 	public abstract boolean isSortAlphabetically();
 
@@ -137,9 +135,9 @@ public abstract class AbstractHierarchyViewerSorter extends ViewerComparator {
 		}
 
 		IType declaringType= method.getDeclaringType();
-		ITypeHierarchy hierarchy= getHierarchy(declaringType);
+		ITypeHierarchyModel hierarchy= getHierarchy(declaringType);
 		if (hierarchy != null) {
-			MethodOverrideTester tester= new MethodOverrideTester(declaringType, hierarchy);
+			MethodOverrideTester tester= new HierarchyMethodOverrideTester(declaringType, hierarchy);
 			IMethod res= tester.findDeclaringMethod(method, true);
 			if (res != null) {
 				return res.getDeclaringType();
@@ -150,9 +148,9 @@ public abstract class AbstractHierarchyViewerSorter extends ViewerComparator {
 
 
 	private int compareInHierarchy(IType def1, IType def2) {
-		if (JavaModelUtil.isSuperType(getHierarchy(def1), def2, def1)) {
+		if (getHierarchy(def1).isSuperType(def2, def1)) {
 			return 1;
-		} else if (JavaModelUtil.isSuperType(getHierarchy(def2), def1, def2)) {
+		} else if (getHierarchy(def2).isSuperType(def1, def2)) {
 			return -1;
 		}
 		// interfaces after classes
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+
+/**
+ * A type hierarchy model that delegates to a hierarchy computed by JDT Core.
+ */
+public final class CoreTypeHierarchyModel implements ITypeHierarchyModel {
+
+	private final ITypeHierarchy fHierarchy;
+
+	/**
+	 * Creates a model for the given hierarchy.
+	 *
+	 * @param hierarchy the hierarchy computed by JDT Core
+	 */
+	public CoreTypeHierarchyModel(ITypeHierarchy hierarchy) {
+		fHierarchy= hierarchy;
+	}
+
+	@Override
+	public ITypeHierarchy getCoreHierarchy() {
+		return fHierarchy;
+	}
+
+	@Override
+	public IType getType() {
+		return fHierarchy.getType();
+	}
+
+	@Override
+	public boolean exists() {
+		return fHierarchy.exists();
+	}
+
+	@Override
+	public boolean contains(IType type) {
+		return fHierarchy.contains(type);
+	}
+
+	@Override
+	public IType[] getAllTypes() {
+		return fHierarchy.getAllTypes();
+	}
+
+	@Override
+	public int getCachedFlags(IType type) {
+		return fHierarchy.getCachedFlags(type);
+	}
+
+	@Override
+	public IType getSuperclass(IType type) {
+		return fHierarchy.getSuperclass(type);
+	}
+
+	@Override
+	public IType[] getSuperInterfaces(IType type) {
+		return fHierarchy.getSuperInterfaces(type);
+	}
+
+	@Override
+	public IType[] getSupertypes(IType type) {
+		return fHierarchy.getSupertypes(type);
+	}
+
+	@Override
+	public IType[] getAllSupertypes(IType type) {
+		return fHierarchy.getAllSupertypes(type);
+	}
+
+	@Override
+	public IType[] getSubtypes(IType type) {
+		return fHierarchy.getSubtypes(type);
+	}
+
+	@Override
+	public IType[] getAllSubtypes(IType type) {
+		return fHierarchy.getAllSubtypes(type);
+	}
+
+	@Override
+	public IType[] getRootClasses() {
+		return fHierarchy.getRootClasses();
+	}
+
+	@Override
+	public IType[] getRootInterfaces() {
+		return fHierarchy.getRootInterfaces();
+	}
+
+	@Override
+	public boolean isSuperType(IType possibleSuperType, IType type) {
+		return JavaModelUtil.isSuperType(fHierarchy, possibleSuperType, type);
+	}
+
+	@Override
+	public String toString() {
+		return fHierarchy.toString();
+	}
+}
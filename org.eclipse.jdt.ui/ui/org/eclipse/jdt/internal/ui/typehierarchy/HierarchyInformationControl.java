@@ -40,7 +40,6 @@ import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IOrdinaryClassFile;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.Signature;
 
@@ -190,13 +189,13 @@ public class HierarchyInformationControl extends AbstractInformationControl {
 			return filterMethod;
 		}
 		
-		ITypeHierarchy hierarchy= fLifeCycle.getHierarchy();
+		ITypeHierarchyModel hierarchy= fLifeCycle.getHierarchy();
 
-		boolean filterOverrides= JavaModelUtil.isSuperType(hierarchy, typeToFindIn, filterType);
+		boolean filterOverrides= hierarchy.isSuperType(typeToFindIn, filterType);
 		IType focusType= filterOverrides ? filterType : typeToFindIn;
 
 		if (fMethodOverrideTester == null || !fMethodOverrideTester.getFocusType().equals(focusType)) {
-			fMethodOverrideTester= new MethodOverrideTester(focusType, hierarchy);
+			fMethodOverrideTester= new HierarchyMethodOverrideTester(focusType, hierarchy);
 		}
 
 		if (filterOverrides) {
@@ -29,7 +29,6 @@ import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
 import org.eclipse.jdt.ui.JavaElementImageDescriptor;
@@ -116,7 +115,7 @@ public class HierarchyLabelProvider extends AppearanceAwareLabelProvider {
 	}
 
 	private ImageDescriptor getTypeImageDescriptor(IType type) {
-		ITypeHierarchy hierarchy= fHierarchy.getHierarchy();
+		ITypeHierarchyModel hierarchy= fHierarchy.getHierarchy();
 		if (hierarchy == null) {
 			return new JavaElementImageDescriptor(JavaPluginImages.DESC_OBJS_CLASS, 0, JavaElementImageProvider.BIG_SIZE);
 		}
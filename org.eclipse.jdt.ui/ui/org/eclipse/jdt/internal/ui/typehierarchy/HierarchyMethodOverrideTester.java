@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.corext.util.MethodOverrideTester;
+
+/**
+ * A method override tester that finds the supertypes in a {@link ITypeHierarchyModel}, which
+ * may have been updated after the hierarchy computed by JDT Core.
+ */
+public class HierarchyMethodOverrideTester extends MethodOverrideTester {
+
+	private final ITypeHierarchyModel fHierarchy;
+
+	public HierarchyMethodOverrideTester(IType focusType, ITypeHierarchyModel hierarchy) {
+		super(focusType, hierarchy.getCoreHierarchy());
+		fHierarchy= hierarchy;
+	}
+
+	@Override
+	protected IType getSuperclass(IType type) {
+		return fHierarchy.getSuperclass(type);
+	}
+
+	@Override
+	protected IType[] getSuperInterfaces(IType type) {
+		return fHierarchy.getSuperInterfaces(type);
+	}
+}
@@ -14,7 +14,6 @@
 package org.eclipse.jdt.internal.ui.typehierarchy;
 
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 
 /**
   */
@@ -33,7 +32,7 @@ public class HierarchyViewerSorter extends AbstractHierarchyViewerSorter {
 
 	@Override
 	protected int getTypeFlags(IType type) {
-		ITypeHierarchy hierarchy= getHierarchy(type);
+		ITypeHierarchyModel hierarchy= getHierarchy(type);
 		if (hierarchy != null) {
 			return fHierarchy.getHierarchy().getCachedFlags(type);
 		}
@@ -51,7 +50,7 @@ public class HierarchyViewerSorter extends AbstractHierarchyViewerSorter {
 	}
 
 	@Override
-	protected ITypeHierarchy getHierarchy(IType type) {
+	protected ITypeHierarchyModel getHierarchy(IType type) {
 		return fHierarchy.getHierarchy(); // hierarchy contains all types shown
 	}
 
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+
+/**
+ * The type hierarchy shown by the type hierarchy views. It is either a hierarchy computed by JDT
+ * Core, see {@link CoreTypeHierarchyModel}, or an {@link IncrementalTypeHierarchy} that is
+ * updated from the Java element deltas.
+ * <p>
+ * The methods are specified like the methods of the same name in {@link ITypeHierarchy}, which
+ * must not be implemented by clients.
+ * </p>
+ */
+public interface ITypeHierarchyModel {
+
+	/**
+	 * @return the hierarchy computed by JDT Core that this hierarchy is based on
+	 */
+	ITypeHierarchy getCoreHierarchy();
+
+	/**
+	 * @return the type this hierarchy was computed for, or <code>null</code> if computed for a
+	 *         region
+	 * @see ITypeHierarchy#getType()
+	 */
+	IType getType();
+
+	/**
+	 * @return <code>true</code> if the hierarchy still exists
+	 * @see ITypeHierarchy#exists()
+	 */
+	boolean exists();
+
+	/**
+	 * @param type the type
+	 * @return <code>true</code> if the type is in this hierarchy
+	 * @see ITypeHierarchy#contains(IType)
+	 */
+	boolean contains(IType type);
+
+	/**
+	 * @return all types in this hierarchy
+	 * @see ITypeHierarchy#getAllTypes()
+	 */
+	IType[] getAllTypes();
+
+	/**
+	 * @param type the type
+	 * @return the cached flags of the type, or <code>-1</code> if unknown
+	 * @see ITypeHierarchy#getCachedFlags(IType)
+	 */
+	int getCachedFlags(IType type);
+
+	/**
+	 * @param type the type
+	 * @return the superclass of the type, or <code>null</code>
+	 * @see ITypeHierarchy#getSuperclass(IType)
+	 */
+	IType getSuperclass(IType type);
+
+	/**
+	 * @param type the type
+	 * @return the direct super interfaces of the type
+	 * @see ITypeHierarchy#getSuperInterfaces(IType)
+	 */
+	IType[] getSuperInterfaces(IType type);
+
+	/**
+	 * @param type the type
+	 * @return the direct supertypes of the type
+	 * @see ITypeHierarchy#getSupertypes(IType)
+	 */
+	IType[] getSupertypes(IType type);
+
+	/**
+	 * @param type the type
+	 * @return all supertypes of the type
+	 * @see ITypeHierarchy#getAllSupertypes(IType)
+	 */
+	IType[] getAllSupertypes(IType type);
+
+	/**
+	 * @param type the type
+	 * @return the direct subtypes of the type
+	 * @see ITypeHierarchy#getSubtypes(IType)
+	 */
+	IType[] getSubtypes(IType type);
+
+	/**
+	 * @param type the type
+	 * @return all subtypes of the type
+	 * @see ITypeHierarchy#getAllSubtypes(IType)
+	 */
+	IType[] getAllSubtypes(IType type);
+
+	/**
+	 * @return the classes without superclass
+	 * @see ITypeHierarchy#getRootClasses()
+	 */
+	IType[] getRootClasses();
+
+	/**
+	 * @return the interfaces without super interfaces
+	 * @see ITypeHierarchy#getRootInterfaces()
+	 */
+	IType[] getRootInterfaces();
+
+	/**
+	 * Tests whether a type is a supertype of another type, like
+	 * {@link org.eclipse.jdt.internal.corext.util.JavaModelUtil#isSuperType(ITypeHierarchy, IType, IType)}.
+	 *
+	 * @param possibleSuperType the possible supertype
+	 * @param type the type
+	 * @return <code>true</code> if <code>possibleSuperType</code> is a supertype of
+	 *         <code>type</code>
+	 */
+	boolean isSuperType(IType possibleSuperType, IType type);
+}
@@ -0,0 +1,458 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IOrdinaryClassFile;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * A snapshot of a type hierarchy on a single type that can be updated incrementally.
+ * <p>
+ * The snapshot is taken from a hierarchy computed by JDT Core. Changes to the supertypes of
+ * single types are applied by {@link #update(Collection, Collection, IProgressMonitor)}, which
+ * only resolves the supertypes of the changed types and the subtypes of types that were added to
+ * the hierarchy, instead of recomputing the whole hierarchy. Instances are not modified by
+ * updates, so that they can be used by viewers while an update is computed.
+ * </p>
+ */
+class IncrementalTypeHierarchy implements ITypeHierarchyModel {
+
+	/**
+	 * Maximum number of types whose supertypes are resolved in one update. If more types
+	 * changed, a full recompute is cheaper.
+	 */
+	private static final int MAX_RESOLVED_TYPES= 50;
+
+	private static final IType[] NO_TYPES= new IType[0];
+
+	private static class TypeInfo {
+		final IType fSuperclass;
+		final IType[] fSuperInterfaces;
+		final int fFlags;
+		final boolean fIsInterface;
+
+		TypeInfo(IType superclass, IType[] superInterfaces, int flags, boolean isInterface) {
+			fSuperclass= superclass;
+			fSuperInterfaces= superInterfaces;
+			fFlags= flags;
+			fIsInterface= isInterface;
+		}
+	}
+
+	private final ITypeHierarchy fBase;
+	private final IType fType;
+
+	private Map<IType, TypeInfo> fTypes;
+	private Map<IType, List<IType>> fSubtypes;
+
+	/**
+	 * Creates a snapshot of the given hierarchy.
+	 *
+	 * @param base the hierarchy computed by JDT Core, must be a hierarchy on a single type
+	 */
+	public IncrementalTypeHierarchy(ITypeHierarchy base) {
+		fBase= base;
+		fType= base.getType();
+		initialize();
+	}
+
+	private IncrementalTypeHierarchy(IncrementalTypeHierarchy hierarchy) {
+		fBase= hierarchy.fBase;
+		fType= hierarchy.fType;
+		fTypes= new LinkedHashMap<>(hierarchy.fTypes);
+	}
+
+	private void initialize() {
+		fTypes= new LinkedHashMap<>();
+		Set<IType> interfaces= new HashSet<>(Arrays.asList(fBase.getAllInterfaces()));
+		IType[] types= fBase.getAllTypes();
+		for (int i= 0; i < types.length; i++) {
+			put(types[i], fBase, interfaces);
+		}
+		fSubtypes= computeSubtypes();
+	}
+
+	/**
+	 * @return the hierarchy computed by JDT Core from which this snapshot was taken
+	 */
+	@Override
+	public ITypeHierarchy getCoreHierarchy() {
+		return fBase;
+	}
+
+	/**
+	 * Applies changes of the Java model to a copy of this hierarchy.
+	 *
+	 * @param changed the added or changed elements that contain types whose supertypes may have
+	 *            changed: packages, compilation units, class files or types
+	 * @param removed the removed elements
+	 * @param pm the progress monitor
+	 * @return the updated hierarchy, or <code>null</code> if too many types changed and the
+	 *         hierarchy should be recomputed
+	 * @throws JavaModelException if the supertypes of a changed type could not be resolved
+	 */
+	public IncrementalTypeHierarchy update(Collection<IJavaElement> changed, Collection<IJavaElement> removed, IProgressMonitor pm) throws JavaModelException {
+		IncrementalTypeHierarchy result= new IncrementalTypeHierarchy(this);
+
+		Set<IType> removedTypes= new HashSet<>();
+		for (IJavaElement element : removed) {
+			result.removeContainedTypes(element, false, removedTypes);
+		}
+		Set<IType> candidates= new LinkedHashSet<>();
+		for (IJavaElement element : changed) {
+			if (element.exists()) {
+				collectTypes(element, candidates);
+				result.removeContainedTypes(element, true, removedTypes);
+			} else {
+				result.removeContainedTypes(element, false, removedTypes);
+			}
+		}
+		if (!removedTypes.isEmpty()) {
+			// the supertypes of subtypes of removed types are no longer resolved
+			for (Map.Entry<IType, TypeInfo> entry : result.fTypes.entrySet()) {
+				TypeInfo info= entry.getValue();
+				if (removedTypes.contains(info.fSuperclass) || !Collections.disjoint(removedTypes, Arrays.asList(info.fSuperInterfaces)))
+					candidates.add(entry.getKey());
+			}
+		}
+
+		// only resolve types that are in the hierarchy or that may have a supertype in it
+		Set<String> names= result.getTypeNames();
+		for (Iterator<IType> iter= candidates.iterator(); iter.hasNext();) {
+			IType candidate= iter.next();
+			if (!result.fTypes.containsKey(candidate) && !hasSupertypeNamed(candidate, names))
+				iter.remove();
+		}
+		if (candidates.size() > MAX_RESOLVED_TYPES)
+			return null;
+
+		SubMonitor progress= SubMonitor.convert(pm, candidates.size() * 2);
+		for (IType candidate : candidates) {
+			if (progress.isCanceled())
+				throw new OperationCanceledException();
+			boolean wasMember= result.fTypes.containsKey(candidate);
+			ITypeHierarchy supertypes= candidate.newSupertypeHierarchy(progress.split(1));
+			result.putAll(supertypes);
+			if (!wasMember && !candidate.equals(fType) && Arrays.asList(supertypes.getAllSupertypes(candidate)).contains(fType)) {
+				// a new subtype: add the subtree below it
+				result.putAll(candidate.newTypeHierarchy(progress.split(1)));
+			} else {
+				progress.worked(1);
+			}
+		}
+
+		result.removeUnreachableTypes();
+		result.fSubtypes= result.computeSubtypes();
+		return result;
+	}
+
+	private void put(IType type, ITypeHierarchy source, Set<IType> interfaces) {
+		fTypes.put(type, new TypeInfo(source.getSuperclass(type), source.getSuperInterfaces(type), source.getCachedFlags(type), interfaces.contains(type)));
+	}
+
+	private void putAll(ITypeHierarchy source) {
+		Set<IType> interfaces= new HashSet<>(Arrays.asList(source.getAllInterfaces()));
+		IType[] types= source.getAllTypes();
+		for (int i= 0; i < types.length; i++) {
+			put(types[i], source, interfaces);
+		}
+	}
+
+	/*
+	 * Removes the types declared in the given element. If onlyDeleted is set, only types that no
+	 * longer exist are removed.
+	 */
+	private void removeContainedTypes(IJavaElement element, boolean onlyDeleted, Set<IType> removedTypes) {
+		for (Iterator<IType> iter= fTypes.keySet().iterator(); iter.hasNext();) {
+			IType type= iter.next();
+			if (isContainedIn(type, element) && (!onlyDeleted || !type.exists())) {
+				iter.remove();
+				removedTypes.add(type);
+			}
+		}
+	}
+
+	private static boolean isContainedIn(IJavaElement element, IJavaElement container) {
+		IJavaElement curr= element;
+		while (curr != null) {
+			if (curr.equals(container))
+				return true;
+			curr= curr.getParent();
+		}
+		return false;
+	}
+
+	private static void collectTypes(IJavaElement element, Collection<IType> result) throws JavaModelException {
+		switch (element.getElementType()) {
+			case IJavaElement.PACKAGE_FRAGMENT:
+				ICompilationUnit[] cus= ((IPackageFragment) element).getCompilationUnits();
+				for (int i= 0; i < cus.length; i++) {
+					collectTypes(cus[i], result);
+				}
+				IClassFile[] classFiles= ((IPackageFragment) element).getAllClassFiles();
+				for (int i= 0; i < classFiles.length; i++) {
+					collectTypes(classFiles[i], result);
+				}
+				break;
+			case IJavaElement.CLASS_FILE:
+				if (element instanceof IOrdinaryClassFile)
+					result.add(((IOrdinaryClassFile) element).getType());
+				break;
+			case IJavaElement.TYPE:
+				result.add((IType) element);
+				//$FALL-THROUGH$
+			default:
+				// members contain local and anonymous types
+				if (element instanceof IParent) {
+					IJavaElement[] children= ((IParent) element).getChildren();
+					for (int i= 0; i < children.length; i++) {
+						collectTypes(children[i], result);
+					}
+				}
+				break;
+		}
+	}
+
+	private Set<String> getTypeNames() {
+		Set<String> names= new HashSet<>();
+		for (IType type : fTypes.keySet()) {
+			names.add(type.getElementName());
+		}
+		return names;
+	}
+
+	private static boolean hasSupertypeNamed(IType type, Set<String> names) throws JavaModelException {
+		String superclass= type.getSuperclassName();
+		if (superclass != null && names.contains(getSimpleName(superclass)))
+			return true;
+		String[] superInterfaces= type.getSuperInterfaceNames();
+		for (int i= 0; i < superInterfaces.length; i++) {
+			if (names.contains(getSimpleName(superInterfaces[i])))
+				return true;
+		}
+		return false;
+	}
+
+	private static String getSimpleName(String typeName) {
+		int end= typeName.indexOf('<');
+		String name= end == -1 ? typeName : typeName.substring(0, end);
+		int start= Math.max(name.lastIndexOf('.'), name.lastIndexOf('$'));
+		return name.substring(start + 1).trim();
+	}
+
+	/*
+	 * Keeps the focus type, its subtypes, and all their supertypes.
+	 */
+	private void removeUnreachableTypes() {
+		Map<IType, List<IType>> subtypes= computeSubtypes();
+		Set<IType> reachable= new HashSet<>();
+		Deque<IType> queue= new ArrayDeque<>();
+		queue.add(fType);
+		while (!queue.isEmpty()) {
+			IType type= queue.remove();
+			if (reachable.add(type)) {
+				List<IType> children= subtypes.get(type);
+				if (children != null)
+					queue.addAll(children);
+			}
+		}
+		queue.addAll(reachable);
+		while (!queue.isEmpty()) {
+			TypeInfo info= fTypes.get(queue.remove());
+			if (info != null) {
+				if (info.fSuperclass != null && reachable.add(info.fSuperclass))
+					queue.add(info.fSuperclass);
+				for (int i= 0; i < info.fSuperInterfaces.length; i++) {
+					if (reachable.add(info.fSuperInterfaces[i]))
+						queue.add(info.fSuperInterfaces[i]);
+				}
+			}
+		}
+		fTypes.keySet().retainAll(reachable);
+	}
+
+	private Map<IType, List<IType>> computeSubtypes() {
+		Map<IType, List<IType>> subtypes= new HashMap<>();
+		for (Map.Entry<IType, TypeInfo> entry : fTypes.entrySet()) {
+			TypeInfo info= entry.getValue();
+			if (info.fSuperclass != null)
+				addSubtype(subtypes, info.fSuperclass, entry.getKey());
+			for (int i= 0; i < info.fSuperInterfaces.length; i++) {
+				addSubtype(subtypes, info.fSuperInterfaces[i], entry.getKey());
+			}
+		}
+		return subtypes;
+	}
+
+	private static void addSubtype(Map<IType, List<IType>> subtypes, IType type, IType subtype) {
+		List<IType> list= subtypes.get(type);
+		if (list == null) {
+			list= new ArrayList<>(2);
+			subtypes.put(type, list);
+		}
+		if (!list.contains(subtype))
+			list.add(subtype);
+	}
+
+	private static IType[] toArray(Collection<IType> types) {
+		return types.isEmpty() ? NO_TYPES : types.toArray(new IType[types.size()]);
+	}
+
+	@Override
+	public boolean contains(IType type) {
+		return fTypes.containsKey(type);
+	}
+
+	@Override
+	public boolean exists() {
+		return fType.exists();
+	}
+
+	@Override
+	public IType[] getAllSubtypes(IType type) {
+		Set<IType> result= new LinkedHashSet<>();
+		Deque<IType> queue= new ArrayDeque<>();
+		queue.add(type);
+		while (!queue.isEmpty()) {
+			List<IType> subtypes= fSubtypes.get(queue.remove());
+			if (subtypes != null) {
+				for (IType subtype : subtypes) {
+					if (result.add(subtype))
+						queue.add(subtype);
+				}
+			}
+		}
+		return toArray(result);
+	}
+
+	@Override
+	public IType[] getAllSupertypes(IType type) {
+		Set<IType> result= new LinkedHashSet<>();
+		Deque<IType> queue= new ArrayDeque<>();
+		queue.add(type);
+		while (!queue.isEmpty()) {
+			IType[] supertypes= getSupertypes(queue.remove());
+			for (int i= 0; i < supertypes.length; i++) {
+				if (result.add(supertypes[i]))
+					queue.add(supertypes[i]);
+			}
+		}
+		return toArray(result);
+	}
+
+	@Override
+	public IType[] getAllTypes() {
+		return toArray(fTypes.keySet());
+	}
+
+	@Override
+	public int getCachedFlags(IType type) {
+		TypeInfo info= fTypes.get(type);
+		return info != null ? info.fFlags : -1;
+	}
+
+	@Override
+	public IType[] getRootClasses() {
+		List<IType> result= new ArrayList<>();
+		for (Map.Entry<IType, TypeInfo> entry : fTypes.entrySet()) {
+			TypeInfo info= entry.getValue();
+			if (!info.fIsInterface && info.fSuperclass == null)
+				result.add(entry.getKey());
+		}
+		return toArray(result);
+	}
+
+	@Override
+	public IType[] getRootInterfaces() {
+		List<IType> result= new ArrayList<>();
+		for (Map.Entry<IType, TypeInfo> entry : fTypes.entrySet()) {
+			TypeInfo info= entry.getValue();
+			if (info.fIsInterface && info.fSuperInterfaces.length == 0)
+				result.add(entry.getKey());
+		}
+		return toArray(result);
+	}
+
+	@Override
+	public IType[] getSubtypes(IType type) {
+		List<IType> subtypes= fSubtypes.get(type);
+		return subtypes == null ? NO_TYPES : toArray(subtypes);
+	}
+
+	@Override
+	public IType getSuperclass(IType type) {
+		TypeInfo info= fTypes.get(type);
+		return info != null ? info.fSuperclass : null;
+	}
+
+	@Override
+	public IType[] getSuperInterfaces(IType type) {
+		TypeInfo info= fTypes.get(type);
+		return info != null ? info.fSuperInterfaces.clone() : NO_TYPES;
+	}
+
+	@Override
+	public IType[] getSupertypes(IType type) {
+		TypeInfo info= fTypes.get(type);
+		if (info == null)
+			return NO_TYPES;
+		if (info.fSuperclass == null)
+			return info.fSuperInterfaces.clone();
+		IType[] result= new IType[info.fSuperInterfaces.length + 1];
+		result[0]= info.fSuperclass;
+		System.arraycopy(info.fSuperInterfaces, 0, result, 1, info.fSuperInterfaces.length);
+		return result;
+	}
+
+	@Override
+	public IType getType() {
+		return fType;
+	}
+
+	@Override
+	public boolean isSuperType(IType possibleSuperType, IType type) {
+		return Arrays.asList(getAllSupertypes(type)).contains(possibleSuperType);
+	}
+
+	@Override
+	public String toString() {
+		return "IncrementalTypeHierarchy on " + fType.getFullyQualifiedName() + " (" + fTypes.size() + " types)"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
@@ -23,7 +23,6 @@ import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
 
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
 import org.eclipse.jdt.ui.IWorkingCopyProvider;
@@ -93,7 +92,7 @@ public class MethodsContentProvider implements IStructuredContentProvider, IWork
 
 			List<Object> res= new ArrayList<>();
 			try {
-				ITypeHierarchy hierarchy= fHierarchyLifeCycle.getHierarchy();
+				ITypeHierarchyModel hierarchy= fHierarchyLifeCycle.getHierarchy();
 				if (fShowInheritedMethods && hierarchy != null) {
 					IType[] allSupertypes= hierarchy.getAllSupertypes(type);
 					// sort in from last to first: elements with same name
@@ -25,7 +25,6 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
 import org.eclipse.jdt.internal.corext.util.MethodOverrideTester;
@@ -80,12 +79,12 @@ public class MethodsLabelProvider extends AppearanceAwareLabelProvider {
 		if (kind != IJavaElement.METHOD) {
 			return declaringType;
 		}
-		ITypeHierarchy hierarchy= fHierarchy.getHierarchy();
+		ITypeHierarchyModel hierarchy= fHierarchy.getHierarchy();
 		if (hierarchy == null) {
 			return declaringType;
 		}
 		IMethod method= (IMethod) element;
-		MethodOverrideTester tester= new MethodOverrideTester(declaringType, hierarchy);
+		MethodOverrideTester tester= new HierarchyMethodOverrideTester(declaringType, hierarchy);
 		IMethod res= tester.findDeclaringMethod(method, true);
 		if (res == null || method.equals(res)) {
 			return declaringType;
@@ -18,7 +18,6 @@ import java.util.List;
 import org.eclipse.swt.widgets.Composite;
 
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 
 /**
  * A viewer including the content provider for the subtype hierarchy.
@@ -59,7 +58,7 @@ public class SubTypeHierarchyViewer extends TypeHierarchyViewer {
 
 		@Override
 		protected final void getTypesInHierarchy(IType type, List<IType> res) {
-			ITypeHierarchy hierarchy= getHierarchy();
+			ITypeHierarchyModel hierarchy= getHierarchy();
 			if (hierarchy != null) {
 				IType[] types= hierarchy.getSubtypes(type);
 				if (isObject(type)) {
@@ -80,7 +79,7 @@ public class SubTypeHierarchyViewer extends TypeHierarchyViewer {
 
 		@Override
 		protected IType getParentType(IType type) {
-			ITypeHierarchy hierarchy= getHierarchy();
+			ITypeHierarchyModel hierarchy= getHierarchy();
 			if (hierarchy != null) {
 				return hierarchy.getSuperclass(type);
 				// dont handle interfaces
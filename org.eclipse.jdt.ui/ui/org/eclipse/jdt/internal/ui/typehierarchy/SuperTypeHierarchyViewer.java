@@ -20,7 +20,6 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.TreeItem;
 
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 
 /**
  * A viewer including the content provider for the supertype hierarchy.
@@ -70,7 +69,7 @@ public class SuperTypeHierarchyViewer extends TypeHierarchyViewer {
 
 		@Override
 		protected final void getTypesInHierarchy(IType type, List<IType> res) {
-			ITypeHierarchy hierarchy= getHierarchy();
+			ITypeHierarchyModel hierarchy= getHierarchy();
 			if (hierarchy != null) {
 				IType[] types= hierarchy.getSupertypes(type);
 				for (int i= 0; i < types.length; i++) {
@@ -20,7 +20,6 @@ import org.eclipse.swt.widgets.Composite;
 
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 
 /**
  * A TypeHierarchyViewer that looks like the type hierarchy view of VA/Java:
@@ -65,7 +64,7 @@ public class TraditionalHierarchyViewer extends TypeHierarchyViewer {
 		}
 
 		public int getExpandLevel() {
-			ITypeHierarchy hierarchy= getHierarchy();
+			ITypeHierarchyModel hierarchy= getHierarchy();
 			if (hierarchy != null) {
 				IType input= hierarchy.getType();
 				if (input != null) {
@@ -77,7 +76,7 @@ public class TraditionalHierarchyViewer extends TypeHierarchyViewer {
 			return 2;
 		}
 
-		private int getDepth(ITypeHierarchy hierarchy, IType input) {
+		private int getDepth(ITypeHierarchyModel hierarchy, IType input) {
 			int count= 0;
 			IType superType= hierarchy.getSuperclass(input);
 			while (superType != null) {
@@ -89,7 +88,7 @@ public class TraditionalHierarchyViewer extends TypeHierarchyViewer {
 
 		@Override
 		protected final void getRootTypes(List<IType> res) {
-			ITypeHierarchy hierarchy= getHierarchy();
+			ITypeHierarchyModel hierarchy= getHierarchy();
 			if (hierarchy != null) {
 				IType input= hierarchy.getType();
 				if (input == null) {
@@ -125,7 +124,7 @@ public class TraditionalHierarchyViewer extends TypeHierarchyViewer {
 		 */
 		@Override
 		protected final void getTypesInHierarchy(IType type, List<IType> res) {
-			ITypeHierarchy hierarchy= getHierarchy();
+			ITypeHierarchyModel hierarchy= getHierarchy();
 			if (hierarchy != null) {
 				IType[] types= hierarchy.getSubtypes(type);
 				if (isObject(type)) {
@@ -157,7 +156,7 @@ public class TraditionalHierarchyViewer extends TypeHierarchyViewer {
 
 		@Override
 		protected IType getParentType(IType type) {
-			ITypeHierarchy hierarchy= getHierarchy();
+			ITypeHierarchyModel hierarchy= getHierarchy();
 			if (hierarchy != null) {
 				return hierarchy.getSuperclass(type);
 				// don't handle interfaces
@@ -28,10 +28,8 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
-import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.internal.corext.util.MethodOverrideTester;
 
 import org.eclipse.jdt.ui.IWorkingCopyProvider;
@@ -85,13 +83,13 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 
 	private boolean initializeMethodOverrideTester(IMethod filterMethod, IType typeToFindIn) {
 		IType filterType= filterMethod.getDeclaringType();
-		ITypeHierarchy hierarchy= fTypeHierarchy.getHierarchy();
+		ITypeHierarchyModel hierarchy= fTypeHierarchy.getHierarchy();
 
-		boolean filterOverrides= JavaModelUtil.isSuperType(hierarchy, typeToFindIn, filterType);
+		boolean filterOverrides= hierarchy.isSuperType(typeToFindIn, filterType);
 		IType focusType= filterOverrides ? filterType : typeToFindIn;
 
 		if (fMethodOverrideTester == null || !fMethodOverrideTester.getFocusType().equals(focusType)) {
-			fMethodOverrideTester= new MethodOverrideTester(focusType, hierarchy);
+			fMethodOverrideTester= new HierarchyMethodOverrideTester(focusType, hierarchy);
 		}
 		return filterOverrides;
 	}
@@ -160,7 +158,7 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	}
 
 
-	protected final ITypeHierarchy getHierarchy() {
+	protected final ITypeHierarchyModel getHierarchy() {
 		return fTypeHierarchy.getHierarchy();
 	}
 
@@ -193,7 +191,7 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	}
 
 	protected void getRootTypes(List<IType> res) {
-		ITypeHierarchy hierarchy= getHierarchy();
+		ITypeHierarchyModel hierarchy= getHierarchy();
 		if (hierarchy != null) {
 			IType input= hierarchy.getType();
 			if (input != null) {
@@ -16,7 +16,10 @@ package org.eclipse.jdt.internal.ui.typehierarchy;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.swt.widgets.Display;
 
@@ -53,11 +56,30 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 
 /**
  * Manages a type hierarchy, to keep it refreshed, and to allow it to be shared.
+ * <p>
+ * Hierarchies on a single type are kept as {@link IncrementalTypeHierarchy}: changes to the
+ * supertypes of types are applied in the background from the Java element deltas, and the
+ * hierarchy is only recomputed if a delta cannot be applied incrementally, e.g. when the
+ * classpath changes.
+ * </p>
  */
 public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IElementChangedListener {
 
-	private boolean fHierarchyRefreshNeeded;
-	private ITypeHierarchy fHierarchy;
+	private static final int CLASSPATH_CHANGE_FLAGS= IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+			| IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED | IJavaElementDelta.F_ADDED_TO_CLASSPATH
+			| IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_REORDER;
+
+	/**
+	 * Tells whether the hierarchy must be recomputed. Read in the thread that reports the Java
+	 * element deltas, written there and in the UI thread.
+	 */
+	private volatile boolean fHierarchyRefreshNeeded;
+
+	/**
+	 * The hierarchy. Replaced in the UI thread, and read in the thread that reports the Java
+	 * element deltas.
+	 */
+	private volatile ITypeHierarchyModel fHierarchy;
 	private IJavaElement[] fInputElements;
 	private boolean fIsSuperTypesOnly;
 
@@ -84,6 +106,24 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	private boolean fRefreshJobCanceledExplicitly= true;
 
+	/**
+	 * The job that applies changes to an {@link IncrementalTypeHierarchy}.
+	 */
+	private Job fUpdateHierarchyJob;
+
+	/**
+	 * Added or changed elements not yet applied to the hierarchy, guarded by <code>this</code>.
+	 */
+	private final Set<IJavaElement> fPendingChanges= new LinkedHashSet<>();
+
+	/**
+	 * Removed elements not yet applied to the hierarchy, guarded by <code>this</code>.
+	 */
+	private final Set<IJavaElement> fPendingRemovals= new LinkedHashSet<>();
+
+	private int fFullRefreshCount;
+	private int fIncrementalRefreshCount;
+
 	/**
 	 * Creates the type hierarchy life cycle.
 	 *
@@ -103,7 +143,7 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		fChangeListeners= new ArrayList<>(2);
 	}
 
-	public ITypeHierarchy getHierarchy() {
+	public ITypeHierarchyModel getHierarchy() {
 		return fHierarchy;
 	}
 
@@ -119,7 +159,7 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 
 	public void freeHierarchy() {
 		if (fHierarchy != null) {
-			fHierarchy.removeTypeHierarchyChangedListener(this);
+			fHierarchy.getCoreHierarchy().removeTypeHierarchyChangedListener(this);
 			JavaCore.removeElementChangedListener(this);
 			fHierarchy= null;
 			fInputElements= null;
@@ -129,9 +169,32 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 				fRefreshHierarchyJob.cancel();
 				fRefreshHierarchyJob= null;
 			}
+			if (fUpdateHierarchyJob != null) {
+				fUpdateHierarchyJob.cancel();
+			}
+			fPendingChanges.clear();
+			fPendingRemovals.clear();
 		}
 	}
 
+	/**
+	 * Returns how often the hierarchy was computed or refreshed completely.
+	 *
+	 * @return the number of full recomputes
+	 */
+	public synchronized int getFullRefreshCount() {
+		return fFullRefreshCount;
+	}
+
+	/**
+	 * Returns how often changes were applied incrementally to the hierarchy.
+	 *
+	 * @return the number of incremental updates
+	 */
+	public synchronized int getIncrementalRefreshCount() {
+		return fIncrementalRefreshCount;
+	}
+
 	public void removeChangedListener(ITypeHierarchyLifeCycleListener listener) {
 		fChangeListeners.remove(listener);
 	}
@@ -227,14 +290,15 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 							try {
 								doHierarchyRefreshBackground(elements, pm);
 							} catch (OperationCanceledException e) {
+								fHierarchyRefreshNeeded= true;
 								if (fRefreshJobCanceledExplicitly) {
 									fTypeHierarchyViewPart.showEmptyViewer();
 								}
 								return Status.CANCEL_STATUS;
 							} catch (JavaModelException e) {
+								fHierarchyRefreshNeeded= true;
 								return e.getStatus();
 							} finally {
-								fHierarchyRefreshNeeded= true;
 								pm.done();
 							}
 							return Status.OK_STATUS;
@@ -328,25 +392,44 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		// to ensure the order of the two listeners always remove / add listeners on operations
 		// on type hierarchies
 		if (fHierarchy != null) {
-			fHierarchy.removeTypeHierarchyChangedListener(this);
+			fHierarchy.getCoreHierarchy().removeTypeHierarchyChangedListener(this);
 			JavaCore.removeElementChangedListener(this);
 		}
+		synchronized (this) {
+			fPendingChanges.clear();
+			fPendingRemovals.clear();
+		}
+		ITypeHierarchy hierarchy;
 		if (hierachyCreationNeeded) {
-			fHierarchy= createTypeHierarchy(elements, pm);
+			hierarchy= createTypeHierarchy(elements, pm);
 			if (pm != null && pm.isCanceled()) {
 				throw new OperationCanceledException();
 			}
 			fInputElements= elements;
 		} else {
-			fHierarchy.refresh(pm);
+			hierarchy= fHierarchy.getCoreHierarchy();
+			hierarchy.refresh(pm);
 			if (pm != null && pm.isCanceled())
 				throw new OperationCanceledException();
 		}
-		fHierarchy.addTypeHierarchyChangedListener(this);
+		if (isIncrementalUpdateSupported(elements)) {
+			// changes are applied from the element deltas, see elementChanged(ElementChangedEvent)
+			fHierarchy= new IncrementalTypeHierarchy(hierarchy);
+		} else {
+			fHierarchy= new CoreTypeHierarchyModel(hierarchy);
+			hierarchy.addTypeHierarchyChangedListener(this);
+		}
 		JavaCore.addElementChangedListener(this);
+		synchronized (this) {
+			fFullRefreshCount++;
+		}
 		fHierarchyRefreshNeeded= false;
 	}
 
+	private boolean isIncrementalUpdateSupported(IJavaElement[] elements) {
+		return !fIsSuperTypesOnly && elements.length == 1 && elements[0].getElementType() == IJavaElement.TYPE;
+	}
+
 	/*
 	 * @see ITypeHierarchyChangedListener#typeHierarchyChanged
 	 */
@@ -361,6 +444,14 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	@Override
 	public void elementChanged(ElementChangedEvent event) {
+		ITypeHierarchyModel hierarchy= fHierarchy;
+		if (hierarchy instanceof IncrementalTypeHierarchy) {
+			if (!fHierarchyRefreshNeeded) {
+				processIncrementalDelta(hierarchy, event.getDelta());
+			}
+			return;
+		}
+
 		if (fChangeListeners.isEmpty()) {
 			return;
 		}
@@ -442,5 +533,175 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		}
 	}
 
+	private void processIncrementalDelta(ITypeHierarchyModel hierarchy, IJavaElementDelta delta) {
+		ArrayList<IType> changedTypes= new ArrayList<>();
+		List<IJavaElement> changed= new ArrayList<>();
+		List<IJavaElement> removed= new ArrayList<>();
+		if (!collectHierarchyChanges(delta, changedTypes, changed, removed)) {
+			// e.g. a classpath change: recompute the hierarchy
+			typeHierarchyChanged(hierarchy.getCoreHierarchy());
+			return;
+		}
+		if (!changed.isEmpty() || !removed.isEmpty()) {
+			scheduleHierarchyUpdate(changed, removed);
+		}
+		if (changedTypes.size() > 0 && !fChangeListeners.isEmpty()) {
+			fireChange(changedTypes.toArray(new IType[changedTypes.size()]));
+		}
+	}
+
+	/*
+	 * Collects the elements that may contain types whose supertypes changed. Returns false if the
+	 * delta cannot be applied incrementally.
+	 */
+	private boolean collectHierarchyChanges(IJavaElementDelta delta, ArrayList<IType> changedTypes, List<IJavaElement> changed, List<IJavaElement> removed) {
+		IJavaElement element= delta.getElement();
+		int kind= delta.getKind();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				return collectChildrenHierarchyChanges(delta, changedTypes, changed, removed);
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (kind != IJavaElementDelta.CHANGED || (delta.getFlags() & CLASSPATH_CHANGE_FLAGS) != 0) {
+					return false;
+				}
+				return collectChildrenHierarchyChanges(delta, changedTypes, changed, removed);
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (kind == IJavaElementDelta.CHANGED) {
+					return collectChildrenHierarchyChanges(delta, changedTypes, changed, removed);
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				if (!JavaModelUtil.isPrimary((ICompilationUnit) element)) {
+					return true;
+				}
+				if (kind == IJavaElementDelta.CHANGED && !isPossibleStructuralChange(delta.getFlags())) {
+					return collectChildrenHierarchyChanges(delta, changedTypes, changed, removed);
+				}
+				break;
+			case IJavaElement.CLASS_FILE:
+				break;
+			case IJavaElement.TYPE:
+				if (kind == IJavaElementDelta.CHANGED) {
+					if ((delta.getFlags() & (IJavaElementDelta.F_SUPER_TYPES | IJavaElementDelta.F_MODIFIERS)) != 0) {
+						changed.add(element);
+					} else {
+						processTypeDelta((IType) element, changedTypes);
+					}
+					return collectChildrenHierarchyChanges(delta, changedTypes, changed, removed); // (inner types)
+				}
+				break;
+			default:
+				return true;
+		}
+		if (kind == IJavaElementDelta.REMOVED) {
+			removed.add(element);
+		} else {
+			changed.add(element);
+		}
+		return true;
+	}
+
+	private boolean collectChildrenHierarchyChanges(IJavaElementDelta delta, ArrayList<IType> changedTypes, List<IJavaElement> changed, List<IJavaElement> removed) {
+		IJavaElementDelta[] children= delta.getAffectedChildren();
+		for (int i= 0; i < children.length; i++) {
+			if (!collectHierarchyChanges(children[i], changedTypes, changed, removed)) { // recursive
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void scheduleHierarchyUpdate(Collection<IJavaElement> changed, Collection<IJavaElement> removed) {
+		synchronized (this) {
+			fPendingChanges.addAll(changed);
+			fPendingRemovals.addAll(removed);
+			String label= Messages.format(TypeHierarchyMessages.TypeHierarchyLifeCycle_updateInput, HistoryAction.getElementLabel(fInputElements));
+			if (fUpdateHierarchyJob == null) {
+				fUpdateHierarchyJob= new Job(label) {
+					@Override
+					public IStatus run(IProgressMonitor pm) {
+						return doHierarchyUpdate(pm);
+					}
+
+					@Override
+					public boolean belongsTo(Object family) {
+						return family == TypeHierarchyLifeCycle.this;
+					}
+				};
+				fUpdateHierarchyJob.setSystem(true);
+			} else {
+				fUpdateHierarchyJob.setName(label);
+			}
+			fUpdateHierarchyJob.schedule();
+		}
+	}
+
+	/**
+	 * Applies the pending changes to the hierarchy.
+	 *
+	 * @param pm the progress monitor
+	 * @return the status of the update
+	 */
+	private IStatus doHierarchyUpdate(IProgressMonitor pm) {
+		final IncrementalTypeHierarchy hierarchy;
+		List<IJavaElement> changed;
+		List<IJavaElement> removed;
+		synchronized (this) {
+			if (!(fHierarchy instanceof IncrementalTypeHierarchy) || fHierarchyRefreshNeeded
+					|| (fPendingChanges.isEmpty() && fPendingRemovals.isEmpty())) {
+				fPendingChanges.clear();
+				fPendingRemovals.clear();
+				return Status.OK_STATUS;
+			}
+			hierarchy= (IncrementalTypeHierarchy) fHierarchy;
+			changed= new ArrayList<>(fPendingChanges);
+			removed= new ArrayList<>(fPendingRemovals);
+			fPendingChanges.clear();
+			fPendingRemovals.clear();
+		}
+
+		IncrementalTypeHierarchy result;
+		try {
+			result= hierarchy.update(changed, removed, pm);
+		} catch (OperationCanceledException e) {
+			// the changes are lost
+			fHierarchyRefreshNeeded= true;
+			return Status.CANCEL_STATUS;
+		} catch (JavaModelException e) {
+			JavaPlugin.log(e);
+			result= null;
+		}
+		if (result == null) {
+			if (fHierarchy == hierarchy) {
+				typeHierarchyChanged(hierarchy.getCoreHierarchy());
+			}
+			return Status.OK_STATUS;
+		}
+
+		final IncrementalTypeHierarchy updated= result;
+
+		Runnable install= new Runnable() {
+			@Override
+			public void run() {
+				synchronized (TypeHierarchyLifeCycle.this) {
+					if (fHierarchy != hierarchy || fHierarchyRefreshNeeded) {
+						return;
+					}
+					fHierarchy= updated;
+					fIncrementalRefreshCount++;
+				}
+				fireChange(null);
+			}
+		};
+		if (fTypeHierarchyViewPart != null) {
+			// the viewers access the hierarchy in the UI thread
+			Display.getDefault().asyncExec(install);
+		} else {
+			install.run();
+		}
+		return Status.OK_STATUS;
+	}
+
 
 }
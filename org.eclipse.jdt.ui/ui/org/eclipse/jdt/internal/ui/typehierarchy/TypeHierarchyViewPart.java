@@ -106,7 +106,6 @@ import org.eclipse.ui.views.navigator.LocalSelectionTransfer;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
@@ -799,9 +798,9 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 			public void keyReleased(KeyEvent event) {
 				if (event.stateMask == 0) {
 					if (event.keyCode == SWT.F5) {
-						ITypeHierarchy hierarchy= fHierarchyLifeCycle.getHierarchy();
+						ITypeHierarchyModel hierarchy= fHierarchyLifeCycle.getHierarchy();
 						if (hierarchy != null) {
-							fHierarchyLifeCycle.typeHierarchyChanged(hierarchy);
+							fHierarchyLifeCycle.typeHierarchyChanged(hierarchy.getCoreHierarchy());
 							doTypeHierarchyChangedOnViewers(null);
 						}
 						updateHierarchyViewer(false);
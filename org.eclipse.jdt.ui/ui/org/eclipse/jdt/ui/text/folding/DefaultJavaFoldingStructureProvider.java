@@ -128,6 +128,16 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 			return fFirstType;
 		}
 
+		/**
+		 * Forgets the computed folding regions, the first type and the header comment.
+		 * @since 3.16.100
+		 */
+		private void reset() {
+			fFirstType= null;
+			fHasHeaderComment= false;
+			fMap.clear();
+		}
+
 		private boolean hasHeaderComment() {
 			return fHasHeaderComment;
 		}
@@ -365,13 +375,59 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 
 				fUpdatingCount++;
 				try {
-					update(createContext(false));
+					update(createContext(false), isIncremental() ? getChangedMembers(delta) : null);
 				} finally {
 					fUpdatingCount--;
 				}
 			}
 		}
 
+		/**
+		 * Returns the members whose folding regions must be recomputed if the delta only describes
+		 * changes within existing methods, fields and initializers.
+		 *
+		 * @param delta the Java element delta of the input element
+		 * @return the changed members, or <code>null</code> if the entire folding structure must be
+		 *         recomputed
+		 * @since 3.16.100
+		 */
+		private IMember[] getChangedMembers(IJavaElementDelta delta) {
+			if (!(fInput instanceof ICompilationUnit))
+				return null;
+
+			List<IMember> members= new ArrayList<>();
+			if (!collectChangedMembers(delta, members) || members.isEmpty())
+				return null;
+			return members.toArray(new IMember[members.size()]);
+		}
+
+		private boolean collectChangedMembers(IJavaElementDelta delta, List<IMember> members) {
+			if (delta.getKind() != IJavaElementDelta.CHANGED)
+				return false;
+
+			switch (delta.getElement().getElementType()) {
+				case IJavaElement.METHOD:
+				case IJavaElement.FIELD:
+				case IJavaElement.INITIALIZER:
+					// the children of the member are recomputed with it
+					members.add((IMember) delta.getElement());
+					return true;
+				case IJavaElement.COMPILATION_UNIT:
+				case IJavaElement.TYPE:
+					// the source of the unit or type itself must not have changed outside its children
+					if ((delta.getFlags() & ~(IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_FINE_GRAINED | IJavaElementDelta.F_AST_AFFECTED)) != 0)
+						return false;
+					IJavaElementDelta[] children= delta.getAffectedChildren();
+					for (int i= 0; i < children.length; i++) {
+						if (!collectChangedMembers(children[i], members))
+							return false;
+					}
+					return true;
+				default:
+					return false;
+			}
+		}
+
 		/**
 		 * Ignore the delta if there are errors on the caret line.
 		 * <p>
@@ -729,6 +785,15 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 
 	private volatile int fUpdatingCount= 0;
 
+	/**
+	 * Tells whether an update after changes within existing members only recomputes the folding
+	 * regions of these members and keeps the other regions, whose positions are updated by the
+	 * document. Subclasses always recompute the entire folding structure, since they may compute
+	 * regions that depend on other members.
+	 * @since 3.16.100
+	 */
+	private static final boolean INCREMENTAL_UPDATE= Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.ui.foldingIncremental", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	/**
 	 * Creates a new folding provider. It must be
 	 * {@link #install(ITextEditor, ProjectionViewer) installed} on an editor/viewer pair before it
@@ -842,7 +907,7 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 	public final void initialize() {
 		fUpdatingCount++;
 		try {
-			update(createInitialContext());
+			update(createInitialContext(), null);
 		} finally {
 			fUpdatingCount--;
 		}
@@ -889,7 +954,14 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		fCollapseHeaderComments= store.getBoolean(PreferenceConstants.EDITOR_FOLDING_HEADERS);
 	}
 
-	private void update(FoldingStructureComputationContext ctx) {
+	/**
+	 * Updates the folding structure.
+	 *
+	 * @param ctx the computation context, may be <code>null</code>
+	 * @param members the members whose folding regions changed, or <code>null</code> to update
+	 *            the entire folding structure
+	 */
+	private void update(FoldingStructureComputationContext ctx, IMember[] members) {
 		if (ctx == null)
 			return;
 
@@ -897,9 +969,14 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		List<JavaProjectionAnnotation> deletions= new ArrayList<>();
 		List<JavaProjectionAnnotation> updates= new ArrayList<>();
 
-		computeFoldingStructure(ctx);
+		if (members != null && !computeChangedFoldingStructure(members, ctx)) {
+			members= null;
+			ctx.reset();
+		}
+		if (members == null)
+			computeFoldingStructure(ctx);
 		Map<JavaProjectionAnnotation, Position> newStructure= ctx.fMap;
-		Map<IJavaElement, List<Tuple>> oldStructure= computeCurrentStructure(ctx);
+		Map<IJavaElement, List<Tuple>> oldStructure= computeCurrentStructure(ctx, members);
 
 		Iterator<JavaProjectionAnnotation> e= newStructure.keySet().iterator();
 		while (e.hasNext()) {
@@ -970,6 +1047,17 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		ctx.fScanner.setSource(null);
     }
 
+	/**
+	 * Tells whether the folding structure is updated incrementally, see
+	 * {@link #INCREMENTAL_UPDATE}.
+	 *
+	 * @return <code>true</code> if only the folding regions of changed members are recomputed
+	 * @since 3.16.100
+	 */
+	private boolean isIncremental() {
+		return INCREMENTAL_UPDATE && getClass() == DefaultJavaFoldingStructureProvider.class;
+	}
+
 	private void computeFoldingStructure(FoldingStructureComputationContext ctx) {
 		IParent parent= (IParent) fInput;
 		try {
@@ -985,6 +1073,34 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		}
 	}
 
+	/**
+	 * Computes the folding structure of the given members and their children only. The header
+	 * comment is not scanned again.
+	 *
+	 * @param members the members of the compilation unit input
+	 * @param ctx the computation context
+	 * @return <code>true</code> if the folding structure could be computed, <code>false</code>
+	 *         if the entire folding structure must be computed instead
+	 * @since 3.16.100
+	 */
+	private boolean computeChangedFoldingStructure(IMember[] members, FoldingStructureComputationContext ctx) {
+		ICompilationUnit unit= (ICompilationUnit) fInput;
+		try {
+			IType[] types= unit.getTypes();
+			String source= unit.getSource();
+			if (types.length == 0 || source == null)
+				return false;
+
+			// the first type is the first type in the unit, as in a full computation
+			ctx.setFirstType(types[0]);
+			ctx.getScanner().setSource(source.toCharArray());
+			computeFoldingStructure(members, ctx);
+			return true;
+		} catch (JavaModelException x) {
+			return false;
+		}
+	}
+
 	private void computeFoldingStructure(IJavaElement[] elements, FoldingStructureComputationContext ctx) throws JavaModelException {
 		for (int i= 0; i < elements.length; i++) {
 			IJavaElement element= elements[i];
@@ -1392,7 +1508,16 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		return null;
 	}
 
-	private Map<IJavaElement, List<Tuple>> computeCurrentStructure(FoldingStructureComputationContext ctx) {
+	/**
+	 * Returns the current folding structure.
+	 *
+	 * @param ctx the computation context
+	 * @param members the members to which to restrict the structure, or <code>null</code> for
+	 *            the entire structure
+	 * @return the current folding structure of the members and their children
+	 */
+	private Map<IJavaElement, List<Tuple>> computeCurrentStructure(FoldingStructureComputationContext ctx, IMember[] members) {
+		Set<IJavaElement> memberSet= members != null ? new HashSet<IJavaElement>(Arrays.asList(members)) : null;
 		Map<IJavaElement, List<Tuple>> map= new HashMap<>();
 		ProjectionAnnotationModel model= ctx.getModel();
 		Iterator<Annotation> e= model.getAnnotationIterator();
@@ -1400,6 +1525,8 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 			Object annotation= e.next();
 			if (annotation instanceof JavaProjectionAnnotation) {
 				JavaProjectionAnnotation java= (JavaProjectionAnnotation) annotation;
+				if (memberSet != null && !isWithin(java.getElement(), memberSet))
+					continue;
 				Position position= model.getPosition(java);
 				Assert.isNotNull(position);
 				List<Tuple> list= map.get(java.getElement());
@@ -1424,6 +1551,23 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		return map;
 	}
 
+	/**
+	 * Tells whether the given element is one of the given members or one of their descendants.
+	 *
+	 * @param element the element, may be <code>null</code>
+	 * @param members the members
+	 * @return <code>true</code> if the element is within the members
+	 * @since 3.16.100
+	 */
+	private static boolean isWithin(IJavaElement element, Set<IJavaElement> members) {
+		while (element != null && element.getElementType() > IJavaElement.COMPILATION_UNIT) {
+			if (members.contains(element))
+				return true;
+			element= element.getParent();
+		}
+		return false;
+	}
+
 	/*
 	 * @see IJavaFoldingStructureProviderExtension#collapseMembers()
 	 * @since 3.2
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptorProxy;
+import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryIndex;
+import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryManager;
+
+import junit.framework.TestCase;
+
+public class RefactoringHistoryIndexTests extends TestCase {
+
+	private static final class TestProxy extends RefactoringDescriptorProxy {
+
+		private final String fDescription;
+
+		private final long fStamp;
+
+		public TestProxy(String description, long stamp) {
+			fDescription= description;
+			fStamp= stamp;
+		}
+
+		@Override
+		public String getDescription() {
+			return fDescription;
+		}
+
+		@Override
+		public String getProject() {
+			return null;
+		}
+
+		@Override
+		public long getTimeStamp() {
+			return fStamp;
+		}
+	}
+
+	private File fFolder;
+
+	@Override
+	protected void setUp() throws Exception {
+		fFolder= Files.createTempDirectory("history").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		File[] files= fFolder.listFiles();
+		for (int i= 0; i < files.length; i++)
+			files[i].delete();
+		fFolder.delete();
+	}
+
+	private static List<RefactoringDescriptorProxy> createProxies(int count) {
+		List<RefactoringDescriptorProxy> proxies= new ArrayList<>(count);
+		for (int i= 0; i < count; i++)
+			proxies.add(new TestProxy("Rename type 'T" + i + "' to 'S\u00e9" + i + "'", 1000L * i));
+		return proxies;
+	}
+
+	public void testNoIndex() throws Exception {
+		RefactoringHistoryIndex index= new RefactoringHistoryIndex(fFolder);
+		assertFalse(index.exists());
+
+		index.append(1, "ignored");
+		assertFalse(index.exists());
+	}
+
+	public void testRangeQuery() throws Exception {
+		RefactoringHistoryIndex index= new RefactoringHistoryIndex(fFolder);
+		index.write(createProxies(100));
+		assertTrue(index.exists());
+
+		Set<RefactoringDescriptorProxy> set= new HashSet<>();
+		index.read(null, 10000, 19000, set);
+		assertEquals(10, set.size());
+		assertTrue(set.contains(new TestProxy("Rename type 'T10' to 'S\u00e910'", 10000)));
+		assertTrue(set.contains(new TestProxy("Rename type 'T19' to 'S\u00e919'", 19000)));
+
+		set.clear();
+		index.read(null, 0, Long.MAX_VALUE, set);
+		assertEquals(100, set.size());
+	}
+
+	public void testAppendAndInvalidate() throws Exception {
+		RefactoringHistoryIndex index= new RefactoringHistoryIndex(fFolder);
+		index.write(createProxies(2));
+		index.append(5000, "Move method 'm()'");
+
+		Set<RefactoringDescriptorProxy> set= new HashSet<>();
+		index.read(null, 0, Long.MAX_VALUE, set);
+		assertEquals(3, set.size());
+		assertTrue(set.contains(new TestProxy("Move method 'm()'", 5000)));
+
+		index.invalidate();
+		assertFalse(index.exists());
+	}
+
+	public void testRangeQueryOnUnsortedProxies() throws Exception {
+		List<RefactoringDescriptorProxy> proxies= createProxies(100);
+		Collections.reverse(proxies);
+		RefactoringHistoryIndex index= new RefactoringHistoryIndex(fFolder);
+		index.write(proxies);
+
+		List<RefactoringDescriptorProxy> list= new ArrayList<>();
+		index.read(null, 9500, 20500, list);
+		assertEquals(11, list.size());
+		for (int i= 0; i < list.size(); i++)
+			assertEquals(1000L * (10 + i), list.get(i).getTimeStamp());
+	}
+
+	public void testAppendOutOfOrderInvalidates() throws Exception {
+		RefactoringHistoryIndex index= new RefactoringHistoryIndex(fFolder);
+		index.write(createProxies(10));
+		index.append(500, "Move method 'm()'");
+		assertFalse(index.exists());
+	}
+
+	public void testRewriteWhileMapped() throws Exception {
+		RefactoringHistoryIndex index= new RefactoringHistoryIndex(fFolder);
+		index.write(createProxies(100));
+		Set<RefactoringDescriptorProxy> set= new HashSet<>();
+		index.read(null, 0, Long.MAX_VALUE, set);
+		assertEquals(100, set.size());
+
+		// the mapping of the read may still be alive
+		index.write(createProxies(10));
+		set.clear();
+		index.read(null, 0, Long.MAX_VALUE, set);
+		assertEquals(10, set.size());
+
+		index.invalidate();
+		assertFalse(index.exists());
+		index.write(createProxies(20));
+		set.clear();
+		index.read(null, 0, Long.MAX_VALUE, set);
+		assertEquals(20, set.size());
+
+		String[] names= fFolder.list();
+		for (int i= 0; i < names.length; i++)
+			assertTrue(names[i], RefactoringHistoryIndex.isIndexFile(names[i]));
+	}
+
+	public void testRangeQueryPerformance() throws Exception {
+		final int count= 100000;
+		List<RefactoringDescriptorProxy> proxies= createProxies(count);
+
+		ByteArrayOutputStream output= new ByteArrayOutputStream();
+		RefactoringHistoryManager.writeRefactoringDescriptorProxies(output, proxies.toArray(new RefactoringDescriptorProxy[count]));
+		byte[] textIndex= output.toByteArray();
+
+		RefactoringHistoryIndex index= new RefactoringHistoryIndex(fFolder);
+		index.write(proxies);
+
+		long start= System.nanoTime();
+		RefactoringDescriptorProxy[] textResult= RefactoringHistoryManager.readRefactoringDescriptorProxies(new ByteArrayInputStream(textIndex), null, 0, 1000L * (count / 100));
+		long textTime= System.nanoTime() - start;
+
+		start= System.nanoTime();
+		List<RefactoringDescriptorProxy> binaryResult= new ArrayList<>();
+		index.read(null, 0, 1000L * (count / 100), binaryResult);
+		long binaryTime= System.nanoTime() - start;
+
+		assertEquals(textResult.length, binaryResult.size());
+		System.out.println("Refactoring history range query on " + count + " entries: text index " + textTime / 1000000 + " ms, binary index " + binaryTime / 1000000 + " ms");
+	}
+}
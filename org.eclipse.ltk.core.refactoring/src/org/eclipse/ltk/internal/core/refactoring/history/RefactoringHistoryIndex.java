@@ -0,0 +1,410 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.internal.core.refactoring.history;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import org.eclipse.core.runtime.Assert;
+
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptorProxy;
+
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
+
+/**
+ * Binary index of the refactoring descriptor proxies of a refactoring history
+ * store.
+ * <p>
+ * The index consists of the following files in the root folder of the history
+ * store:
+ * <ul>
+ * <li>a header file with the format version and the generation of the
+ * current data files</li>
+ * <li>a stamp file per generation with fixed size records of a time stamp and
+ * the offset of the description in the description file, sorted by time
+ * stamp, which is memory-mapped to answer range queries without decoding any
+ * descriptions</li>
+ * <li>a description file per generation with the length-prefixed UTF-8
+ * encoded descriptions</li>
+ * </ul>
+ * The XML history and index files remain the authoritative storage of the
+ * history. The binary index is built from them if it does not exist yet, and
+ * is discarded whenever descriptors are removed from the history.
+ * </p>
+ * <p>
+ * The data files are never truncated or rewritten, since a mapping of a
+ * previous read may still be alive and prevent this on some platforms. The
+ * index is rather rebuilt into the files of a new generation, which only
+ * become current once the header file refers to them. Files of older
+ * generations are deleted as soon as possible.
+ * </p>
+ *
+ * @since 3.9.200
+ */
+public final class RefactoringHistoryIndex {
+
+	/** The name of the header file */
+	public static final String NAME_HEADER_FILE= "refactorings.index"; //$NON-NLS-1$
+
+	/** The name prefix of the stamp files */
+	public static final String NAME_STAMP_FILE= "refactorings.stamps."; //$NON-NLS-1$
+
+	/** The name prefix of the description files */
+	public static final String NAME_DESCRIPTION_FILE= "refactorings.descriptions."; //$NON-NLS-1$
+
+	/** The magic number of the header file */
+	private static final int MAGIC= 0x52484958; // "RHIX"
+
+	/** The version of the index format */
+	private static final int VERSION= 2;
+
+	/** The size of a record in the stamp file */
+	private static final int RECORD_SIZE= 16;
+
+	/**
+	 * The lock guarding the index files of all history stores. Clients which
+	 * change the XML files of a history store must hold it until they have
+	 * updated or invalidated the index, so that a concurrent rebuild does not
+	 * index the old contents.
+	 */
+	public static final Object LOCK= new Object();
+
+	/** The root folder of the history store */
+	private final File fFolder;
+
+	/** The header file */
+	private final File fHeaderFile;
+
+	/**
+	 * Creates a new refactoring history index.
+	 *
+	 * @param folder
+	 *            the root folder of the refactoring history store
+	 */
+	public RefactoringHistoryIndex(final File folder) {
+		Assert.isNotNull(folder);
+		fFolder= folder;
+		fHeaderFile= new File(folder, NAME_HEADER_FILE);
+	}
+
+	/**
+	 * Appends a refactoring descriptor proxy to the index. Does nothing if the
+	 * index does not exist. The index is discarded if the time stamp is older
+	 * than the last indexed one, so that the records stay sorted.
+	 *
+	 * @param stamp
+	 *            the time stamp of the refactoring
+	 * @param description
+	 *            the description of the refactoring
+	 * @throws IOException
+	 *             if an input/output error occurs
+	 */
+	public void append(final long stamp, final String description) throws IOException {
+		synchronized (LOCK) {
+			final long generation= readGeneration();
+			if (generation < 0)
+				return;
+			boolean sorted= true;
+			try (RandomAccessFile descriptions= new RandomAccessFile(getDescriptionFile(generation), "rw"); RandomAccessFile stamps= new RandomAccessFile(getStampFile(generation), "rw")) { //$NON-NLS-1$ //$NON-NLS-2$
+				// ignore a partially written record
+				final long length= stamps.length() - stamps.length() % RECORD_SIZE;
+				if (length > 0) {
+					stamps.seek(length - RECORD_SIZE);
+					if (stamps.readLong() > stamp)
+						sorted= false;
+				}
+				if (sorted) {
+					final long offset= descriptions.length();
+					descriptions.seek(offset);
+					final byte[] bytes= description.getBytes(StandardCharsets.UTF_8);
+					descriptions.writeInt(bytes.length);
+					descriptions.write(bytes);
+
+					stamps.seek(length);
+					stamps.writeLong(stamp);
+					stamps.writeLong(offset);
+				}
+			}
+			if (!sorted)
+				invalidate();
+		}
+	}
+
+	/**
+	 * Deletes the data files of all generations except the specified one.
+	 * Files which cannot be deleted yet are deleted by a later call.
+	 *
+	 * @param current
+	 *            the generation to keep, or <code>-1</code> to delete all
+	 */
+	private void deleteDataFiles(final long current) {
+		final String[] names= fFolder.list();
+		if (names == null)
+			return;
+		for (int index= 0; index < names.length; index++) {
+			final long generation= getGeneration(names[index]);
+			if (generation >= 0 && generation != current)
+				new File(fFolder, names[index]).delete();
+		}
+	}
+
+	/**
+	 * Determines whether the index exists and has a compatible format.
+	 *
+	 * @return <code>true</code> if the index can be used, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean exists() {
+		synchronized (LOCK) {
+			return readGeneration() >= 0;
+		}
+	}
+
+	/**
+	 * Returns the description file of the specified generation.
+	 *
+	 * @param generation
+	 *            the generation
+	 * @return the description file
+	 */
+	private File getDescriptionFile(final long generation) {
+		return new File(fFolder, NAME_DESCRIPTION_FILE + generation);
+	}
+
+	/**
+	 * Returns the generation of the data file with the specified name.
+	 *
+	 * @param name
+	 *            the name of the file
+	 * @return the generation, or <code>-1</code> if the file is no data file
+	 */
+	private static long getGeneration(final String name) {
+		final String suffix;
+		if (name.startsWith(NAME_STAMP_FILE))
+			suffix= name.substring(NAME_STAMP_FILE.length());
+		else if (name.startsWith(NAME_DESCRIPTION_FILE))
+			suffix= name.substring(NAME_DESCRIPTION_FILE.length());
+		else
+			return -1;
+		try {
+			return Long.parseLong(suffix);
+		} catch (NumberFormatException exception) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the stamp file of the specified generation.
+	 *
+	 * @param generation
+	 *            the generation
+	 * @return the stamp file
+	 */
+	private File getStampFile(final long generation) {
+		return new File(fFolder, NAME_STAMP_FILE + generation);
+	}
+
+	/**
+	 * Discards the index. It is rebuilt on the next call to
+	 * {@link #write(Collection)}.
+	 */
+	public void invalidate() {
+		synchronized (LOCK) {
+			if (fHeaderFile.exists() && !fHeaderFile.delete()) {
+				// the index would still be used
+				RefactoringCorePlugin.logErrorMessage("Could not delete refactoring history index " + fHeaderFile); //$NON-NLS-1$
+				return;
+			}
+			deleteDataFiles(-1);
+		}
+	}
+
+	/**
+	 * Determines whether the file with the specified name belongs to a binary
+	 * index.
+	 *
+	 * @param name
+	 *            the name of the file
+	 * @return <code>true</code> if the file belongs to a binary index,
+	 *         <code>false</code> otherwise
+	 */
+	public static boolean isIndexFile(final String name) {
+		return name.equals(NAME_HEADER_FILE) || getGeneration(name) >= 0;
+	}
+
+	/**
+	 * Reads the refactoring descriptor proxies whose time stamp lies in the
+	 * specified range. Only the records in the range are visited, and only
+	 * their descriptions are decoded.
+	 *
+	 * @param project
+	 *            the name of the project, or <code>null</code> for the
+	 *            workspace
+	 * @param start
+	 *            the start time stamp, inclusive
+	 * @param end
+	 *            the end time stamp, inclusive
+	 * @param collection
+	 *            the collection where to add the proxies
+	 * @throws IOException
+	 *             if an input/output error occurs
+	 */
+	public void read(final String project, final long start, final long end, final Collection<RefactoringDescriptorProxy> collection) throws IOException {
+		synchronized (LOCK) {
+			final long generation= readGeneration();
+			if (generation < 0)
+				throw new IOException("Missing refactoring history index"); //$NON-NLS-1$
+			try (RandomAccessFile stamps= new RandomAccessFile(getStampFile(generation), "r"); RandomAccessFile descriptions= new RandomAccessFile(getDescriptionFile(generation), "r")) { //$NON-NLS-1$ //$NON-NLS-2$
+				final FileChannel channel= stamps.getChannel();
+				final int count= (int) (channel.size() / RECORD_SIZE);
+				if (count <= 0)
+					return;
+				final MappedByteBuffer buffer= channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) count * RECORD_SIZE);
+
+				// the first record whose time stamp is not before the start
+				int low= 0;
+				int high= count;
+				while (low < high) {
+					final int middle= (low + high) >>> 1;
+					if (buffer.getLong(middle * RECORD_SIZE) < start)
+						low= middle + 1;
+					else
+						high= middle;
+				}
+
+				final FileChannel descriptionChannel= descriptions.getChannel();
+				final ByteBuffer lengthBuffer= ByteBuffer.allocate(4);
+				for (int index= low; index < count; index++) {
+					final int position= index * RECORD_SIZE;
+					final long stamp= buffer.getLong(position);
+					if (stamp > end)
+						break;
+					final long offset= buffer.getLong(position + 8);
+					lengthBuffer.clear();
+					readFully(descriptionChannel, lengthBuffer, offset);
+					final ByteBuffer bytes= ByteBuffer.allocate(lengthBuffer.getInt(0));
+					readFully(descriptionChannel, bytes, offset + 4);
+					final String description= new String(bytes.array(), StandardCharsets.UTF_8);
+					if (!"".equals(description)) //$NON-NLS-1$
+						collection.add(new DefaultRefactoringDescriptorProxy(description, project, stamp));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads bytes from a channel until the buffer is full.
+	 *
+	 * @param channel
+	 *            the channel to read from
+	 * @param buffer
+	 *            the buffer to fill
+	 * @param position
+	 *            the position in the channel
+	 * @throws IOException
+	 *             if an input/output error occurs, or the channel ends before
+	 *             the buffer is full
+	 */
+	private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+		long current= position;
+		while (buffer.hasRemaining()) {
+			final int read= channel.read(buffer, current);
+			if (read < 0)
+				throw new IOException("Unexpected end of refactoring history index"); //$NON-NLS-1$
+			current+= read;
+		}
+	}
+
+	/**
+	 * Reads the current generation from the header file.
+	 *
+	 * @return the current generation, or <code>-1</code> if the index does
+	 *         not exist or has an incompatible format
+	 */
+	private long readGeneration() {
+		if (!fHeaderFile.isFile())
+			return -1;
+		try (DataInputStream header= new DataInputStream(new FileInputStream(fHeaderFile))) {
+			if (header.readInt() != MAGIC || header.readInt() != VERSION)
+				return -1;
+			final long generation= header.readLong();
+			if (generation < 0 || !getStampFile(generation).isFile() || !getDescriptionFile(generation).isFile())
+				return -1;
+			return generation;
+		} catch (IOException exception) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Writes the index from scratch into the data files of a new generation
+	 * and makes it the current one.
+	 *
+	 * @param proxies
+	 *            the refactoring descriptor proxies of the history store
+	 * @throws IOException
+	 *             if an input/output error occurs
+	 */
+	public void write(final Collection<RefactoringDescriptorProxy> proxies) throws IOException {
+		synchronized (LOCK) {
+			fFolder.mkdirs();
+			long generation= 0;
+			final String[] names= fFolder.list();
+			if (names != null) {
+				for (int index= 0; index < names.length; index++)
+					generation= Math.max(generation, getGeneration(names[index]) + 1);
+			}
+
+			final RefactoringDescriptorProxy[] sorted= proxies.toArray(new RefactoringDescriptorProxy[proxies.size()]);
+			Arrays.sort(sorted, new Comparator<RefactoringDescriptorProxy>() {
+
+				@Override
+				public int compare(final RefactoringDescriptorProxy first, final RefactoringDescriptorProxy second) {
+					return Long.compare(first.getTimeStamp(), second.getTimeStamp());
+				}
+			});
+			try (DataOutputStream descriptions= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getDescriptionFile(generation))));
+					DataOutputStream stamps= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getStampFile(generation))))) {
+				long offset= 0;
+				for (int index= 0; index < sorted.length; index++) {
+					final byte[] bytes= sorted[index].getDescription().getBytes(StandardCharsets.UTF_8);
+					descriptions.writeInt(bytes.length);
+					descriptions.write(bytes);
+					stamps.writeLong(sorted[index].getTimeStamp());
+					stamps.writeLong(offset);
+					offset+= 4 + bytes.length;
+				}
+			}
+			try (DataOutputStream header= new DataOutputStream(new FileOutputStream(fHeaderFile))) {
+				header.writeInt(MAGIC);
+				header.writeInt(VERSION);
+				header.writeLong(generation);
+			}
+			deleteDataFiles(generation);
+		}
+	}
+}
@@ -16,6 +16,7 @@ package org.eclipse.ltk.internal.core.refactoring.history;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -816,74 +817,79 @@ public final class RefactoringHistoryManager {
 			monitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_updating_history, 18);
 			final long stamp= descriptor.getTimeStamp();
 			if (stamp >= 0) {
-				final IPath path= stampToPath(stamp);
-				final IFileStore folder= fHistoryStore.getFileStore(path);
-				final IFileStore history= folder.getChild(RefactoringHistoryService.NAME_HISTORY_FILE);
-				final IFileStore index= folder.getChild(RefactoringHistoryService.NAME_INDEX_FILE);
-				final RefactoringDescriptorProxy[] proxies= new RefactoringDescriptorProxy[] { new DefaultRefactoringDescriptorProxy(descriptor.getDescription(), descriptor.getProject(), descriptor.getTimeStamp())};
-				if (history.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)).exists()) {
-					InputStream input= null;
-					try {
-						input= new BufferedInputStream(history.openInputStream(EFS.NONE, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)));
-						final Document document= getCachedDocument(path, input);
+				// hold the lock until the binary index has been updated, a rebuild in between would index the descriptor twice
+				synchronized (RefactoringHistoryIndex.LOCK) {
+					final IPath path= stampToPath(stamp);
+					final IFileStore folder= fHistoryStore.getFileStore(path);
+					final IFileStore history= folder.getChild(RefactoringHistoryService.NAME_HISTORY_FILE);
+					final IFileStore index= folder.getChild(RefactoringHistoryService.NAME_INDEX_FILE);
+					final RefactoringDescriptorProxy[] proxies= new RefactoringDescriptorProxy[] { new DefaultRefactoringDescriptorProxy(descriptor.getDescription(), descriptor.getProject(), descriptor.getTimeStamp())};
+					if (history.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)).exists()) {
+						InputStream input= null;
 						try {
-							input.close();
-							input= null;
-						} catch (IOException exception) {
-							// Do nothing
-						}
-						monitor.worked(1);
-						final Document result= transformDescriptor(descriptor, false);
-						if (result != null) {
-							boolean found= false;
-							final NodeList list= result.getElementsByTagName(IRefactoringSerializationConstants.ELEMENT_REFACTORING);
-							final Element root= document.getDocumentElement();
-							if (sort) {
-								final String string= Long.toString(stamp);
-								for (int offset= 0; offset < list.getLength(); offset++) {
-									final Element element= (Element) list.item(offset);
-									final String attribute= element.getAttribute(IRefactoringSerializationConstants.ATTRIBUTE_STAMP);
-									if (attribute != null) {
-										if (string.compareTo(attribute) > 0) {
-											root.insertBefore(document.importNode(element, true), element);
-											found= true;
-											break;
-										}
-									}
-								}
-							}
-							if (!found)
-								root.appendChild(document.importNode(list.item(0), true));
-							writeHistoryEntry(history, document, new SubProgressMonitor(monitor, 10, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
-							if (sort) {
-								final Set<RefactoringDescriptorProxy> set= new HashSet<>(64);
-								readRefactoringDescriptorProxies(index, null, set, 0, Long.MAX_VALUE, new SubProgressMonitor(monitor, 2), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
-								writeIndexEntry(index, set.toArray(new RefactoringDescriptorProxy[set.size()]), EFS.NONE, new SubProgressMonitor(monitor, 3, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
-							} else
-								writeIndexEntry(index, proxies, EFS.APPEND, new SubProgressMonitor(monitor, 5, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
-						}
-					} catch (ParserConfigurationException exception) {
-						throw createCoreException(exception);
-					} catch (IOException exception) {
-						throw createCoreException(exception);
-					} catch (SAXException exception) {
-						throw createCoreException(exception);
-					} finally {
-						if (input != null) {
+							input= new BufferedInputStream(history.openInputStream(EFS.NONE, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)));
+							final Document document= getCachedDocument(path, input);
 							try {
 								input.close();
+								input= null;
 							} catch (IOException exception) {
 								// Do nothing
 							}
+							monitor.worked(1);
+							final Document result= transformDescriptor(descriptor, false);
+							if (result != null) {
+								boolean found= false;
+								final NodeList list= result.getElementsByTagName(IRefactoringSerializationConstants.ELEMENT_REFACTORING);
+								final Element root= document.getDocumentElement();
+								if (sort) {
+									final String string= Long.toString(stamp);
+									for (int offset= 0; offset < list.getLength(); offset++) {
+										final Element element= (Element) list.item(offset);
+										final String attribute= element.getAttribute(IRefactoringSerializationConstants.ATTRIBUTE_STAMP);
+										if (attribute != null) {
+											if (string.compareTo(attribute) > 0) {
+												root.insertBefore(document.importNode(element, true), element);
+												found= true;
+												break;
+											}
+										}
+									}
+								}
+								if (!found)
+									root.appendChild(document.importNode(list.item(0), true));
+								writeHistoryEntry(history, document, new SubProgressMonitor(monitor, 10, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
+								if (sort) {
+									final Set<RefactoringDescriptorProxy> set= new HashSet<>(64);
+									readRefactoringDescriptorProxies(index, null, set, 0, Long.MAX_VALUE, new SubProgressMonitor(monitor, 2), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
+									writeIndexEntry(index, set.toArray(new RefactoringDescriptorProxy[set.size()]), EFS.NONE, new SubProgressMonitor(monitor, 3, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
+								} else
+									writeIndexEntry(index, proxies, EFS.APPEND, new SubProgressMonitor(monitor, 5, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
+								appendBinaryIndexEntry(descriptor);
+							}
+						} catch (ParserConfigurationException exception) {
+							throw createCoreException(exception);
+						} catch (IOException exception) {
+							throw createCoreException(exception);
+						} catch (SAXException exception) {
+							throw createCoreException(exception);
+						} finally {
+							if (input != null) {
+								try {
+									input.close();
+								} catch (IOException exception) {
+									// Do nothing
+								}
+							}
+						}
+					} else {
+						try {
+							final Document result= transformDescriptor(descriptor, false);
+							writeHistoryEntry(history, result, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
+								writeIndexEntry(index, proxies, EFS.NONE, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
+							appendBinaryIndexEntry(descriptor);
+						} catch (IOException exception) {
+							throw createCoreException(exception);
 						}
-					}
-				} else {
-					try {
-						final Document result= transformDescriptor(descriptor, false);
-						writeHistoryEntry(history, result, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
-							writeIndexEntry(index, proxies, EFS.NONE, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL), RefactoringCoreMessages.RefactoringHistoryService_updating_history);
-					} catch (IOException exception) {
-						throw createCoreException(exception);
 					}
 				}
 			}
@@ -892,6 +898,25 @@ public final class RefactoringHistoryManager {
 		}
 	}
 
+	/**
+	 * Appends the specified refactoring descriptor to the binary index of the
+	 * managed history, if there is one.
+	 *
+	 * @param descriptor
+	 *            the refactoring descriptor
+	 */
+	private void appendBinaryIndexEntry(final RefactoringDescriptor descriptor) {
+		final RefactoringHistoryIndex index= getBinaryIndex(fHistoryStore);
+		if (index != null) {
+			try {
+				index.append(descriptor.getTimeStamp(), descriptor.getDescription());
+			} catch (IOException exception) {
+				RefactoringCorePlugin.log(exception);
+				index.invalidate();
+			}
+		}
+	}
+
 	/**
 	 * Returns the cached refactoring history document.
 	 *
@@ -950,6 +975,77 @@ public final class RefactoringHistoryManager {
 		}
 	}
 
+	/**
+	 * Returns the binary index of the specified history store.
+	 * <p>
+	 * Only history stores in the state location of the plug-in are indexed.
+	 * Shared refactoring histories are stored in the projects and may be
+	 * changed by other means, e.g. a version control system.
+	 * </p>
+	 *
+	 * @param store
+	 *            the history store
+	 * @return the binary index, or <code>null</code> if the store is not
+	 *         indexed
+	 */
+	private static RefactoringHistoryIndex getBinaryIndex(final IFileStore store) {
+		try {
+			final File file= store.toLocalFile(EFS.NONE, null);
+			if (file != null && RefactoringCorePlugin.getDefault().getStateLocation().isPrefixOf(new Path(file.getAbsolutePath())))
+				return new RefactoringHistoryIndex(file);
+		} catch (CoreException exception) {
+			// Do nothing
+		}
+		return null;
+	}
+
+	/**
+	 * Reads refactoring descriptor proxies from the specified history store,
+	 * using its binary index if possible. If the store has no binary index
+	 * yet, it is built from the XML index files.
+	 *
+	 * @param store
+	 *            the history store
+	 * @param project
+	 *            the name of the project, or <code>null</code> for the
+	 *            workspace
+	 * @param collection
+	 *            the collection of proxies
+	 * @param start
+	 *            the start time stamp, inclusive
+	 * @param end
+	 *            the end time stamp, inclusive
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @param task
+	 *            the task label to use
+	 * @throws CoreException
+	 *             if an error occurs
+	 */
+	private static void readIndexedRefactoringDescriptorProxies(final IFileStore store, final String project, final Collection<RefactoringDescriptorProxy> collection, final long start, final long end, final IProgressMonitor monitor, final String task) throws CoreException {
+		final RefactoringHistoryIndex index= getBinaryIndex(store);
+		if (index != null) {
+			try {
+				monitor.beginTask(task, 1);
+				synchronized (RefactoringHistoryIndex.LOCK) {
+					if (!index.exists()) {
+						final Set<RefactoringDescriptorProxy> proxies= new HashSet<>();
+						readRefactoringDescriptorProxies(store, null, proxies, 0, Long.MAX_VALUE, new SubProgressMonitor(monitor, 1), task);
+						index.write(proxies);
+					}
+					index.read(project, start, end, collection);
+				}
+				return;
+			} catch (IOException exception) {
+				RefactoringCorePlugin.log(exception);
+				index.invalidate();
+			} finally {
+				monitor.done();
+			}
+		}
+		readRefactoringDescriptorProxies(store, project, collection, start, end, new NullProgressMonitor(), task);
+	}
+
 	/**
 	 * Reads the refactoring history from disk.
 	 *
@@ -967,10 +1063,10 @@ public final class RefactoringHistoryManager {
 			final Set<RefactoringDescriptorProxy> set= new HashSet<>();
 			try {
 				if (fHistoryStore.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 20, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)).exists())
-					readRefactoringDescriptorProxies(fHistoryStore, fProjectName, set, start, end, new SubProgressMonitor(monitor, 80), RefactoringCoreMessages.RefactoringHistoryService_retrieving_history);
+					readIndexedRefactoringDescriptorProxies(fHistoryStore, fProjectName, set, start, end, new SubProgressMonitor(monitor, 80), RefactoringCoreMessages.RefactoringHistoryService_retrieving_history);
 				final IFileStore store= EFS.getLocalFileSystem().getStore(RefactoringCorePlugin.getDefault().getStateLocation()).getChild(RefactoringHistoryService.NAME_HISTORY_FOLDER).getChild(RefactoringHistoryService.NAME_WORKSPACE_PROJECT);
 				if (store.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 20, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)).exists())
-					readRefactoringDescriptorProxies(store, null, set, start, end, new SubProgressMonitor(monitor, 80), RefactoringCoreMessages.RefactoringHistoryService_retrieving_history);
+					readIndexedRefactoringDescriptorProxies(store, null, set, start, end, new SubProgressMonitor(monitor, 80), RefactoringCoreMessages.RefactoringHistoryService_retrieving_history);
 			} catch (CoreException exception) {
 				RefactoringCorePlugin.log(exception);
 			}
@@ -1087,32 +1183,38 @@ public final class RefactoringHistoryManager {
 	 *             if an error occurs
 	 */
 	void removeRefactoringDescriptors(final RefactoringDescriptorProxy[] proxies, final IProgressMonitor monitor, final String task) throws CoreException {
-		try {
-			final Map<IPath, Collection<RefactoringDescriptorProxy>> paths= new HashMap<>();
-			monitor.beginTask(task, proxies.length + 300);
-			for (int index= 0; index < proxies.length; index++) {
-				final IPath path= stampToPath(proxies[index].getTimeStamp());
-				Collection<RefactoringDescriptorProxy> collection= paths.get(path);
-				if (collection == null) {
-					collection= new ArrayList<>(64);
-					paths.put(path, collection);
-				}
-				collection.add(proxies[index]);
-			}
-			final IProgressMonitor subMonitor= new SubProgressMonitor(monitor, 300);
+		synchronized (RefactoringHistoryIndex.LOCK) {
 			try {
-				final Set<Entry<IPath, Collection<RefactoringDescriptorProxy>>> entries= paths.entrySet();
-				subMonitor.beginTask(task, entries.size());
-				for (final Iterator<Entry<IPath, Collection<RefactoringDescriptorProxy>>> iterator= entries.iterator(); iterator.hasNext();) {
-					final Entry<IPath, Collection<RefactoringDescriptorProxy>> entry= iterator.next();
-					final Collection<RefactoringDescriptorProxy> collection= entry.getValue();
-					removeRefactoringDescriptors(collection.toArray(new RefactoringDescriptorProxy[collection.size()]), entry.getKey(), new SubProgressMonitor(subMonitor, 1), task);
+				final Map<IPath, Collection<RefactoringDescriptorProxy>> paths= new HashMap<>();
+				monitor.beginTask(task, proxies.length + 300);
+				for (int index= 0; index < proxies.length; index++) {
+					final IPath path= stampToPath(proxies[index].getTimeStamp());
+					Collection<RefactoringDescriptorProxy> collection= paths.get(path);
+					if (collection == null) {
+						collection= new ArrayList<>(64);
+						paths.put(path, collection);
+					}
+					collection.add(proxies[index]);
+				}
+				final IProgressMonitor subMonitor= new SubProgressMonitor(monitor, 300);
+				try {
+					final Set<Entry<IPath, Collection<RefactoringDescriptorProxy>>> entries= paths.entrySet();
+					subMonitor.beginTask(task, entries.size());
+					for (final Iterator<Entry<IPath, Collection<RefactoringDescriptorProxy>>> iterator= entries.iterator(); iterator.hasNext();) {
+						final Entry<IPath, Collection<RefactoringDescriptorProxy>> entry= iterator.next();
+						final Collection<RefactoringDescriptorProxy> collection= entry.getValue();
+						removeRefactoringDescriptors(collection.toArray(new RefactoringDescriptorProxy[collection.size()]), entry.getKey(), new SubProgressMonitor(subMonitor, 1), task);
+					}
+				} finally {
+					subMonitor.done();
 				}
 			} finally {
-				subMonitor.done();
+				// invalidate after the removal, a rebuild in between would index the removed descriptors
+				final RefactoringHistoryIndex binaryIndex= getBinaryIndex(fHistoryStore);
+				if (binaryIndex != null)
+					binaryIndex.invalidate();
+				monitor.done();
 			}
-		} finally {
-			monitor.done();
 		}
 	}
 
@@ -259,6 +259,12 @@ public final class RefactoringHistoryService implements IRefactoringHistoryServi
 							destination.mkdir(EFS.NONE, new SubProgressMonitor(monitor, 20));
 							source.copy(destination, EFS.OVERWRITE, new SubProgressMonitor(monitor, 20));
 							source.delete(EFS.NONE, new SubProgressMonitor(monitor, 20));
+							// the binary index is local to the workspace and must not be shared
+							final String[] names= destination.childNames(EFS.NONE, null);
+							for (int index= 0; index < names.length; index++) {
+								if (RefactoringHistoryIndex.isIndexFile(names[index]))
+									destination.getChild(names[index]).delete(EFS.NONE, null);
+							}
 						}
 					} else {
 						final IFileStore source= EFS.getStore(uri).getChild(NAME_HISTORY_FOLDER);